@@ -728,6 +728,11 @@ public final class KRADConstants {
         public static final String KRAD_VIEW_LIFECYCLE_TIMEOUT = "rice.krad.lifecycle.asynchronous.timeout";
         public static final String KRAD_COPY_DELAY = "rice.krad.copyable.delay";
         public static final String KRAD_INCLUDE_LESS = "rice.krad.include.less";
+        public static final String KRAD_EXPRESSION_CACHE_SIZE = "rice.krad.expression.cache.size";
+        public static final String KRAD_DICTIONARY_SNAPSHOT_DIRECTORY = "rice.krad.dictionary.snapshot.directory";
+        public static final String KRAD_DICTIONARY_LOAD_THREADS = "rice.krad.dictionary.load.threads";
+        public static final String KRAD_MAINTAINABLE_CONTENT_SERIALIZER_ENABLED =
+                "rice.krad.maintainable.content.serializer.enabled";
         public static final String SCHEMA_PACKAGES = "rice.krad.schema.packages";
     }
 
@@ -16,6 +16,7 @@
 package org.kuali.rice.krad.data.platform;
 
 import org.apache.commons.lang.StringUtils;
+import org.apache.log4j.Logger;
 import org.kuali.rice.core.api.config.property.ConfigContext;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.dao.DataAccessException;
@@ -23,8 +24,10 @@ import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.dao.IncorrectResultSizeDataAccessException;
 import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.support.JdbcUtils;
 import org.springframework.jdbc.support.incrementer.AbstractColumnMaxValueIncrementer;
+import org.springframework.jdbc.support.incrementer.AbstractDataFieldMaxValueIncrementer;
 import org.springframework.jdbc.support.incrementer.AbstractSequenceMaxValueIncrementer;
 import org.springframework.jdbc.support.incrementer.DataFieldMaxValueIncrementer;
 import org.springframework.jdbc.support.incrementer.OracleSequenceMaxValueIncrementer;
@@ -36,9 +39,11 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Collections;
 import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Factory for obtaining instances of {@link DataFieldMaxValueIncrementer} for a given {@link DataSource} and
@@ -60,10 +65,17 @@ import java.util.concurrent.ConcurrentMap;
  * combination.
  * </p>
  *
+ * <p>
+ * The built-in Oracle and MySQL incrementers can optionally reserve a block of values per database round trip, see
+ * {@link #PLATFORM_INCREMENTER_BLOCK_SIZE}.
+ * </p>
+ *
  * @author Kuali Rice Team (rice.collab@kuali.org)
  */
 public final class MaxValueIncrementerFactory {
 
+    private static final Logger LOG = Logger.getLogger(MaxValueIncrementerFactory.class);
+
     private static final String ID_COLUMN_NAME = "ID";
 
     /**
@@ -76,6 +88,19 @@ public final class MaxValueIncrementerFactory {
      */
     public static final String PLATFORM_INCREMENTER_PREFIX = "rice.krad.data.platform.incrementer.";
 
+    /**
+     * Name of the property holding the number of values the built-in Oracle and MySQL incrementers reserve per
+     * database round trip.
+     *
+     * <p>The block size for a single incrementer can be set by concatenating this name, a period and the
+     * (case-insensitive) incrementer name.  A block size of 1, the default, fetches every value from the database.
+     * Values reserved in a block which are not used before shutdown are lost, and values handed out by different
+     * application nodes are no longer in increasing order across nodes.</p>
+     */
+    public static final String PLATFORM_INCREMENTER_BLOCK_SIZE = "rice.krad.data.platform.incrementerBlockSize";
+
+    private static final int DEFAULT_BLOCK_SIZE = 1;
+
     private static final Map<DataSource, ConcurrentMap<String, DataFieldMaxValueIncrementer>> cache
             = Collections.synchronizedMap(new IdentityHashMap<DataSource, ConcurrentMap<String, DataFieldMaxValueIncrementer>>(8));
 
@@ -138,10 +163,19 @@ public final class MaxValueIncrementerFactory {
             return incrementer;
         }
 
+        int blockSize = getBlockSize(incrementerName);
         if (DatabasePlatforms.ORACLE.equalsIgnoreCase(platformInfo.getName())) {
-            incrementer = new OracleSequenceMaxValueIncrementer(dataSource, incrementerName);
+            if (blockSize > 1) {
+                incrementer = new BlockOracleSequenceMaxValueIncrementer(dataSource, incrementerName, blockSize);
+            } else {
+                incrementer = new OracleSequenceMaxValueIncrementer(dataSource, incrementerName);
+            }
         } else if (DatabasePlatforms.MYSQL.equalsIgnoreCase(platformInfo.getName())) {
-            incrementer = new EnhancedMySQLMaxValueIncrementer(dataSource, incrementerName, ID_COLUMN_NAME);
+            if (blockSize > 1 && BlockMySQLMaxValueIncrementer.isSupported(dataSource, incrementerName)) {
+                incrementer = new BlockMySQLMaxValueIncrementer(dataSource, incrementerName, blockSize);
+            } else {
+                incrementer = new EnhancedMySQLMaxValueIncrementer(dataSource, incrementerName, ID_COLUMN_NAME);
+            }
         }
         if (incrementer == null) {
             throw new UnsupportedDatabasePlatformException(platformInfo);
@@ -160,6 +194,44 @@ public final class MaxValueIncrementerFactory {
         return incrementer;
     }
 
+    /**
+     * Determines the number of values to reserve per database round trip for the given incrementer.
+     *
+     * @param incrementerName the name of the incrementer.
+     * @return the block size configured for the incrementer, or else the default block size, or else 1.
+     * @throws IllegalArgumentException if the configured block size is not a positive integer.
+     */
+    static int getBlockSize(String incrementerName) {
+        if (ConfigContext.getCurrentContextConfig() == null) {
+            return DEFAULT_BLOCK_SIZE;
+        }
+        Map<String, String> blockSizes = ConfigContext.getCurrentContextConfig().getPropertiesWithPrefix(
+                PLATFORM_INCREMENTER_BLOCK_SIZE + ".", true);
+        String blockSize = null;
+        for (Map.Entry<String, String> entry : blockSizes.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(incrementerName)) {
+                blockSize = entry.getValue();
+                break;
+            }
+        }
+        if (StringUtils.isBlank(blockSize)) {
+            blockSize = ConfigContext.getCurrentContextConfig().getProperty(PLATFORM_INCREMENTER_BLOCK_SIZE);
+        }
+        if (StringUtils.isBlank(blockSize)) {
+            return DEFAULT_BLOCK_SIZE;
+        }
+        try {
+            int size = Integer.parseInt(blockSize.trim());
+            if (size > 0) {
+                return size;
+            }
+        } catch (NumberFormatException e) {
+            // fall through
+        }
+        throw new IllegalArgumentException("Incrementer block size for " + incrementerName
+                + " must be a positive integer but was " + blockSize);
+    }
+
     /**
      * Checks the config file for any references to
      * {@code rice.krad.data.platform.incrementer.(DATASOURCE, ex mysql, oracle).(VERSION optional)}.
@@ -288,6 +360,250 @@ public final class MaxValueIncrementerFactory {
         }
     }
 
+    /**
+     * Base class for incrementers which reserve a block of values from the database at a time and hand them out from
+     * memory.
+     *
+     * <p>
+     * Values are handed out from the current block without locking; only the thread which finds the block exhausted
+     * reserves the next one, while any other threads needing a value wait for it.
+     * </p>
+     */
+    abstract static class BlockMaxValueIncrementer extends AbstractDataFieldMaxValueIncrementer {
+
+        private final int blockSize;
+        private volatile Block block;
+
+        /**
+         * Creates an incrementer reserving the given number of values at a time.
+         *
+         * @param dataSource the {@link DataSource} for which to retrieve the incrementer.
+         * @param incrementerName the name of the incrementer.
+         * @param blockSize the number of values to reserve per database round trip.
+         */
+        BlockMaxValueIncrementer(DataSource dataSource, String incrementerName, int blockSize) {
+            super(dataSource, incrementerName);
+            if (blockSize <= 0) {
+                throw new IllegalArgumentException("Block size must be positive");
+            }
+            this.blockSize = blockSize;
+        }
+
+        /**
+         * Gets the number of values reserved per database round trip.
+         *
+         * @return the number of values reserved per database round trip.
+         */
+        public int getBlockSize() {
+            return blockSize;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected long getNextKey() throws DataAccessException {
+            while (true) {
+                Block current = block;
+                if (current != null) {
+                    int index = current.next.getAndIncrement();
+                    if (index < current.values.length) {
+                        return current.values[index];
+                    }
+                }
+                synchronized (this) {
+                    if (block == current) {
+                        long[] values = reserveBlock(blockSize);
+                        if (values == null || values.length == 0) {
+                            throw new IncorrectResultSizeDataAccessException("Failed to reserve values for incrementer '"
+                                    + getIncrementerName() + "'", blockSize);
+                        }
+                        block = new Block(values);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Reserves the next values of this incrementer in the database.
+         *
+         * @param blockSize the number of values to reserve.
+         * @return the reserved values, in the order in which they are to be handed out.
+         * @throws DataAccessException if the values could not be reserved.
+         */
+        protected abstract long[] reserveBlock(int blockSize) throws DataAccessException;
+
+        /**
+         * A block of reserved values along with the index of the next value to hand out.
+         */
+        private static final class Block {
+
+            private final long[] values;
+            private final AtomicInteger next = new AtomicInteger();
+
+            private Block(long[] values) {
+                this.values = values;
+            }
+        }
+    }
+
+    /**
+     * Defines an incrementer for Oracle which reserves a block of values from a sequence with a single query.
+     */
+    static final class BlockOracleSequenceMaxValueIncrementer extends BlockMaxValueIncrementer {
+
+        private JdbcTemplate template;
+
+        /**
+         * Creates a block reserving incrementer for Oracle.
+         *
+         * @param dataSource the {@link DataSource} for which to retrieve the incrementer.
+         * @param incrementerName the name of the sequence.
+         * @param blockSize the number of values to reserve per database round trip.
+         */
+        private BlockOracleSequenceMaxValueIncrementer(DataSource dataSource, String incrementerName, int blockSize) {
+            super(dataSource, incrementerName, blockSize);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public synchronized void afterPropertiesSet() {
+            super.afterPropertiesSet();
+            template = new JdbcTemplate(getDataSource());
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected long[] reserveBlock(int blockSize) throws DataAccessException {
+            List<Long> values = template.queryForList("SELECT " + getIncrementerName()
+                    + ".NEXTVAL FROM DUAL CONNECT BY LEVEL <= ?", Long.class, blockSize);
+            long[] block = new long[values.size()];
+            for (int i = 0; i < block.length; i++) {
+                block[i] = values.get(i).longValue();
+            }
+            return block;
+        }
+    }
+
+    /**
+     * Defines an incrementer for MySQL which reserves a block of values from a sequence table with a single multi-row
+     * insert.
+     *
+     * <p>
+     * MySQL assigns consecutive auto increment values to the rows of a multi-row insert, and the last insert ID is the
+     * value of the first of them, as long as {@code innodb_autoinc_lock_mode} is 0 or 1 (the default before MySQL 8)
+     * and {@code auto_increment_increment} is 1.  The factory checks both with {@link #isSupported(DataSource, String)}
+     * and falls back to {@link EnhancedMySQLMaxValueIncrementer} otherwise.
+     * </p>
+     */
+    static final class BlockMySQLMaxValueIncrementer extends BlockMaxValueIncrementer {
+
+        private JdbcTemplate template;
+        private String insertSql;
+
+        /**
+         * Determines whether the server assigns consecutive auto increment values to the rows of a multi-row insert.
+         *
+         * <p>With {@code innodb_autoinc_lock_mode} 2 (interleaved, the default as of MySQL 8) concurrent inserts may
+         * interleave their values, and with an {@code auto_increment_increment} other than 1 the values are not
+         * adjacent, so the values of a block can not be derived from the last insert ID.</p>
+         *
+         * @param dataSource the {@link DataSource} of the sequence table.
+         * @param incrementerName the name of the sequence table.
+         * @return true if blocks can be reserved with a multi-row insert, false if the server settings do not allow it
+         *         or could not be read.
+         */
+        static boolean isSupported(DataSource dataSource, final String incrementerName) {
+            try {
+                Boolean supported = new JdbcTemplate(dataSource).queryForObject(
+                        "SELECT @@innodb_autoinc_lock_mode, @@auto_increment_increment", new RowMapper<Boolean>() {
+                    @Override
+                    public Boolean mapRow(ResultSet resultSet, int rowNum) throws SQLException {
+                        int lockMode = resultSet.getInt(1);
+                        int increment = resultSet.getInt(2);
+                        if (lockMode != 0 && lockMode != 1) {
+                            LOG.warn("innodb_autoinc_lock_mode is " + lockMode + ", reserving single values for "
+                                    + "incrementer '" + incrementerName + "' instead of blocks");
+                            return Boolean.FALSE;
+                        }
+                        if (increment != 1) {
+                            LOG.warn("auto_increment_increment is " + increment + ", reserving single values for "
+                                    + "incrementer '" + incrementerName + "' instead of blocks");
+                            return Boolean.FALSE;
+                        }
+                        return Boolean.TRUE;
+                    }
+                });
+                return Boolean.TRUE.equals(supported);
+            } catch (DataAccessException e) {
+                LOG.warn("Unable to read the auto increment settings of the database, reserving single values for "
+                        + "incrementer '" + incrementerName + "' instead of blocks", e);
+                return false;
+            }
+        }
+
+        /**
+         * Creates a block reserving incrementer for MySQL.
+         *
+         * @param dataSource the {@link DataSource} for which to retrieve the incrementer.
+         * @param incrementerName the name of the sequence table.
+         * @param blockSize the number of values to reserve per database round trip.
+         */
+        private BlockMySQLMaxValueIncrementer(DataSource dataSource, String incrementerName, int blockSize) {
+            super(dataSource, incrementerName, blockSize);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public synchronized void afterPropertiesSet() {
+            super.afterPropertiesSet();
+            template = new JdbcTemplate(getDataSource());
+            StringBuilder sql = new StringBuilder("INSERT INTO ").append(getIncrementerName()).append(" VALUES (NULL)");
+            for (int i = 1; i < getBlockSize(); i++) {
+                sql.append(",(NULL)");
+            }
+            insertSql = sql.toString();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected long[] reserveBlock(final int blockSize) throws DataAccessException {
+            long first = template.execute(new ConnectionCallback<Long>() {
+                @Override
+                public Long doInConnection(Connection con) throws SQLException, DataAccessException {
+                    Statement statement = null;
+                    ResultSet resultSet = null;
+                    try {
+                        statement = con.createStatement();
+                        statement.executeUpdate(insertSql);
+                        resultSet = statement.executeQuery("SELECT LAST_INSERT_ID()");
+                        if (resultSet != null && resultSet.next()) {
+                            return resultSet.getLong(1);
+                        } else {
+                            throw new IncorrectResultSizeDataAccessException("Failed to get last_insert_id() for sequence incrementer table '" + getIncrementerName() + "'", 1);
+                        }
+                    } finally {
+                        JdbcUtils.closeResultSet(resultSet);
+                        JdbcUtils.closeStatement(statement);
+                    }
+                }
+            }).longValue();
+            long[] block = new long[blockSize];
+            for (int i = 0; i < blockSize; i++) {
+                block[i] = first + i;
+            }
+            return block;
+        }
+    }
+
     /**
      * No-op constructor for final class.
      */
@@ -36,9 +36,21 @@ import javax.sql.DataSource;
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.mock;
@@ -72,6 +84,17 @@ public class MaxValueIncrementerFactoryTest {
         when(dataSource.getConnection()).thenReturn(connection);
     }
 
+    private void setUpAutoIncrementSettings(DataSource dataSource, int lockMode, int increment) throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(true, false);
+        when(resultSet.getInt(1)).thenReturn(lockMode);
+        when(resultSet.getInt(2)).thenReturn(increment);
+        Statement statement = mock(Statement.class);
+        when(statement.executeQuery("SELECT @@innodb_autoinc_lock_mode, @@auto_increment_increment")).thenReturn(
+                resultSet);
+        when(dataSource.getConnection().createStatement()).thenReturn(statement);
+    }
+
 
     @Test
     public void testGetIncrementer_Oracle() throws Exception {
@@ -186,6 +209,117 @@ public class MaxValueIncrementerFactoryTest {
         assertTrue("Cannot create incrementer", mySQLMaxVal == null);
     }
 
+    @Test
+    public void testGetIncrementer_BlockSize() throws Exception {
+        SimpleConfig config = new SimpleConfig();
+        config.putProperty(MaxValueIncrementerFactory.PLATFORM_INCREMENTER_BLOCK_SIZE, "20");
+        config.putProperty(MaxValueIncrementerFactory.PLATFORM_INCREMENTER_BLOCK_SIZE + ".block_seq", "50");
+        config.putProperty(MaxValueIncrementerFactory.PLATFORM_INCREMENTER_BLOCK_SIZE + ".SINGLE_SEQ", "1");
+        ConfigContext.init(config);
+
+        DataFieldMaxValueIncrementer incrementer = MaxValueIncrementerFactory.getIncrementer(oracle, "BLOCK_SEQ");
+        assertTrue(incrementer instanceof MaxValueIncrementerFactory.BlockOracleSequenceMaxValueIncrementer);
+        assertEquals(50, ((MaxValueIncrementerFactory.BlockMaxValueIncrementer) incrementer).getBlockSize());
+
+        setUpAutoIncrementSettings(mysql, 1, 1);
+        incrementer = MaxValueIncrementerFactory.getIncrementer(mysql, "OTHER_SEQ");
+        assertTrue(incrementer instanceof MaxValueIncrementerFactory.BlockMySQLMaxValueIncrementer);
+        assertEquals(20, ((MaxValueIncrementerFactory.BlockMaxValueIncrementer) incrementer).getBlockSize());
+
+        incrementer = MaxValueIncrementerFactory.getIncrementer(mysql, "SINGLE_SEQ");
+        assertTrue(incrementer instanceof MaxValueIncrementerFactory.EnhancedMySQLMaxValueIncrementer);
+    }
+
+    @Test
+    public void testGetIncrementer_BlockSizeUnsupportedAutoIncrement() throws Exception {
+        SimpleConfig config = new SimpleConfig();
+        config.putProperty(MaxValueIncrementerFactory.PLATFORM_INCREMENTER_BLOCK_SIZE, "20");
+        ConfigContext.init(config);
+
+        // interleaved lock mode, the default as of MySQL 8, does not assign consecutive values to a multi-row insert
+        DataSource interleaved = mock(DataSource.class);
+        setUpMetaData(interleaved, DatabasePlatforms.MYSQL, 8);
+        setUpAutoIncrementSettings(interleaved, 2, 1);
+        assertTrue(MaxValueIncrementerFactory.getIncrementer(interleaved, "MY_SEQUENCE")
+                instanceof MaxValueIncrementerFactory.EnhancedMySQLMaxValueIncrementer);
+
+        DataSource increment = mock(DataSource.class);
+        setUpMetaData(increment, DatabasePlatforms.MYSQL, 5);
+        setUpAutoIncrementSettings(increment, 1, 2);
+        assertTrue(MaxValueIncrementerFactory.getIncrementer(increment, "MY_SEQUENCE")
+                instanceof MaxValueIncrementerFactory.EnhancedMySQLMaxValueIncrementer);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetIncrementer_InvalidBlockSize() throws Exception {
+        SimpleConfig config = new SimpleConfig();
+        config.putProperty(MaxValueIncrementerFactory.PLATFORM_INCREMENTER_BLOCK_SIZE, "0");
+        ConfigContext.init(config);
+
+        MaxValueIncrementerFactory.getIncrementer(mysql, "MY_SEQUENCE");
+    }
+
+    @Test
+    public void testBlockIncrementer_Concurrent() throws Exception {
+        final CountingBlockIncrementer incrementer = new CountingBlockIncrementer(mysql, 7);
+        incrementer.afterPropertiesSet();
+        final Set<Long> values = Collections.newSetFromMap(new ConcurrentHashMap<Long, Boolean>());
+        final int threads = 8;
+        final int valuesPerThread = 1000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<Future<?>>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        for (int j = 0; j < valuesPerThread; j++) {
+                            assertTrue(values.add(Long.valueOf(incrementer.nextLongValue())));
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        int total = threads * valuesPerThread;
+        assertEquals(total, values.size());
+        // every block is used up before the next one is reserved
+        assertEquals((total + 6) / 7, incrementer.reservations.get());
+        for (long value = 1; value <= total; value++) {
+            assertTrue(values.contains(Long.valueOf(value)));
+        }
+    }
+
+    /**
+     * Block incrementer which reserves consecutive values from memory.
+     */
+    private static final class CountingBlockIncrementer extends MaxValueIncrementerFactory.BlockMaxValueIncrementer {
+
+        private final AtomicInteger reservations = new AtomicInteger();
+        private long last;
+
+        CountingBlockIncrementer(DataSource dataSource, int blockSize) {
+            super(dataSource, "COUNTING_SEQ", blockSize);
+        }
+
+        @Override
+        protected long[] reserveBlock(int blockSize) throws DataAccessException {
+            reservations.incrementAndGet();
+            long[] block = new long[blockSize];
+            for (int i = 0; i < blockSize; i++) {
+                block[i] = ++last;
+            }
+            return block;
+        }
+    }
+
     @After
     public void clearContext(){
         ConfigContext.destroy();
@@ -0,0 +1,808 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.krad.service.impl;
+
+import com.thoughtworks.xstream.converters.reflection.PureJavaReflectionProvider;
+import com.thoughtworks.xstream.converters.reflection.ReflectionProvider;
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.kuali.rice.krad.data.provider.annotation.SerializationContext;
+import org.kuali.rice.krad.data.provider.annotation.Serialized;
+import org.kuali.rice.krad.service.LegacyDataAdapter;
+import org.kuali.rice.krad.service.MaintainableContentSerializer;
+import org.springframework.beans.factory.annotation.Required;
+
+import javax.persistence.Transient;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Maintainable content serializer which writes data objects in a compact, versioned binary form.
+ *
+ * <p>
+ * Fields are selected as for the XML written by {@link DataObjectSerializerServiceImpl}: all non-static, non-transient
+ * fields, less those annotated {@link Transient} and not {@link Serialized} for maintenance, and those annotated as
+ * not {@link Serialized} for maintenance. Proxied values are resolved through the {@link LegacyDataAdapter}. The
+ * fields of each class are looked up once, and written by name the first time the class appears in the content, so
+ * content written before a field was added or removed can still be read: values of fields the class no longer has
+ * are skipped and fields added since keep their initial value.
+ * </p>
+ *
+ * <p>
+ * The content is deflated and Base64 encoded in a {@code binaryDataObject} element, so the maintenance document
+ * contents remain well formed XML. Objects are instantiated as XStream instantiates them, so data objects need not
+ * have a default constructor. Serializable classes with their own serialization methods, such as Joda-Time
+ * chronologies, are written with Java serialization.
+ * </p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class BinaryMaintainableContentSerializer implements MaintainableContentSerializer {
+    private static final Log LOG = LogFactory.getLog(BinaryMaintainableContentSerializer.class);
+
+    /**
+     * Name of the element holding the encoded content.
+     */
+    public static final String ELEMENT_NAME = "binaryDataObject";
+
+    /**
+     * Version of the binary format written, stored with the content.
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    private static final String START_TAG_PREFIX = "<" + ELEMENT_NAME;
+    private static final String END_TAG = "</" + ELEMENT_NAME + ">";
+    private static final String VERSION_ATTRIBUTE = "version=\"";
+
+    private static final int MAGIC = 0x4B4D4331;
+
+    private static final Map<String, Class<?>> PRIMITIVE_TYPES = new HashMap<String, Class<?>>();
+
+    static {
+        for (Class<?> primitiveType : new Class<?>[] {boolean.class, byte.class, short.class, char.class, int.class,
+                long.class, float.class, double.class, void.class}) {
+            PRIMITIVE_TYPES.put(primitiveType.getName(), primitiveType);
+        }
+    }
+
+    private static final byte NULL = 0;
+    private static final byte REFERENCE = 1;
+    private static final byte STRING = 2;
+    private static final byte BOOLEAN = 3;
+    private static final byte BYTE = 4;
+    private static final byte SHORT = 5;
+    private static final byte CHARACTER = 6;
+    private static final byte INTEGER = 7;
+    private static final byte LONG = 8;
+    private static final byte FLOAT = 9;
+    private static final byte DOUBLE = 10;
+    private static final byte NUMBER = 11;
+    private static final byte DATE = 12;
+    private static final byte ENUM = 13;
+    private static final byte CLASS = 14;
+    private static final byte BYTES = 15;
+    private static final byte ARRAY = 16;
+    private static final byte COLLECTION = 17;
+    private static final byte MAP = 18;
+    private static final byte OBJECT = 19;
+    private static final byte SERIALIZED = 20;
+
+    protected LegacyDataAdapter legacyDataAdapter;
+
+    private final ReflectionProvider reflectionProvider = new PureJavaReflectionProvider();
+    private final ConcurrentMap<Class<?>, ClassFields> fieldsByClass = new ConcurrentHashMap<Class<?>, ClassFields>();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String serialize(Object dataObject) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes));
+            out.writeInt(MAGIC);
+            new ContentWriter(out).writeValue(dataObject);
+            out.close();
+
+            return START_TAG_PREFIX + " " + VERSION_ATTRIBUTE + FORMAT_VERSION + "\">" + new String(Base64.encodeBase64(
+                    bytes.toByteArray()), "US-ASCII") + END_TAG;
+        } catch (IOException e) {
+            throw new RuntimeException("Could not serialize " + dataObject, e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean canDeserialize(String content) {
+        return content != null && content.trim().startsWith(START_TAG_PREFIX);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object deserialize(String content) {
+        String startTag = StringUtils.substringBetween(content, START_TAG_PREFIX, ">");
+        String encoded = startTag == null ? null : StringUtils.substringBetween(content,
+                START_TAG_PREFIX + startTag + ">", END_TAG);
+        String version = StringUtils.substringBetween(startTag, VERSION_ATTRIBUTE, "\"");
+        if (encoded == null || !StringUtils.isNumeric(version) || StringUtils.isEmpty(version)) {
+            throw new IllegalArgumentException("Not a " + ELEMENT_NAME + " element: " + content);
+        }
+
+        if (Integer.parseInt(version) > FORMAT_VERSION) {
+            throw new IllegalStateException("Content was written in format version " + version
+                    + ", which is newer than the supported version " + FORMAT_VERSION);
+        }
+
+        try {
+            DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(
+                    Base64.decodeBase64(encoded.getBytes("US-ASCII")))));
+            try {
+                if (in.readInt() != MAGIC) {
+                    throw new StreamCorruptedException("Not binary maintainable content");
+                }
+
+                return new ContentReader(in).readValue();
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Could not deserialize maintainable content", e);
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException("Could not deserialize maintainable content", e);
+        }
+    }
+
+    /**
+     * Determines whether a field should be omitted from the serialized form, in the same way as
+     * {@link DataObjectSerializerServiceImpl#ignoreField(Field)}.
+     *
+     * @param field the field
+     * @return true if the field should be omitted
+     */
+    protected boolean ignoreField(Field field) {
+        Serialized serialized = field.getAnnotation(Serialized.class);
+
+        if (serialized != null && SerializationContext.MAINTENANCE.matches(serialized.forContexts())) {
+            return !serialized.enabled();
+        }
+
+        return field.getAnnotation(Transient.class) != null;
+    }
+
+    /**
+     * Gets the serialized fields of a class, looking them up on first use.
+     *
+     * @param type the class
+     * @return the serialized fields of the class
+     */
+    private ClassFields getClassFields(Class<?> type) {
+        ClassFields classFields = fieldsByClass.get(type);
+
+        if (classFields == null) {
+            classFields = new ClassFields(type);
+            fieldsByClass.put(type, classFields);
+        }
+
+        return classFields;
+    }
+
+    /**
+     * The fields written for a class, with the names they are written under, and how else the class is written.
+     */
+    private class ClassFields {
+
+        private final Field[] fields;
+        private final String[] names;
+        private final Map<String, Field> fieldsByName;
+        private final boolean javaSerialized;
+        private final Constructor<?> stringConstructor;
+
+        ClassFields(Class<?> type) {
+            javaSerialized = Serializable.class.isAssignableFrom(type) && hasCustomSerialization(type);
+            stringConstructor = Number.class.isAssignableFrom(type) ? getStringConstructor(type) : null;
+
+            List<Field> fieldList = new ArrayList<Field>();
+            Map<String, Integer> nameCounts = new HashMap<String, Integer>();
+
+            // fields are only needed for classes written field by field
+            boolean writtenByField = !javaSerialized && stringConstructor == null;
+            for (Class<?> currentClass = type; writtenByField && currentClass != null && currentClass != Object.class;
+                    currentClass = currentClass.getSuperclass()) {
+                for (Field field : currentClass.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || ignoreField(field)) {
+                        continue;
+                    }
+
+                    field.setAccessible(true);
+                    fieldList.add(field);
+
+                    Integer count = nameCounts.get(field.getName());
+                    nameCounts.put(field.getName(), count == null ? 1 : count + 1);
+                }
+            }
+
+            fields = fieldList.toArray(new Field[fieldList.size()]);
+            names = new String[fields.length];
+            fieldsByName = new HashMap<String, Field>();
+            for (int i = 0; i < fields.length; i++) {
+                // fields hidden by a subclass field of the same name are qualified with the declaring class
+                names[i] = nameCounts.get(fields[i].getName()) > 1 ?
+                        fields[i].getDeclaringClass().getName() + "." + fields[i].getName() : fields[i].getName();
+                fieldsByName.put(names[i], fields[i]);
+            }
+        }
+
+        private Constructor<?> getStringConstructor(Class<?> type) {
+            try {
+                return type.getConstructor(String.class);
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+
+        private boolean hasCustomSerialization(Class<?> type) {
+            if (Externalizable.class.isAssignableFrom(type)) {
+                return true;
+            }
+
+            for (Class<?> currentClass = type; currentClass != null && currentClass != Object.class;
+                    currentClass = currentClass.getSuperclass()) {
+                if (hasDeclaredMethod(currentClass, "writeObject", ObjectOutputStream.class)
+                        || hasDeclaredMethod(currentClass, "readObject", ObjectInputStream.class)
+                        || hasDeclaredMethod(currentClass, "writeReplace")
+                        || hasDeclaredMethod(currentClass, "readResolve")) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        private boolean hasDeclaredMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+            try {
+                type.getDeclaredMethod(name, parameterTypes);
+                return true;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Writes the values of one data object graph, keeping track of the objects and classes already written.
+     */
+    private class ContentWriter {
+
+        private final DataOutputStream out;
+        private final Map<Object, Integer> handles = new IdentityHashMap<Object, Integer>();
+        private final Map<Class<?>, Integer> classIds = new HashMap<Class<?>, Integer>();
+
+        ContentWriter(DataOutputStream out) {
+            this.out = out;
+        }
+
+        void writeValue(Object value) throws IOException {
+            if (value == null) {
+                out.writeByte(NULL);
+                return;
+            }
+
+            if (writeSimpleValue(value)) {
+                return;
+            }
+
+            if (legacyDataAdapter != null && legacyDataAdapter.isProxied(value)) {
+                value = legacyDataAdapter.resolveProxy(value);
+                if (value == null) {
+                    out.writeByte(NULL);
+                    return;
+                }
+            }
+
+            Integer handle = handles.get(value);
+            if (handle != null) {
+                out.writeByte(REFERENCE);
+                out.writeInt(handle);
+                return;
+            }
+            handles.put(value, handles.size());
+
+            Class<?> type = value.getClass();
+            if (type == byte[].class) {
+                byte[] bytes = (byte[]) value;
+                out.writeByte(BYTES);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            } else if (type.isArray()) {
+                int length = Array.getLength(value);
+                out.writeByte(ARRAY);
+                writeString(type.getComponentType().getName());
+                out.writeInt(length);
+                for (int i = 0; i < length; i++) {
+                    writeValue(Array.get(value, i));
+                }
+            } else if (value instanceof Collection) {
+                // copy first, so lazily loaded collections are loaded before their size is written
+                List<Object> items = new ArrayList<Object>((Collection<?>) value);
+                out.writeByte(COLLECTION);
+                writeString(getCollectionClass(type).getName());
+                out.writeInt(items.size());
+                for (Object item : items) {
+                    writeValue(item);
+                }
+            } else if (value instanceof Map) {
+                List<Map.Entry<?, ?>> entries = new ArrayList<Map.Entry<?, ?>>(((Map<?, ?>) value).entrySet());
+                out.writeByte(MAP);
+                writeString(getMapClass(type).getName());
+                out.writeInt(entries.size());
+                for (Map.Entry<?, ?> entry : entries) {
+                    writeValue(entry.getKey());
+                    writeValue(entry.getValue());
+                }
+            } else if (getClassFields(type).javaSerialized) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                ObjectOutputStream objectOut = new ObjectOutputStream(bytes);
+                objectOut.writeObject(value);
+                objectOut.close();
+
+                out.writeByte(SERIALIZED);
+                out.writeInt(bytes.size());
+                bytes.writeTo(out);
+            } else {
+                writeObject(value, type);
+            }
+        }
+
+        private boolean writeSimpleValue(Object value) throws IOException {
+            Class<?> type = value.getClass();
+
+            if (type == String.class) {
+                out.writeByte(STRING);
+                writeString((String) value);
+            } else if (type == Boolean.class) {
+                out.writeByte(BOOLEAN);
+                out.writeBoolean((Boolean) value);
+            } else if (type == Integer.class) {
+                out.writeByte(INTEGER);
+                out.writeInt((Integer) value);
+            } else if (type == Long.class) {
+                out.writeByte(LONG);
+                out.writeLong((Long) value);
+            } else if (type == Double.class) {
+                out.writeByte(DOUBLE);
+                out.writeDouble((Double) value);
+            } else if (type == Float.class) {
+                out.writeByte(FLOAT);
+                out.writeFloat((Float) value);
+            } else if (type == Short.class) {
+                out.writeByte(SHORT);
+                out.writeShort((Short) value);
+            } else if (type == Byte.class) {
+                out.writeByte(BYTE);
+                out.writeByte((Byte) value);
+            } else if (type == Character.class) {
+                out.writeByte(CHARACTER);
+                out.writeChar((Character) value);
+            } else if (value instanceof Number && getClassFields(type).stringConstructor != null) {
+                // BigDecimal, BigInteger, KualiDecimal, KualiInteger and the like
+                out.writeByte(NUMBER);
+                writeString(type.getName());
+                writeString(value.toString());
+            } else if (type == Date.class || type == java.sql.Date.class || type == Timestamp.class
+                    || type == Time.class) {
+                out.writeByte(DATE);
+                writeString(type.getName());
+                out.writeLong(((Date) value).getTime());
+                out.writeInt(type == Timestamp.class ? ((Timestamp) value).getNanos() : 0);
+            } else if (value instanceof Enum) {
+                out.writeByte(ENUM);
+                writeString(((Enum<?>) value).getDeclaringClass().getName());
+                writeString(((Enum<?>) value).name());
+            } else if (type == Class.class) {
+                out.writeByte(CLASS);
+                writeString(((Class<?>) value).getName());
+            } else {
+                return false;
+            }
+
+            return true;
+        }
+
+        private void writeObject(Object value, Class<?> type) throws IOException {
+            ClassFields classFields = getClassFields(type);
+
+            out.writeByte(OBJECT);
+            Integer classId = classIds.get(type);
+            if (classId != null) {
+                out.writeInt(classId);
+            } else {
+                // a new class id is followed by the names of its fields
+                out.writeInt(classIds.size());
+                classIds.put(type, classIds.size());
+                writeString(type.getName());
+                out.writeInt(classFields.names.length);
+                for (String name : classFields.names) {
+                    writeString(name);
+                }
+            }
+
+            for (Field field : classFields.fields) {
+                try {
+                    writeValue(field.get(value));
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException("Could not get field " + field + " on " + value, e);
+                }
+            }
+        }
+
+        private void writeString(String value) throws IOException {
+            // writeUTF is limited to 64k, which long text and clob fields can exceed
+            byte[] bytes = value.getBytes("UTF-8");
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Reads the values of one data object graph written by a {@link ContentWriter}.
+     */
+    private class ContentReader {
+
+        private final DataInputStream in;
+        private final List<Object> handles = new ArrayList<Object>();
+        private final List<ClassDescriptor> classDescriptors = new ArrayList<ClassDescriptor>();
+
+        ContentReader(DataInputStream in) {
+            this.in = in;
+        }
+
+        Object readValue() throws IOException, ClassNotFoundException {
+            byte tag = in.readByte();
+
+            switch (tag) {
+                case NULL:
+                    return null;
+                case REFERENCE:
+                    return handles.get(in.readInt());
+                case STRING:
+                    return readString();
+                case BOOLEAN:
+                    return in.readBoolean();
+                case INTEGER:
+                    return in.readInt();
+                case LONG:
+                    return in.readLong();
+                case DOUBLE:
+                    return in.readDouble();
+                case FLOAT:
+                    return in.readFloat();
+                case SHORT:
+                    return in.readShort();
+                case BYTE:
+                    return in.readByte();
+                case CHARACTER:
+                    return in.readChar();
+                case NUMBER:
+                    return readNumber();
+                case DATE:
+                    return readDate();
+                case ENUM:
+                    return readEnum();
+                case CLASS:
+                    return loadClass(readString());
+                case BYTES:
+                    return readBytes();
+                case ARRAY:
+                    return readArray();
+                case COLLECTION:
+                    return readCollection();
+                case MAP:
+                    return readMap();
+                case OBJECT:
+                    return readObject();
+                case SERIALIZED:
+                    return readSerialized();
+                default:
+                    throw new StreamCorruptedException("Unknown value tag " + tag);
+            }
+        }
+
+        private Object readNumber() throws IOException, ClassNotFoundException {
+            Class<?> type = loadClass(readString());
+            String value = readString();
+
+            try {
+                return getClassFields(type).stringConstructor.newInstance(value);
+            } catch (Exception e) {
+                throw new IllegalStateException("Could not create " + type + " from " + value, e);
+            }
+        }
+
+        private Object readDate() throws IOException {
+            String typeName = readString();
+            long time = in.readLong();
+            int nanos = in.readInt();
+
+            if (Timestamp.class.getName().equals(typeName)) {
+                Timestamp timestamp = new Timestamp(time);
+                timestamp.setNanos(nanos);
+                return timestamp;
+            } else if (java.sql.Date.class.getName().equals(typeName)) {
+                return new java.sql.Date(time);
+            } else if (Time.class.getName().equals(typeName)) {
+                return new Time(time);
+            }
+
+            return new Date(time);
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Object readEnum() throws IOException, ClassNotFoundException {
+            Class enumType = loadClass(readString());
+            return Enum.valueOf(enumType, readString());
+        }
+
+        private Object readBytes() throws IOException {
+            byte[] bytes = new byte[in.readInt()];
+            handles.add(bytes);
+            in.readFully(bytes);
+            return bytes;
+        }
+
+        private Object readArray() throws IOException, ClassNotFoundException {
+            Class<?> componentType = loadClass(readString());
+            int length = in.readInt();
+
+            Object array = Array.newInstance(componentType, length);
+            handles.add(array);
+            for (int i = 0; i < length; i++) {
+                Array.set(array, i, readValue());
+            }
+
+            return array;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Object readCollection() throws IOException, ClassNotFoundException {
+            Collection<Object> collection = (Collection<Object>) newInstance(loadClass(readString()));
+            int size = in.readInt();
+
+            handles.add(collection);
+            for (int i = 0; i < size; i++) {
+                collection.add(readValue());
+            }
+
+            return collection;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Object readMap() throws IOException, ClassNotFoundException {
+            Map<Object, Object> map = (Map<Object, Object>) newInstance(loadClass(readString()));
+            int size = in.readInt();
+
+            handles.add(map);
+            for (int i = 0; i < size; i++) {
+                Object key = readValue();
+                map.put(key, readValue());
+            }
+
+            return map;
+        }
+
+        private Object readObject() throws IOException, ClassNotFoundException {
+            int classId = in.readInt();
+            ClassDescriptor descriptor;
+            if (classId == classDescriptors.size()) {
+                descriptor = new ClassDescriptor(loadClass(readString()), in.readInt());
+                for (int i = 0; i < descriptor.fields.length; i++) {
+                    descriptor.fields[i] = descriptor.classFields.fieldsByName.get(readString());
+                }
+                classDescriptors.add(descriptor);
+            } else {
+                descriptor = classDescriptors.get(classId);
+            }
+
+            Object object = reflectionProvider.newInstance(descriptor.type);
+            handles.add(object);
+
+            for (Field field : descriptor.fields) {
+                Object value = readValue();
+
+                // the value of a field the class no longer has is read and dropped
+                if (field == null) {
+                    continue;
+                }
+
+                try {
+                    field.set(object, value);
+                } catch (IllegalArgumentException e) {
+                    LOG.warn("Could not set " + field + " to a value of " + (value == null ? "null" :
+                            value.getClass()) + ", the field type may have changed since the content was written");
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException("Could not set field " + field + " on " + object, e);
+                }
+            }
+
+            return object;
+        }
+
+        private Object readSerialized() throws IOException, ClassNotFoundException {
+            // the handle is taken before reading, as the writer took it before writing
+            int handle = handles.size();
+            handles.add(null);
+
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            ObjectInputStream objectIn = new ContextClassLoaderObjectInputStream(new ByteArrayInputStream(bytes));
+            try {
+                Object value = objectIn.readObject();
+                handles.set(handle, value);
+                return value;
+            } finally {
+                objectIn.close();
+            }
+        }
+
+        private String readString() throws IOException {
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            return new String(bytes, "UTF-8");
+        }
+    }
+
+    /**
+     * Fields of a class in the order they were written, null for fields the class no longer has.
+     */
+    private class ClassDescriptor {
+
+        private final Class<?> type;
+        private final ClassFields classFields;
+        private final Field[] fields;
+
+        ClassDescriptor(Class<?> type, int fieldCount) {
+            this.type = type;
+            this.classFields = getClassFields(type);
+            this.fields = new Field[fieldCount];
+        }
+    }
+
+    /**
+     * Object input stream that resolves classes with the context class loader.
+     */
+    private static class ContextClassLoaderObjectInputStream extends ObjectInputStream {
+
+        ContextClassLoaderObjectInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            try {
+                return loadClass(desc.getName());
+            } catch (ClassNotFoundException e) {
+                return super.resolveClass(desc);
+            }
+        }
+    }
+
+    /**
+     * Gets the collection class to recreate a collection as, substituting a standard collection for proxies,
+     * unmodifiable views and other collections which cannot be created empty.
+     */
+    private static Class<?> getCollectionClass(Class<?> type) {
+        if (isRecreatable(type)) {
+            return type;
+        } else if (List.class.isAssignableFrom(type)) {
+            return ArrayList.class;
+        } else if (SortedSet.class.isAssignableFrom(type)) {
+            return TreeSet.class;
+        } else if (Set.class.isAssignableFrom(type)) {
+            return LinkedHashSet.class;
+        }
+
+        return ArrayList.class;
+    }
+
+    /**
+     * Gets the map class to recreate a map as, substituting a standard map where needed.
+     */
+    private static Class<?> getMapClass(Class<?> type) {
+        if (isRecreatable(type)) {
+            return type;
+        } else if (SortedMap.class.isAssignableFrom(type)) {
+            return TreeMap.class;
+        }
+
+        return LinkedHashMap.class;
+    }
+
+    private static boolean isRecreatable(Class<?> type) {
+        if (!type.getName().startsWith("java.util.") || !Modifier.isPublic(type.getModifiers())) {
+            return false;
+        }
+
+        try {
+            type.getConstructor();
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static Object newInstance(Class<?> type) {
+        try {
+            return type.newInstance();
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not create " + type, e);
+        }
+    }
+
+    private static Class<?> loadClass(String name) throws ClassNotFoundException {
+        Class<?> primitiveType = PRIMITIVE_TYPES.get(name);
+        if (primitiveType != null) {
+            return primitiveType;
+        }
+
+        return Class.forName(name, false, Thread.currentThread().getContextClassLoader());
+    }
+
+    @Required
+    public void setLegacyDataAdapter(LegacyDataAdapter legacyDataAdapter) {
+        this.legacyDataAdapter = legacyDataAdapter;
+    }
+
+}
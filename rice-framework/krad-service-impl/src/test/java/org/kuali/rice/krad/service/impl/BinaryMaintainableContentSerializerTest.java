@@ -0,0 +1,180 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.krad.service.impl;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.kuali.rice.core.api.util.type.KualiDecimal;
+import org.kuali.rice.krad.service.LegacyDataAdapter;
+
+import javax.persistence.Transient;
+import java.io.Serializable;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyObject;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link BinaryMaintainableContentSerializer}.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class BinaryMaintainableContentSerializerTest {
+
+    private BinaryMaintainableContentSerializer serializer;
+
+    @Before
+    public void setUp() {
+        LegacyDataAdapter legacyDataAdapter = mock(LegacyDataAdapter.class);
+        when(legacyDataAdapter.isProxied(anyObject())).thenReturn(Boolean.FALSE);
+
+        serializer = new BinaryMaintainableContentSerializer();
+        serializer.setLegacyDataAdapter(legacyDataAdapter);
+    }
+
+    @Test
+    public void testRoundTrip() {
+        TestAccount account = new TestAccount();
+        account.number = "1031400";
+        account.active = true;
+        account.balance = new KualiDecimal("1234.56");
+        account.lastUpdated = new Timestamp(1400000000000L);
+        account.lastUpdated.setNanos(123456789);
+        account.type = TestAccountType.EXPENSE;
+        account.attachment = new byte[] {1, 2, 3};
+        account.note = "not saved";
+        account.codes = Collections.unmodifiableList(Arrays.asList("A", "B"));
+        for (int i = 0; i < 3; i++) {
+            TestAccountLine line = new TestAccountLine();
+            line.account = account;
+            line.sequence = i;
+            line.description = "line " + i;
+            account.lines.add(line);
+        }
+        account.linesByDescription.put("first", account.lines.get(0));
+
+        String content = serializer.serialize(account);
+        assertTrue(serializer.canDeserialize(content));
+
+        TestAccount copy = (TestAccount) serializer.deserialize(content);
+        assertEquals("1031400", copy.number);
+        assertTrue(copy.active);
+        assertEquals(new KualiDecimal("1234.56"), copy.balance);
+        assertEquals(account.lastUpdated, copy.lastUpdated);
+        assertEquals(123456789, copy.lastUpdated.getNanos());
+        assertSame(TestAccountType.EXPENSE, copy.type);
+        assertArrayEquals(new byte[] {1, 2, 3}, copy.attachment);
+        assertNull("JPA transient fields are not serialized", copy.note);
+        assertEquals(Arrays.asList("A", "B"), copy.codes);
+
+        assertEquals(3, copy.lines.size());
+        for (int i = 0; i < 3; i++) {
+            assertSame("references back to the account are kept", copy, copy.lines.get(i).account);
+            assertEquals(i, copy.lines.get(i).sequence);
+            assertEquals("line " + i, copy.lines.get(i).description);
+        }
+        assertSame("shared references are kept", copy.lines.get(0), copy.linesByDescription.get("first"));
+    }
+
+    /**
+     * The fields serialized must be those serialized to XML by {@link DataObjectSerializerServiceImpl}.
+     */
+    @Test
+    public void testSerializationAnnotations() {
+        TestKradDataObj dataObject = MaintenanceDocumentSerializationTest.dataObject;
+
+        TestKradDataObj copy = (TestKradDataObj) serializer.deserialize(serializer.serialize(dataObject));
+
+        assertEquals(dataObject.getName(), copy.getName());
+        assertNotNull(copy.getChild1());
+        assertNull(copy.getChild2());
+        assertNotNull(copy.getChild3());
+        assertNull(copy.getChild4());
+        assertNull(copy.getChild5());
+        assertNotNull(copy.getChild6());
+
+        assertEquals(dataObject.getChild1().getContent1(), copy.getChild1().getContent1());
+        assertNull(copy.getChild1().getContent2());
+        assertEquals(dataObject.getChild1().getContent3(), copy.getChild1().getContent3());
+        assertNull(copy.getChild1().getContent4());
+        assertNull(copy.getChild1().getContent5());
+        assertEquals(dataObject.getChild1().getContent6(), copy.getChild1().getContent6());
+    }
+
+    /**
+     * The content of a maintainable element holds the maintenance action after the data object.
+     */
+    @Test
+    public void testMaintainableContent() {
+        TestAccount account = new TestAccount();
+        account.number = "1031400";
+
+        String content = serializer.serialize(account) + "<maintenanceAction>Edit</maintenanceAction>\n";
+        assertTrue(serializer.canDeserialize(content));
+        assertEquals("1031400", ((TestAccount) serializer.deserialize(content)).number);
+
+        assertFalse("XML content is read as before", serializer.canDeserialize(
+                "<org.kuali.rice.krad.service.impl.TestAccount><number>1031400</number>"
+                        + "</org.kuali.rice.krad.service.impl.TestAccount>"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testNewerFormatVersion() {
+        String content = serializer.serialize(new TestAccount());
+
+        serializer.deserialize(content.replace("version=\"" + BinaryMaintainableContentSerializer.FORMAT_VERSION,
+                "version=\"" + (BinaryMaintainableContentSerializer.FORMAT_VERSION + 1)));
+    }
+
+    public enum TestAccountType {
+        ASSET, EXPENSE
+    }
+
+    public static class TestAccount implements Serializable {
+        private String number;
+        private boolean active;
+        private KualiDecimal balance;
+        private Timestamp lastUpdated;
+        private TestAccountType type;
+        private byte[] attachment;
+        @Transient
+        private String note;
+        private List<String> codes;
+        private List<TestAccountLine> lines = new ArrayList<TestAccountLine>();
+        private Map<String, TestAccountLine> linesByDescription = new HashMap<String, TestAccountLine>();
+    }
+
+    public static class TestAccountLine implements Serializable {
+        private TestAccount account;
+        private int sequence;
+        private String description;
+    }
+
+}
@@ -0,0 +1,156 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.krad.service.impl;
+
+import org.kuali.rice.core.api.util.type.KualiDecimal;
+import org.kuali.rice.krad.service.LegacyDataAdapter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.Serializable;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Matchers.anyObject;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Measures the time taken to save and load the data object of a large maintenance document, with collections of a
+ * few hundred lines, as XML through XStream and with the {@link BinaryMaintainableContentSerializer}.
+ *
+ * <p>
+ * Saving is what {@link org.kuali.rice.krad.maintenance.MaintenanceDocumentBase} does on every save and route, loading
+ * what it does each time the document is retrieved. Setup checks that the content written loads back with all of
+ * its lines, so neither format is measured skipping part of the object graph.
+ * </p>
+ *
+ * <p>This is not a unit test; run it with {@link #main(String[])} from the test classpath.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class MaintainableContentSerializationBenchmark {
+
+    private static final int LINES = 300;
+    private static final int NOTES_PER_LINE = 3;
+
+    @Param({"xml", "binary"})
+    public String format;
+
+    private DataObjectSerializerServiceImpl dataObjectSerializerService;
+    private XmlObjectSerializerServiceImpl xmlObjectSerializerService;
+    private BinaryMaintainableContentSerializer binarySerializer;
+
+    private BenchmarkBudget budget;
+    private String content;
+
+    @Setup
+    public void setUp() {
+        LegacyDataAdapter legacyDataAdapter = mock(LegacyDataAdapter.class);
+        when(legacyDataAdapter.isProxied(anyObject())).thenReturn(Boolean.FALSE);
+
+        xmlObjectSerializerService = new XmlObjectSerializerServiceImpl();
+        xmlObjectSerializerService.setLegacyDataAdapter(legacyDataAdapter);
+        dataObjectSerializerService = new DataObjectSerializerServiceImpl();
+        dataObjectSerializerService.setLegacyDataAdapter(legacyDataAdapter);
+        dataObjectSerializerService.setXmlObjectSerializerService(xmlObjectSerializerService);
+        binarySerializer = new BinaryMaintainableContentSerializer();
+        binarySerializer.setLegacyDataAdapter(legacyDataAdapter);
+
+        budget = new BenchmarkBudget();
+        budget.name = "Departmental operating budget";
+        budget.fiscalYear = 2015;
+        for (int i = 0; i < LINES; i++) {
+            BenchmarkBudgetLine line = new BenchmarkBudgetLine();
+            line.budget = budget;
+            line.sequence = i;
+            line.objectCode = "50" + i;
+            line.amount = new KualiDecimal(i * 100 + ".25");
+            line.effectiveDate = new Date(1420070400000L + i * 86400000L);
+            line.active = i % 2 == 0;
+            for (int j = 0; j < NOTES_PER_LINE; j++) {
+                line.notes.add("Note " + j + " on line " + i + " of the budget");
+            }
+            budget.lines.add(line);
+        }
+
+        content = save();
+        Object loaded = load();
+        if (!(loaded instanceof BenchmarkBudget) || ((BenchmarkBudget) loaded).lines.size() != LINES) {
+            throw new IllegalStateException(format + " content did not load back as the budget saved");
+        }
+    }
+
+    @Benchmark
+    public String save() {
+        if ("binary".equals(format)) {
+            return binarySerializer.serialize(budget);
+        }
+
+        return dataObjectSerializerService.serializeBusinessObjectToXml(budget);
+    }
+
+    @Benchmark
+    public Object load() {
+        if ("binary".equals(format)) {
+            return binarySerializer.deserialize(content);
+        }
+
+        return xmlObjectSerializerService.fromXml(content);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MaintainableContentSerializationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    public static class BenchmarkBudget implements Serializable {
+        private String name;
+        private int fiscalYear;
+        private List<BenchmarkBudgetLine> lines = new ArrayList<BenchmarkBudgetLine>();
+    }
+
+    public static class BenchmarkBudgetLine implements Serializable {
+        private BenchmarkBudget budget;
+        private int sequence;
+        private String objectCode;
+        private KualiDecimal amount;
+        private Date effectiveDate;
+        private boolean active;
+        private List<String> notes = new ArrayList<String>();
+    }
+
+}
@@ -19,19 +19,23 @@ import java.beans.PropertyDescriptor;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import org.apache.commons.beanutils.PropertyUtils;
-import org.apache.commons.collections.ListUtils;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang.ClassUtils;
 import org.apache.commons.lang.StringUtils;
+import org.kuali.rice.core.api.config.property.Config;
 import org.kuali.rice.core.api.config.property.ConfigContext;
 import org.kuali.rice.core.api.util.ClassLoaderUtils;
 import org.kuali.rice.krad.data.provider.annotation.UifAutoCreateViewType;
@@ -65,12 +69,14 @@ import org.springframework.beans.factory.config.BeanExpressionContext;
 import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.beans.factory.config.PropertyPlaceholderConfigurer;
 import org.springframework.beans.factory.config.Scope;
+import org.springframework.beans.factory.support.BeanDefinitionReaderUtils;
 import org.springframework.beans.factory.support.ChildBeanDefinition;
 import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
 import org.springframework.context.expression.StandardBeanExpressionResolver;
 import org.springframework.core.convert.support.GenericConversionService;
 import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.util.StopWatch;
 
@@ -99,6 +105,8 @@ public class DataDictionary {
 
     protected ArrayList<String> beanValidationFiles = new ArrayList<String>();
 
+    protected String snapshotDirectory;
+
     public static LegacyDataAdapter legacyDataAdapter;
 
     protected transient StopWatch timer;
@@ -114,11 +122,81 @@ public class DataDictionary {
         timer = new StopWatch("DD Processing");
         setupProcessor(ddBeans);
 
-        loadDictionaryBeans(ddBeans, moduleDictionaryFiles, ddIndex, beanValidationFiles);
+        DataDictionarySnapshot snapshot = getSnapshot();
+        if (snapshot == null || !loadDictionaryBeansFromSnapshot(snapshot, ddBeans, ddIndex, beanValidationFiles)) {
+            loadDictionaryBeans(ddBeans, moduleDictionaryFiles, ddIndex, beanValidationFiles);
+
+            if (snapshot != null) {
+                timer.start("Writing DD Snapshot");
+                snapshot.save(ddBeans, ddIndex.getDictionaryBeansByNamespace());
+                timer.stop();
+            }
+        }
 
         performDictionaryPostProcessing(allowConcurrentValidation);
     }
 
+    /**
+     * Gets the snapshot of the parsed dictionary bean definitions for the current dictionary files
+     *
+     * <p>
+     * Snapshots are kept in the configured {@link #getSnapshotDirectory()}, keyed by a hash of the module load order,
+     * the dictionary files and the application version.
+     * </p>
+     *
+     * @return snapshot for the current dictionary files, or null if snapshots are not enabled or the files cannot
+     * be read
+     */
+    protected DataDictionarySnapshot getSnapshot() {
+        String directory = getSnapshotDirectory();
+        if (StringUtils.isBlank(directory)) {
+            return null;
+        }
+
+        timer.start("DD Snapshot Key");
+        try {
+            Config config = ConfigContext.getCurrentContextConfig();
+            String version = config == null ? null : config.getRiceVersion() + "/" + config.getApplicationVersion();
+
+            return new DataDictionarySnapshot(new File(directory), DataDictionarySnapshot.computeKey(moduleLoadOrder,
+                    moduleDictionaryFiles, new PathMatchingResourcePatternResolver(
+                    ClassLoaderUtils.getDefaultClassLoader()), version));
+        } catch (IOException e) {
+            LOG.warn("Unable to compute data dictionary snapshot key, snapshot will not be used", e);
+
+            return null;
+        } finally {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Populates the dictionary bean factory from a snapshot of the parsed bean definitions
+     *
+     * @param snapshot - snapshot of the dictionary files
+     * @param beans - The bean factory for the dictionary beans
+     * @param index - Index of the data dictionary beans
+     * @param validationFiles - The List of bean xml files loaded into the bean file
+     * @return true if the snapshot was loaded, false if the dictionary files need to be parsed
+     */
+    protected boolean loadDictionaryBeansFromSnapshot(DataDictionarySnapshot snapshot,
+            DefaultListableBeanFactory beans, DataDictionaryIndex index, ArrayList<String> validationFiles) {
+        timer.start("DD Snapshot Loading");
+        boolean loaded = snapshot.load(beans, index);
+        timer.stop();
+
+        if (loaded) {
+            for (String namespaceCode : moduleLoadOrder) {
+                List<String> moduleDictionaryLocations = moduleDictionaryFiles.get(namespaceCode);
+                if (moduleDictionaryLocations != null) {
+                    validationFiles.addAll(moduleDictionaryLocations);
+                }
+            }
+        }
+
+        return loaded;
+    }
+
     /**
      * Sets up the bean post processor and conversion service
      *
@@ -167,45 +245,77 @@ public class DataDictionary {
         timer.start("XML File Loading");
         LOG.info("Starting DD XML File Load");
 
-        List<String> allBeanNames = new ArrayList<String>();
-        for (String namespaceCode : moduleLoadOrder) {
-            LOG.info( "Processing Module: " + namespaceCode);
-            List<String> moduleDictionaryLocations = moduleDictionaryFiles.get(namespaceCode);
-            if ( LOG.isDebugEnabled() ) {
-                LOG.debug("DD Locations in Module: " + moduleDictionaryLocations);
-            }
-
-            if (moduleDictionaryLocations == null) {
-               continue;
-            }
+        // each module is parsed into its own registry on the pool, the registries are then copied into the
+        // dictionary factory in module load order so that later modules still override earlier ones
+        List<ForkJoinTask<ModuleBeanDefinitions>> moduleLoads = new ArrayList<ForkJoinTask<ModuleBeanDefinitions>>();
+        ForkJoinPool pool = new ForkJoinPool(getLoadParallelism());
+        try {
+            for (String namespaceCode : moduleLoadOrder) {
+                List<String> moduleDictionaryLocations = moduleDictionaryFiles.get(namespaceCode);
+                if ( LOG.isDebugEnabled() ) {
+                    LOG.debug("DD Locations in Module: " + moduleDictionaryLocations);
+                }
 
-            XmlBeanDefinitionReader xmlReader = new XmlBeanDefinitionReader(beans);
+                if (moduleDictionaryLocations == null) {
+                   continue;
+                }
 
-            String configFileLocationsArray[] = new String[moduleDictionaryLocations.size()];
-            configFileLocationsArray = moduleDictionaryLocations.toArray(configFileLocationsArray);
-            for (int i = 0; i < configFileLocationsArray.length; i++) {
-                validationFiles.add(configFileLocationsArray[i]);
+                validationFiles.addAll(moduleDictionaryLocations);
+                moduleLoads.add(pool.submit(ForkJoinTask.adapt(new ModuleBeanDefinitionsLoader(namespaceCode,
+                        moduleDictionaryLocations))));
             }
 
-            try {
-                xmlReader.loadBeanDefinitions(configFileLocationsArray);
+            List<ModuleBeanDefinitions> modules = new ArrayList<ModuleBeanDefinitions>();
+            for (ForkJoinTask<ModuleBeanDefinitions> moduleLoad : moduleLoads) {
+                modules.add(moduleLoad.join());
+            }
+            timer.stop();
 
-                // get updated bean names from factory and compare to our previous list to get those that
-                // were added by the last namespace
-                List<String> addedBeanNames = Arrays.asList(beans.getBeanDefinitionNames());
-                addedBeanNames = ListUtils.removeAll(addedBeanNames, allBeanNames);
-                index.addBeanNamesToNamespace(namespaceCode, addedBeanNames);
+            timer.start("XML Bean Registration");
+            Set<String> allBeanNames = new HashSet<String>();
+            for (ModuleBeanDefinitions module : modules) {
+                List<String> addedBeanNames = module.registerWith(beans, allBeanNames);
+                index.addBeanNamesToNamespace(module.getNamespaceCode(), addedBeanNames);
 
                 allBeanNames.addAll(addedBeanNames);
-            } catch (Exception e) {
-                throw new DataDictionaryException("Error loading bean definitions: " + e.getLocalizedMessage(),e);
             }
+        } catch (DataDictionaryException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new DataDictionaryException("Error loading bean definitions: " + e.getLocalizedMessage(), e);
+        } finally {
+            pool.shutdown();
         }
 
         LOG.info("Completed DD XML File Load");
         timer.stop();
     }
 
+    /**
+     * Number of threads used to load the dictionary
+     *
+     * <p>
+     * Taken from the configuration parameter
+     * {@link KRADConstants.ConfigParameters#KRAD_DICTIONARY_LOAD_THREADS}, defaulting to the number of available
+     * processors. A value of 1 loads the dictionary on a single thread.
+     * </p>
+     *
+     * @return number of threads, at least 1
+     */
+    protected int getLoadParallelism() {
+        String threads = null;
+        if (ConfigContext.getCurrentContextConfig() != null) {
+            threads = ConfigContext.getCurrentContextConfig().getProperty(
+                    KRADConstants.ConfigParameters.KRAD_DICTIONARY_LOAD_THREADS);
+        }
+
+        if (StringUtils.isBlank(threads)) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+
+        return Math.max(1, Integer.parseInt(threads.trim()));
+    }
+
     /**
      * Invokes post processors and builds indexes for the beans contained in the dictionary
      *
@@ -238,6 +348,8 @@ public class DataDictionary {
         // Allow the DD to perform final post processing in a controlled order
         // Unlike the Spring post processor, we will only call for these operations on the
         // "top-level" beans and have them call post processing actions on embedded DD objects, if needed
+        // this stays on a single thread: entries may share attribute definitions, and embedding the metadata
+        // initializes the metadata providers lazily
         timer.start("DD Post Processing");
         
         for (DataObjectEntry entry : ddBeans.getBeansOfType(DataObjectEntry.class).values()) {
@@ -559,6 +671,37 @@ public class DataDictionary {
         this.moduleLoadOrder = moduleLoadOrder;
     }
 
+    /**
+     * Directory holding snapshots of the parsed dictionary bean definitions
+     *
+     * <p>
+     * When set, the bean definitions parsed from the dictionary files are written to this directory, and later
+     * startups with the same dictionary files load them from there instead of parsing the files. If not explicitly
+     * set, the directory is taken from the configuration parameter
+     * {@link KRADConstants.ConfigParameters#KRAD_DICTIONARY_SNAPSHOT_DIRECTORY}. Snapshots are not used when no
+     * directory is given.
+     * </p>
+     *
+     * @return String path of the snapshot directory, or null if snapshots are not used
+     */
+    public String getSnapshotDirectory() {
+        if (snapshotDirectory == null && ConfigContext.getCurrentContextConfig() != null) {
+            return ConfigContext.getCurrentContextConfig().getProperty(
+                    KRADConstants.ConfigParameters.KRAD_DICTIONARY_SNAPSHOT_DIRECTORY);
+        }
+
+        return snapshotDirectory;
+    }
+
+    /**
+     * Setter for the snapshot directory
+     *
+     * @param snapshotDirectory
+     */
+    public void setSnapshotDirectory(String snapshotDirectory) {
+        this.snapshotDirectory = snapshotDirectory;
+    }
+
     /**
      * Sets the DataDictionaryMapper
      *
@@ -1204,4 +1347,111 @@ public class DataDictionary {
         LOG.info( "\n" + timer.prettyPrint() );
     }
 
+    /**
+     * Loads the dictionary files of one module into a registry of its own
+     */
+    protected static class ModuleBeanDefinitionsLoader implements Callable<ModuleBeanDefinitions> {
+
+        private final String namespaceCode;
+        private final List<String> locations;
+
+        public ModuleBeanDefinitionsLoader(String namespaceCode, List<String> locations) {
+            this.namespaceCode = namespaceCode;
+            this.locations = locations;
+        }
+
+        @Override
+        public ModuleBeanDefinitions call() {
+            LOG.info( "Processing Module: " + namespaceCode);
+            long start = System.currentTimeMillis();
+
+            ModuleBeanDefinitions module = new ModuleBeanDefinitions(namespaceCode);
+            try {
+                new XmlBeanDefinitionReader(module).loadBeanDefinitions(locations.toArray(
+                        new String[locations.size()]));
+            } catch (Exception e) {
+                throw new DataDictionaryException("Error loading bean definitions: " + e.getLocalizedMessage(), e);
+            }
+
+            LOG.info("Loaded " + module.getBeanDefinitionCount() + " bean definitions of module " + namespaceCode
+                    + " in " + (System.currentTimeMillis() - start) + " ms");
+
+            return module;
+        }
+    }
+
+    /**
+     * Registry holding the bean definitions and aliases parsed from the dictionary files of one module
+     */
+    protected static class ModuleBeanDefinitions extends DefaultListableBeanFactory {
+
+        private final String namespaceCode;
+        private final List<String[]> aliases = Collections.synchronizedList(new ArrayList<String[]>());
+
+        public ModuleBeanDefinitions(String namespaceCode) {
+            this.namespaceCode = namespaceCode;
+        }
+
+        public String getNamespaceCode() {
+            return namespaceCode;
+        }
+
+        @Override
+        public void registerAlias(String name, String alias) {
+            super.registerAlias(name, alias);
+            aliases.add(new String[] {name, alias});
+        }
+
+        /**
+         * Copies the bean definitions and aliases of the module into the given factory
+         *
+         * <p>
+         * Definitions replace those of earlier modules with the same name, as they would have if the module had been
+         * loaded directly into the factory. Generated names of anonymous beans are only unique within the module, so
+         * those already used by an earlier module are generated again against the factory.
+         * </p>
+         *
+         * @param beans - The bean factory for the dictionary beans
+         * @param loadedBeanNames - names of the beans added by earlier modules
+         * @return names of the beans added by this module
+         */
+        public List<String> registerWith(DefaultListableBeanFactory beans, Set<String> loadedBeanNames) {
+            Map<String, String> renamedBeans = new HashMap<String, String>();
+            List<String> addedBeanNames = new ArrayList<String>();
+            for (String beanName : getBeanDefinitionNames()) {
+                BeanDefinition beanDefinition = getBeanDefinition(beanName);
+
+                String registeredName = beanName;
+                if (isGeneratedName(beanName) && beans.containsBeanDefinition(beanName)) {
+                    registeredName = BeanDefinitionReaderUtils.generateBeanName(beanDefinition, beans);
+                    renamedBeans.put(beanName, registeredName);
+                }
+
+                beans.registerBeanDefinition(registeredName, beanDefinition);
+                if (!loadedBeanNames.contains(registeredName)) {
+                    addedBeanNames.add(registeredName);
+                }
+            }
+
+            for (String[] alias : aliases) {
+                String name = alias[0];
+                if (renamedBeans.containsKey(name)) {
+                    // the class name alias of an anonymous bean is only registered for the first bean of its class
+                    if (beans.isBeanNameInUse(alias[1])) {
+                        continue;
+                    }
+                    name = renamedBeans.get(name);
+                }
+
+                beans.registerAlias(name, alias[1]);
+            }
+
+            return addedBeanNames;
+        }
+
+        private static boolean isGeneratedName(String beanName) {
+            return beanName.contains(BeanDefinitionReaderUtils.GENERATED_BEAN_NAME_SEPARATOR);
+        }
+    }
+
 }
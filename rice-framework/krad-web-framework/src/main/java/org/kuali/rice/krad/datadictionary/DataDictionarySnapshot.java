@@ -0,0 +1,706 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.krad.datadictionary;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanMetadataAttribute;
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.RuntimeBeanNameReference;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.TypedStringValue;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.beans.factory.support.ManagedArray;
+import org.springframework.beans.factory.support.ManagedList;
+import org.springframework.beans.factory.support.ManagedMap;
+import org.springframework.beans.factory.support.ManagedProperties;
+import org.springframework.beans.factory.support.ManagedSet;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.NotSerializableException;
+import java.io.StreamCorruptedException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Snapshot of the dictionary bean definitions as parsed from the dictionary XML files, stored in a compact binary
+ * file so that later startups can skip parsing the files.
+ *
+ * <p>
+ * The snapshot is keyed by a hash of the module load order, the dictionary file locations and their contents, so any
+ * change to a dictionary file makes a new snapshot.  Only the parsed definitions are stored: placeholder resolution,
+ * the dictionary and UIF post processors, bean instantiation and indexing still run on every startup, since their
+ * results depend on the configuration and classes of the running application.
+ * </p>
+ *
+ * <p>
+ * Definitions are written with the bean metadata that XML parsing produces.  If the dictionary holds a value the
+ * snapshot cannot represent, no snapshot is written and the files are parsed on every startup.
+ * </p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class DataDictionarySnapshot {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DataDictionarySnapshot.class);
+
+    private static final int MAGIC = 0x4b444453;
+    private static final int FORMAT_VERSION = 1;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte TYPED_STRING = 2;
+    private static final byte BEAN_REFERENCE = 3;
+    private static final byte BEAN_NAME_REFERENCE = 4;
+    private static final byte BEAN_DEFINITION_HOLDER = 5;
+    private static final byte BEAN_DEFINITION = 6;
+    private static final byte LIST = 7;
+    private static final byte SET = 8;
+    private static final byte MAP = 9;
+    private static final byte PROPERTIES = 10;
+    private static final byte ARRAY = 11;
+    private static final byte BOOLEAN = 12;
+    private static final byte INTEGER = 13;
+    private static final byte LONG = 14;
+
+    private final File file;
+    private final String key;
+
+    /**
+     * Creates a snapshot stored in the given directory under the given key.
+     *
+     * @param directory directory holding the snapshots
+     * @param key hash of the dictionary sources, see {@link #computeKey(List, Map, ResourcePatternResolver, String)}
+     */
+    public DataDictionarySnapshot(File directory, String key) {
+        this.file = new File(directory, "dictionary-" + key + ".snapshot");
+        this.key = key;
+    }
+
+    /**
+     * Computes the key of the snapshot for the given dictionary sources.
+     *
+     * @param moduleLoadOrder namespace codes in the order their files are loaded
+     * @param moduleDictionaryFiles dictionary file locations by namespace code
+     * @param resourceResolver resolver for the dictionary file locations, which may be patterns
+     * @param version version of the application, so that a new release never reuses an old snapshot
+     * @return hex encoded hash of the sources
+     * @throws IOException if a dictionary file cannot be read
+     */
+    public static String computeKey(List<String> moduleLoadOrder, Map<String, List<String>> moduleDictionaryFiles,
+            ResourcePatternResolver resourceResolver, String version) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not available", e);
+        }
+
+        update(digest, String.valueOf(FORMAT_VERSION));
+        update(digest, version);
+        for (String namespaceCode : moduleLoadOrder) {
+            update(digest, namespaceCode);
+
+            List<String> locations = moduleDictionaryFiles.get(namespaceCode);
+            if (locations == null) {
+                continue;
+            }
+
+            for (String location : locations) {
+                update(digest, location);
+
+                for (Resource resource : resourceResolver.getResources(location)) {
+                    update(digest, resource.getDescription());
+
+                    InputStream in = resource.getInputStream();
+                    try {
+                        digest.update(IOUtils.toByteArray(in));
+                    } finally {
+                        IOUtils.closeQuietly(in);
+                    }
+                }
+            }
+        }
+
+        return Hex.encodeHexString(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        try {
+            digest.update(String.valueOf(value).getBytes("UTF-8"));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update((byte) 0);
+    }
+
+    /**
+     * @return the file holding this snapshot
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * @return whether the snapshot has been written
+     */
+    public boolean exists() {
+        return file.isFile();
+    }
+
+    /**
+     * Registers the bean definitions of the snapshot in the given bean factory and associates the bean names with
+     * their namespaces in the index.
+     *
+     * <p>Nothing is registered if the snapshot cannot be read.</p>
+     *
+     * @param beans bean factory to register the definitions in
+     * @param index index to add the bean names of each namespace to
+     * @return true if the snapshot was loaded, false if it does not exist or cannot be read
+     */
+    public boolean load(DefaultListableBeanFactory beans, DataDictionaryIndex index) {
+        if (!exists()) {
+            return false;
+        }
+
+        Map<String, BeanDefinition> definitions = new LinkedHashMap<String, BeanDefinition>();
+        Map<String, String> aliases = new LinkedHashMap<String, String>();
+        Map<String, List<String>> beanNamesByNamespace = new LinkedHashMap<String, List<String>>();
+
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new InflaterInputStream(new FileInputStream(file))));
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || !key.equals(in.readUTF())) {
+                throw new StreamCorruptedException("not a dictionary snapshot for key " + key);
+            }
+
+            int definitionCount = in.readInt();
+            for (int i = 0; i < definitionCount; i++) {
+                String beanName = in.readUTF();
+                definitions.put(beanName, readBeanDefinition(in));
+            }
+
+            int aliasCount = in.readInt();
+            for (int i = 0; i < aliasCount; i++) {
+                String alias = in.readUTF();
+                aliases.put(alias, in.readUTF());
+            }
+
+            int namespaceCount = in.readInt();
+            for (int i = 0; i < namespaceCount; i++) {
+                String namespaceCode = in.readUTF();
+                beanNamesByNamespace.put(namespaceCode, Arrays.asList(readStrings(in)));
+            }
+        } catch (IOException e) {
+            LOG.warn("Unable to read data dictionary snapshot " + file + ", parsing dictionary files", e);
+
+            return false;
+        } finally {
+            IOUtils.closeQuietly(in);
+        }
+
+        for (Map.Entry<String, BeanDefinition> definition : definitions.entrySet()) {
+            beans.registerBeanDefinition(definition.getKey(), definition.getValue());
+        }
+
+        for (Map.Entry<String, String> alias : aliases.entrySet()) {
+            beans.registerAlias(alias.getValue(), alias.getKey());
+        }
+
+        for (Map.Entry<String, List<String>> namespaceBeans : beanNamesByNamespace.entrySet()) {
+            index.addBeanNamesToNamespace(namespaceBeans.getKey(), namespaceBeans.getValue());
+        }
+
+        LOG.info("Loaded " + definitions.size() + " dictionary bean definitions from snapshot " + file);
+
+        return true;
+    }
+
+    /**
+     * Writes the bean definitions of the given bean factory, which must not have been post processed yet.
+     *
+     * <p>
+     * The snapshot is written to a temporary file first and then renamed, so other nodes starting from the same
+     * directory never read a partial snapshot.  Failures are logged and leave no snapshot behind.
+     * </p>
+     *
+     * @param beans bean factory holding the parsed dictionary bean definitions
+     * @param beanNamesByNamespace bean names loaded by each namespace
+     * @return true if the snapshot was written
+     */
+    public boolean save(DefaultListableBeanFactory beans, Map<String, List<String>> beanNamesByNamespace) {
+        File directory = file.getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            LOG.warn("Unable to create data dictionary snapshot directory " + directory);
+
+            return false;
+        }
+
+        File tempFile = null;
+        DataOutputStream out = null;
+        try {
+            tempFile = File.createTempFile("dictionary-", ".tmp", directory);
+            out = new DataOutputStream(new BufferedOutputStream(new DeflaterOutputStream(new FileOutputStream(
+                    tempFile))));
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(key);
+
+            String[] beanNames = beans.getBeanDefinitionNames();
+            out.writeInt(beanNames.length);
+            List<String[]> aliases = new ArrayList<String[]>();
+            for (String beanName : beanNames) {
+                out.writeUTF(beanName);
+                writeBeanDefinition(out, beans.getBeanDefinition(beanName));
+
+                for (String alias : beans.getAliases(beanName)) {
+                    aliases.add(new String[] {alias, beanName});
+                }
+            }
+
+            out.writeInt(aliases.size());
+            for (String[] alias : aliases) {
+                out.writeUTF(alias[0]);
+                out.writeUTF(alias[1]);
+            }
+
+            out.writeInt(beanNamesByNamespace.size());
+            for (Map.Entry<String, List<String>> namespaceBeans : beanNamesByNamespace.entrySet()) {
+                out.writeUTF(namespaceBeans.getKey());
+                writeStrings(out, namespaceBeans.getValue());
+            }
+
+            out.close();
+            out = null;
+
+            if (!tempFile.renameTo(file) && !file.isFile()) {
+                throw new IOException("Unable to rename " + tempFile + " to " + file);
+            }
+
+            LOG.info("Wrote " + beanNames.length + " dictionary bean definitions to snapshot " + file);
+
+            return true;
+        } catch (IOException e) {
+            LOG.warn("Unable to write data dictionary snapshot " + file, e);
+
+            return false;
+        } finally {
+            IOUtils.closeQuietly(out);
+            if (tempFile != null && tempFile.exists()) {
+                tempFile.delete();
+            }
+        }
+    }
+
+    private void writeBeanDefinition(DataOutputStream out, BeanDefinition beanDefinition) throws IOException {
+        if (!(beanDefinition instanceof AbstractBeanDefinition)) {
+            throw new NotSerializableException(beanDefinition.getClass().getName());
+        }
+
+        AbstractBeanDefinition definition = (AbstractBeanDefinition) beanDefinition;
+        if (!definition.getMethodOverrides().isEmpty() || !definition.getQualifiers().isEmpty()
+                || definition.getSource() != null) {
+            throw new NotSerializableException("bean definition of " + definition.getResourceDescription());
+        }
+
+        writeString(out, definition.getBeanClassName());
+        writeString(out, definition.getParentName());
+        writeString(out, definition.getScope());
+        out.writeBoolean(definition.isAbstract());
+        out.writeBoolean(definition.isLazyInit());
+        out.writeInt(definition.getAutowireMode());
+        out.writeInt(definition.getDependencyCheck());
+        out.writeBoolean(definition.isAutowireCandidate());
+        out.writeBoolean(definition.isPrimary());
+        out.writeBoolean(definition.isSynthetic());
+        out.writeInt(definition.getRole());
+        writeStrings(out, definition.getDependsOn());
+        writeString(out, definition.getInitMethodName());
+        out.writeBoolean(definition.isEnforceInitMethod());
+        writeString(out, definition.getDestroyMethodName());
+        out.writeBoolean(definition.isEnforceDestroyMethod());
+        writeString(out, definition.getFactoryBeanName());
+        writeString(out, definition.getFactoryMethodName());
+        writeString(out, definition.getDescription());
+        writeString(out, definition.getResourceDescription());
+
+        String[] attributeNames = definition.attributeNames();
+        out.writeInt(attributeNames.length);
+        for (String attributeName : attributeNames) {
+            Object attribute = definition.getAttribute(attributeName);
+            if (attribute instanceof BeanMetadataAttribute) {
+                attribute = ((BeanMetadataAttribute) attribute).getValue();
+            }
+            out.writeUTF(attributeName);
+            writeValue(out, attribute);
+        }
+
+        ConstructorArgumentValues constructorArguments = definition.getConstructorArgumentValues();
+        out.writeInt(constructorArguments.getIndexedArgumentValues().size());
+        for (Map.Entry<Integer, ConstructorArgumentValues.ValueHolder> argument :
+                constructorArguments.getIndexedArgumentValues().entrySet()) {
+            out.writeInt(argument.getKey().intValue());
+            writeValueHolder(out, argument.getValue());
+        }
+        out.writeInt(constructorArguments.getGenericArgumentValues().size());
+        for (ConstructorArgumentValues.ValueHolder argument : constructorArguments.getGenericArgumentValues()) {
+            writeValueHolder(out, argument);
+        }
+
+        PropertyValue[] propertyValues = definition.getPropertyValues().getPropertyValues();
+        out.writeInt(propertyValues.length);
+        for (PropertyValue propertyValue : propertyValues) {
+            out.writeUTF(propertyValue.getName());
+            writeValue(out, propertyValue.getValue());
+        }
+    }
+
+    private BeanDefinition readBeanDefinition(DataInputStream in) throws IOException {
+        GenericBeanDefinition definition = new GenericBeanDefinition();
+        definition.setBeanClassName(readString(in));
+        definition.setParentName(readString(in));
+        definition.setScope(readString(in));
+        definition.setAbstract(in.readBoolean());
+        definition.setLazyInit(in.readBoolean());
+        definition.setAutowireMode(in.readInt());
+        definition.setDependencyCheck(in.readInt());
+        definition.setAutowireCandidate(in.readBoolean());
+        definition.setPrimary(in.readBoolean());
+        definition.setSynthetic(in.readBoolean());
+        definition.setRole(in.readInt());
+        definition.setDependsOn(readStrings(in));
+        definition.setInitMethodName(readString(in));
+        definition.setEnforceInitMethod(in.readBoolean());
+        definition.setDestroyMethodName(readString(in));
+        definition.setEnforceDestroyMethod(in.readBoolean());
+        definition.setFactoryBeanName(readString(in));
+        definition.setFactoryMethodName(readString(in));
+        definition.setDescription(readString(in));
+        definition.setResourceDescription(readString(in));
+
+        int attributeCount = in.readInt();
+        for (int i = 0; i < attributeCount; i++) {
+            String attributeName = in.readUTF();
+            definition.addMetadataAttribute(new BeanMetadataAttribute(attributeName, readValue(in)));
+        }
+
+        ConstructorArgumentValues constructorArguments = new ConstructorArgumentValues();
+        int indexedArgumentCount = in.readInt();
+        for (int i = 0; i < indexedArgumentCount; i++) {
+            int index = in.readInt();
+            constructorArguments.addIndexedArgumentValue(index, readValueHolder(in));
+        }
+        int genericArgumentCount = in.readInt();
+        for (int i = 0; i < genericArgumentCount; i++) {
+            constructorArguments.addGenericArgumentValue(readValueHolder(in));
+        }
+        definition.setConstructorArgumentValues(constructorArguments);
+
+        MutablePropertyValues propertyValues = new MutablePropertyValues();
+        int propertyCount = in.readInt();
+        for (int i = 0; i < propertyCount; i++) {
+            String name = in.readUTF();
+            propertyValues.addPropertyValue(new PropertyValue(name, readValue(in)));
+        }
+        definition.setPropertyValues(propertyValues);
+
+        return definition;
+    }
+
+    private void writeValueHolder(DataOutputStream out, ConstructorArgumentValues.ValueHolder valueHolder)
+            throws IOException {
+        writeString(out, valueHolder.getType());
+        writeString(out, valueHolder.getName());
+        writeValue(out, valueHolder.getValue());
+    }
+
+    private ConstructorArgumentValues.ValueHolder readValueHolder(DataInputStream in) throws IOException {
+        String type = readString(in);
+        String name = readString(in);
+
+        return new ConstructorArgumentValues.ValueHolder(readValue(in), type, name);
+    }
+
+    private void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof String) {
+            out.writeByte(STRING);
+            writeLongString(out, (String) value);
+        } else if (value instanceof TypedStringValue) {
+            TypedStringValue typedValue = (TypedStringValue) value;
+            out.writeByte(TYPED_STRING);
+            writeLongString(out, typedValue.getValue());
+            writeString(out, typedValue.hasTargetType() ? typedValue.getTargetType().getName() :
+                    typedValue.getTargetTypeName());
+            writeString(out, typedValue.getSpecifiedTypeName());
+            out.writeBoolean(typedValue.isDynamic());
+        } else if (value instanceof RuntimeBeanReference) {
+            RuntimeBeanReference reference = (RuntimeBeanReference) value;
+            out.writeByte(BEAN_REFERENCE);
+            out.writeUTF(reference.getBeanName());
+            out.writeBoolean(reference.isToParent());
+        } else if (value instanceof RuntimeBeanNameReference) {
+            out.writeByte(BEAN_NAME_REFERENCE);
+            out.writeUTF(((RuntimeBeanNameReference) value).getBeanName());
+        } else if (value instanceof BeanDefinitionHolder) {
+            BeanDefinitionHolder holder = (BeanDefinitionHolder) value;
+            out.writeByte(BEAN_DEFINITION_HOLDER);
+            out.writeUTF(holder.getBeanName());
+            writeStrings(out, holder.getAliases());
+            writeBeanDefinition(out, holder.getBeanDefinition());
+        } else if (value instanceof BeanDefinition) {
+            out.writeByte(BEAN_DEFINITION);
+            writeBeanDefinition(out, (BeanDefinition) value);
+        } else if (value instanceof ManagedArray) {
+            ManagedArray array = (ManagedArray) value;
+            out.writeByte(ARRAY);
+            writeString(out, array.getElementTypeName());
+            out.writeBoolean(array.isMergeEnabled());
+            writeElements(out, array);
+        } else if (value instanceof ManagedList) {
+            ManagedList<?> list = (ManagedList<?>) value;
+            out.writeByte(LIST);
+            writeString(out, list.getElementTypeName());
+            out.writeBoolean(list.isMergeEnabled());
+            writeElements(out, list);
+        } else if (value instanceof ManagedSet) {
+            ManagedSet<?> set = (ManagedSet<?>) value;
+            out.writeByte(SET);
+            writeString(out, set.getElementTypeName());
+            out.writeBoolean(set.isMergeEnabled());
+            writeElements(out, set);
+        } else if (value instanceof ManagedMap) {
+            ManagedMap<?, ?> map = (ManagedMap<?, ?>) value;
+            out.writeByte(MAP);
+            writeString(out, map.getKeyTypeName());
+            writeString(out, map.getValueTypeName());
+            out.writeBoolean(map.isMergeEnabled());
+            writeEntries(out, map);
+        } else if (value instanceof ManagedProperties) {
+            ManagedProperties properties = (ManagedProperties) value;
+            out.writeByte(PROPERTIES);
+            out.writeBoolean(properties.isMergeEnabled());
+            writeEntries(out, properties);
+        } else if (value instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean(((Boolean) value).booleanValue());
+        } else if (value instanceof Integer) {
+            out.writeByte(INTEGER);
+            out.writeInt(((Integer) value).intValue());
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong(((Long) value).longValue());
+        } else {
+            throw new NotSerializableException(value.getClass().getName());
+        }
+    }
+
+    private Object readValue(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case NULL:
+                return null;
+            case STRING:
+                return readLongString(in);
+            case TYPED_STRING: {
+                TypedStringValue typedValue = new TypedStringValue(readLongString(in));
+                typedValue.setTargetTypeName(readString(in));
+                typedValue.setSpecifiedTypeName(readString(in));
+                if (in.readBoolean()) {
+                    typedValue.setDynamic();
+                }
+                return typedValue;
+            }
+            case BEAN_REFERENCE: {
+                String beanName = in.readUTF();
+                return new RuntimeBeanReference(beanName, in.readBoolean());
+            }
+            case BEAN_NAME_REFERENCE:
+                return new RuntimeBeanNameReference(in.readUTF());
+            case BEAN_DEFINITION_HOLDER: {
+                String beanName = in.readUTF();
+                String[] aliases = readStrings(in);
+                return new BeanDefinitionHolder(readBeanDefinition(in), beanName, aliases);
+            }
+            case BEAN_DEFINITION:
+                return readBeanDefinition(in);
+            case ARRAY: {
+                String elementTypeName = readString(in);
+                boolean mergeEnabled = in.readBoolean();
+                int size = in.readInt();
+                ManagedArray array = new ManagedArray(elementTypeName, size);
+                array.setMergeEnabled(mergeEnabled);
+                readElements(in, array, size);
+                return array;
+            }
+            case LIST: {
+                ManagedList<Object> list = new ManagedList<Object>();
+                list.setElementTypeName(readString(in));
+                list.setMergeEnabled(in.readBoolean());
+                readElements(in, list, in.readInt());
+                return list;
+            }
+            case SET: {
+                ManagedSet<Object> set = new ManagedSet<Object>();
+                set.setElementTypeName(readString(in));
+                set.setMergeEnabled(in.readBoolean());
+                readElements(in, set, in.readInt());
+                return set;
+            }
+            case MAP: {
+                ManagedMap<Object, Object> map = new ManagedMap<Object, Object>();
+                map.setKeyTypeName(readString(in));
+                map.setValueTypeName(readString(in));
+                map.setMergeEnabled(in.readBoolean());
+                readEntries(in, map);
+                return map;
+            }
+            case PROPERTIES: {
+                ManagedProperties properties = new ManagedProperties();
+                properties.setMergeEnabled(in.readBoolean());
+                readEntries(in, properties);
+                return properties;
+            }
+            case BOOLEAN:
+                return Boolean.valueOf(in.readBoolean());
+            case INTEGER:
+                return Integer.valueOf(in.readInt());
+            case LONG:
+                return Long.valueOf(in.readLong());
+            default:
+                throw new StreamCorruptedException("unknown value type " + type);
+        }
+    }
+
+    private void writeElements(DataOutputStream out, Collection<?> elements) throws IOException {
+        out.writeInt(elements.size());
+        for (Object element : elements) {
+            writeValue(out, element);
+        }
+    }
+
+    private void readElements(DataInputStream in, Collection<Object> elements, int size)
+            throws IOException {
+        for (int i = 0; i < size; i++) {
+            elements.add(readValue(in));
+        }
+    }
+
+    private void writeEntries(DataOutputStream out, Map<?, ?> map) throws IOException {
+        out.writeInt(map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            writeValue(out, entry.getKey());
+            writeValue(out, entry.getValue());
+        }
+    }
+
+    private void readEntries(DataInputStream in, Map<Object, Object> map) throws IOException {
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            Object entryKey = readValue(in);
+            map.put(entryKey, readValue(in));
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    /**
+     * Writes a string which may be longer than the 64K bytes {@link DataOutputStream#writeUTF(String)} allows, such
+     * as a script or a message.
+     */
+    private static void writeLongString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes("UTF-8");
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readLongString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, "UTF-8");
+    }
+
+    private static void writeStrings(DataOutputStream out, String[] values) throws IOException {
+        out.writeInt(values == null ? -1 : values.length);
+        if (values != null) {
+            for (String value : values) {
+                out.writeUTF(value);
+            }
+        }
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+        writeStrings(out, values == null ? null : values.toArray(new String[values.size()]));
+    }
+
+    private static String[] readStrings(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+
+        String[] values = new String[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = in.readUTF();
+        }
+        return values;
+    }
+
+}
@@ -68,6 +68,7 @@ import org.kuali.rice.krad.service.DocumentDictionaryService;
 import org.kuali.rice.krad.service.DocumentService;
 import org.kuali.rice.krad.service.KRADServiceLocator;
 import org.kuali.rice.krad.service.KRADServiceLocatorWeb;
+import org.kuali.rice.krad.service.MaintainableContentSerializer;
 import org.kuali.rice.krad.service.MaintenanceDocumentService;
 import org.kuali.rice.krad.util.GlobalVariables;
 import org.kuali.rice.krad.util.KRADConstants;
@@ -402,6 +403,12 @@ public class MaintenanceDocumentBase extends DocumentBase implements Maintenance
     protected Object getDataObjectFromXML(String maintainableTagName) {
         String maintXml = StringUtils.substringBetween(xmlDocumentContents, "<" + maintainableTagName + ">",
                 "</" + maintainableTagName + ">");
+
+        MaintainableContentSerializer contentSerializer = getMaintainableContentSerializer();
+        if (contentSerializer != null && contentSerializer.canDeserialize(maintXml)) {
+            return contentSerializer.deserialize(maintXml);
+        }
+
         /*KULRICE-12304*/
         try {
             boolean ignoreMissingFields = false;
@@ -505,7 +512,7 @@ public class MaintenanceDocumentBase extends DocumentBase implements Maintenance
             //KradDataServiceLocator.getDataObjectService().wrap(oldBo).materializeReferencedObjectsToDepth(SUB_OBJECT_MATERIALIZATION_DEPTH);
             KRADServiceLocatorWeb.getLegacyDataAdapter().materializeAllSubObjects(oldBo);
 
-            docContentBuffer.append(getBusinessObjectSerializerService().serializeBusinessObjectToXml(oldBo));
+            docContentBuffer.append(serializeDataObject(oldBo));
 
             // add the maintainable's maintenanceAction
             docContentBuffer.append("<" + MAINTENANCE_ACTION_TAG_NAME + ">");
@@ -521,7 +528,7 @@ public class MaintenanceDocumentBase extends DocumentBase implements Maintenance
         //KradDataServiceLocator.getDataObjectService().wrap(newBo).materializeReferencedObjectsToDepth(SUB_OBJECT_MATERIALIZATION_DEPTH);
         KRADServiceLocatorWeb.getLegacyDataAdapter().materializeAllSubObjects(newBo);
         
-        docContentBuffer.append(getBusinessObjectSerializerService().serializeBusinessObjectToXml(newBo));
+        docContentBuffer.append(serializeDataObject(newBo));
 
         // add the maintainable's maintenanceAction
         docContentBuffer.append("<" + MAINTENANCE_ACTION_TAG_NAME + ">");
@@ -533,6 +540,30 @@ public class MaintenanceDocumentBase extends DocumentBase implements Maintenance
         xmlDocumentContents = docContentBuffer.toString();
     }
 
+    /**
+     * Serializes a maintained data object for the document contents.
+     *
+     * <p>
+     * When the {@link MaintainableContentSerializer} is enabled by the
+     * {@link KRADConstants.ConfigParameters#KRAD_MAINTAINABLE_CONTENT_SERIALIZER_ENABLED} parameter, the data object
+     * is written in its form, otherwise as XML. Data objects are read in either form regardless of the parameter, so
+     * documents saved as XML are converted the next time they are saved.
+     * </p>
+     *
+     * @param dataObject the data object of the old or new maintainable
+     * @return the serialized data object
+     */
+    protected String serializeDataObject(Object dataObject) {
+        MaintainableContentSerializer contentSerializer = getMaintainableContentSerializer();
+        if (contentSerializer != null && ConfigContext.getCurrentContextConfig() != null
+                && ConfigContext.getCurrentContextConfig().getBooleanProperty(
+                KRADConstants.ConfigParameters.KRAD_MAINTAINABLE_CONTENT_SERIALIZER_ENABLED, false)) {
+            return contentSerializer.serialize(dataObject);
+        }
+
+        return getBusinessObjectSerializerService().serializeBusinessObjectToXml(dataObject);
+    }
+
     /**
      * @see org.kuali.rice.krad.document.DocumentBase#doRouteStatusChange(org.kuali.rice.kew.framework.postprocessor.DocumentRouteStatusChange)
      */
@@ -1091,6 +1122,13 @@ public class MaintenanceDocumentBase extends DocumentBase implements Maintenance
         return KRADServiceLocator.getDataObjectSerializerService();
     }
 
+    /**
+     * @return the serializer for maintained data objects, or null if none is configured
+     */
+    protected MaintainableContentSerializer getMaintainableContentSerializer() {
+        return KRADServiceLocatorWeb.getMaintainableContentSerializer();
+    }
+
     //for issue KULRice3070
     protected boolean checkAllowsRecordDeletion() {
         Boolean allowsRecordDeletion = KRADServiceLocatorWeb.getDocumentDictionaryService().getAllowsRecordDeletion(
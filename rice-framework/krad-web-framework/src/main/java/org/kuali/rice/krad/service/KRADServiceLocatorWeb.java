@@ -25,6 +25,7 @@ import org.kuali.rice.krad.uif.service.UifDefaultingService;
 import org.kuali.rice.krad.uif.service.ViewDictionaryService;
 import org.kuali.rice.krad.uif.service.ViewService;
 import org.kuali.rice.krad.uif.view.ExpressionEvaluatorFactory;
+import org.kuali.rice.krad.web.form.UifFormStore;
 import org.kuali.rice.krad.web.service.ModelAndViewService;
 import org.kuali.rice.krad.workflow.service.WorkflowDocumentService;
 import org.springframework.web.servlet.ModelAndView;
@@ -59,6 +60,7 @@ public class KRADServiceLocatorWeb {
     public static final String FEEDBACK_REPORT_SERVICE = "kradFeedbackService";
     /* KULRICE-12304: Added a new locator for the new MaintainableXMLConversionService */
     public static final String MAINTAINABLE_XML_CONVERSION_SERVICE = "kradMaintainableXMLConversionService";
+    public static final String MAINTAINABLE_CONTENT_SERIALIZER = "kradMaintainableContentSerializer";
 
     public static final String DATA_DICTIONARY_SERVICE = "dataDictionaryService";
     public static final String PESSIMISTIC_LOCK_SERVICE = "pessimisticLockService";
@@ -82,6 +84,7 @@ public class KRADServiceLocatorWeb {
     public static final String EXPRESSION_EVALUATOR_FACTORY = "expressionEvaluatorFactory";
     public static final String VIEW_LIFECYCLE_PHASE_BUILDER = "viewLifecyclePhaseBuilder";
     public static final String MODEL_AND_VIEW_SERVICE = "modelAndViewService";
+    public static final String UIF_FORM_STORE = "uifFormStore";
 
     public static <T extends Object> T getService(String serviceName) {
         return GlobalResourceLoader.<T>getService(serviceName);
@@ -119,6 +122,10 @@ public class KRADServiceLocatorWeb {
         return getService(MAINTAINABLE_XML_CONVERSION_SERVICE);
     }
 
+    public static final MaintainableContentSerializer getMaintainableContentSerializer() {
+        return getService(MAINTAINABLE_CONTENT_SERIALIZER);
+    }
+
     public static DataDictionaryService getDataDictionaryService() {
         return getService(DATA_DICTIONARY_SERVICE);
     }
@@ -221,6 +228,15 @@ public class KRADServiceLocatorWeb {
         return getService(VIEW_LIFECYCLE_PHASE_BUILDER);
     }
     
+    /**
+     * Returns the store holding session forms outside of the session, if one is configured.
+     *
+     * @return UifFormStore, or null if session forms are kept in the session
+     */
+    public static UifFormStore getUifFormStore() {
+        return getService(UIF_FORM_STORE);
+    }
+
     /**
      * Returns the legacy data adapter for handling legacy KNS and KRAD data and metadata.
      *
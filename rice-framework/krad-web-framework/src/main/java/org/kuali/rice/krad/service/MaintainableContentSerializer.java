@@ -0,0 +1,57 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.krad.service;
+
+/**
+ * Serializes the data objects of a maintenance document to and from the content stored with the document.
+ *
+ * <p>
+ * The serialized form is embedded in the maintenance document contents in place of the XML written by the
+ * {@link BusinessObjectSerializerService}, so it must be text that can appear as the content of an XML element.
+ * Contents written before the serializer was enabled, and contents the serializer does not recognize, continue to be
+ * read as XML; they are written in the serializer's form the next time the document is saved.
+ * </p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public interface MaintainableContentSerializer {
+
+    /**
+     * Serializes a data object.
+     *
+     * @param dataObject the data object to serialize
+     * @return the serialized form of the data object
+     */
+    String serialize(Object dataObject);
+
+    /**
+     * Determines whether the given maintainable content was written by this serializer.
+     *
+     * @param content the content of the old or new maintainable object element of a maintenance document
+     * @return true if the content can be read by {@link #deserialize(String)}, false if it should be read as XML
+     */
+    boolean canDeserialize(String content);
+
+    /**
+     * Reads a data object from content written by {@link #serialize(Object)}.
+     *
+     * @param content the content of the old or new maintainable object element of a maintenance document, which may
+     * be followed by other elements of the maintainable
+     * @return the data object
+     */
+    Object deserialize(String content);
+
+}
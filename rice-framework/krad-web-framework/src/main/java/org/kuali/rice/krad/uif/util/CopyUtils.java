@@ -32,7 +32,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Queue;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.kuali.rice.core.api.config.property.Config;
 import org.kuali.rice.core.api.config.property.ConfigContext;
@@ -195,14 +196,14 @@ public final class CopyUtils {
         }
 
         FieldReference<?> fieldRef = (FieldReference<?>) ref;
-        Field field = fieldRef.field;
+        FieldMetadata field = fieldRef.field;
 
-        if (field.isAnnotationPresent(ReferenceCopy.class)) {
+        if (field.referenceCopy != null) {
             return false;
         }
 
         if (!(source instanceof Copyable) && ((source instanceof Map) || (source instanceof List))) {
-            Class<?> collectionType = getMetadata(fieldRef.source.getClass()).collectionTypeByField.get(field);
+            Class<?> collectionType = field.collectionType;
 
             if (!Object.class.equals(collectionType) && !isCopyAvailable(collectionType)) {
                 return false;
@@ -222,8 +223,7 @@ public final class CopyUtils {
         }
 
         FieldReference<?> fieldRef = (FieldReference<?>) ref;
-        Field field = fieldRef.field;
-        ReferenceCopy refCopy = (ReferenceCopy) field.getAnnotation(ReferenceCopy.class);
+        ReferenceCopy refCopy = fieldRef.field.referenceCopy;
 
         return refCopy == null || refCopy.newCollectionInstance();
     }
@@ -405,8 +405,11 @@ public final class CopyUtils {
             }
 
             if (Copyable.class.isAssignableFrom(type)) {
-                for (Field field : getMetadata(type).cloneFields) {
-                    queue.offer(getFieldReference(source, target, field, ref));
+                ClassMetadata metadata = getMetadata(type);
+                Map<String, Type> inheritedTypeVariables = getInheritedTypeVariables(metadata, ref);
+
+                for (FieldMetadata field : metadata.cloneFields) {
+                    queue.offer(getFieldReference(source, target, field, ref, inheritedTypeVariables));
                 }
 
                 // Used fields for deep copying, even if List or Map is implemented.
@@ -654,7 +657,7 @@ public final class CopyUtils {
 
         private Object source;
         private Object target;
-        private Field field;
+        private FieldMetadata field;
         private boolean delayAvailable;
         private Map<String, Type> typeVariables = new HashMap<String, Type>();
         private String path;
@@ -667,7 +670,7 @@ public final class CopyUtils {
         @SuppressWarnings("unchecked")
         @Override
         public Class<T> getTargetClass() {
-            return (Class<T>) field.getType();
+            return (Class<T>) field.type;
         }
 
         /**
@@ -685,7 +688,7 @@ public final class CopyUtils {
          */
         @Override
         public Type getType() {
-            return field.getGenericType();
+            return field.genericType;
         }
 
         /**
@@ -705,14 +708,13 @@ public final class CopyUtils {
         @Override
         public T get() {
             try {
-                ReferenceCopy ref = field.getAnnotation(ReferenceCopy.class);
-                if (ref != null && ref.referenceTransient()) {
+                if (field.referenceTransient) {
                     return null;
                 }
 
-                return (T) field.get(source);
+                return (T) field.field.get(source);
             } catch (IllegalAccessException e) {
-                throw new IllegalStateException("Access error attempting to get from " + field, e);
+                throw new IllegalStateException("Access error attempting to get from " + field.field, e);
             }
         }
 
@@ -724,9 +726,9 @@ public final class CopyUtils {
         @Override
         public void set(Object value) {
             try {
-                field.set(target, value);
+                field.field.set(target, value);
             } catch (IllegalAccessException e) {
-                throw new IllegalStateException("Access error attempting to set " + field, e);
+                throw new IllegalStateException("Access error attempting to set " + field.field, e);
             }
         }
 
@@ -761,10 +763,13 @@ public final class CopyUtils {
      * @param source The source object.
      * @param target The target object.
      * @param field The field to use as the reference target.
+     * @param pref The reference to the source object.
+     * @param inheritedTypeVariables Type variables of the source object, resolved from the parent
+     *        reference by {@link #getInheritedTypeVariables(ClassMetadata, CopyReference)}.
      * @return A field reference for temporary use while deep cloning.
      */
-    private static <T> FieldReference<T> getFieldReference(Object source, Object target, Field field,
-            CopyReference<T> pref) {
+    private static <T> FieldReference<T> getFieldReference(Object source, Object target, FieldMetadata field,
+            CopyReference<T> pref, Map<String, Type> inheritedTypeVariables) {
         @SuppressWarnings("unchecked")
         FieldReference<T> ref = RecycleUtils.getRecycledInstance(FieldReference.class);
 
@@ -776,48 +781,64 @@ public final class CopyUtils {
         ref.target = target;
         ref.field = field;
 
-        DelayedCopy delayedCopy = field.getAnnotation(DelayedCopy.class);
+        DelayedCopy delayedCopy = field.delayedCopy;
         ref.delayAvailable = delayedCopy != null && (!delayedCopy.inherit() || pref.isDelayAvailable());
 
-        Map<String, Type> pTypeVars = pref.getTypeVariables();
-
-        if (pTypeVars != null && source != null) {
-            Class<?> sourceType = source.getClass();
-            Class<?> targetClass = pref.getTargetClass();
-            Type targetType = ObjectPropertyUtils.findGenericType(sourceType, targetClass);
-            if (targetType instanceof ParameterizedType) {
-                ParameterizedType parameterizedTargetType = (ParameterizedType) targetType;
-                Type[] params = parameterizedTargetType.getActualTypeArguments();
-                for (int j = 0; j < params.length; j++) {
-                    if (params[j] instanceof TypeVariable<?>) {
-                        Type pType = pTypeVars.get(targetClass.getTypeParameters()[j].getName());
-                        ref.typeVariables.put(((TypeVariable<?>) params[j]).getName(), pType);
-                    }
-                }
-            }
-        }
+        ref.typeVariables.putAll(inheritedTypeVariables);
 
-        Class<?> rawType = field.getType();
-        Type genericType = field.getGenericType();
-        if (genericType instanceof ParameterizedType) {
-            ParameterizedType parameterizedType = (ParameterizedType) genericType;
-            TypeVariable<?>[] typeParams = rawType.getTypeParameters();
-            Type[] params = parameterizedType.getActualTypeArguments();
-            assert params.length == typeParams.length;
-            for (int i = 0; i < params.length; i++) {
-                Type paramType = params[i];
+        if (field.typeArguments != null) {
+            for (int i = 0; i < field.typeArguments.length; i++) {
+                Type paramType = field.typeArguments[i];
                 if (paramType instanceof TypeVariable<?>) {
                     Type fType = ref.typeVariables.get(((TypeVariable<?>) paramType).getName());
                     if (fType != null) {
                         paramType = fType;
                     }
                 }
-                ref.typeVariables.put(typeParams[i].getName(), paramType);
+                ref.typeVariables.put(field.typeParameterNames[i], paramType);
             }
         }
         return ref;
     }
 
+    /**
+     * Resolve the type variables of a source object's class from those of the reference the
+     * source object was found through.
+     *
+     * <p>
+     * The result is the same for all fields on the source object, so is calculated once per
+     * object rather than once per field.
+     * </p>
+     *
+     * @param metadata Copy metadata for the class of the source object.
+     * @param pref The reference to the source object.
+     * @return Mapping from type variable name on the source class to resolved type.
+     */
+    private static Map<String, Type> getInheritedTypeVariables(ClassMetadata metadata, CopyReference<?> pref) {
+        Map<String, Type> pTypeVars = pref.getTypeVariables();
+
+        if (pTypeVars == null) {
+            return Collections.emptyMap();
+        }
+
+        Class<?> targetClass = pref.getTargetClass();
+        Type targetType = metadata.getGenericType(targetClass);
+        if (!(targetType instanceof ParameterizedType)) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, Type> typeVariables = new HashMap<String, Type>();
+        Type[] params = ((ParameterizedType) targetType).getActualTypeArguments();
+        for (int j = 0; j < params.length; j++) {
+            if (params[j] instanceof TypeVariable<?>) {
+                Type pType = pTypeVars.get(targetClass.getTypeParameters()[j].getName());
+                typeVariables.put(((TypeVariable<?>) params[j]).getName(), pType);
+            }
+        }
+
+        return typeVariables;
+    }
+
     /**
      * Reference implementation for an entry in an array.
      */
@@ -1186,39 +1207,140 @@ public final class CopyUtils {
         return ref;
     }
 
+    /**
+     * Copy strategy for a single field, with the reflective lookups needed to follow the field
+     * during a deep copy resolved once.
+     *
+     * @author Kuali Rice Team (rice.collab@kuali.org)
+     */
+    private static class FieldMetadata {
+
+        /**
+         * The field, made accessible.
+         */
+        private final Field field;
+
+        /**
+         * The declared type of the field.
+         */
+        private final Class<?> type;
+
+        /**
+         * The generic type of the field.
+         */
+        private final Type genericType;
+
+        /**
+         * The {@link ReferenceCopy} annotation on the field, null if not present.
+         */
+        private final ReferenceCopy referenceCopy;
+
+        /**
+         * True if the field is not to be copied, but left null on the target.
+         */
+        private final boolean referenceTransient;
+
+        /**
+         * The {@link DelayedCopy} annotation on the field, null if not present.
+         */
+        private final DelayedCopy delayedCopy;
+
+        /**
+         * Generic item or value type for a List or Map field that should be deep copied, null if
+         * not a List or Map or if the items should not be deep copied.
+         */
+        private final Class<?> collectionType;
+
+        /**
+         * Names of the type parameters of the field type, when the field has a parameterized
+         * type.
+         */
+        private final String[] typeParameterNames;
+
+        /**
+         * Actual type arguments for the type parameters of the field type, null if the field does
+         * not have a parameterized type.
+         */
+        private final Type[] typeArguments;
+
+        /**
+         * Create copy metadata for a field.
+         *
+         * @param field The field, which must already have been made accessible.
+         * @param collectionType Generic item or value type, when the field is a List or Map.
+         */
+        private FieldMetadata(Field field, Class<?> collectionType) {
+            this.field = field;
+            this.type = field.getType();
+            this.genericType = field.getGenericType();
+            this.referenceCopy = field.getAnnotation(ReferenceCopy.class);
+            this.referenceTransient = referenceCopy != null && referenceCopy.referenceTransient();
+            this.delayedCopy = field.getAnnotation(DelayedCopy.class);
+            this.collectionType = collectionType;
+
+            if (genericType instanceof ParameterizedType) {
+                TypeVariable<?>[] typeParams = type.getTypeParameters();
+                Type[] params = ((ParameterizedType) genericType).getActualTypeArguments();
+                assert params.length == typeParams.length;
+
+                typeParameterNames = new String[typeParams.length];
+                for (int i = 0; i < typeParams.length; i++) {
+                    typeParameterNames[i] = typeParams[i].getName();
+                }
+                typeArguments = params;
+            } else {
+                typeParameterNames = null;
+                typeArguments = null;
+            }
+        }
+    }
+
     /**
      * Internal field cache meta-data node, for reducing field lookup overhead.
      *
+     * <p>
+     * Holds the copy strategy for a class: the fields to follow during a deep copy, each with its
+     * annotations and generic type information already resolved, so that copying an instance
+     * does not repeat any reflective lookups.
+     * </p>
+     *
      * @author Kuali Rice Team (rice.collab@kuali.org)
      */
     private static class ClassMetadata {
 
         /**
-         * All fields on the class that should have a shallow copy performed during a deep copy
-         * operation.
+         * The class this meta-data describes.
          */
-        private final List<Field> cloneFields;
+        private final Class<?> targetClass;
 
         /**
-         * Mapping from field to generic collection type, for Map and List fields that should be
-         * deep copied.
+         * All fields on the class that should have a shallow copy performed during a deep copy
+         * operation.
          */
-        private final Map<Field, Class<?>> collectionTypeByField;
+        private final List<FieldMetadata> cloneFields;
 
         /**
          * Mapping from annotation type to field name to annotation mapping.
          */
         private final Map<Class<?>, Map<String, Annotation>> annotatedFieldsByAnnotationType;
 
+        /**
+         * Generic form of supertypes of the class, by raw supertype, as found by
+         * {@link ObjectPropertyUtils#findGenericType(Class, Class)}.
+         */
+        private final ConcurrentMap<Class<?>, Type> genericTypeBySupertype =
+                new ConcurrentHashMap<Class<?>, Type>();
+
         /**
          * Create a new field reference for a target class.
          *
          * @param targetClass The class to inspect for meta-data.
          */
         private ClassMetadata(Class<?> targetClass) {
+            this.targetClass = targetClass;
+
             // Create mutable collections for building meta-data indexes.
-            List<Field> cloneList = new ArrayList<Field>();
-            Map<Field, Class<?>> collectionTypeMap = new HashMap<Field, Class<?>>();
+            List<FieldMetadata> cloneList = new ArrayList<FieldMetadata>();
             Map<Class<?>, Map<String, Annotation>> annotationMap = new HashMap<Class<?>, Map<String, Annotation>>();
 
             Class<?> currentClass = targetClass;
@@ -1248,21 +1370,22 @@ public final class CopyUtils {
 
                     boolean isList = List.class.isAssignableFrom(type);
                     boolean isMap = Map.class.isAssignableFrom(type);
-                    if (isList || isMap || isCopyAvailable(type)) {
-                        currentField.setAccessible(true);
-                        cloneList.add(currentField);
-                    }
-
-                    if (!isList && !isMap) {
+                    if (!isList && !isMap && !isCopyAvailable(type)) {
                         continue;
                     }
 
-                    Class<?> collectionType = ObjectPropertyUtils.getUpperBound(
-                            ObjectPropertyUtils.getComponentType(currentField.getGenericType()));
+                    Class<?> collectionType = null;
+                    if (isList || isMap) {
+                        collectionType = ObjectPropertyUtils.getUpperBound(
+                                ObjectPropertyUtils.getComponentType(currentField.getGenericType()));
 
-                    if (collectionType.equals(Object.class) || isCopyAvailable(collectionType)) {
-                        collectionTypeMap.put(currentField, collectionType);
+                        if (!collectionType.equals(Object.class) && !isCopyAvailable(collectionType)) {
+                            collectionType = null;
+                        }
                     }
+
+                    currentField.setAccessible(true);
+                    cloneList.add(new FieldMetadata(currentField, collectionType));
                 }
 
                 currentClass = currentClass.getSuperclass();
@@ -1270,20 +1393,47 @@ public final class CopyUtils {
 
             // Seal index collections to prevent external modification.
             cloneFields = Collections.unmodifiableList(cloneList);
-            collectionTypeByField = Collections.unmodifiableMap(collectionTypeMap);
 
             for (Entry<Class<?>, Map<String, Annotation>> aentry : annotationMap.entrySet()) {
                 aentry.setValue(Collections.unmodifiableMap(aentry.getValue()));
             }
             annotatedFieldsByAnnotationType = Collections.unmodifiableMap(annotationMap);
         }
+
+        /**
+         * Get the generic form of a supertype of the class.
+         *
+         * @param supertype A class or interface assignable from the class.
+         * @return The generic supertype.
+         * @see ObjectPropertyUtils#findGenericType(Class, Class)
+         */
+        private Type getGenericType(Class<?> supertype) {
+            Type genericType = genericTypeBySupertype.get(supertype);
+
+            if (genericType == null) {
+                genericType = ObjectPropertyUtils.findGenericType(targetClass, supertype);
+                genericTypeBySupertype.put(supertype, genericType);
+            }
+
+            return genericType;
+        }
     }
 
     /**
-     * Static cache for reducing annotated field lookup overhead.
+     * Static registry of copy meta-data by class.
+     *
+     * <p>
+     * Lookups do not lock once the meta-data for a class has been computed, so concurrent view
+     * builds copying the same prototypes do not contend. The meta-data is associated with the
+     * class itself, so does not prevent the class from being unloaded.
+     * </p>
      */
-    private static final Map<Class<?>, ClassMetadata> CLASS_META_CACHE =
-            Collections.synchronizedMap(new WeakHashMap<Class<?>, ClassMetadata>());
+    private static final ClassValue<ClassMetadata> CLASS_META_CACHE = new ClassValue<ClassMetadata>() {
+        @Override
+        protected ClassMetadata computeValue(Class<?> type) {
+            return new ClassMetadata(type);
+        }
+    };
 
     /**
      * Get copy metadata for a class.
@@ -1292,12 +1442,6 @@ public final class CopyUtils {
      * @return Copy metadata for the class.
      */
     private static final ClassMetadata getMetadata(Class<?> targetClass) {
-        ClassMetadata metadata = CLASS_META_CACHE.get(targetClass);
-
-        if (metadata == null) {
-            CLASS_META_CACHE.put(targetClass, metadata = new ClassMetadata(targetClass));
-        }
-
-        return metadata;
+        return CLASS_META_CACHE.get(targetClass);
     }
 }
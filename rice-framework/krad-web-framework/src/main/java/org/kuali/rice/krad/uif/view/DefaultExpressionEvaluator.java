@@ -32,7 +32,6 @@ import org.kuali.rice.krad.uif.util.ExpressionFunctions;
 import org.kuali.rice.krad.uif.util.ObjectPropertyUtils;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
-import org.springframework.expression.common.TemplateParserContext;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 
@@ -60,7 +59,7 @@ public class DefaultExpressionEvaluator implements ExpressionEvaluator {
 
     private StandardEvaluationContext evaluationContext;
 
-    private Map<String, Expression> cachedExpressions;
+    private final ExpressionCache expressionCache;
 
     protected static ExpressionParser parser = new SpelExpressionParser();
 
@@ -115,10 +114,19 @@ public class DefaultExpressionEvaluator implements ExpressionEvaluator {
     }
 
     /**
-     * Default constructor
+     * Default constructor, parsed expressions are only cached for this evaluator
      */
     public DefaultExpressionEvaluator() {
-        cachedExpressions = new HashMap<String, Expression>();
+        this(new ExpressionCache());
+    }
+
+    /**
+     * Creates an evaluator keeping parsed expressions in the given cache, which may be shared with other evaluators
+     *
+     * @param expressionCache cache of parsed expressions
+     */
+    public DefaultExpressionEvaluator(ExpressionCache expressionCache) {
+        this.expressionCache = expressionCache;
     }
 
     /**
@@ -617,33 +625,14 @@ public class DefaultExpressionEvaluator implements ExpressionEvaluator {
     }
 
     /**
-     * Attempts to retrieve the {@link Expression} instance for the given expression template, if
-     * not found one is created and added to the cache
+     * Attempts to retrieve the {@link Expression} instance for the given expression template from the
+     * {@link ExpressionCache}, if not found one is created and added to the cache
      *
      * @param expressionTemplate template string for the expression
      * @return Expression instance
      */
     protected Expression retrieveCachedExpression(String expressionTemplate) {
-        Expression expression = null;
-
-        // return from the expression from cache if present
-        if (cachedExpressions.containsKey(expressionTemplate)) {
-            return cachedExpressions.get(expressionTemplate);
-        }
-
-        // not in cache, create the expression object
-        if (StringUtils.contains(expressionTemplate, UifConstants.EL_PLACEHOLDER_PREFIX)) {
-            expression = parser.parseExpression(expressionTemplate, new TemplateParserContext(
-                    UifConstants.EL_PLACEHOLDER_PREFIX, UifConstants.EL_PLACEHOLDER_SUFFIX));
-        } else {
-            expression = parser.parseExpression(expressionTemplate);
-        }
-
-        synchronized (cachedExpressions) {
-            cachedExpressions.put(expressionTemplate, expression);
-        }
-
-        return expression;
+        return expressionCache.getExpression(parser, expressionTemplate);
     }
 
     /**
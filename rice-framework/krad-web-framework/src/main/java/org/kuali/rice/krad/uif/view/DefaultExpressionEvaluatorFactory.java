@@ -16,18 +16,38 @@
 package org.kuali.rice.krad.uif.view;
 
 /**
- * Creates instances of {@link DefaultExpressionEvaluator}.
+ * Creates instances of {@link DefaultExpressionEvaluator}, which share the parsed expressions held by the
+ * {@link ExpressionCache} of this factory.
  *
  * @author Kuali Rice Team (rice.collab@kuali.org)
  */
 public class DefaultExpressionEvaluatorFactory implements ExpressionEvaluatorFactory {
 
+    private ExpressionCache expressionCache = new ExpressionCache();
+
     /**
      * {@inheritDoc}
      */
     @Override
     public ExpressionEvaluator createExpressionEvaluator() {
-        return new DefaultExpressionEvaluator();
+        return new DefaultExpressionEvaluator(expressionCache);
+    }
+
+    /**
+     * Cache of the parsed expressions shared by the evaluators created by this factory, by default a cache of the
+     * configured size.
+     *
+     * @return expression cache
+     */
+    public ExpressionCache getExpressionCache() {
+        return expressionCache;
+    }
+
+    /**
+     * @see DefaultExpressionEvaluatorFactory#getExpressionCache()
+     */
+    public void setExpressionCache(ExpressionCache expressionCache) {
+        this.expressionCache = expressionCache;
     }
 
 }
@@ -0,0 +1,136 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.krad.uif.view;
+
+import org.apache.commons.lang.StringUtils;
+import org.kuali.rice.core.api.config.CoreConfigHelper;
+import org.kuali.rice.core.api.util.cache.BoundedCache;
+import org.kuali.rice.krad.uif.UifConstants;
+import org.kuali.rice.krad.util.KRADConstants;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.common.TemplateParserContext;
+
+/**
+ * Cache of parsed expressions, keyed by expression template.
+ *
+ * <p>
+ * Parsed SpEL expressions hold no evaluation state, so an expression parsed for one view lifecycle can be evaluated
+ * by any other, concurrently. The {@link DefaultExpressionEvaluatorFactory} shares one cache between all the
+ * evaluators it creates. The number of cached expressions is bounded; once the bound is reached the expressions used
+ * least recently are dropped.
+ * </p>
+ *
+ * <p>
+ * The bound is controlled by the configuration parameter &quot;rice.krad.expression.cache.size&quot;. A bound of 0
+ * disables caching, so each expression is parsed every time it is evaluated.
+ * </p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class ExpressionCache {
+
+    /**
+     * The number of expressions cached when not configured.
+     */
+    public static final int DEFAULT_MAX_SIZE = 10000;
+
+    private final BoundedCache<String, Expression> expressions;
+
+    /**
+     * Creates a cache holding the configured number of expressions.
+     */
+    public ExpressionCache() {
+        this(CoreConfigHelper.getIntProperty(KRADConstants.ConfigParameters.KRAD_EXPRESSION_CACHE_SIZE,
+                DEFAULT_MAX_SIZE, 0));
+    }
+
+    /**
+     * Creates a cache holding at most the given number of expressions.
+     *
+     * @param maxSize maximum number of expressions to cache, 0 to disable caching
+     */
+    public ExpressionCache(int maxSize) {
+        this.expressions = new BoundedCache<String, Expression>(maxSize);
+    }
+
+    /**
+     * Retrieves the parsed expression for the given expression template, parsing it with the given parser if not
+     * cached.
+     *
+     * <p>
+     * Templates containing the expression placeholder are parsed as templates, others as a single expression.
+     * </p>
+     *
+     * @param parser parser to use on a cache miss
+     * @param expressionTemplate template string for the expression
+     * @return Expression instance
+     */
+    public Expression getExpression(ExpressionParser parser, String expressionTemplate) {
+        Expression expression = expressions.get(expressionTemplate);
+        if (expression != null) {
+            return expression;
+        }
+
+        if (StringUtils.contains(expressionTemplate, UifConstants.EL_PLACEHOLDER_PREFIX)) {
+            expression = parser.parseExpression(expressionTemplate, new TemplateParserContext(
+                    UifConstants.EL_PLACEHOLDER_PREFIX, UifConstants.EL_PLACEHOLDER_SUFFIX));
+        } else {
+            expression = parser.parseExpression(expressionTemplate);
+        }
+
+        // concurrent misses on the same template may each parse it, the first one cached is kept
+        Expression cached = expressions.putIfAbsent(expressionTemplate, expression);
+
+        return cached == null ? expression : cached;
+    }
+
+    /**
+     * @return maximum number of expressions cached
+     */
+    public int getMaxSize() {
+        return expressions.getMaxSize();
+    }
+
+    /**
+     * @return number of expressions currently cached
+     */
+    public int getSize() {
+        return expressions.size();
+    }
+
+    /**
+     * @return number of lookups which found a cached expression
+     */
+    public long getHitCount() {
+        return expressions.getHitCount();
+    }
+
+    /**
+     * @return number of lookups which had to parse the expression
+     */
+    public long getMissCount() {
+        return expressions.getMissCount();
+    }
+
+    /**
+     * Removes all cached expressions and resets the hit and miss counts.
+     */
+    public void clear() {
+        expressions.clear();
+    }
+
+}
@@ -0,0 +1,410 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.krad.web.form;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang.StringUtils;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Form store keeping the forms of all sessions in files on the local disk.
+ *
+ * <p>
+ * Forms are written by {@link UifFormSerializer}, so only the keys of the forms are kept in memory. The store holds
+ * at most {@link #getMaxForms()} forms; when it is full the form accessed least recently is evicted. Forms not
+ * accessed for {@link #getTimeToLive()} seconds are evicted as well, which removes the forms of sessions that timed
+ * out.
+ * </p>
+ *
+ * <p>
+ * The store is local to the server, so it requires requests of a session to be routed to the same server. To use it,
+ * define it as the form store service of the application:
+ * </p>
+ *
+ * <pre>
+ * &lt;bean id="uifFormStore" class="org.kuali.rice.krad.web.form.LocalUifFormStore"
+ *     p:directory="${rice.krad.form.store.directory}" p:maxForms="20000" p:timeToLive="3600"/&gt;
+ * </pre>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class LocalUifFormStore implements UifFormStore, DisposableBean {
+    private static final Logger LOG = Logger.getLogger(LocalUifFormStore.class);
+
+    /**
+     * The number of forms stored when not configured.
+     */
+    public static final int DEFAULT_MAX_FORMS = 10000;
+
+    /**
+     * The number of seconds a form is kept without being accessed when not configured.
+     */
+    public static final int DEFAULT_TIME_TO_LIVE = 3600;
+
+    private static final String FORM_FILE_SUFFIX = ".form";
+
+    private static final String FORM_DIRECTORY_PREFIX = "uif-forms-";
+
+    // number of locks the form keys are spread over, so that forms with different keys are written concurrently
+    private static final int LOCK_STRIPES = 64;
+
+    private String directory;
+    private int maxForms = DEFAULT_MAX_FORMS;
+    private int timeToLive = DEFAULT_TIME_TO_LIVE;
+
+    private volatile File formDirectory;
+
+    // last access time of each stored form, least recently accessed first; the form files are read and written
+    // outside of its lock, holding the lock of the form key instead (always acquired before the lock of this map)
+    private final LinkedHashMap<String, Long> accessTimes = new LinkedHashMap<String, Long>();
+
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public LocalUifFormStore() {
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean storeForm(UifFormBase form) {
+        if (form == null || StringUtils.isBlank(form.getFormKey())) {
+            return false;
+        }
+
+        byte[] data;
+        try {
+            data = UifFormSerializer.serialize(form);
+        } catch (IOException e) {
+            LOG.warn("Unable to serialize form " + form.getFormKey() + " of " + form.getClass()
+                    + ", it will be kept in the session", e);
+
+            return false;
+        }
+
+        String formKey = form.getFormKey();
+        synchronized (getLock(formKey)) {
+            File file = getFormFile(formKey);
+            File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+            try {
+                FileUtils.writeByteArrayToFile(tempFile, data);
+                if (!tempFile.renameTo(file)) {
+                    FileUtils.copyFile(tempFile, file);
+                    tempFile.delete();
+                }
+            } catch (IOException e) {
+                LOG.warn("Unable to write form " + formKey + " to " + file + ", it will be kept in the session", e);
+                tempFile.delete();
+                removeForm(formKey);
+
+                return false;
+            }
+
+            synchronized (accessTimes) {
+                touch(formKey, getCurrentTime());
+            }
+        }
+
+        evict();
+
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public UifFormBase retrieveForm(String formKey) {
+        if (!containsForm(formKey)) {
+            return null;
+        }
+
+        File file = getFormFile(formKey);
+        synchronized (accessTimes) {
+            if (!accessTimes.containsKey(formKey)) {
+                return null;
+            }
+
+            touch(formKey, getCurrentTime());
+        }
+
+        try {
+            return UifFormSerializer.deserialize(FileUtils.readFileToByteArray(file));
+        } catch (FileNotFoundException e) {
+            // evicted or replaced while reading
+            return null;
+        } catch (IOException e) {
+            LOG.warn("Unable to read form " + formKey + " from " + file, e);
+            removeForm(formKey);
+
+            return null;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean containsForm(String formKey) {
+        if (formKey == null) {
+            return false;
+        }
+
+        synchronized (accessTimes) {
+            Long accessTime = accessTimes.get(formKey);
+            if (accessTime == null) {
+                return false;
+            }
+
+            if (!isExpired(accessTime.longValue(), getCurrentTime())) {
+                return true;
+            }
+        }
+
+        deleteIfExpired(formKey);
+
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeForm(String formKey) {
+        if (formKey == null) {
+            return;
+        }
+
+        synchronized (getLock(formKey)) {
+            boolean removed;
+            synchronized (accessTimes) {
+                removed = accessTimes.remove(formKey) != null;
+            }
+
+            if (removed) {
+                getFormFile(formKey).delete();
+            }
+        }
+    }
+
+    /**
+     * @return number of forms currently stored
+     */
+    public int getSize() {
+        synchronized (accessTimes) {
+            return accessTimes.size();
+        }
+    }
+
+    /**
+     * Removes the files of all stored forms and the directory the store created for them, if it is empty.
+     */
+    @Override
+    public void destroy() {
+        List<String> formKeys;
+        synchronized (accessTimes) {
+            formKeys = new ArrayList<String>(accessTimes.keySet());
+        }
+
+        for (String formKey : formKeys) {
+            removeForm(formKey);
+        }
+
+        synchronized (this) {
+            if (formDirectory != null) {
+                formDirectory.delete();
+            }
+
+            formDirectory = null;
+        }
+    }
+
+    /**
+     * @return the current time in milliseconds, against which the time to live of the forms is checked
+     */
+    protected long getCurrentTime() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * Must be called holding the lock of the access times.
+     */
+    private void touch(String formKey, long now) {
+        // re-inserting moves the key to the end of the access order
+        accessTimes.remove(formKey);
+        accessTimes.put(formKey, Long.valueOf(now));
+    }
+
+    /**
+     * Evicts the forms over the maximum number of forms and the expired forms. The forms to evict are picked under
+     * the lock of the access times, their files are deleted holding only the lock of each form key.
+     */
+    private void evict() {
+        List<String> evicted = new ArrayList<String>();
+        synchronized (accessTimes) {
+            long now = getCurrentTime();
+            Iterator<Map.Entry<String, Long>> iterator = accessTimes.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, Long> eldest = iterator.next();
+                if (accessTimes.size() <= maxForms && !isExpired(eldest.getValue().longValue(), now)) {
+                    break;
+                }
+
+                iterator.remove();
+                evicted.add(eldest.getKey());
+            }
+        }
+
+        for (String formKey : evicted) {
+            synchronized (getLock(formKey)) {
+                boolean stored;
+                synchronized (accessTimes) {
+                    stored = accessTimes.containsKey(formKey);
+                }
+
+                // the form may have been stored again since it was picked
+                if (!stored) {
+                    getFormFile(formKey).delete();
+                }
+            }
+        }
+    }
+
+    private void deleteIfExpired(String formKey) {
+        synchronized (getLock(formKey)) {
+            boolean expired;
+            synchronized (accessTimes) {
+                Long accessTime = accessTimes.get(formKey);
+                expired = accessTime != null && isExpired(accessTime.longValue(), getCurrentTime());
+                if (expired) {
+                    accessTimes.remove(formKey);
+                }
+            }
+
+            if (expired) {
+                getFormFile(formKey).delete();
+            }
+        }
+    }
+
+    private boolean isExpired(long accessTime, long now) {
+        return timeToLive > 0 && now - accessTime > timeToLive * 1000L;
+    }
+
+    private Object getLock(String formKey) {
+        return locks[(formKey.hashCode() & Integer.MAX_VALUE) % locks.length];
+    }
+
+    private File getFormFile(String formKey) {
+        return new File(getFormDirectory(), DigestUtils.sha1Hex(formKey) + FORM_FILE_SUFFIX);
+    }
+
+    /**
+     * Creates the directory holding the form files on first use. It is a new directory for each store, so the files
+     * of other stores sharing the configured directory are never touched.
+     */
+    private File getFormDirectory() {
+        File dir = formDirectory;
+        if (dir != null) {
+            return dir;
+        }
+
+        synchronized (this) {
+            if (formDirectory == null) {
+                File parent = StringUtils.isNotBlank(directory) ? new File(directory) : FileUtils.getTempDirectory();
+                try {
+                    FileUtils.forceMkdir(parent);
+                    formDirectory = Files.createTempDirectory(parent.toPath(), FORM_DIRECTORY_PREFIX).toFile();
+                } catch (IOException e) {
+                    throw new IllegalStateException("Unable to create form store directory in " + parent, e);
+                }
+            }
+
+            return formDirectory;
+        }
+    }
+
+    /**
+     * Directory holding the form files.
+     *
+     * <p>The store keeps its forms in a new subdirectory of this directory, created when the store is first used and
+     * removed when it is destroyed. If not set the subdirectory is created in the temporary directory of the JVM.</p>
+     *
+     * @return path of the directory
+     */
+    public String getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @see LocalUifFormStore#getDirectory()
+     */
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Maximum number of forms held by the store, for all sessions together.
+     *
+     * @return int max number of forms
+     */
+    public int getMaxForms() {
+        return maxForms;
+    }
+
+    /**
+     * @see LocalUifFormStore#getMaxForms()
+     */
+    public void setMaxForms(int maxForms) {
+        if (maxForms < 1) {
+            throw new IllegalArgumentException("maxForms must be positive");
+        }
+
+        this.maxForms = maxForms;
+    }
+
+    /**
+     * Number of seconds a form is kept without being accessed, 0 to keep forms until the store is full.
+     *
+     * @return int time to live in seconds
+     */
+    public int getTimeToLive() {
+        return timeToLive;
+    }
+
+    /**
+     * @see LocalUifFormStore#getTimeToLive()
+     */
+    public void setTimeToLive(int timeToLive) {
+        this.timeToLive = timeToLive;
+    }
+
+}
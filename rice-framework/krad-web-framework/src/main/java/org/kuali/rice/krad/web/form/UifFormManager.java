@@ -19,8 +19,11 @@ import org.apache.commons.lang.StringUtils;
 import org.kuali.rice.core.api.CoreApiServiceLocator;
 import org.kuali.rice.core.api.exception.RiceIllegalArgumentException;
 import org.kuali.rice.krad.uif.util.ObjectPropertyUtils;
+import org.kuali.rice.krad.service.KRADServiceLocatorWeb;
 import org.kuali.rice.krad.uif.util.SessionTransient;
 
+import javax.servlet.http.HttpSessionBindingEvent;
+import javax.servlet.http.HttpSessionBindingListener;
 import java.io.Serializable;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
@@ -35,9 +38,15 @@ import java.util.Vector;
 /**
  * Manages Uif form objects for a session.
  *
+ * <p>
+ * When a {@link UifFormStore} is configured, forms are kept in the store and the manager only holds their keys.
+ * Forms the store cannot hold are kept by the manager, and the stored forms are removed from the store when the
+ * manager is removed from the session.
+ * </p>
+ *
  * @author Kuali Rice Team (rice.collab@kuali.org)
  */
-public class UifFormManager implements Serializable {
+public class UifFormManager implements Serializable, HttpSessionBindingListener {
     private static final long serialVersionUID = -6323378881342207080L;
 
     private int maxNumberOfSessionForms = 5;
@@ -46,6 +55,9 @@ public class UifFormManager implements Serializable {
 
     protected Map<String, UifFormBase> sessionForms;
 
+    protected transient UifFormStore formStore;
+    private transient boolean formStoreResolved;
+
     /**
      * Create a new form manager with an empty list of forms for the session.
      */
@@ -73,7 +85,12 @@ public class UifFormManager implements Serializable {
             throw new RiceIllegalArgumentException("Form or form key was null");
         }
 
-        sessionForms.put(form.getFormKey(), form);
+        UifFormStore store = getFormStore();
+        if ((store != null) && store.storeForm(form)) {
+            sessionForms.remove(form.getFormKey());
+        } else {
+            sessionForms.put(form.getFormKey(), form);
+        }
 
         // add form key to top of vector indicating it is most recent
         if (accessedFormKeys.contains(form.getFormKey())) {
@@ -82,13 +99,9 @@ public class UifFormManager implements Serializable {
         accessedFormKeys.add(form.getFormKey());
 
         // check if we have too many forms and need to remove an old one
-        if (sessionForms.size() > maxNumberOfSessionForms) {
+        if (accessedFormKeys.size() > maxNumberOfSessionForms) {
             // get the oldest form we have
-            String removeFormKey = (String) accessedFormKeys.get(0);
-            if (sessionForms.containsKey(removeFormKey)) {
-                sessionForms.remove(removeFormKey);
-            }
-            accessedFormKeys.removeElementAt(0);
+            removeSessionFormByKey((String) accessedFormKeys.get(0));
         }
     }
 
@@ -103,6 +116,11 @@ public class UifFormManager implements Serializable {
             return sessionForms.get(formKey);
         }
 
+        UifFormStore store = getFormStore();
+        if ((store != null) && accessedFormKeys.contains(formKey)) {
+            return store.retrieveForm(formKey);
+        }
+
         return null;
     }
 
@@ -125,7 +143,7 @@ public class UifFormManager implements Serializable {
      * @param formKey of the form to be removed
      */
     public void removeFormWithHistoryFormsByKey(String formKey) {
-        if (sessionForms.containsKey(formKey)) {
+        if (hasSessionForm(formKey)) {
             removeSessionFormByKey(formKey);
         }
     }
@@ -138,6 +156,11 @@ public class UifFormManager implements Serializable {
     public void removeSessionFormByKey(String formKey) {
         if (accessedFormKeys.contains(formKey)) {
             accessedFormKeys.removeElement(formKey);
+
+            UifFormStore store = getFormStore();
+            if (store != null) {
+                store.removeForm(formKey);
+            }
         }
 
         if (sessionForms.containsKey(formKey)) {
@@ -152,7 +175,13 @@ public class UifFormManager implements Serializable {
      * @return true if the manager contains the session form, false if not
      */
     public boolean hasSessionForm(String formKey) {
-        return sessionForms.containsKey(formKey);
+        if (sessionForms.containsKey(formKey)) {
+            return true;
+        }
+
+        UifFormStore store = getFormStore();
+
+        return (store != null) && accessedFormKeys.contains(formKey) && store.containsForm(formKey);
     }
 
     /**
@@ -163,7 +192,7 @@ public class UifFormManager implements Serializable {
      * @param formKey
      */
     public void updateFormWithSession(UifFormBase requestForm, String formKey) {
-        UifFormBase sessionForm = sessionForms.get(formKey);
+        UifFormBase sessionForm = getSessionForm(formKey);
         if (sessionForm == null) {
             return;
         }
@@ -228,6 +257,56 @@ public class UifFormManager implements Serializable {
         return fields;
     }
 
+    /**
+     * Removes the forms of the session from the form store when the manager is removed from the session, for instance
+     * because the session was invalidated.
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void valueUnbound(HttpSessionBindingEvent event) {
+        UifFormStore store = getFormStore();
+        if (store == null) {
+            return;
+        }
+
+        for (Object formKey : accessedFormKeys.toArray()) {
+            store.removeForm((String) formKey);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void valueBound(HttpSessionBindingEvent event) {
+    }
+
+    /**
+     * Store holding the forms of the session outside of the session.
+     *
+     * <p>If not explicitly set, the store is the configured
+     * {@link org.kuali.rice.krad.service.KRADServiceLocatorWeb#UIF_FORM_STORE} service, if any.</p>
+     *
+     * @return UifFormStore instance, or null if forms are kept in the session
+     */
+    protected UifFormStore getFormStore() {
+        if (!formStoreResolved) {
+            formStore = KRADServiceLocatorWeb.getUifFormStore();
+            formStoreResolved = true;
+        }
+
+        return formStore;
+    }
+
+    /**
+     * @see UifFormManager#getFormStore()
+     */
+    public void setFormStore(UifFormStore formStore) {
+        this.formStore = formStore;
+        this.formStoreResolved = true;
+    }
+
     /**
      * Internal vector maintained to keep track of accessed form and the order in which they were accessed.
      *
@@ -0,0 +1,184 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.krad.web.form;
+
+import org.kuali.rice.core.api.util.ClassLoaderUtils;
+import org.kuali.rice.krad.uif.util.SessionTransient;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpSession;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Converts session forms to and from a compact binary form, for {@link UifFormStore} implementations.
+ *
+ * <p>
+ * Forms are written with Java serialization and deflated. Fields of the form marked {@link SessionTransient} are
+ * left out, as are references to the servlet request, response and session, which are only valid during a request.
+ * The session transient fields are cleared while the form is written and restored afterwards, so a form must not be
+ * used by another thread while it is serialized.
+ * </p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public final class UifFormSerializer {
+
+    private static final ConcurrentMap<Class<?>, List<Field>> SESSION_TRANSIENT_FIELDS =
+            new ConcurrentHashMap<Class<?>, List<Field>>();
+
+    private UifFormSerializer() {
+        throw new UnsupportedOperationException("do not call");
+    }
+
+    /**
+     * Writes the form, without its session transient state, to a byte array.
+     *
+     * @param form form to serialize
+     * @return serialized form
+     * @throws IOException if the form holds state which cannot be serialized
+     */
+    public static byte[] serialize(UifFormBase form) throws IOException {
+        List<Field> fields = getSessionTransientFields(form.getClass());
+        Object[] values = new Object[fields.size()];
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = fields.get(i).get(form);
+                fields.get(i).set(form, null);
+            }
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            ObjectOutputStream out = new FormObjectOutputStream(new DeflaterOutputStream(bytes, deflater));
+            out.writeObject(form);
+            out.close();
+
+            return bytes.toByteArray();
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Unable to access session transient field of " + form.getClass(), e);
+        } finally {
+            deflater.end();
+
+            try {
+                for (int i = 0; i < values.length; i++) {
+                    fields.get(i).set(form, values[i]);
+                }
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Unable to restore session transient field of " + form.getClass(), e);
+            }
+        }
+    }
+
+    /**
+     * Reads a form written by {@link #serialize(UifFormBase)}.
+     *
+     * <p>Classes are resolved with the context class loader of the current thread.</p>
+     *
+     * @param data serialized form
+     * @return the form, with its session transient fields null
+     * @throws IOException if the data is not a serialized form or refers to classes which cannot be loaded
+     */
+    public static UifFormBase deserialize(byte[] data) throws IOException {
+        ObjectInputStream in = new FormObjectInputStream(new InflaterInputStream(new ByteArrayInputStream(data)));
+        try {
+            return (UifFormBase) in.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Unable to load class of serialized form", e);
+        } catch (ClassCastException e) {
+            throw new IOException("Serialized object is not a form", e);
+        } finally {
+            in.close();
+        }
+    }
+
+    private static List<Field> getSessionTransientFields(Class<?> formClass) {
+        List<Field> fields = SESSION_TRANSIENT_FIELDS.get(formClass);
+        if (fields != null) {
+            return fields;
+        }
+
+        fields = new ArrayList<Field>();
+        for (Class<?> type = formClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (field.isAnnotationPresent(SessionTransient.class) && !field.getType().isPrimitive()
+                        && !Modifier.isStatic(field.getModifiers()) && !Modifier.isFinal(field.getModifiers())) {
+                    field.setAccessible(true);
+                    fields.add(field);
+                }
+            }
+        }
+
+        SESSION_TRANSIENT_FIELDS.putIfAbsent(formClass, fields);
+
+        return fields;
+    }
+
+    /**
+     * Leaves out the references to request scoped servlet objects.
+     */
+    private static final class FormObjectOutputStream extends ObjectOutputStream {
+
+        FormObjectOutputStream(OutputStream out) throws IOException {
+            super(out);
+            enableReplaceObject(true);
+        }
+
+        @Override
+        protected Object replaceObject(Object obj) throws IOException {
+            if (obj instanceof ServletRequest || obj instanceof ServletResponse || obj instanceof HttpSession) {
+                return null;
+            }
+
+            return obj;
+        }
+    }
+
+    /**
+     * Resolves classes with the context class loader, which can see the form classes of the application.
+     */
+    private static final class FormObjectInputStream extends ObjectInputStream {
+
+        FormObjectInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            try {
+                return Class.forName(desc.getName(), false, ClassLoaderUtils.getDefaultClassLoader());
+            } catch (ClassNotFoundException e) {
+                return super.resolveClass(desc);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.krad.web.form;
+
+/**
+ * Holds session forms outside of the HTTP session, so that the {@link UifFormManager} in the session only keeps the
+ * keys of its forms.
+ *
+ * <p>
+ * A form store is shared by all sessions and is configured as the service named
+ * {@link org.kuali.rice.krad.service.KRADServiceLocatorWeb#UIF_FORM_STORE}. When no store is configured forms are
+ * kept in the session. The form manager only asks the store for the keys of forms it has stored itself, so a store
+ * does not need to check that a key belongs to the session asking for it.
+ * </p>
+ *
+ * <p>
+ * Stores may evict forms at any time, for instance when they are full or the form has not been accessed for a
+ * while. A form which is no longer in the store is handled as if the session had timed out.
+ * </p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ * @see LocalUifFormStore
+ */
+public interface UifFormStore {
+
+    /**
+     * Stores a copy of the form under its form key, replacing any form stored under that key.
+     *
+     * <p>
+     * State marked {@link org.kuali.rice.krad.uif.util.SessionTransient} is not stored. Changes made to the form
+     * after it is stored are not seen by later retrievals.
+     * </p>
+     *
+     * @param form form to store
+     * @return true if the form was stored, false if it cannot be stored and must be kept in the session
+     */
+    boolean storeForm(UifFormBase form);
+
+    /**
+     * Retrieves a copy of the form stored under the given key.
+     *
+     * @param formKey key of the form
+     * @return copy of the stored form, or null if no form is stored under the key
+     */
+    UifFormBase retrieveForm(String formKey);
+
+    /**
+     * Indicates whether a form is stored under the given key.
+     *
+     * @param formKey key of the form
+     * @return true if a form is stored under the key
+     */
+    boolean containsForm(String formKey);
+
+    /**
+     * Removes the form stored under the given key, if any.
+     *
+     * @param formKey key of the form
+     */
+    void removeForm(String formKey);
+
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.krad.datadictionary;
+
+import org.apache.commons.io.FileUtils;
+import org.kuali.rice.core.api.resourceloader.GlobalResourceLoader;
+import org.kuali.rice.krad.uif.util.UifUnitTestUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time taken to load the UIF dictionary files into a new data dictionary, parsing the files on a cold
+ * start and loading the parsed bean definitions from a {@link DataDictionarySnapshot} otherwise.
+ *
+ * <p>
+ * Each invocation is a full {@link DataDictionary#parseDataDictionaryConfigurationFiles(boolean)}, including post
+ * processing and indexing, so the difference between the two is the part of startup the snapshot saves. A cold start
+ * also writes the snapshot.
+ * </p>
+ *
+ * <p>This is not a unit test; run it with {@link #main(String[])} from the test classpath.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DataDictionaryLoadBenchmark {
+
+    @Param({"cold", "snapshot"})
+    public String boot;
+
+    private DataDictionary template;
+    private File snapshotDirectory;
+
+    @Setup
+    public void setUp() throws Exception {
+        UifUnitTestUtils.establishMockConfig("KRAD-ComponentFactoryTest");
+        template = GlobalResourceLoader.getService("dataDictionary");
+
+        snapshotDirectory = File.createTempFile("dictionary-snapshots", "");
+        snapshotDirectory.delete();
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareSnapshot() throws Exception {
+        if ("cold".equals(boot)) {
+            FileUtils.deleteDirectory(snapshotDirectory);
+        } else if (!snapshotDirectory.isDirectory()) {
+            loadDictionary();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(snapshotDirectory);
+        UifUnitTestUtils.tearDownMockConfig();
+    }
+
+    @Benchmark
+    public DataDictionary loadDictionary() {
+        DataDictionary dataDictionary = new DataDictionary();
+        dataDictionary.setModuleLoadOrder(template.getModuleLoadOrder());
+        dataDictionary.setModuleDictionaryFiles(template.getModuleDictionaryFiles());
+        dataDictionary.setSnapshotDirectory(snapshotDirectory.getAbsolutePath());
+        dataDictionary.parseDataDictionaryConfigurationFiles(false);
+
+        return dataDictionary;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DataDictionaryLoadBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
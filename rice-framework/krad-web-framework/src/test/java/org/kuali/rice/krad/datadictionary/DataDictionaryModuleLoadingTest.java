@@ -0,0 +1,89 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.krad.datadictionary;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.util.StopWatch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that loading the dictionary modules in parallel keeps the results of loading them in module load order.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class DataDictionaryModuleLoadingTest {
+
+    private static final String PACKAGE = "classpath:org/kuali/rice/krad/datadictionary/";
+    private static final String MODULE_A = PACKAGE + "DataDictionaryModuleA.xml";
+    private static final String MODULE_B = PACKAGE + "DataDictionaryModuleB.xml";
+    private static final String ANONYMOUS_CLASS = AttributeDefinition.class.getName();
+
+    private DataDictionary dd;
+    private ArrayList<String> validationFiles;
+
+    @Before
+    public void setUp() {
+        Map<String, List<String>> moduleDictionaryFiles = new HashMap<String, List<String>>();
+        moduleDictionaryFiles.put("KR-A", Collections.singletonList(MODULE_A));
+        moduleDictionaryFiles.put("KR-B", Collections.singletonList(MODULE_B));
+
+        dd = new DataDictionary();
+        dd.timer = new StopWatch();
+        dd.setModuleLoadOrder(Arrays.asList("KR-A", "KR-B"));
+        dd.setModuleDictionaryFiles(moduleDictionaryFiles);
+
+        validationFiles = new ArrayList<String>();
+        dd.loadDictionaryBeans(dd.ddBeans, moduleDictionaryFiles, dd.ddIndex, validationFiles);
+    }
+
+    @Test
+    public void testLaterModulesOverrideEarlierOnes() {
+        assertEquals("b", dd.ddBeans.getBeanDefinition("ModuleTest-Overridden").getPropertyValues().getPropertyValue(
+                "name").getValue());
+        assertEquals(Arrays.asList(MODULE_A, MODULE_B), validationFiles);
+    }
+
+    @Test
+    public void testBeanNamesByNamespace() {
+        Map<String, List<String>> beanNamesByNamespace = dd.ddIndex.getDictionaryBeansByNamespace();
+        assertEquals(Arrays.asList("ModuleTest-Overridden", "ModuleTest-A", ANONYMOUS_CLASS + "#0"),
+                beanNamesByNamespace.get("KR-A"));
+        assertEquals(Arrays.asList("ModuleTest-B", ANONYMOUS_CLASS + "#1"), beanNamesByNamespace.get("KR-B"));
+    }
+
+    @Test
+    public void testAnonymousBeansAndAliases() {
+        assertEquals("anonymousA", dd.ddBeans.getBeanDefinition(ANONYMOUS_CLASS + "#0").getPropertyValues()
+                .getPropertyValue("name").getValue());
+        assertEquals("anonymousB", dd.ddBeans.getBeanDefinition(ANONYMOUS_CLASS + "#1").getPropertyValues()
+                .getPropertyValue("name").getValue());
+
+        assertEquals(Arrays.asList(ANONYMOUS_CLASS), Arrays.asList(dd.ddBeans.getAliases(ANONYMOUS_CLASS + "#0")));
+        assertEquals(0, dd.ddBeans.getAliases(ANONYMOUS_CLASS + "#1").length);
+        assertTrue(Arrays.asList(dd.ddBeans.getAliases("ModuleTest-B")).contains("ModuleTest-BAlias"));
+    }
+
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.krad.datadictionary;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link DataDictionarySnapshot}.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class DataDictionarySnapshotTest {
+
+    private static final String NAMESPACE = "KR-SNAP";
+    private static final String LOCATION = "classpath:org/kuali/rice/krad/datadictionary/DataDictionarySnapshotTest.xml";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+
+    private List<String> moduleLoadOrder;
+    private Map<String, List<String>> moduleDictionaryFiles;
+
+    @Before
+    public void setUp() {
+        moduleLoadOrder = Collections.singletonList(NAMESPACE);
+        moduleDictionaryFiles = new HashMap<String, List<String>>();
+        moduleDictionaryFiles.put(NAMESPACE, Collections.singletonList(LOCATION));
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        DefaultListableBeanFactory parsed = new DefaultListableBeanFactory();
+        new XmlBeanDefinitionReader(parsed).loadBeanDefinitions(LOCATION);
+        Map<String, List<String>> beanNamesByNamespace = new HashMap<String, List<String>>();
+        beanNamesByNamespace.put(NAMESPACE, Arrays.asList(parsed.getBeanDefinitionNames()));
+
+        DataDictionarySnapshot snapshot = newSnapshot("1.0");
+        assertFalse(snapshot.exists());
+        assertTrue(snapshot.save(parsed, beanNamesByNamespace));
+        assertTrue(snapshot.exists());
+
+        DefaultListableBeanFactory loaded = new DefaultListableBeanFactory();
+        DataDictionaryIndex index = new DataDictionaryIndex(loaded);
+        assertTrue(newSnapshot("1.0").load(loaded, index));
+
+        assertArrayEquals(parsed.getBeanDefinitionNames(), loaded.getBeanDefinitionNames());
+        for (String beanName : parsed.getBeanDefinitionNames()) {
+            assertEquals(beanName, parsed.getBeanDefinition(beanName), loaded.getBeanDefinition(beanName));
+            assertArrayEquals(beanName, parsed.getAliases(beanName), loaded.getAliases(beanName));
+        }
+        assertEquals(Arrays.asList("SnapshotTest-Alias"), Arrays.asList(loaded.getAliases("SnapshotTest-Child")));
+        assertEquals(beanNamesByNamespace, index.getDictionaryBeansByNamespace());
+    }
+
+    @Test
+    public void testKey() throws Exception {
+        String key = DataDictionarySnapshot.computeKey(moduleLoadOrder, moduleDictionaryFiles, resolver, "1.0");
+        assertEquals(key, DataDictionarySnapshot.computeKey(moduleLoadOrder, moduleDictionaryFiles, resolver, "1.0"));
+        assertNotEquals(key, DataDictionarySnapshot.computeKey(moduleLoadOrder, moduleDictionaryFiles, resolver,
+                "1.1"));
+
+        Map<String, List<String>> otherFiles = new HashMap<String, List<String>>(moduleDictionaryFiles);
+        otherFiles.put(NAMESPACE, new ArrayList<String>());
+        assertNotEquals(key, DataDictionarySnapshot.computeKey(moduleLoadOrder, otherFiles, resolver, "1.0"));
+    }
+
+    @Test
+    public void testCorruptSnapshotIsNotLoaded() throws Exception {
+        DataDictionarySnapshot snapshot = newSnapshot("1.0");
+        FileUtils.writeStringToFile(snapshot.getFile(), "not a snapshot");
+
+        DefaultListableBeanFactory loaded = new DefaultListableBeanFactory();
+        assertFalse(snapshot.load(loaded, new DataDictionaryIndex(loaded)));
+        assertEquals(0, loaded.getBeanDefinitionCount());
+    }
+
+    private DataDictionarySnapshot newSnapshot(String version) throws Exception {
+        File directory = new File(folder.getRoot(), "snapshots");
+
+        return new DataDictionarySnapshot(directory, DataDictionarySnapshot.computeKey(moduleLoadOrder,
+                moduleDictionaryFiles, resolver, version));
+    }
+
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.krad.uif.util;
+
+import org.kuali.rice.krad.uif.component.Component;
+import org.kuali.rice.krad.uif.container.Group;
+import org.kuali.rice.krad.uif.container.PageGroup;
+import org.kuali.rice.krad.uif.view.View;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of deep copying a large view prototype with {@link CopyUtils}, as each view request does
+ * with the views and components it takes from the dictionary.
+ *
+ * <p>
+ * The prototype is an inquiry view from the UIF dictionary with a page of sections of input fields, each section and
+ * field itself copied from its dictionary prototype. Copies run on several threads to show contention on the copy
+ * metadata.
+ * </p>
+ *
+ * <p>This is not a unit test; run it with {@link #main(String[])} from the test classpath.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Threads(4)
+@Fork(1)
+public class ViewCopyBenchmark {
+
+    private static final int FIELDS_PER_SECTION = 10;
+
+    @Param({"10", "40"})
+    public int sections;
+
+    private View prototype;
+
+    @Setup
+    public void setUp() throws Exception {
+        UifUnitTestUtils.establishMockConfig("KRAD-ComponentFactoryTest");
+
+        List<Component> pageItems = new ArrayList<Component>();
+        for (int i = 0; i < sections; i++) {
+            List<Component> fields = new ArrayList<Component>();
+            for (int j = 0; j < FIELDS_PER_SECTION; j++) {
+                fields.add(ComponentFactory.getInputField("section" + i + ".field" + j, "Field " + j));
+            }
+
+            Group section = ComponentFactory.getVerticalBoxSection();
+            section.setItems(fields);
+            pageItems.add(section);
+        }
+
+        PageGroup page = ComponentFactory.getPageGroup();
+        page.setItems(pageItems);
+
+        prototype = ComponentFactory.getInquiryView();
+        prototype.setItems(Collections.singletonList(page));
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        UifUnitTestUtils.tearDownMockConfig();
+    }
+
+    @Benchmark
+    public View copyView() {
+        return CopyUtils.copy(prototype);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ViewCopyBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
@@ -0,0 +1,81 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.krad.uif.view;
+
+import org.junit.After;
+import org.junit.Test;
+import org.kuali.rice.core.api.config.property.ConfigContext;
+import org.kuali.rice.core.framework.config.property.SimpleConfig;
+import org.kuali.rice.krad.util.KRADConstants;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Unit tests for {@link ExpressionCache}.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class ExpressionCacheTest {
+
+    private final ExpressionParser parser = new SpelExpressionParser();
+
+    @After
+    public void tearDown() {
+        ConfigContext.destroy();
+    }
+
+    @Test
+    public void testParsesExpressionsAndTemplates() {
+        ExpressionCache cache = new ExpressionCache(10);
+
+        Expression expression = cache.getExpression(parser, "1 + 1");
+        assertEquals(2, expression.getValue());
+        assertSame(expression, cache.getExpression(parser, "1 + 1"));
+
+        Expression template = cache.getExpression(parser, "value @{1 + 2}");
+        assertEquals("value 3", template.getValue(String.class));
+        assertSame(template, cache.getExpression(parser, "value @{1 + 2}"));
+    }
+
+    @Test
+    public void testDisabled() {
+        ExpressionCache cache = new ExpressionCache(0);
+
+        Expression expression = cache.getExpression(parser, "1 + 1");
+        assertNotSame(expression, cache.getExpression(parser, "1 + 1"));
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void testConfiguredSize() {
+        SimpleConfig config = new SimpleConfig();
+        config.putProperty(KRADConstants.ConfigParameters.KRAD_EXPRESSION_CACHE_SIZE, "50");
+        ConfigContext.init(config);
+        assertEquals(50, new ExpressionCache().getMaxSize());
+
+        // an invalid size falls back to the default
+        config.putProperty(KRADConstants.ConfigParameters.KRAD_EXPRESSION_CACHE_SIZE, "5O");
+        assertEquals(ExpressionCache.DEFAULT_MAX_SIZE, new ExpressionCache().getMaxSize());
+        config.putProperty(KRADConstants.ConfigParameters.KRAD_EXPRESSION_CACHE_SIZE, "-1");
+        assertEquals(ExpressionCache.DEFAULT_MAX_SIZE, new ExpressionCache().getMaxSize());
+    }
+
+}
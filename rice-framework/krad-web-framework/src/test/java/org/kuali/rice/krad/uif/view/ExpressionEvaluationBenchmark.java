@@ -0,0 +1,122 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.krad.uif.view;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of evaluating the expressions of a large view, modeled on the kitchen sink views of the
+ * sample application, with and without the shared {@link ExpressionCache}.
+ *
+ * <p>
+ * Each lifecycle uses a new {@link DefaultExpressionEvaluator}, as a view request does. The view has groups of fields
+ * with conditional properties and collections whose line expressions are adjusted per line, so it has a few thousand
+ * distinct expression templates.
+ * </p>
+ *
+ * <p>This is not a unit test; run it with {@link #main(String[])} from the test classpath.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ExpressionEvaluationBenchmark {
+
+    private static final int GROUPS = 40;
+    private static final int FIELDS_PER_GROUP = 10;
+    private static final int COLLECTION_LINES = 50;
+
+    @Param({"true", "false"})
+    public boolean cacheExpressions;
+
+    private ExpressionCache expressionCache;
+    private Map<String, Object> model;
+    private List<String> expressions;
+    private List<String> templates;
+
+    @Setup
+    public void setUp() {
+        expressionCache = new ExpressionCache(cacheExpressions ? ExpressionCache.DEFAULT_MAX_SIZE : 0);
+
+        model = new HashMap<String, Object>();
+        List<Map<String, Object>> lines = new ArrayList<Map<String, Object>>();
+        for (int i = 0; i < COLLECTION_LINES; i++) {
+            Map<String, Object> line = new HashMap<String, Object>();
+            line.put("name", "line" + i);
+            line.put("amount", Integer.valueOf(i * 10));
+            line.put("active", Boolean.valueOf(i % 2 == 0));
+            lines.add(line);
+        }
+        model.put("lines", lines);
+        model.put("readOnly", Boolean.FALSE);
+        model.put("stateValue", "Open");
+
+        expressions = new ArrayList<String>();
+        templates = new ArrayList<String>();
+        for (int group = 0; group < GROUPS; group++) {
+            for (int field = 0; field < FIELDS_PER_GROUP; field++) {
+                expressions.add("!#readOnly and #stateValue == 'Open' and " + field + " < " + FIELDS_PER_GROUP);
+                templates.add("Field @{" + field + " + 1} of group " + group + " (@{#stateValue})");
+            }
+            for (int i = 0; i < COLLECTION_LINES; i++) {
+                expressions.add("#lines[" + i + "]['active'] and #lines[" + i + "]['amount'] > " + group);
+                templates.add("@{#lines[" + i + "]['name']}: @{#lines[" + i + "]['amount']}");
+            }
+        }
+    }
+
+    @Benchmark
+    public void evaluateView(Blackhole blackhole) {
+        DefaultExpressionEvaluator evaluator = new DefaultExpressionEvaluator(expressionCache);
+        evaluator.initializeEvaluationContext(model);
+
+        for (String expression : expressions) {
+            blackhole.consume(evaluator.evaluateExpression(model, expression));
+        }
+        for (String template : templates) {
+            blackhole.consume(evaluator.evaluateExpressionTemplate(model, template));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ExpressionEvaluationBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
@@ -0,0 +1,198 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.krad.web.form;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.filefilter.DirectoryFileFilter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.kuali.rice.krad.test.TestForm;
+import org.kuali.rice.krad.uif.lifecycle.ViewPostMetadata;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpSession;
+
+import javax.servlet.http.HttpSessionBindingEvent;
+import java.io.File;
+import java.io.FileFilter;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link LocalUifFormStore} and its use by {@link UifFormManager}.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class LocalUifFormStoreTest {
+
+    private long currentTime;
+    private LocalUifFormStore store;
+
+    @Before
+    public void setUp() {
+        currentTime = 1000000L;
+        store = new LocalUifFormStore() {
+            @Override
+            protected long getCurrentTime() {
+                return currentTime;
+            }
+        };
+    }
+
+    @After
+    public void tearDown() {
+        store.destroy();
+    }
+
+    @Test
+    public void testStoreAndRetrieve() {
+        TestForm form = createForm("form1");
+        form.setField1("value");
+        form.setJumpToId("jumpTo");
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        form.setRequest(request);
+        ViewPostMetadata viewPostMetadata = new ViewPostMetadata();
+        viewPostMetadata.addAvailableMethodToCall("save");
+        form.setViewPostMetadata(viewPostMetadata);
+
+        assertTrue(store.storeForm(form));
+        assertTrue(store.containsForm("form1"));
+
+        TestForm storedForm = (TestForm) store.retrieveForm("form1");
+        assertNotSame(form, storedForm);
+        assertEquals("value", storedForm.getField1());
+        assertTrue(storedForm.getViewPostMetadata().getAvailableMethodToCalls().contains("save"));
+
+        // session transient and request state is not stored, but is kept on the form
+        assertNull(storedForm.getJumpToId());
+        assertNull(storedForm.getRequest());
+        assertEquals("jumpTo", form.getJumpToId());
+        assertSame(request, form.getRequest());
+
+        store.removeForm("form1");
+        assertFalse(store.containsForm("form1"));
+        assertNull(store.retrieveForm("form1"));
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyAccessed() {
+        store.setMaxForms(2);
+
+        store.storeForm(createForm("form1"));
+        store.storeForm(createForm("form2"));
+        assertNotNull(store.retrieveForm("form1"));
+        store.storeForm(createForm("form3"));
+
+        assertEquals(2, store.getSize());
+        assertTrue(store.containsForm("form1"));
+        assertFalse(store.containsForm("form2"));
+        assertTrue(store.containsForm("form3"));
+    }
+
+    @Test
+    public void testTimeToLive() {
+        store.setTimeToLive(60);
+
+        store.storeForm(createForm("form1"));
+        currentTime += 30000L;
+        store.storeForm(createForm("form2"));
+        currentTime += 40000L;
+
+        assertFalse(store.containsForm("form1"));
+        assertNull(store.retrieveForm("form1"));
+        assertNotNull(store.retrieveForm("form2"));
+    }
+
+    @Test
+    public void testFormManagerKeepsOnlyKeysInSession() {
+        UifFormManager formManager = new UifFormManager();
+        formManager.setFormStore(store);
+        formManager.setMaxNumberOfSessionForms(2);
+
+        TestForm form = createForm("form1");
+        form.setField1("value");
+        formManager.addSessionForm(form);
+
+        assertTrue(formManager.sessionForms.isEmpty());
+        assertTrue(formManager.hasSessionForm("form1"));
+        assertEquals("value", ((TestForm) formManager.getSessionForm("form1")).getField1());
+
+        formManager.addSessionForm(createForm("form2"));
+        formManager.addSessionForm(createForm("form3"));
+        assertFalse(formManager.hasSessionForm("form1"));
+        assertFalse(store.containsForm("form1"));
+
+        formManager.removeSessionFormByKey("form2");
+        assertFalse(store.containsForm("form2"));
+
+        formManager.valueUnbound(new HttpSessionBindingEvent(new MockHttpSession(), "formManager"));
+        assertEquals(0, store.getSize());
+    }
+
+    @Test
+    public void testFormManagerOnlyRetrievesItsOwnForms() {
+        UifFormManager formManager = new UifFormManager();
+        formManager.setFormStore(store);
+        UifFormManager otherFormManager = new UifFormManager();
+        otherFormManager.setFormStore(store);
+
+        formManager.addSessionForm(createForm("form1"));
+
+        assertFalse(otherFormManager.hasSessionForm("form1"));
+        assertNull(otherFormManager.getSessionForm("form1"));
+    }
+
+    @Test
+    public void testDestroyRemovesOnlyOwnFiles() throws Exception {
+        File directory = new File(FileUtils.getTempDirectory(), "uif-form-store-test-" + System.nanoTime());
+        try {
+            FileUtils.writeStringToFile(new File(directory, "other.txt"), "not a form");
+            FileUtils.writeStringToFile(new File(directory, "other.form"), "form of another store");
+            store.setDirectory(directory.getPath());
+
+            store.storeForm(createForm("form1"));
+            store.storeForm(createForm("form2"));
+            File[] formDirectories = directory.listFiles((FileFilter) DirectoryFileFilter.DIRECTORY);
+            assertEquals(1, formDirectories.length);
+            assertEquals(2, formDirectories[0].list().length);
+            assertTrue(new File(directory, "other.form").exists());
+
+            store.destroy();
+            assertEquals(0, store.getSize());
+            String[] remaining = directory.list();
+            Arrays.sort(remaining);
+            assertArrayEquals(new String[] {"other.form", "other.txt"}, remaining);
+        } finally {
+            FileUtils.deleteQuietly(directory);
+        }
+    }
+
+    private TestForm createForm(String formKey) {
+        TestForm form = new TestForm();
+        form.setFormKey(formKey);
+
+        return form;
+    }
+
+}
@@ -0,0 +1,173 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.krad.web.form;
+
+import org.kuali.rice.krad.test.TestForm;
+import org.kuali.rice.krad.uif.lifecycle.ViewPostMetadata;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the heap used per active user when session forms are kept in the session and in a
+ * {@link LocalUifFormStore}.
+ *
+ * <p>
+ * Each invocation opens the maximum number of session forms for every user, each form with a collection of a few
+ * hundred lines and the post metadata of a view of that size. The score is the time taken to store the forms; the
+ * heap still used by the form managers afterwards is reported per user by the {@code retainedBytesPerUser} counter.
+ * This needs a large heap.
+ * </p>
+ *
+ * <p>This is not a unit test; run it with {@link #main(String[])} from the test classpath.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class UifFormStoreHeapBenchmark {
+
+    private static final int USERS = 500;
+    private static final int FORMS_PER_USER = 5;
+    private static final int COLLECTION_LINES = 200;
+
+    @Param({"session", "store"})
+    public String formStorage;
+
+    private LocalUifFormStore store;
+    private List<UifFormManager> formManagers;
+    private long heapBefore;
+
+    /**
+     * Heap retained by the form managers of one invocation, divided by the number of users.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class HeapCounters {
+        public long retainedBytesPerUser;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            retainedBytesPerUser = 0;
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        if ("store".equals(formStorage)) {
+            store = new LocalUifFormStore();
+            store.setMaxForms(USERS * FORMS_PER_USER);
+        }
+
+        heapBefore = getUsedHeap();
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown(HeapCounters counters) {
+        counters.retainedBytesPerUser = (getUsedHeap() - heapBefore) / USERS;
+
+        for (UifFormManager formManager : formManagers) {
+            String formKey = formManager.getAccessedFormKeys().lastElement().toString();
+            if (!formManager.hasSessionForm(formKey)) {
+                throw new IllegalStateException("form " + formKey + " was lost");
+            }
+        }
+
+        formManagers = null;
+        if (store != null) {
+            store.destroy();
+            store = null;
+        }
+    }
+
+    @Benchmark
+    public List<UifFormManager> storeForms() {
+        formManagers = new ArrayList<UifFormManager>();
+        for (int user = 0; user < USERS; user++) {
+            UifFormManager formManager = new UifFormManager();
+            formManager.setFormStore(store);
+            formManager.setMaxNumberOfSessionForms(FORMS_PER_USER);
+            for (int i = 0; i < FORMS_PER_USER; i++) {
+                formManager.addSessionForm(createForm("user" + user + "-form" + i));
+            }
+            formManagers.add(formManager);
+        }
+
+        return formManagers;
+    }
+
+    private TestForm createForm(String formKey) {
+        TestForm form = new TestForm();
+        form.setFormKey(formKey);
+
+        List<Map<String, Object>> lines = new ArrayList<Map<String, Object>>();
+        ViewPostMetadata viewPostMetadata = new ViewPostMetadata();
+        for (int i = 0; i < COLLECTION_LINES; i++) {
+            Map<String, Object> line = new HashMap<String, Object>();
+            line.put("id", Integer.valueOf(i));
+            line.put("name", formKey + " line " + i);
+            line.put("description", "Description of line " + i + " of " + formKey);
+            line.put("amount", Long.valueOf(i * 100L));
+            lines.add(line);
+
+            viewPostMetadata.addAccessibleBindingPath("extensionData[lines][" + i + "].name");
+            viewPostMetadata.addAccessibleBindingPath("extensionData[lines][" + i + "].description");
+            viewPostMetadata.addAccessibleBindingPath("extensionData[lines][" + i + "].amount");
+        }
+        form.getExtensionData().put("lines", lines);
+        form.setViewPostMetadata(viewPostMetadata);
+
+        return form;
+    }
+
+    private long getUsedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(UifFormStoreHeapBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
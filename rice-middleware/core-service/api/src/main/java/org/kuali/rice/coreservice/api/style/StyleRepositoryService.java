@@ -27,6 +27,7 @@ import javax.xml.bind.annotation.XmlElementWrapper;
 
 import org.kuali.rice.core.api.CoreConstants;
 import org.kuali.rice.core.api.exception.RiceIllegalArgumentException;
+import org.springframework.cache.annotation.CacheEvict;
 
 /**
  * Service for interacting with {@link Style} data. This service primarily
@@ -73,6 +74,7 @@ public interface StyleRepositoryService {
 	 * @throws RiceIllegalArgumentException if the given style is null
 	 */
 	@WebMethod(operationName = "saveStyle")
+	@CacheEvict(value={Style.Cache.NAME}, allEntries = true)
 	void saveStyle(@WebParam(name = "style") Style style) throws RiceIllegalArgumentException;
 	
 	/**
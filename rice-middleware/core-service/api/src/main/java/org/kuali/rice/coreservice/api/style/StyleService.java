@@ -21,7 +21,6 @@ import javax.xml.transform.Templates;
 import javax.xml.transform.TransformerConfigurationException;
 
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 
 /**
  * Service for working with stylesheets.  This service provides pure data-oriented
@@ -55,6 +54,9 @@ public interface StyleService {
     
     /**
      * Gets a compiled version of the style with the given name.
+     *
+     * <p>Implementations are expected to cache compiled styles and compile a style again only once it has
+     * changed.</p>
      * 
      * @param styleName the name of the style for which to retrieve a compiled version
      * 
@@ -63,7 +65,6 @@ public interface StyleService {
      * @throws TransformerConfigurationException if compilation of the stylesheet fails
      * @throws IllegalArgumentException if the given styleName is null or blank
      */
-    @Cacheable(value= Style.Cache.NAME, key="'styleName=' + #p0")
     public Templates getStyleAsTranslet(String styleName) throws TransformerConfigurationException;
 
 	
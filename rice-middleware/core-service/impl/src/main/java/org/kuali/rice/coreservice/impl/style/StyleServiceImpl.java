@@ -23,6 +23,8 @@ import org.kuali.rice.coreservice.framework.CoreFrameworkServiceLocator;
 import org.kuali.rice.kew.api.KewApiConstants;
 import org.kuali.rice.krad.util.KRADConstants;
 import org.springframework.beans.factory.annotation.Required;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 
 import javax.xml.transform.Templates;
 import javax.xml.transform.TransformerConfigurationException;
@@ -30,23 +32,44 @@ import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.stream.StreamSource;
 import java.io.StringReader;
 import java.util.List;
-import java.util.Properties;
 
 
 /**
- * Implements generic StyleService via existing EDL style table
+ * Implements generic StyleService via existing EDL style table.
+ *
+ * <p>
+ * Compiled styles are kept in the {@link Style.Cache#NAME} cache, keyed by style name, so a cached style is returned
+ * without reading it from the database.  Saving a style flushes that cache on every node, which also takes care of
+ * styles including or importing the saved one.
+ * </p>
+ *
  * @author Kuali Rice Team (rice.collab@kuali.org)
  */
 public class StyleServiceImpl implements StyleService {
 	
     private static final Logger LOG = Logger.getLogger(StyleServiceImpl.class);
 
+    private static final String XSLTC_TRANSFORMER_FACTORY = "org.apache.xalan.xsltc.trax.TransformerFactoryImpl";
+
+    private static final String TRANSLET_CACHE_KEY_PREFIX = "translet:styleName=";
+
     private StyleRepositoryService styleRepositoryService;
 
+    private CacheManager cacheManager;
+
     public void setStyleRepositoryService(StyleRepositoryService styleRepositoryService) {
     	this.styleRepositoryService = styleRepositoryService;
     }
 
+    /**
+     * Sets the cache manager providing the cache of compiled styles.  If not set, styles are compiled every time.
+     *
+     * @param cacheManager the cache manager holding the {@link Style.Cache#NAME} cache
+     */
+    public void setCacheManager(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
     /**
      * Loads the named style from the database, or (if configured) imports it from a file
      * specified via a configuration parameter with a name of the format edl.style.&lt;styleName&gt;
@@ -63,26 +86,50 @@ public class StyleServiceImpl implements StyleService {
             return null;
         }
 
+        Cache cache = cacheManager == null ? null : cacheManager.getCache(Style.Cache.NAME);
+        String cacheKey = TRANSLET_CACHE_KEY_PREFIX + name;
+        if (cache != null) {
+            Cache.ValueWrapper cached = cache.get(cacheKey);
+            if (cached != null) {
+                return (Templates) cached.get();
+            }
+        }
+
         Style style = getStyle(name);
         if (style == null) {
             return null;
         }
 
+        // concurrent misses may each compile the style, Templates are thread safe so any one of them can be kept
+        Templates templates = compileStyle(style);
+        if (cache != null) {
+            cache.put(cacheKey, templates);
+        }
+
+        return templates;
+    }
+
+    /**
+     * Compiles the given style, using XSLTC if so configured.
+     *
+     * @param style the style to compile
+     * @return the compiled style
+     * @throws TransformerConfigurationException if compilation of the stylesheet fails
+     */
+    protected Templates compileStyle(Style style) throws TransformerConfigurationException {
         boolean useXSLTC = CoreFrameworkServiceLocator.getParameterService().getParameterValueAsBoolean(KewApiConstants.KEW_NAMESPACE, KRADConstants.DetailTypes.EDOC_LITE_DETAIL_TYPE, KewApiConstants.EDL_USE_XSLTC_IND);
+
+        TransformerFactory factory;
         if (useXSLTC) {
-            LOG.info("using xsltc to compile stylesheet");
-            String key = "javax.xml.transform.TransformerFactory";
-            String value = "org.apache.xalan.xsltc.trax.TransformerFactoryImpl";
-            Properties props = System.getProperties();
-            props.put(key, value);
-            System.setProperties(props);
+            LOG.info("using xsltc to compile stylesheet " + style.getName());
+            factory = TransformerFactory.newInstance(XSLTC_TRANSFORMER_FACTORY, null);
+        } else {
+            factory = TransformerFactory.newInstance();
         }
-
-        TransformerFactory factory = TransformerFactory.newInstance();
         factory.setURIResolver(new StyleUriResolver(this));
 
         if (useXSLTC) {
-            factory.setAttribute("translet-name",name);
+            factory.setAttribute("translet-name",style.getName());
             factory.setAttribute("generate-translet",Boolean.TRUE);
             String debugTransform = CoreFrameworkServiceLocator.getParameterService().getParameterValueAsString(KewApiConstants.KEW_NAMESPACE, KRADConstants.DetailTypes.EDOC_LITE_DETAIL_TYPE, KewApiConstants.EDL_DEBUG_TRANSFORM_IND);
             if (debugTransform.trim().equals("Y")) {
@@ -16,6 +16,7 @@
 package org.kuali.rice.core.api.config;
 
 import org.apache.commons.lang.StringUtils;
+import org.apache.log4j.Logger;
 import org.kuali.rice.core.api.CoreConstants;
 import org.kuali.rice.core.api.config.property.ConfigContext;
 
@@ -27,6 +28,8 @@ import org.kuali.rice.core.api.config.property.ConfigContext;
  */
 public final class CoreConfigHelper {
 
+    private static final Logger LOG = Logger.getLogger(CoreConfigHelper.class);
+
     /**
 	 * Returns the ID of this instance.
 	 *
@@ -57,6 +60,82 @@ public final class CoreConfigHelper {
 		return applicationId;
 	}
 	
+	/**
+	 * Returns the value of an integer configuration parameter.
+	 *
+	 * <p>A value which is not an integer is logged as a warning and the default value is used instead, so a
+	 * misconfigured tuning parameter does not prevent the application from starting.</p>
+	 *
+	 * @param name the name of the configuration parameter
+	 * @param defaultValue the value to use if the parameter is not set or is not an integer
+	 * @return the configured value, or the default value
+	 */
+	public static int getIntProperty(String name, int defaultValue) {
+		return getIntProperty(name, defaultValue, Integer.MIN_VALUE);
+	}
+
+	/**
+	 * Returns the value of an integer configuration parameter which must not be less than the given minimum.
+	 *
+	 * <p>A value which is not an integer or is less than the minimum is logged as a warning and the default value is
+	 * used instead.</p>
+	 *
+	 * @param name the name of the configuration parameter
+	 * @param defaultValue the value to use if the parameter is not set or is invalid
+	 * @param minValue the smallest valid value
+	 * @return the configured value, or the default value
+	 */
+	public static int getIntProperty(String name, int defaultValue, int minValue) {
+		String value = ConfigContext.getCurrentContextConfig() == null ? null :
+				ConfigContext.getCurrentContextConfig().getProperty(name);
+		if (StringUtils.isBlank(value)) {
+			return defaultValue;
+		}
+		try {
+			int intValue = Integer.parseInt(value.trim());
+			if (intValue >= minValue) {
+				return intValue;
+			}
+		} catch (NumberFormatException e) {
+			// fall through
+		}
+		LOG.warn("Configuration parameter " + name + " must be an integer"
+				+ (minValue == Integer.MIN_VALUE ? "" : " of at least " + minValue) + " but was '" + value + "', using "
+				+ defaultValue);
+		return defaultValue;
+	}
+
+	/**
+	 * Returns the value of a decimal configuration parameter which must lie within the given range.
+	 *
+	 * <p>A value which is not a number or is outside the range is logged as a warning and the default value is used
+	 * instead.</p>
+	 *
+	 * @param name the name of the configuration parameter
+	 * @param defaultValue the value to use if the parameter is not set or is invalid
+	 * @param minValue the smallest valid value
+	 * @param maxValue the largest valid value
+	 * @return the configured value, or the default value
+	 */
+	public static double getDoubleProperty(String name, double defaultValue, double minValue, double maxValue) {
+		String value = ConfigContext.getCurrentContextConfig() == null ? null :
+				ConfigContext.getCurrentContextConfig().getProperty(name);
+		if (StringUtils.isBlank(value)) {
+			return defaultValue;
+		}
+		try {
+			double doubleValue = Double.parseDouble(value.trim());
+			if (doubleValue >= minValue && doubleValue <= maxValue) {
+				return doubleValue;
+			}
+		} catch (NumberFormatException e) {
+			// fall through
+		}
+		LOG.warn("Configuration parameter " + name + " must be a number from " + minValue + " to " + maxValue
+				+ " but was '" + value + "', using " + defaultValue);
+		return defaultValue;
+	}
+
 	private CoreConfigHelper() {
 		throw new UnsupportedOperationException("Should never be invoked!");
 	}
@@ -0,0 +1,37 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.core.api.mail;
+
+import java.util.Collection;
+
+/**
+ * A {@link Mailer} which can send many messages over a single connection to the mail server.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public interface BatchMailer extends Mailer {
+
+    /**
+     * Sends the given plain text messages as one batch.
+     *
+     * <p>A message which cannot be sent does not prevent the others in the batch from being sent.</p>
+     *
+     * @param messages the messages to send
+     * @return the number of messages which could not be sent
+     */
+    int sendEmails(Collection<MailMessage> messages);
+
+}
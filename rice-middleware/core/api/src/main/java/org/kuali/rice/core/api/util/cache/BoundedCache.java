@@ -0,0 +1,252 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.core.api.util.cache;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An in-memory cache holding at most a fixed number of entries, which can be shared by many threads.
+ *
+ * <p>
+ * The entries are held in a {@link ConcurrentHashMap}, so lookups take no lock.  Each entry records when it was last
+ * used, which approximates the order in which entries were used without reordering anything on a lookup.  Once adding
+ * an entry takes the cache over its maximum size, the entries used least recently are evicted in a batch of about a
+ * tenth of the maximum size, so the cost of finding them is shared by the entries added until the next eviction.
+ * </p>
+ *
+ * <p>
+ * A maximum size of 0 disables the cache: nothing is held and every lookup is a miss. Null keys and values are not
+ * supported.
+ * </p>
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class BoundedCache<K, V> {
+
+    private static final int EVICTION_BATCH_DIVISOR = 10;
+
+    private final int maxSize;
+    private final int sizeAfterEviction;
+    private final ConcurrentMap<K, Entry<V>> entries;
+    private final Object evictionLock = new Object();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Creates a cache holding at most the given number of entries.
+     *
+     * @param maxSize maximum number of entries, 0 to disable the cache
+     * @throws IllegalArgumentException if the maximum size is negative
+     */
+    public BoundedCache(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("maxSize must not be negative");
+        }
+
+        this.maxSize = maxSize;
+        this.sizeAfterEviction = Math.max(1, maxSize - Math.max(1, maxSize / EVICTION_BATCH_DIVISOR));
+        this.entries = new ConcurrentHashMap<K, Entry<V>>(Math.min(maxSize, 16) * 4 / 3 + 1);
+    }
+
+    /**
+     * Gets the value cached for the given key, marking it as used.
+     *
+     * @param key the key
+     * @return the cached value, or null if none is cached
+     */
+    public V get(K key) {
+        V value = null;
+        if (maxSize > 0) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                entry.used();
+                value = entry.value;
+            }
+        }
+
+        if (value == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+
+        return value;
+    }
+
+    /**
+     * Caches the given value for the given key, replacing any value cached for it and evicting the least recently
+     * used entries if the cache is full.
+     *
+     * @param key the key
+     * @param value the value
+     * @return the value previously cached for the key, or null if there was none
+     */
+    public V put(K key, V value) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("key and value must not be null");
+        }
+        if (maxSize == 0) {
+            return null;
+        }
+
+        Entry<V> previous = entries.put(key, new Entry<V>(value));
+        evictIfFull();
+
+        return previous == null ? null : previous.value;
+    }
+
+    /**
+     * Caches the given value for the given key unless a value is already cached for it, in which case that value is
+     * marked as used.
+     *
+     * @param key the key
+     * @param value the value
+     * @return the value already cached for the key, or null if the given value was cached
+     */
+    public V putIfAbsent(K key, V value) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("key and value must not be null");
+        }
+        if (maxSize == 0) {
+            return null;
+        }
+
+        Entry<V> existing = entries.putIfAbsent(key, new Entry<V>(value));
+        if (existing != null) {
+            existing.used();
+            return existing.value;
+        }
+
+        evictIfFull();
+        return null;
+    }
+
+    /**
+     * Removes the value cached for the given key.
+     *
+     * @param key the key
+     * @return the removed value, or null if none was cached
+     */
+    public V remove(K key) {
+        if (maxSize == 0) {
+            return null;
+        }
+
+        Entry<V> removed = entries.remove(key);
+        return removed == null ? null : removed.value;
+    }
+
+    /**
+     * Removes all cached entries and resets the hit and miss counts.
+     */
+    public void clear() {
+        entries.clear();
+
+        hits.set(0);
+        misses.set(0);
+    }
+
+    /**
+     * @return number of entries currently cached
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return maximum number of entries cached
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return number of lookups which found a cached value
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return number of lookups which did not find a cached value
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Evicts the entries used least recently once the cache holds more than its maximum size.  Only one thread evicts
+     * at a time; lookups carry on while it does.
+     */
+    private void evictIfFull() {
+        if (entries.size() <= maxSize) {
+            return;
+        }
+
+        synchronized (evictionLock) {
+            int excess = entries.size() - sizeAfterEviction;
+            if (entries.size() <= maxSize || excess <= 0) {
+                return;
+            }
+
+            // the use times keep changing, so they are copied before sorting
+            long[] lastUsed = new long[entries.size()];
+            int count = 0;
+            for (Entry<V> entry : entries.values()) {
+                if (count == lastUsed.length) {
+                    break;
+                }
+                lastUsed[count++] = entry.lastUsed;
+            }
+            Arrays.sort(lastUsed, 0, count);
+            long threshold = lastUsed[Math.min(excess, count) - 1];
+
+            for (Map.Entry<K, Entry<V>> mapping : entries.entrySet()) {
+                if (excess == 0) {
+                    break;
+                }
+                if (mapping.getValue().lastUsed <= threshold && entries.remove(mapping.getKey(), mapping.getValue())) {
+                    excess--;
+                }
+            }
+        }
+    }
+
+    /**
+     * A cached value and the time it was last used.
+     */
+    private static final class Entry<V> {
+
+        private final V value;
+        private volatile long lastUsed = System.nanoTime();
+
+        private Entry(V value) {
+            this.value = value;
+        }
+
+        private void used() {
+            lastUsed = System.nanoTime();
+        }
+    }
+
+}
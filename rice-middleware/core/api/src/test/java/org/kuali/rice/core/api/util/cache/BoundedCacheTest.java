@@ -0,0 +1,107 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.core.api.util.cache;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link BoundedCache}.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class BoundedCacheTest {
+
+    @Test
+    public void testHitsAndMisses() {
+        BoundedCache<String, Integer> cache = new BoundedCache<String, Integer>(10);
+
+        assertNull(cache.get("one"));
+        assertNull(cache.put("one", Integer.valueOf(1)));
+        assertEquals(Integer.valueOf(1), cache.get("one"));
+        assertEquals(Integer.valueOf(1), cache.putIfAbsent("one", Integer.valueOf(2)));
+        assertEquals(Integer.valueOf(1), cache.put("one", Integer.valueOf(3)));
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.size());
+
+        assertEquals(Integer.valueOf(3), cache.remove("one"));
+        assertEquals(0, cache.size());
+
+        cache.put("two", Integer.valueOf(2));
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHitCount());
+        assertEquals(0, cache.getMissCount());
+    }
+
+    @Test
+    public void testBounded() {
+        BoundedCache<Integer, Integer> cache = new BoundedCache<Integer, Integer>(50);
+        for (int i = 0; i < 1000; i++) {
+            cache.put(Integer.valueOf(i), Integer.valueOf(i));
+
+            // the entry just added is never the one evicted
+            assertEquals(Integer.valueOf(i), cache.get(Integer.valueOf(i)));
+            assertTrue(cache.size() <= 50);
+        }
+
+        // evictions remove a tenth of the maximum size at a time
+        assertTrue(cache.size() >= 45);
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() throws Exception {
+        // once full, a tenth of the entries are evicted at a time
+        BoundedCache<Integer, String> cache = new BoundedCache<Integer, String>(10);
+        for (int i = 0; i < 10; i++) {
+            cache.put(Integer.valueOf(i), String.valueOf(i));
+            Thread.sleep(1);
+        }
+        assertEquals("0", cache.get(Integer.valueOf(0)));
+        Thread.sleep(1);
+
+        cache.put(Integer.valueOf(10), "10");
+        assertEquals(9, cache.size());
+        assertEquals("0", cache.get(Integer.valueOf(0)));
+        assertNull(cache.get(Integer.valueOf(1)));
+        assertNull(cache.get(Integer.valueOf(2)));
+        for (int i = 3; i <= 10; i++) {
+            assertEquals(String.valueOf(i), cache.get(Integer.valueOf(i)));
+        }
+    }
+
+    @Test
+    public void testDisabled() {
+        BoundedCache<String, String> cache = new BoundedCache<String, String>(0);
+
+        assertNull(cache.put("a", "a"));
+        assertNull(cache.putIfAbsent("a", "a"));
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeMaxSize() {
+        new BoundedCache<String, String>(-1);
+    }
+
+}
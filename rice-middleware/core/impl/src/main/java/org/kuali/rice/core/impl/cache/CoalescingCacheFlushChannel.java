@@ -0,0 +1,218 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.core.impl.cache;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.kuali.rice.core.api.cache.CacheTarget;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects the {@link CacheTarget}s to be flushed on other nodes over a short time window and sends them as a single
+ * distributed flush message per window.
+ *
+ * <p>While targets are pending they are normalized: duplicates are removed, single entries of a cache which is
+ * already being cleared are dropped, and once more than {@code keyThreshold} entries of one cache are pending they are
+ * collapsed into a clear of the entire cache.</p>
+ *
+ * <p>Counters are kept for the number of messages and targets sent, the number of targets which were coalesced away
+ * and the number of targets which were dropped because sending them failed.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+final class CoalescingCacheFlushChannel {
+
+    private static final Log LOG = LogFactory.getLog(CoalescingCacheFlushChannel.class);
+
+    /**
+     * Sends a batch of cache targets to the other nodes.
+     */
+    interface Sender {
+        void send(List<CacheTarget> cacheTargets);
+    }
+
+    private final Sender sender;
+    private final long windowMillis;
+    private final int keyThreshold;
+
+    private final Object lock = new Object();
+
+    /**
+     * pending keys by cache name, a null set of keys means that the entire cache is to be cleared
+     */
+    private Map<String, Set<String>> pending = new HashMap<String, Set<String>>();
+
+    private final AtomicLong sentMessages = new AtomicLong();
+    private final AtomicLong sentTargets = new AtomicLong();
+    private final AtomicLong coalescedTargets = new AtomicLong();
+    private final AtomicLong droppedTargets = new AtomicLong();
+
+    private ScheduledExecutorService executor;
+
+    CoalescingCacheFlushChannel(Sender sender, long windowMillis, int keyThreshold) {
+        if (sender == null) {
+            throw new IllegalArgumentException("sender was null");
+        }
+        if (windowMillis <= 0) {
+            throw new IllegalArgumentException("windowMillis must be positive");
+        }
+        if (keyThreshold <= 0) {
+            throw new IllegalArgumentException("keyThreshold must be positive");
+        }
+        this.sender = sender;
+        this.windowMillis = windowMillis;
+        this.keyThreshold = keyThreshold;
+    }
+
+    /**
+     * Starts sending the pending targets once per window.
+     *
+     * @param name the name of the cache manager this channel belongs to, used to name the sending thread
+     */
+    synchronized void start(final String name) {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "CacheFlushChannel-" + name);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        executor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                flush();
+            }
+        }, windowMillis, windowMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the sending thread and sends anything which is still pending.
+     */
+    synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        flush();
+    }
+
+    /**
+     * Adds the given targets to those pending for the current window.
+     *
+     * @param cacheTargets the targets to add
+     */
+    void add(Collection<CacheTarget> cacheTargets) {
+        synchronized (lock) {
+            for (CacheTarget cacheTarget : cacheTargets) {
+                add(cacheTarget);
+            }
+        }
+    }
+
+    private void add(CacheTarget cacheTarget) {
+        String cache = cacheTarget.getCache();
+        boolean cachePending = pending.containsKey(cache);
+        Set<String> keys = pending.get(cache);
+        if (cachePending && keys == null) {
+            // the entire cache is already being cleared
+            coalescedTargets.incrementAndGet();
+        } else if (!cacheTarget.containsKey()) {
+            if (keys != null) {
+                coalescedTargets.addAndGet(keys.size());
+            }
+            pending.put(cache, null);
+        } else {
+            if (keys == null) {
+                keys = new HashSet<String>();
+                pending.put(cache, keys);
+            }
+            if (!keys.add(cacheTarget.getKey())) {
+                coalescedTargets.incrementAndGet();
+            } else if (keys.size() > keyThreshold) {
+                // replaced by a single clear of the cache
+                coalescedTargets.addAndGet(keys.size() - 1);
+                pending.put(cache, null);
+            }
+        }
+    }
+
+    /**
+     * Sends all of the pending targets as a single message, if there are any.
+     */
+    void flush() {
+        Map<String, Set<String>> toSend;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            toSend = pending;
+            pending = new HashMap<String, Set<String>>();
+        }
+
+        List<CacheTarget> cacheTargets = new ArrayList<CacheTarget>();
+        for (Map.Entry<String, Set<String>> entry : toSend.entrySet()) {
+            if (entry.getValue() == null) {
+                cacheTargets.add(CacheTarget.entireCache(entry.getKey()));
+            } else {
+                for (String key : entry.getValue()) {
+                    cacheTargets.add(CacheTarget.singleEntry(entry.getKey(), key));
+                }
+            }
+        }
+
+        try {
+            sender.send(cacheTargets);
+            sentMessages.incrementAndGet();
+            sentTargets.addAndGet(cacheTargets.size());
+        } catch (Throwable t) {
+            droppedTargets.addAndGet(cacheTargets.size());
+            LOG.error("failed to send distributed flush of " + cacheTargets.size() + " cache targets", t);
+        }
+    }
+
+    long getSentMessages() {
+        return sentMessages.get();
+    }
+
+    long getSentTargets() {
+        return sentTargets.get();
+    }
+
+    long getCoalescedTargets() {
+        return coalescedTargets.get();
+    }
+
+    long getDroppedTargets() {
+        return droppedTargets.get();
+    }
+
+}
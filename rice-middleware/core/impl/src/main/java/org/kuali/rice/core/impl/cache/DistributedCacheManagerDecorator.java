@@ -22,9 +22,11 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.kuali.rice.core.api.cache.CacheAdminService;
 import org.kuali.rice.core.api.cache.CacheTarget;
+import org.kuali.rice.core.api.config.CoreConfigHelper;
 import org.kuali.rice.core.api.config.property.ConfigContext;
 import org.kuali.rice.ksb.api.KsbApiServiceLocator;
 import org.springframework.beans.factory.BeanNameAware;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.NamedBean;
 import org.springframework.cache.Cache;
@@ -39,6 +41,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -57,18 +60,30 @@ import java.util.concurrent.LinkedBlockingQueue;
  * If not in a transaction, distributed messages are sent immediately.  This should be avoided and is likely
  * the result of a programming error.
  * </p>
+ *
+ * <p>
+ * If rice.cache.distributedFlushWindowMillis is greater than zero, messages are instead handed to a
+ * {@link CoalescingCacheFlushChannel} once they are ready to be sent (immediately outside of a transaction, after
+ * commit inside of one).  The channel merges everything it receives over the window and sends it as a single message,
+ * collapsing evicts of more than rice.cache.distributedFlushKeyThreshold keys of a cache into a clear of that cache.
+ * </p>
  */
-public final class DistributedCacheManagerDecorator implements CacheManager, InitializingBean, BeanNameAware, NamedBean {
+public final class DistributedCacheManagerDecorator implements CacheManager, InitializingBean, DisposableBean, BeanNameAware, NamedBean {
 
     private static final Log LOG = LogFactory.getLog(DistributedCacheManagerDecorator.class);
 
     private static final String DISABLE_ALL_CACHES_PARAM = "rice.cache.disableAllCaches";
     private static final String DISABLE_DISTRIBUTED_CACHE_FLUSH_PARAM = "rice.cache.disableDistributedCacheFlush";
     private static final String DISABLED_CACHES_PARAM = "rice.cache.disabledCaches";
+    private static final String DISTRIBUTED_FLUSH_WINDOW_MILLIS_PARAM = "rice.cache.distributedFlushWindowMillis";
+    private static final String DISTRIBUTED_FLUSH_KEY_THRESHOLD_PARAM = "rice.cache.distributedFlushKeyThreshold";
+
+    private static final int DEFAULT_DISTRIBUTED_FLUSH_KEY_THRESHOLD = 100;
 
     private CacheManager cacheManager;
     private String serviceName;
     private String name;
+    private CoalescingCacheFlushChannel flushChannel;
 
     @Override
     public Cache getCache(String name) {
@@ -90,19 +105,27 @@ public final class DistributedCacheManagerDecorator implements CacheManager, Ini
     }
 
     private void sendFlushCacheMessages(Collection<CacheTarget> cacheTargets) {
+        if (flushChannel != null) {
+            flushChannel.add(cacheTargets);
+            return;
+        }
         try {
-            if (!cacheTargets.isEmpty()) {
-                logFlushCache(cacheTargets);
-                // need to ensure that the list passed is serializable in order for the KSB messaging to work
-                cacheTargets = new ArrayList<CacheTarget>(cacheTargets);
-                CacheAdminService cacheAdminService = KsbApiServiceLocator.getMessageHelper().getServiceAsynchronously(QName.valueOf(serviceName));
-                cacheAdminService.flush(cacheTargets);
-            }
+            doSendFlushCacheMessages(cacheTargets);
         } catch (Throwable t) {
             LOG.error("failed to execute distributed flush for serviceName " + serviceName, t);
         }
     }
 
+    private void doSendFlushCacheMessages(Collection<CacheTarget> cacheTargets) {
+        if (!cacheTargets.isEmpty()) {
+            logFlushCache(cacheTargets);
+            // need to ensure that the list passed is serializable in order for the KSB messaging to work
+            cacheTargets = new ArrayList<CacheTarget>(cacheTargets);
+            CacheAdminService cacheAdminService = KsbApiServiceLocator.getMessageHelper().getServiceAsynchronously(QName.valueOf(serviceName));
+            cacheAdminService.flush(cacheTargets);
+        }
+    }
+
     private void logFlushCache(Collection<CacheTarget> cacheTargets) {
         if (LOG.isDebugEnabled()) {
             Set<String> cacheNames = new HashSet<String>();
@@ -126,6 +149,54 @@ public final class DistributedCacheManagerDecorator implements CacheManager, Ini
         if (StringUtils.isBlank(name)) {
             name = "NOT_NAMED";
         }
+
+        int windowMillis = CoreConfigHelper.getIntProperty(DISTRIBUTED_FLUSH_WINDOW_MILLIS_PARAM, 0, 0);
+        if (windowMillis > 0) {
+            int keyThreshold = CoreConfigHelper.getIntProperty(DISTRIBUTED_FLUSH_KEY_THRESHOLD_PARAM,
+                    DEFAULT_DISTRIBUTED_FLUSH_KEY_THRESHOLD, 1);
+            flushChannel = new CoalescingCacheFlushChannel(new CoalescingCacheFlushChannel.Sender() {
+                @Override
+                public void send(List<CacheTarget> cacheTargets) {
+                    doSendFlushCacheMessages(cacheTargets);
+                }
+            }, windowMillis, keyThreshold);
+            flushChannel.start(name);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (flushChannel != null) {
+            flushChannel.stop();
+        }
+    }
+
+    /**
+     * @return the number of distributed flush messages sent through the coalescing channel
+     */
+    public long getSentFlushMessageCount() {
+        return flushChannel != null ? flushChannel.getSentMessages() : 0;
+    }
+
+    /**
+     * @return the number of cache targets sent through the coalescing channel
+     */
+    public long getSentFlushTargetCount() {
+        return flushChannel != null ? flushChannel.getSentTargets() : 0;
+    }
+
+    /**
+     * @return the number of cache targets that did not need to be sent because they were coalesced with others
+     */
+    public long getCoalescedFlushTargetCount() {
+        return flushChannel != null ? flushChannel.getCoalescedTargets() : 0;
+    }
+
+    /**
+     * @return the number of cache targets which were dropped because the message containing them failed to send
+     */
+    public long getDroppedFlushTargetCount() {
+        return flushChannel != null ? flushChannel.getDroppedTargets() : 0;
     }
 
     public void setCacheManager(CacheManager cacheManager) {
@@ -261,6 +332,9 @@ public final class DistributedCacheManagerDecorator implements CacheManager, Ini
      * the implementation of this process uses the KSB messaging functionality which actually dispatches messages
      * *after* the transaction has committed.  This synchronizer will only send cache messages when the transaction
      * completes successfully.</p>
+     *
+     * <p>When the coalescing channel is in use the messages are handed to it after commit instead, since the channel
+     * sends them from its own thread outside of this transaction.</p>
      */
     private final class CacheMessageSendingTransactionSynchronization extends TransactionSynchronizationAdapter {
 
@@ -294,7 +368,16 @@ public final class DistributedCacheManagerDecorator implements CacheManager, Ini
          */
         @Override
         public void beforeCommit(boolean readOnly) {
-            sendFlushCacheMessages(exhaustQueue(flushQueue));
+            if (flushChannel == null) {
+                sendFlushCacheMessages(exhaustQueue(flushQueue));
+            }
+        }
+
+        @Override
+        public void afterCommit() {
+            if (flushChannel != null) {
+                sendFlushCacheMessages(exhaustQueue(flushQueue));
+            }
         }
 
         /**
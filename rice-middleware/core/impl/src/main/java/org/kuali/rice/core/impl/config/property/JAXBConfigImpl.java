@@ -19,6 +19,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -43,6 +44,7 @@ import org.apache.log4j.Logger;
 import org.kuali.rice.core.api.config.ConfigurationException;
 import org.kuali.rice.core.api.config.property.Config;
 import org.kuali.rice.core.api.util.RiceUtilities;
+import org.kuali.rice.core.api.util.Truth;
 import org.kuali.rice.core.framework.config.property.AbstractBaseConfig;
 import org.kuali.rice.core.util.ImmutableProperties;
 import org.xml.sax.Attributes;
@@ -57,6 +59,9 @@ import org.xml.sax.helpers.XMLFilterImpl;
  * This allows properties to be added in stages and still alter values of properties previously read
  * in. It also has settings for whether system properties should override all properties or only
  * serve as default when the property has not been defined.
+ *
+ * <p>The resolved properties are published as an immutable snapshot each time they change, so
+ * lookups never lock. Boolean and numeric values are parsed once, when the snapshot is built.</p>
  * 
  * @author Kuali Rice Team (rice.collab@kuali.org)
  * 
@@ -78,6 +83,8 @@ public class JAXBConfigImpl extends AbstractBaseConfig {
     private final Properties rawProperties = new Properties();
     private final Properties resolvedProperties = new Properties();
 
+    private volatile Snapshot snapshot = new Snapshot(new Properties());
+
     // compile pattern for regex once
     private final Pattern pattern = Pattern.compile(PLACEHOLDER_REGEX);
 
@@ -151,12 +158,38 @@ public class JAXBConfigImpl extends AbstractBaseConfig {
 
     @Override
     public Properties getProperties() {
-        return new ImmutableProperties(resolvedProperties);
+        return new ImmutableProperties(snapshot.properties);
     }
 
     @Override
     public String getProperty(String key) {
-        return resolvedProperties.getProperty(key);
+        return snapshot.values.get(key);
+    }
+
+    @Override
+    public boolean getBooleanProperty(String key, boolean defaultValue) {
+        Boolean value = snapshot.booleans.get(key);
+        return value == null ? defaultValue : value.booleanValue();
+    }
+
+    @Override
+    public Boolean getBooleanProperty(String key) {
+        return snapshot.booleans.get(key);
+    }
+
+    @Override
+    public Long getNumericProperty(String key) {
+        Snapshot current = snapshot;
+        Long value = current.numbers.get(key);
+        if (value == null) {
+            String propertyValue = current.values.get(key);
+            if (StringUtils.isBlank(propertyValue)) {
+                return null;
+            }
+            // not a number, fails as it always has
+            return new Long(propertyValue);
+        }
+        return value;
     }
 
     /**
@@ -248,7 +281,7 @@ public class JAXBConfigImpl extends AbstractBaseConfig {
         resolveRawToCache();
 
         LOG.info("----------------Rice Configuration Loaded-----------------");
-        logPropertyValues(resolvedProperties);
+        logPropertyValues(snapshot.properties);
     }
 
     protected void logPropertyValues(Properties p) {
@@ -539,9 +572,10 @@ public class JAXBConfigImpl extends AbstractBaseConfig {
     /**
      * This method iterates through the raw properties and stores their resolved values in the
      * resolved properties map, which acts as a cache so we don't have to run the recursion every
-     * time getProperty() is called.
+     * time getProperty() is called.  Once resolved, the properties are published to readers as a
+     * new snapshot.
      */
-    protected void resolveRawToCache() {
+    protected synchronized void resolveRawToCache() {
         // Make sure we have something to do
         if (rawProperties.size() == 0) {
             return;
@@ -574,6 +608,8 @@ public class JAXBConfigImpl extends AbstractBaseConfig {
             // Store the fully resolved property value
             resolvedProperties.setProperty(key, newValue);
         }
+
+        snapshot = new Snapshot(resolvedProperties);
     }
 
     protected void logPropertyChange(String msg, String key, String rawValue, String oldValue, String newValue) {
@@ -761,7 +797,48 @@ public class JAXBConfigImpl extends AbstractBaseConfig {
 
     @Override
     public String toString() {
-        return String.valueOf(resolvedProperties);
+        return String.valueOf(snapshot.properties);
+    }
+
+    /**
+     * An immutable copy of the resolved properties, with the values that are booleans or numbers
+     * already parsed.
+     */
+    private static final class Snapshot {
+
+        private final Properties properties;
+        private final Map<String, String> values;
+        private final Map<String, Boolean> booleans;
+        private final Map<String, Long> numbers;
+
+        Snapshot(Properties resolved) {
+            this.properties = new ImmutableProperties(resolved);
+
+            Map<String, String> values = new HashMap<String, String>();
+            Map<String, Boolean> booleans = new HashMap<String, Boolean>();
+            Map<String, Long> numbers = new HashMap<String, Long>();
+            for (String key : properties.stringPropertyNames()) {
+                String value = properties.getProperty(key);
+                values.put(key, value);
+
+                Boolean booleanValue = Truth.strToBooleanIgnoreCase(value);
+                if (booleanValue != null) {
+                    booleans.put(key, booleanValue);
+                }
+
+                if (StringUtils.isNotBlank(value)) {
+                    try {
+                        numbers.put(key, Long.valueOf(value));
+                    } catch (NumberFormatException e) {
+                        // not a number
+                    }
+                }
+            }
+
+            this.values = values;
+            this.booleans = booleans;
+            this.numbers = numbers;
+        }
     }
 
 }
@@ -15,6 +15,7 @@
  */
 package org.kuali.rice.core.mail;
 
+import org.kuali.rice.core.api.mail.BatchMailer;
 import org.kuali.rice.core.api.mail.EmailBcList;
 import org.kuali.rice.core.api.mail.EmailBody;
 import org.kuali.rice.core.api.mail.EmailCcList;
@@ -23,8 +24,8 @@ import org.kuali.rice.core.api.mail.EmailSubject;
 import org.kuali.rice.core.api.mail.EmailTo;
 import org.kuali.rice.core.api.mail.EmailToList;
 import org.kuali.rice.core.api.mail.MailMessage;
-import org.kuali.rice.core.api.mail.Mailer;
 import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
 
@@ -37,6 +38,7 @@ import javax.mail.internet.InternetAddress;
 import javax.mail.internet.MimeMessage;
 import javax.mail.util.ByteArrayDataSource;
 import java.io.IOException;
+import java.util.Collection;
 
 
 /**
@@ -44,7 +46,7 @@ import java.io.IOException;
  *
  * @author Kuali Rice Team (rice.collab@kuali.org)
  */
-public class MailerImpl implements Mailer {
+public class MailerImpl implements BatchMailer {
 
 	    protected final org.apache.log4j.Logger LOG = org.apache.log4j.Logger.getLogger(MailerImpl.class);
 
@@ -67,15 +69,7 @@ public class MailerImpl implements Mailer {
 		@Override
         @SuppressWarnings("unchecked")
 		public void sendEmail(MailMessage message) throws MessagingException {
-	        
-	        // Construct a simple mail message from the Mail Message
-	        SimpleMailMessage smm = new SimpleMailMessage();
-	        smm.setTo( (String[])message.getToAddresses().toArray(new String[message.getToAddresses().size()]) );
-	        smm.setBcc( (String[])message.getBccAddresses().toArray(new String[message.getBccAddresses().size()]) );
-	        smm.setCc( (String[])message.getCcAddresses().toArray(new String[message.getCcAddresses().size()]) );
-	        smm.setSubject(message.getSubject());
-	        smm.setText(message.getMessage());
-	        smm.setFrom(message.getFromAddress());
+	        SimpleMailMessage smm = createSimpleMailMessage(message);
 
 	        try {
 	        	if ( LOG.isDebugEnabled() ) {
@@ -89,6 +83,62 @@ public class MailerImpl implements Mailer {
 	        }
 	    }
 		
+		/**
+	     * Construct and send simple email messages from Mail Messages, all over one connection to the mail server.
+	     *
+	     * @param messages
+	     *            the Mail Messages
+	     * @return the number of messages which could not be sent
+	     */
+		@Override
+		public int sendEmails(Collection<MailMessage> messages) {
+	        if (messages.isEmpty()) {
+	            return 0;
+	        }
+
+	        SimpleMailMessage[] smms = new SimpleMailMessage[messages.size()];
+	        int index = 0;
+	        for (MailMessage message : messages) {
+	            smms[index++] = createSimpleMailMessage(message);
+	        }
+
+	        try {
+	        	if ( LOG.isDebugEnabled() ) {
+	        		LOG.debug( "sendEmails() - Sending " + smms.length + " messages" );
+	        	}
+	            mailSender.send(smms);
+	            return 0;
+	        }
+	        catch (MailSendException e) {
+	        	LOG.error("sendEmails() - Error sending " + e.getFailedMessages().size() + " of " + smms.length
+	        			+ " emails.", e);
+	        	return e.getFailedMessages().isEmpty() ? smms.length : e.getFailedMessages().size();
+	        }
+	        catch (Exception e) {
+	        	LOG.error("sendEmails() - Error sending " + smms.length + " emails.", e);
+	        	return smms.length;
+	        }
+		}
+
+	    /**
+	     * Construct a simple mail message from a Mail Message.
+	     *
+	     * @param message
+	     *            the Mail Message
+	     * @return the simple mail message
+	     */
+		@SuppressWarnings("unchecked")
+	    protected SimpleMailMessage createSimpleMailMessage(MailMessage message) {
+	        SimpleMailMessage smm = new SimpleMailMessage();
+	        smm.setTo( (String[])message.getToAddresses().toArray(new String[message.getToAddresses().size()]) );
+	        smm.setBcc( (String[])message.getBccAddresses().toArray(new String[message.getBccAddresses().size()]) );
+	        smm.setCc( (String[])message.getCcAddresses().toArray(new String[message.getCcAddresses().size()]) );
+	        smm.setSubject(message.getSubject());
+	        smm.setText(message.getMessage());
+	        smm.setFrom(message.getFromAddress());
+	        return smm;
+	    }
+
 		/**
 	     * Send an email to a single recipient with the specified subject and message. This is a convenience 
 	     * method for simple message addressing.
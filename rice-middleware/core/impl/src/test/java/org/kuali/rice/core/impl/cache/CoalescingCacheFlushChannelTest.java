@@ -0,0 +1,109 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.core.impl.cache;
+
+import org.junit.Test;
+import org.kuali.rice.core.api.cache.CacheTarget;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the coalescing of cache targets by {@link CoalescingCacheFlushChannel}.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class CoalescingCacheFlushChannelTest {
+
+    private final List<List<CacheTarget>> sent = new ArrayList<List<CacheTarget>>();
+
+    private final CoalescingCacheFlushChannel channel = new CoalescingCacheFlushChannel(
+            new CoalescingCacheFlushChannel.Sender() {
+                @Override
+                public void send(List<CacheTarget> cacheTargets) {
+                    sent.add(cacheTargets);
+                }
+            }, 1000, 3);
+
+    @Test
+    public void testFlush_nothingPending() {
+        channel.flush();
+        assertTrue(sent.isEmpty());
+        assertEquals(0, channel.getSentMessages());
+    }
+
+    @Test
+    public void testFlush_singleMessage() {
+        channel.add(Arrays.asList(CacheTarget.singleEntry("a", "1"), CacheTarget.singleEntry("a", "1")));
+        channel.add(Arrays.asList(CacheTarget.singleEntry("a", "2"), CacheTarget.entireCache("b")));
+        channel.add(Arrays.asList(CacheTarget.singleEntry("b", "1")));
+        channel.flush();
+
+        assertEquals(1, sent.size());
+        assertEquals(new HashSet<CacheTarget>(Arrays.asList(CacheTarget.singleEntry("a", "1"),
+                CacheTarget.singleEntry("a", "2"), CacheTarget.entireCache("b"))), new HashSet<CacheTarget>(sent.get(0)));
+        assertEquals(1, channel.getSentMessages());
+        assertEquals(3, channel.getSentTargets());
+        assertEquals(2, channel.getCoalescedTargets());
+
+        // the pending targets were cleared by the flush
+        channel.flush();
+        assertEquals(1, sent.size());
+    }
+
+    @Test
+    public void testFlush_entireCacheReplacesKeys() {
+        channel.add(Arrays.asList(CacheTarget.singleEntry("a", "1"), CacheTarget.singleEntry("a", "2"),
+                CacheTarget.entireCache("a")));
+        channel.flush();
+
+        assertEquals(Arrays.asList(CacheTarget.entireCache("a")), sent.get(0));
+        assertEquals(2, channel.getCoalescedTargets());
+    }
+
+    @Test
+    public void testFlush_keyThreshold() {
+        channel.add(Arrays.asList(CacheTarget.singleEntry("a", "1"), CacheTarget.singleEntry("a", "2"),
+                CacheTarget.singleEntry("a", "3")));
+        channel.add(Arrays.asList(CacheTarget.singleEntry("a", "4"), CacheTarget.singleEntry("a", "5")));
+        channel.flush();
+
+        assertEquals(Arrays.asList(CacheTarget.entireCache("a")), sent.get(0));
+        assertEquals(1, channel.getSentTargets());
+        assertEquals(4, channel.getCoalescedTargets());
+    }
+
+    @Test
+    public void testFlush_sendFailure() {
+        CoalescingCacheFlushChannel failingChannel = new CoalescingCacheFlushChannel(
+                new CoalescingCacheFlushChannel.Sender() {
+                    @Override
+                    public void send(List<CacheTarget> cacheTargets) {
+                        throw new IllegalStateException("bus unavailable");
+                    }
+                }, 1000, 3);
+        failingChannel.add(Arrays.asList(CacheTarget.singleEntry("a", "1"), CacheTarget.entireCache("b")));
+        failingChannel.flush();
+
+        assertEquals(0, failingChannel.getSentMessages());
+        assertEquals(2, failingChannel.getDroppedTargets());
+    }
+
+}
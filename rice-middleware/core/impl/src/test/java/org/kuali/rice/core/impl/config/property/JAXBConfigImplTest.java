@@ -147,6 +147,39 @@ public class JAXBConfigImplTest {
 
     }
 
+    @Test
+    public void testTypedProperties() {
+        JAXBConfigImpl config = new JAXBConfigImpl();
+        config.putProperty("enabled", "Yes");
+        config.putProperty("size", "42");
+        config.putProperty("name", "Bill");
+        config.putProperty("blank", " ");
+
+        Assert.assertEquals(Boolean.TRUE, config.getBooleanProperty("enabled"));
+        Assert.assertNull(config.getBooleanProperty("name"));
+        Assert.assertFalse(config.getBooleanProperty("missing", false));
+        Assert.assertEquals(Long.valueOf(42), config.getNumericProperty("size"));
+        Assert.assertEquals(7, config.getNumericProperty("missing", 7));
+        Assert.assertNull(config.getNumericProperty("blank"));
+        try {
+            config.getNumericProperty("name");
+            Assert.fail("a non numeric property should not be converted");
+        } catch (NumberFormatException e) {
+            // expected
+        }
+
+        // overriding a property replaces its parsed values
+        config.putProperty("enabled", "false");
+        config.putProperty("size", "${enabled}");
+        Assert.assertEquals(Boolean.FALSE, config.getBooleanProperty("enabled"));
+        Assert.assertFalse(config.getBooleanProperty("size", true));
+        config.putProperty("size", "43");
+        Assert.assertEquals(43, config.getNumericProperty("size", 0));
+
+        config.removeProperty("enabled");
+        Assert.assertNull(config.getBooleanProperty("enabled"));
+    }
+
     @Test
     public void testConstructors1() {
         JAXBConfigImpl jci = new JAXBConfigImpl();
@@ -16,9 +16,11 @@
 package org.kuali.rice.edl.impl;
 
 import org.apache.log4j.Logger;
+import org.kuali.rice.core.api.config.CoreConfigHelper;
 import org.kuali.rice.core.api.util.xml.XmlHelper;
 import org.kuali.rice.core.api.util.xml.XmlJotter;
 import org.kuali.rice.edl.impl.bo.EDocLiteAssociation;
+import org.kuali.rice.edl.impl.bo.EDocLiteDefinition;
 import org.kuali.rice.edl.impl.service.EDocLiteService;
 import org.kuali.rice.edl.impl.service.EdlServiceLocator;
 import org.kuali.rice.kew.api.WorkflowRuntimeException;
@@ -32,14 +34,26 @@ import org.w3c.dom.NodeList;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.transform.Templates;
 import javax.xml.xpath.XPathFactory;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 
 /**
  * Creates EDL controllers.  The parsed config is a definition name related to
  * a Map containing config element and their associated class.
+ *
+ * <p>
+ * The parsed definition and the config elements of its components are kept in a template per EDL definition, shared
+ * by all requests for it.  Each controller gets its own copy of the config elements.  A definition is saved as a new
+ * row with a new id, so a template is replaced once its definition changes: saving a definition evicts its template
+ * on this node, and the id of the current definition is checked again once the interval given by
+ * {@value #DEFINITION_CHECK_INTERVAL} (in seconds) has passed since the last check.
+ * </p>
  * 
  * @author Kuali Rice Team (rice.collab@kuali.org)
  *
@@ -52,6 +66,13 @@ public final class EDLControllerFactory {
 
 	private static final Logger LOG = Logger.getLogger(EDLControllerFactory.class);
 
+	public static final String DEFINITION_CHECK_INTERVAL = "edl.definition.checkInterval";
+
+	private static final int DEFAULT_DEFINITION_CHECK_INTERVAL = 60;
+
+	private static final ConcurrentMap<String, EDLControllerTemplate> TEMPLATES =
+            new ConcurrentHashMap<String, EDLControllerTemplate>();
+
 	public static EDLController createEDLController(EDocLiteAssociation edlAssociation, EDLGlobalConfig edlGlobalConfig) {
         EDLController edlController = new EDLController();
 		edlController.setEdocLiteAssociation(edlAssociation);
@@ -60,10 +81,7 @@ public final class EDLControllerFactory {
         try {
 			edlController.setEdlGlobalConfig(edlGlobalConfig);
 			edlController.setDefaultDOM(getDefaultDOM(edlAssociation));
-			loadConfigProcessors(edlController, edlGlobalConfig);
-			loadPreProcessors(edlController, edlGlobalConfig);
-			loadPostProcessor(edlController, edlGlobalConfig);
-			loadStateComponents(edlController, edlGlobalConfig);
+			getTemplate(edlController, edlGlobalConfig).copyTo(edlController);
 			loadStyle(edlController);
 			
 		} catch (Exception e) {
@@ -100,32 +118,61 @@ public final class EDLControllerFactory {
 		return edlController;
 	}
 
-	private static synchronized void loadStyle(EDLController edlController) throws Exception {
+	private static void loadStyle(EDLController edlController) throws Exception {
 		EDocLiteService edlService = getEDLService();
 		final Templates styleSheet = edlService.getStyleAsTranslet(edlController.getEdocLiteAssociation().getStyle());
 		edlController.setStyle(styleSheet);
 	}
-	
-	private static synchronized void loadPreProcessors(EDLController edlController, EDLGlobalConfig edlGlobalConfig) {
-		edlController.setPreProcessors(cloneConfigMap(edlGlobalConfig.getPreProcessors(), edlController.getDefaultDOM()));
+
+	/**
+	 * Gets the template for the definition of the controller's EDL, building it if the definition is new or has
+	 * changed since the template was built.  The definition is only read when the template is due to be checked.
+	 */
+	private static EDLControllerTemplate getTemplate(EDLController edlController, EDLGlobalConfig edlGlobalConfig) throws Exception {
+		EDocLiteAssociation edlAssociation = edlController.getEdocLiteAssociation();
+		long now = System.currentTimeMillis();
+		EDLControllerTemplate template = TEMPLATES.get(edlAssociation.getDefinition());
+		if (template != null && template.isFor(edlGlobalConfig) && !template.isDueForCheck(now)) {
+			return template;
+		}
+
+		EDocLiteDefinition definition = getEDLService().getEDocLiteDefinition(edlAssociation.getDefinition());
+		Long definitionId = definition == null ? null : definition.getId();
+		if (template != null && definitionId != null && template.isFor(definitionId, edlGlobalConfig)) {
+			template.checked(now);
+			return template;
+		}
+
+		template = new EDLControllerTemplate(definitionId, edlGlobalConfig,
+				loadConfigProcessors(edlController, edlGlobalConfig), now);
+		if (definitionId != null) {
+			TEMPLATES.put(edlAssociation.getDefinition(), template);
+		}
+		return template;
 	}
-	
-	private static synchronized void loadPostProcessor(EDLController edlController, EDLGlobalConfig edlGlobalConfig) {
-		edlController.setPostProcessors(cloneConfigMap(edlGlobalConfig.getPostProcessors(), edlController.getDefaultDOM()));
+
+	/**
+	 * Evicts the template of the named definition, so that it is built again from the definition on next use.
+	 *
+	 * @param definitionName the name of the EDL definition which was saved
+	 */
+	public static void evictTemplate(String definitionName) {
+		if (definitionName != null) {
+			TEMPLATES.remove(definitionName);
+		}
 	}
-	
-	private static synchronized void loadStateComponents(EDLController edlController, EDLGlobalConfig edlGlobalConfig) {
-		edlController.setStateComponents(cloneConfigMap(edlGlobalConfig.getStateComponents(), edlController.getDefaultDOM()));
+
+	private static long getDefinitionCheckInterval() {
+		return CoreConfigHelper.getIntProperty(DEFINITION_CHECK_INTERVAL, DEFAULT_DEFINITION_CHECK_INTERVAL, 0) * 1000L;
 	}
 
-	private static synchronized void loadConfigProcessors(final EDLController edlController, final EDLGlobalConfig edlGlobalConfig) throws Exception {
+	private static Map loadConfigProcessors(final EDLController edlController, final EDLGlobalConfig edlGlobalConfig) throws Exception {
 		EDocLiteAssociation edlAssociation = edlController.getEdocLiteAssociation();
         // these are classes mapped to the conf element from the edlconfig.
         Document document = getEDLService().getDefinitionXml(edlAssociation);
         Element definitionElement = (Element) document.getFirstChild();
 
         Map configProcessorMappings = new LinkedHashMap();
-        edlController.setEdlGlobalConfig(edlGlobalConfig);
         NodeList edlDefinitionNodes = definitionElement.getChildNodes();
         for (int i = 0; i < edlDefinitionNodes.getLength(); i++) {
             Node definitionNode = edlDefinitionNodes.item(i);
@@ -134,10 +181,10 @@ public final class EDLControllerFactory {
                 configProcessorMappings.put(definitionNode, configProcessorClass);
             }
         }
-        edlController.setConfigProcessors(cloneConfigMap(configProcessorMappings, edlController.getDefaultDOM()));
+        return configProcessorMappings;
 	}
 	
-	private static synchronized Map cloneConfigMap(Map configMap, Document defaultDom) {
+	private static Map cloneConfigMap(Map configMap, Document defaultDom) {
 		Map tempConfigProcessors = new LinkedHashMap();
 		for (Iterator iter = configMap.entrySet().iterator(); iter.hasNext();) {
 			Map.Entry configProcessorMapping = (Map.Entry) iter.next();
@@ -178,4 +225,106 @@ public final class EDLControllerFactory {
         edlContext.setXpath(XPathFactory.newInstance().newXPath());
         return edlContext;
     }
+
+    /**
+     * The parts of an EDL controller which only depend on the EDL definition and the global EDL config: the config
+     * elements of the definition mapped to their config processors, and the config elements of the global
+     * components.
+     *
+     * <p>
+     * A DOM is not safe for concurrent use even when only read, so the template keeps the config elements serialized
+     * and each thread parses its own copy of them the first time it uses the template.  A controller's config elements
+     * are then imported from the copy of the calling thread, without any lock shared between requests.
+     * </p>
+     */
+    private static final class EDLControllerTemplate {
+
+        private final Long definitionId;
+        private final EDLGlobalConfig edlGlobalConfig;
+
+        private final SerializedConfigMap configProcessors;
+        private final SerializedConfigMap preProcessors;
+        private final SerializedConfigMap postProcessors;
+        private final SerializedConfigMap stateComponents;
+
+        private final ThreadLocal<Map[]> threadConfig = new ThreadLocal<Map[]>();
+
+        private volatile long checkedAt;
+
+        EDLControllerTemplate(Long definitionId, EDLGlobalConfig edlGlobalConfig, Map configProcessors,
+                long checkedAt) {
+            this.definitionId = definitionId;
+            this.edlGlobalConfig = edlGlobalConfig;
+            this.checkedAt = checkedAt;
+
+            this.configProcessors = new SerializedConfigMap(configProcessors);
+            synchronized (edlGlobalConfig) {
+                this.preProcessors = new SerializedConfigMap(edlGlobalConfig.getPreProcessors());
+                this.postProcessors = new SerializedConfigMap(edlGlobalConfig.getPostProcessors());
+                this.stateComponents = new SerializedConfigMap(edlGlobalConfig.getStateComponents());
+            }
+        }
+
+        boolean isFor(EDLGlobalConfig edlGlobalConfig) {
+            return this.edlGlobalConfig == edlGlobalConfig;
+        }
+
+        boolean isFor(Long definitionId, EDLGlobalConfig edlGlobalConfig) {
+            return this.definitionId.equals(definitionId) && isFor(edlGlobalConfig);
+        }
+
+        boolean isDueForCheck(long now) {
+            return now - checkedAt >= getDefinitionCheckInterval();
+        }
+
+        void checked(long now) {
+            checkedAt = now;
+        }
+
+        /**
+         * Gives the controller its own copy of the config elements, imported into its default DOM.
+         */
+        void copyTo(EDLController edlController) throws Exception {
+            Map[] config = threadConfig.get();
+            if (config == null) {
+                config = new Map[] {configProcessors.parse(), preProcessors.parse(), postProcessors.parse(),
+                        stateComponents.parse()};
+                threadConfig.set(config);
+            }
+
+            Document defaultDom = edlController.getDefaultDOM();
+            edlController.setConfigProcessors(cloneConfigMap(config[0], defaultDom));
+            edlController.setPreProcessors(cloneConfigMap(config[1], defaultDom));
+            edlController.setPostProcessors(cloneConfigMap(config[2], defaultDom));
+            edlController.setStateComponents(cloneConfigMap(config[3], defaultDom));
+        }
+    }
+
+    /**
+     * A map of config elements to the values they are mapped to, with the elements held as XML.
+     */
+    private static final class SerializedConfigMap {
+
+        private final List<String> configElements = new ArrayList<String>();
+        private final List<Object> values = new ArrayList<Object>();
+
+        SerializedConfigMap(Map configMap) {
+            for (Iterator iter = configMap.entrySet().iterator(); iter.hasNext();) {
+                Map.Entry configMapping = (Map.Entry) iter.next();
+                configElements.add(XmlJotter.jotNode((Node) configMapping.getKey(), false));
+                values.add(configMapping.getValue());
+            }
+        }
+
+        /**
+         * Parses the config elements into new DOM nodes, mapped to their values in the original order.
+         */
+        Map parse() throws Exception {
+            Map configMap = new LinkedHashMap();
+            for (int i = 0; i < configElements.size(); i++) {
+                configMap.put(XmlHelper.readXml(configElements.get(i)).getDocumentElement(), values.get(i));
+            }
+            return configMap;
+        }
+    }
 }
@@ -262,6 +262,7 @@ public class EDocLiteServiceImpl implements EDocLiteService {
             data.setActiveInd(Boolean.TRUE);
         }
         dao.saveEDocLiteDefinition(data);
+        EDLControllerFactory.evictTemplate(data.getName());
     }
 
     public void saveEDocLiteAssociation(EDocLiteAssociation assoc) {
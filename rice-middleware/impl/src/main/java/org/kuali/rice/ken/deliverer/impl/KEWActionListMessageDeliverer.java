@@ -17,11 +17,14 @@ package org.kuali.rice.ken.deliverer.impl;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Properties;
 
 import org.kuali.rice.ken.bo.NotificationMessageDelivery;
 import org.kuali.rice.ken.core.GlobalNotificationServiceLocator;
-import org.kuali.rice.ken.deliverer.NotificationMessageDeliverer;
+import org.kuali.rice.ken.deliverer.BulkNotificationMessageDeliverer;
 import org.kuali.rice.ken.exception.NotificationAutoRemoveException;
 import org.kuali.rice.ken.exception.NotificationMessageDeliveryException;
 import org.kuali.rice.ken.service.NotificationWorkflowDocumentService;
@@ -31,10 +34,11 @@ import org.kuali.rice.kew.api.WorkflowDocument;
 
 /**
  * This class is responsible for describing the default delivery mechanism for the system - the KEW
- * Action List.
+ * Action List.  Each message delivery is delivered as a workflow document ad-hoc routed to its recipient,
+ * also when delivering in bulk, so that actions taken in the action list can be traced back to it.
  * @author Kuali Rice Team (rice.collab@kuali.org)
  */
-public class KEWActionListMessageDeliverer implements NotificationMessageDeliverer {
+public class KEWActionListMessageDeliverer implements BulkNotificationMessageDeliverer {
     private static org.apache.log4j.Logger LOG = org.apache.log4j.Logger.getLogger(KEWActionListMessageDeliverer.class);
 
     /**
@@ -71,6 +75,36 @@ public class KEWActionListMessageDeliverer implements NotificationMessageDeliver
         LOG.debug("Message Delivery: " + messageDelivery.toString());
     }
 
+    /**
+     * This implementation generates and ad-hoc routes a workflow document for each of the message deliveries,
+     * resolving the recipients of all of them at once.
+     * @see org.kuali.rice.ken.deliverer.BulkNotificationMessageDeliverer#deliverMessage(java.util.Collection)
+     */
+    public void deliverMessage(Collection<NotificationMessageDelivery> messageDeliveries)
+            throws NotificationMessageDeliveryException {
+        List<String> documentIds = notificationWorkflowDocumentService.createAndAdHocRouteNotificationWorkflowDocuments(
+                messageDeliveries, Util.getNotificationSystemUser(),
+                NotificationConstants.KEW_CONSTANTS.GENERIC_DELIVERY_ANNOTATION);
+
+        // now set the workflow doc ids into the message deliveries' delivery system ids
+        Iterator<String> documentIdIterator = documentIds.iterator();
+        for (NotificationMessageDelivery messageDelivery : messageDeliveries) {
+            messageDelivery.setDeliverySystemId(documentIdIterator.next());
+            LOG.debug("Message Delivery: " + messageDelivery.toString());
+        }
+    }
+
+    /**
+     * This implementation auto-removes each of the message deliveries in turn.
+     * @see org.kuali.rice.ken.deliverer.BulkNotificationMessageDeliverer#autoRemoveMessageDelivery(java.util.Collection)
+     */
+    public void autoRemoveMessageDelivery(Collection<NotificationMessageDelivery> messageDeliveries)
+            throws NotificationAutoRemoveException {
+        for (NotificationMessageDelivery messageDelivery : messageDeliveries) {
+            autoRemoveMessageDelivery(messageDelivery);
+        }
+    }
+
     /**
      * This implementation does an auto-remove by "canceling" the workflow document associated with
      * the message delivery record. This prevents the user from seeing the item in their list
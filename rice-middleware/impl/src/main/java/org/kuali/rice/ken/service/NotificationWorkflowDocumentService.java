@@ -18,6 +18,8 @@ package org.kuali.rice.ken.service;
 import org.kuali.rice.ken.bo.NotificationMessageDelivery;
 import org.kuali.rice.kew.api.WorkflowDocument;
 
+import java.util.Collection;
+import java.util.List;
 
 /**
  * The NotificationWorkflowDocumentService class is responsible for housing service methods for interacting with KEW.
@@ -36,6 +38,18 @@ public interface NotificationWorkflowDocumentService {
      */
     public String createAndAdHocRouteNotificationWorkflowDocument(NotificationMessageDelivery messageDelivery, String initiatorUserId, 
 	    String recipientUserId, String annotation);
+
+    /**
+     * This service method is the bulk form of createAndAdHocRouteNotificationWorkflowDocument: it creates a workflow
+     * document for each of the passed in message deliveries and ad-hoc routes it to the delivery's user recipient.
+     * The work that is common to the deliveries of a notification is performed only once.
+     * @param messageDeliveries - the NotificationMessageDeliveries for which to create workflow documents
+     * @param initiatorUserId - the person/workflow user who is responsible for "initiating" the workflow documents
+     * @param annotation - a description of the workflow ad hoc route transactions
+     * @return List<String> - the ids of the workflow documents, in the iteration order of the message deliveries
+     */
+    public List<String> createAndAdHocRouteNotificationWorkflowDocuments(
+            Collection<NotificationMessageDelivery> messageDeliveries, String initiatorUserId, String annotation);
     
     /**
      * This method is responsible for canceling a workflow document; which in turn simulates the "checking-off" 
@@ -20,6 +20,7 @@ import org.kuali.rice.ken.bo.NotificationMessageDelivery;
 import org.kuali.rice.ken.bo.NotificationRecipientBo;
 import org.kuali.rice.ken.bo.NotificationRecipientListBo;
 import org.kuali.rice.ken.bo.UserChannelSubscriptionBo;
+import org.kuali.rice.ken.deliverer.BulkNotificationMessageDeliverer;
 import org.kuali.rice.ken.deliverer.impl.KEWActionListMessageDeliverer;
 import org.kuali.rice.ken.exception.NotificationMessageDeliveryException;
 import org.kuali.rice.ken.service.NotificationMessageDeliveryResolverService;
@@ -30,22 +31,43 @@ import org.kuali.rice.ken.util.NotificationConstants;
 import org.kuali.rice.kim.api.KimConstants.KimGroupMemberTypes;
 import org.kuali.rice.kim.api.identity.principal.Principal;
 import org.kuali.rice.kim.api.services.KimApiServiceLocator;
+import org.kuali.rice.core.api.criteria.QueryByCriteria;
 import org.kuali.rice.krad.data.DataObjectService;
 import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
 
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.kuali.rice.core.api.criteria.PredicateFactory.equal;
 
 
 /**
  * This is the default out-of-the-box implementation that leverages the status flag on a notification (RESOLVED versus UNRESOLVED) to determine whether
  * the notification's message deliveries need to be resolved or not.  This also looks at the start and auto remove
  * dates and times.
+ * <p>
+ * Notifications with at least {@link #setBulkDeliveryThreshold(int) bulkDeliveryThreshold} recipients are resolved
+ * in bulk: the recipients are split into chunks of {@link #setBulkDeliveryChunkSize(int) bulkDeliveryChunkSize}, which
+ * are delivered in parallel on the executor of this job, each in its own transaction.  The message deliveries of a
+ * chunk are written when its transaction commits (as a single JDBC batch if EclipseLink batch writing is enabled
+ * through rice.krad.jpa.global.eclipselink.jdbc.batch-writing) and are handed to the deliverer in a single call.  If
+ * a chunk fails the notification stays unresolved, and resolving it again only delivers to the recipients which did
+ * not get a message delivery yet.
+ * </p>
  * @author Kuali Rice Team (rice.collab@kuali.org)
  */
 public class NotificationMessageDeliveryResolverServiceImpl extends ConcurrentJob<NotificationBo> implements NotificationMessageDeliveryResolverService {
@@ -56,6 +78,25 @@ public class NotificationMessageDeliveryResolverServiceImpl extends ConcurrentJo
     private DataObjectService dataObjectService;
     private NotificationService notificationService;
 
+    /**
+     * Default minimum number of recipients for a notification to be resolved in bulk
+     */
+    public static final int DEFAULT_BULK_DELIVERY_THRESHOLD = 1000;
+
+    /**
+     * Default number of recipients delivered to per transaction when resolving in bulk
+     */
+    public static final int DEFAULT_BULK_DELIVERY_CHUNK_SIZE = 250;
+
+    /**
+     * Default maximum number of executor threads, besides the resolving thread, to deliver chunks on
+     */
+    public static final int DEFAULT_BULK_DELIVERY_THREADS = 4;
+
+    private int bulkDeliveryThreshold = DEFAULT_BULK_DELIVERY_THRESHOLD;
+    private int bulkDeliveryChunkSize = DEFAULT_BULK_DELIVERY_CHUNK_SIZE;
+    private int bulkDeliveryThreads = DEFAULT_BULK_DELIVERY_THREADS;
+
     /**
      * Constructs a NotificationMessageDeliveryDispatchServiceImpl instance.
      * @param notificationRecipientService
@@ -157,6 +198,11 @@ public class NotificationMessageDeliveryResolverServiceImpl extends ConcurrentJo
             // now figure out each unique recipient for this notification
             HashSet<String> uniqueRecipients = buildCompleteRecipientList(notification);
 
+            if (bulkDeliveryThreshold > 0 && uniqueRecipients.size() >= bulkDeliveryThreshold) {
+                successes.addAll(resolveInBulk(notification, uniqueRecipients));
+                continue;
+            }
+
             // now for each unique recipient, figure out each delivery end point and create a NotificationMessageDelivery record
             Iterator<String> j = uniqueRecipients.iterator();
             while(j.hasNext()) {
@@ -171,7 +217,7 @@ public class NotificationMessageDeliveryResolverServiceImpl extends ConcurrentJo
                defaultMessageDelivery =  dataObjectService.save(defaultMessageDelivery);
 
                 try {
-                    new KEWActionListMessageDeliverer().deliverMessage(defaultMessageDelivery);
+                    createMessageDeliverer().deliverMessage(defaultMessageDelivery);
                 } catch (NotificationMessageDeliveryException e) {
                     throw new RuntimeException(e);
                 }
@@ -195,6 +241,190 @@ public class NotificationMessageDeliveryResolverServiceImpl extends ConcurrentJo
         return successes;
     }
 
+    /**
+     * Generates the message deliveries for the given recipients of a notification in chunks, spread over the executor
+     * of this job, and marks the notification as resolved once all chunks have been delivered.
+     * @param notification the notification for which to generate message deliveries
+     * @param recipientIds the ids of the principals to deliver the notification to
+     * @return the message deliveries generated
+     */
+    protected List<NotificationMessageDelivery> resolveInBulk(final NotificationBo notification,
+            Collection<String> recipientIds) {
+        // a previous attempt may have committed some of its chunks before failing
+        Set<String> remainingRecipientIds = new HashSet<String>(recipientIds);
+        remainingRecipientIds.removeAll(getDeliveredRecipientIds(notification));
+
+        final Queue<List<String>> chunks = new ConcurrentLinkedQueue<List<String>>();
+        List<String> chunk = new ArrayList<String>(bulkDeliveryChunkSize);
+        for (String recipientId : remainingRecipientIds) {
+            chunk.add(recipientId);
+            if (chunk.size() == bulkDeliveryChunkSize) {
+                chunks.add(chunk);
+                chunk = new ArrayList<String>(bulkDeliveryChunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+
+        LOG.info("Resolving notification " + notification.getId() + " in bulk: " + remainingRecipientIds.size()
+                + " recipients in " + chunks.size() + " chunks");
+
+        final List<NotificationMessageDelivery> deliveries = Collections.synchronizedList(
+                new ArrayList<NotificationMessageDelivery>(remainingRecipientIds.size()));
+        final CountDownLatch chunksDone = new CountDownLatch(chunks.size());
+        final AtomicReference<RuntimeException> failure = new AtomicReference<RuntimeException>();
+
+        // every thread, including this one, takes chunks until there are none left, so that all chunks get delivered
+        // even if the executor has no threads to spare
+        Runnable chunkDeliverer = new Runnable() {
+            public void run() {
+                List<String> recipientChunk;
+                while ((recipientChunk = chunks.poll()) != null) {
+                    try {
+                        if (failure.get() == null) {
+                            deliveries.addAll(deliverChunk(notification, recipientChunk));
+                        }
+                    } catch (RuntimeException e) {
+                        LOG.error("Error delivering notification " + notification.getId() + " to " + recipientChunk.size()
+                                + " recipients", e);
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        chunksDone.countDown();
+                    }
+                }
+            }
+        };
+
+        int helpers = Math.min(bulkDeliveryThreads, chunks.size() - 1);
+        for (int i = 0; i < helpers; i++) {
+            try {
+                executor.submit(chunkDeliverer);
+            } catch (RejectedExecutionException e) {
+                LOG.debug("Executor rejected bulk delivery task, delivering on the resolving thread");
+                break;
+            }
+        }
+        chunkDeliverer.run();
+
+        try {
+            chunksDone.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while resolving notification " + notification.getId(), e);
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+
+        // update the status of the notification so that it's message deliveries are not resolved again
+        notification.setProcessingFlag(NotificationConstants.PROCESSING_FLAGS.RESOLVED);
+        // unlock the record now
+        notification.setLockedDateValue(null);
+        dataObjectService.save(notification);
+
+        return deliveries;
+    }
+
+    /**
+     * Generates and delivers the message deliveries of a notification for a chunk of its recipients, within a new
+     * transaction.  The notification is loaded again within that transaction, since chunks are delivered on other
+     * threads than the one which took the notification.
+     * @param notification the notification for which to generate message deliveries
+     * @param recipientIds the ids of the principals in this chunk
+     * @return the message deliveries generated
+     */
+    @SuppressWarnings("unchecked")
+    protected List<NotificationMessageDelivery> deliverChunk(final NotificationBo notification,
+            final List<String> recipientIds) {
+        return (List<NotificationMessageDelivery>) createNewTransaction().execute(new TransactionCallback() {
+            public Object doInTransaction(TransactionStatus txStatus) {
+                NotificationBo chunkNotification = dataObjectService.find(NotificationBo.class, notification.getId());
+
+                List<NotificationMessageDelivery> deliveries = new ArrayList<NotificationMessageDelivery>(
+                        recipientIds.size());
+                for (String userRecipientId : recipientIds) {
+                    NotificationMessageDelivery messageDelivery = new NotificationMessageDelivery();
+                    messageDelivery.setMessageDeliveryStatus(NotificationConstants.MESSAGE_DELIVERY_STATUS.UNDELIVERED);
+                    messageDelivery.setNotification(chunkNotification);
+                    messageDelivery.setUserRecipientId(userRecipientId);
+
+                    // not flushed, this only assigns the id the deliverer needs
+                    deliveries.add(dataObjectService.save(messageDelivery));
+                }
+
+                try {
+                    createMessageDeliverer().deliverMessage(deliveries);
+                } catch (NotificationMessageDeliveryException e) {
+                    throw new RuntimeException(e);
+                }
+
+                List<NotificationMessageDelivery> delivered = new ArrayList<NotificationMessageDelivery>(
+                        deliveries.size());
+                for (NotificationMessageDelivery messageDelivery : deliveries) {
+                    messageDelivery.setMessageDeliveryStatus(NotificationConstants.MESSAGE_DELIVERY_STATUS.DELIVERED);
+                    delivered.add(dataObjectService.save(messageDelivery));
+                }
+
+                return delivered;
+            }
+        });
+    }
+
+    /**
+     * Gets the recipients which already have a message delivery for the given notification.
+     * @param notification the notification being resolved
+     * @return the ids of the principals which have a message delivery for the notification
+     */
+    protected Set<String> getDeliveredRecipientIds(NotificationBo notification) {
+        QueryByCriteria.Builder criteria = QueryByCriteria.Builder.create();
+        criteria.setPredicates(equal(NotificationConstants.BO_PROPERTY_NAMES.NOTIFICATION + ".id",
+                notification.getId()));
+
+        Set<String> recipientIds = new HashSet<String>();
+        for (NotificationMessageDelivery messageDelivery : dataObjectService.findMatching(
+                NotificationMessageDelivery.class, criteria.build()).getResults()) {
+            recipientIds.add(messageDelivery.getUserRecipientId());
+        }
+
+        return recipientIds;
+    }
+
+    /**
+     * Creates the deliverer which pushes message deliveries into the KEW action list.
+     * @return a new KEWActionListMessageDeliverer
+     */
+    protected BulkNotificationMessageDeliverer createMessageDeliverer() {
+        return new KEWActionListMessageDeliverer();
+    }
+
+    /**
+     * Sets the minimum number of recipients for a notification to be resolved in bulk, 0 to never resolve in bulk.
+     * @param bulkDeliveryThreshold the minimum number of recipients
+     */
+    public void setBulkDeliveryThreshold(int bulkDeliveryThreshold) {
+        this.bulkDeliveryThreshold = bulkDeliveryThreshold;
+    }
+
+    /**
+     * Sets the number of recipients delivered to per transaction when resolving in bulk.
+     * @param bulkDeliveryChunkSize the number of recipients per chunk
+     */
+    public void setBulkDeliveryChunkSize(int bulkDeliveryChunkSize) {
+        if (bulkDeliveryChunkSize <= 0) {
+            throw new IllegalArgumentException("bulkDeliveryChunkSize must be positive");
+        }
+        this.bulkDeliveryChunkSize = bulkDeliveryChunkSize;
+    }
+
+    /**
+     * Sets the maximum number of executor threads, besides the resolving thread, to deliver chunks on.
+     * @param bulkDeliveryThreads the maximum number of executor threads per notification
+     */
+    public void setBulkDeliveryThreads(int bulkDeliveryThreads) {
+        this.bulkDeliveryThreads = bulkDeliveryThreads;
+    }
+
     /**
      * @see org.kuali.rice.ken.service.impl.ConcurrentJob#unlockWorkItem(java.lang.Object)
      */
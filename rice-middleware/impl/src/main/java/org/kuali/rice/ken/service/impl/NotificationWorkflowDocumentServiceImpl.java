@@ -16,6 +16,7 @@
 package org.kuali.rice.ken.service.impl;
 
 import org.apache.commons.lang.StringUtils;
+import org.kuali.rice.ken.bo.NotificationBo;
 import org.kuali.rice.ken.bo.NotificationMessageDelivery;
 import org.kuali.rice.ken.document.kew.NotificationWorkflowDocument;
 import org.kuali.rice.ken.service.NotificationMessageContentService;
@@ -28,7 +29,11 @@ import org.kuali.rice.kew.api.action.ActionRequestType;
 import org.kuali.rice.kim.api.identity.principal.Principal;
 import org.kuali.rice.kim.api.services.KimApiServiceLocator;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * This class is responsible for interacting with KEW - this is the default implementation that
@@ -58,6 +63,71 @@ public class NotificationWorkflowDocumentServiceImpl implements NotificationWork
     public String createAndAdHocRouteNotificationWorkflowDocument(NotificationMessageDelivery messageDelivery,
             String initiatorUserId,
             String recipientUserId, String annotation) {
+        // recipientUserId will always be a principal ID due to code changes in NotificationMessageDeliveryResolverServiceImpl.buildCompleteRecipientList()
+        Principal principal = KimApiServiceLocator.getIdentityService().getPrincipal(recipientUserId);
+
+        return createAndAdHocRouteNotificationWorkflowDocument(messageDelivery, initiatorUserId, principal,
+                getActionRequested(messageDelivery.getNotification()), annotation);
+    }
+
+    /**
+     * Implements by resolving the principals of all recipients with a single call and then creating and ad-hoc routing
+     * a NotificationWorkflowDocument for each message delivery.
+     * @see org.kuali.rice.ken.service.NotificationWorkflowDocumentService#createAndAdHocRouteNotificationWorkflowDocuments(java.util.Collection,
+     *      java.lang.String, java.lang.String)
+     */
+    public List<String> createAndAdHocRouteNotificationWorkflowDocuments(
+            Collection<NotificationMessageDelivery> messageDeliveries, String initiatorUserId, String annotation) {
+        List<String> recipientUserIds = new ArrayList<String>(messageDeliveries.size());
+        for (NotificationMessageDelivery messageDelivery : messageDeliveries) {
+            recipientUserIds.add(messageDelivery.getUserRecipientId());
+        }
+
+        Map<String, Principal> principals = new HashMap<String, Principal>(recipientUserIds.size());
+        for (Principal principal : KimApiServiceLocator.getIdentityService().getPrincipals(recipientUserIds)) {
+            principals.put(principal.getPrincipalId(), principal);
+        }
+
+        List<String> documentIds = new ArrayList<String>(messageDeliveries.size());
+        for (NotificationMessageDelivery messageDelivery : messageDeliveries) {
+            Principal principal = principals.get(messageDelivery.getUserRecipientId());
+            if (principal == null) {
+                throw new WorkflowRuntimeException("No principal found for notification recipient "
+                        + messageDelivery.getUserRecipientId() + " of message delivery #" + messageDelivery.getId());
+            }
+
+            documentIds.add(createAndAdHocRouteNotificationWorkflowDocument(messageDelivery, initiatorUserId,
+                    principal, getActionRequested(messageDelivery.getNotification()), annotation));
+        }
+
+        return documentIds;
+    }
+
+    /**
+     * Determines the action to request of the recipients of the given notification.
+     * @param notification the notification being delivered
+     * @return either the ACK or the FYI ad hoc route action
+     */
+    protected String getActionRequested(NotificationBo notification) {
+        if (NotificationConstants.DELIVERY_TYPES.ACK.equals(notification.getDeliveryType())) {
+            return NotificationConstants.KEW_CONSTANTS.ACK_AD_HOC_ROUTE;
+        } else {
+            return NotificationConstants.KEW_CONSTANTS.FYI_AD_HOC_ROUTE;
+        }
+    }
+
+    /**
+     * Creates a NotificationWorkflowDocument for the given message delivery and ad-hoc routes it to the given
+     * recipient.
+     * @param messageDelivery the message delivery the document is created for
+     * @param initiatorUserId the user "initiating" the workflow document
+     * @param recipient the principal which will receive the document via an ad hoc route
+     * @param actionRequested the ad hoc route action, either ACK or FYI
+     * @param annotation a description of the workflow ad hoc route transaction
+     * @return the id of the workflow document
+     */
+    protected String createAndAdHocRouteNotificationWorkflowDocument(NotificationMessageDelivery messageDelivery,
+            String initiatorUserId, Principal recipient, String actionRequested, String annotation) {
         // obtain a workflow user object first
         //WorkflowIdDTO initiator = new WorkflowIdDTO(initiatorUserId);
 
@@ -85,14 +155,6 @@ public class NotificationWorkflowDocumentServiceImpl implements NotificationWork
                     + ", Notification #" + messageDelivery.getNotification().getId());
         }
 
-        // now set up the ad hoc route
-        String actionRequested;
-        if (NotificationConstants.DELIVERY_TYPES.ACK.equals(messageDelivery.getNotification().getDeliveryType())) {
-            actionRequested = NotificationConstants.KEW_CONSTANTS.ACK_AD_HOC_ROUTE;
-        } else {
-            actionRequested = NotificationConstants.KEW_CONSTANTS.FYI_AD_HOC_ROUTE;
-        }
-
         // Clarification of ad hoc route call
         // param 1 - actionRequested will be either ACK or FYI
         // param 2 - annotation is whatever text we pass in to describe the transaction - this will be system generated
@@ -101,11 +163,7 @@ public class NotificationWorkflowDocumentServiceImpl implements NotificationWork
         // param 5 - this is the "force action" requests - if set to true, this will be delivered to the recipients list regardless of
         //           whether the recipient has already taken action on this request; in our case, this doesn't really apply at this point in time,
         //           so we'll set to true just to be safe
-        
-        // recipientUserId will always be a principal ID due to code changes in NotificationMessageDeliveryResolverServiceImpl.buildCompleteRecipientList()
-        Principal principal = KimApiServiceLocator.getIdentityService().getPrincipal(recipientUserId);
-        
-        document.adHocToPrincipal(ActionRequestType.fromCode(actionRequested), annotation, principal.getPrincipalId(),
+        document.adHocToPrincipal(ActionRequestType.fromCode(actionRequested), annotation, recipient.getPrincipalId(),
                 messageDelivery.getNotification().getProducer().getName(), true);
 
         // now actually route it along its way
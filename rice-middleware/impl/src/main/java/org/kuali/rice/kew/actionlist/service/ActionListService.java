@@ -17,6 +17,7 @@ package org.kuali.rice.kew.actionlist.service;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import org.kuali.rice.kew.actionitem.ActionItem;
 import org.kuali.rice.kew.actionitem.OutboxItem;
@@ -39,6 +40,15 @@ public interface ActionListService {
 
     public Collection<ActionItem> getActionList(String principalId, ActionListFilter filter);
 
+    /**
+     * Retrieves the unfiltered action lists of the given principals with a single query.  Each action list holds the
+     * same items {@link #getActionList(String, ActionListFilter)} would return without a filter.
+     *
+     * @param principalIds the ids of the principals whose action lists to retrieve
+     * @return the action lists keyed by principal id, principals with empty action lists are not included
+     */
+    public Map<String, Collection<ActionItem>> getActionLists(Collection<String> principalIds);
+
     public Collection<ActionItem> getActionListForSingleDocument(String documentId);
 
     /**
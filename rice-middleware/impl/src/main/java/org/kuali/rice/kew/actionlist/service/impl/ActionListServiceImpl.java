@@ -159,6 +159,35 @@ public class ActionListServiceImpl implements ActionListService {
         return createActionListForUser(results.getResults());
     }
 
+    @Override
+    public Map<String, Collection<ActionItem>> getActionLists(Collection<String> principalIds) {
+        Map<String, Collection<ActionItem>> actionLists = new HashMap<String, Collection<ActionItem>>();
+        if (principalIds.isEmpty()) {
+            return actionLists;
+        }
+
+        QueryByCriteria query = QueryByCriteria.Builder.fromPredicates(in("principalId", principalIds));
+        QueryResults<ActionItem> results = dataObjectService.findMatching(ActionItem.class, query);
+        if ( LOG.isDebugEnabled() ) {
+            LOG.debug("found " + results.getResults().size() + " action items for " + principalIds.size() + " users");
+        }
+
+        Map<String, List<ActionItem>> actionItemsByPrincipal = new HashMap<String, List<ActionItem>>();
+        for (ActionItem actionItem : results.getResults()) {
+            List<ActionItem> actionItems = actionItemsByPrincipal.get(actionItem.getPrincipalId());
+            if (actionItems == null) {
+                actionItems = new ArrayList<ActionItem>();
+                actionItemsByPrincipal.put(actionItem.getPrincipalId(), actionItems);
+            }
+            actionItems.add(actionItem);
+        }
+        for (Map.Entry<String, List<ActionItem>> entry : actionItemsByPrincipal.entrySet()) {
+            actionLists.put(entry.getKey(), createActionListForUser(entry.getValue()));
+        }
+
+        return actionLists;
+    }
+
     protected List<Predicate> handleActionItemCriteria( String principalId, ActionListFilter filter, List<String> filteredByItems ) {
         LOG.debug("setting up Action List criteria");
         ArrayList<Predicate> crit = new ArrayList<Predicate>();
@@ -63,9 +63,14 @@ public class DocumentSearchDAOJdbcImpl implements DocumentSearchDAO {
             return template.execute(new ConnectionCallback<DocumentSearchResults.Builder>() {
                 @Override
                 public DocumentSearchResults.Builder doInConnection(final Connection con) throws SQLException {
-                    final Statement statement = con.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+                    // when seeking from a cursor only the requested page (plus one row to detect more results) is read,
+                    // so a forward-only statement is sufficient regardless of how deep into the results the page is
+                    final boolean seekingFromCursor = StringUtils.isNotBlank(criteria.getSearchCursor());
+                    final Statement statement = seekingFromCursor ?
+                            con.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY) :
+                            con.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
                     try {
-                        final int fetchIterationLimit = getFetchMoreIterationLimit();
+                        final int fetchIterationLimit = seekingFromCursor ? 1 : getFetchMoreIterationLimit();
                         final int fetchLimit = fetchIterationLimit * maxResultCap;
                         statement.setFetchSize(maxResultCap + 1);
                         statement.setMaxRows(fetchLimit + 1);
@@ -80,7 +85,7 @@ public class DocumentSearchDAOJdbcImpl implements DocumentSearchDAO {
                         final ResultSet rs = statement.executeQuery(sql);
                         try {
                             perfLog.log("Time to execute doc search database query.", true);
-                            final Statement searchAttributeStatement = con.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+                            final Statement searchAttributeStatement = con.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
                             try {
                            		return documentSearchGenerator.processResultSet(criteria, criteriaModified, searchAttributeStatement, rs, maxResultCap, fetchLimit);
                             } finally {
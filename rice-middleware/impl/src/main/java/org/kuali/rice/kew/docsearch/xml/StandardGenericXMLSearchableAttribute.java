@@ -59,7 +59,10 @@ import org.kuali.rice.kew.docsearch.CaseAwareSearchableAttributeValue;
 import org.kuali.rice.kew.docsearch.DocumentSearchInternalUtils;
 import org.kuali.rice.kew.docsearch.SearchableAttributeValue;
 import org.kuali.rice.kew.framework.document.attribute.SearchableAttribute;
+import org.kuali.rice.kew.rule.xmlrouting.WorkflowFunctionResolver;
+import org.kuali.rice.kew.rule.xmlrouting.XPathExpressionCache;
 import org.kuali.rice.kew.rule.xmlrouting.XPathHelper;
+import org.kuali.rice.kew.service.KEWServiceLocator;
 import org.kuali.rice.kim.api.group.Group;
 import org.kuali.rice.kim.api.group.GroupService;
 import org.kuali.rice.kim.api.services.KimApiServiceLocator;
@@ -141,6 +144,8 @@ public class StandardGenericXMLSearchableAttribute implements SearchableAttribut
      */
     private static final boolean PEDANTIC_BOUNDS_VALIDATION = true;
 
+    private XPathExpressionCache expressionCache;
+
 
     @Override
     public String generateSearchContent(ExtensionDefinition extensionDefinition, String documentTypeName, WorkflowAttributeDefinition attributeDefinition) {
@@ -182,12 +187,15 @@ public class StandardGenericXMLSearchableAttribute implements SearchableAttribut
             throw new RuntimeException("Error parsing searchable attribute content", pce);
         }
         XPath xpath = XPathHelper.newXPath(document);
+        WorkflowFunctionResolver resolver = XPathHelper.extractFunctionResolver(xpath);
+        XPathExpressionCache expressionCache = getExpressionCache();
         for (XMLSearchableAttributeContent.FieldDef field: fields) {
             if (StringUtils.isNotEmpty(field.fieldEvaluationExpr)) {
                 List<String> values = new ArrayList<String>();
                 try {
                     LOG.debug("Trying to retrieve node set with expression: '" + field.fieldEvaluationExpr + "'.");
-                    NodeList searchValues = (NodeList) xpath.evaluate(field.fieldEvaluationExpr, document.getDocumentElement(), XPathConstants.NODESET);
+                    NodeList searchValues = (NodeList) expressionCache.evaluate(extensionDefinition.getName(),
+                            field.fieldEvaluationExpr, document.getDocumentElement(), XPathConstants.NODESET, resolver);
                     // being that this is the standard xml attribute we will return the key with an empty value
                     // so we can find it from a doc search using this key
                     for (int j = 0; j < searchValues.getLength(); j++) {
@@ -202,7 +210,8 @@ public class StandardGenericXMLSearchableAttribute implements SearchableAttribut
                     //seems like a poor way to determine our expression return type but
                     //it's all I can come up with at the moment.
                     try {
-                        String searchValue = (String) xpath.evaluate(field.fieldEvaluationExpr, document.getDocumentElement(), XPathConstants.STRING);
+                        String searchValue = (String) expressionCache.evaluate(extensionDefinition.getName(),
+                                field.fieldEvaluationExpr, document.getDocumentElement(), XPathConstants.STRING, resolver);
                         if (StringUtils.isNotBlank(searchValue)) {
                             values.add(searchValue);
                         }
@@ -659,4 +668,20 @@ public class StandardGenericXMLSearchableAttribute implements SearchableAttribut
             throw new RuntimeException("error parsing xml data from searchable attribute: " + ruleAttrStr, e);
         }
     }
+
+    /**
+     * Gets the cache of compiled expressions, by default the one shared by the KEW module.  Where that is not
+     * available, the expressions are compiled for each evaluation.
+     */
+    public XPathExpressionCache getExpressionCache() {
+        if (expressionCache == null) {
+            XPathExpressionCache sharedCache = KEWServiceLocator.getXPathExpressionCache();
+            expressionCache = sharedCache == null ? new XPathExpressionCache(0) : sharedCache;
+        }
+        return expressionCache;
+    }
+
+    public void setExpressionCache(XPathExpressionCache expressionCache) {
+        this.expressionCache = expressionCache;
+    }
 }
@@ -0,0 +1,267 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.engine;
+
+import org.apache.log4j.Logger;
+import org.kuali.rice.core.api.config.CoreConfigHelper;
+import org.kuali.rice.kew.api.WorkflowRuntimeException;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes the processing of a document within this JVM.
+ *
+ * <p>
+ * Each document id is hashed to one of a fixed number of lanes.  A thread enters the lane of a document before
+ * running the workflow engine on it, and leaves it once its transaction has completed, so processing of one
+ * document runs one at a time and in arrival order on each node.  Threads for the same document then queue here
+ * rather than on the database lock of the route header, without holding a database lock while they wait.  That
+ * lock is still taken by the engine and keeps documents consistent across nodes.
+ * </p>
+ *
+ * <p>
+ * Documents sharing a lane are serialized as well, so the number of lanes should be well above the number of
+ * threads processing documents.  It is controlled by the configuration parameter
+ * &quot;kew.document.routing.lanes&quot;; 0 disables the lanes.  A thread which cannot enter a lane within
+ * &quot;kew.document.routing.lane.timeout&quot; seconds processes the document anyway and relies on the database
+ * lock, which rules out deadlocks between lanes.
+ * </p>
+ *
+ * <p>
+ * The KEW module shares one set of lanes, registered as
+ * {@link org.kuali.rice.kew.service.KEWServiceLocator#DOCUMENT_ROUTING_LANES}.
+ * </p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class DocumentRoutingLanes {
+
+    private static final Logger LOG = Logger.getLogger(DocumentRoutingLanes.class);
+
+    /**
+     * Configuration parameter for the number of lanes.
+     */
+    public static final String LANES_PARAM = "kew.document.routing.lanes";
+
+    /**
+     * Configuration parameter for the number of seconds to wait for a lane.
+     */
+    public static final String TIMEOUT_PARAM = "kew.document.routing.lane.timeout";
+
+    /**
+     * The number of lanes when not configured.
+     */
+    public static final int DEFAULT_LANES = 64;
+
+    /**
+     * The number of seconds to wait for a lane when not configured.
+     */
+    public static final int DEFAULT_TIMEOUT_SECONDS = 60;
+
+    private static final Lane NO_LANE = new Lane(null);
+
+    private final LaneLock[] locks;
+    private final long timeoutNanos;
+
+    /**
+     * Creates the configured number of lanes.
+     */
+    public DocumentRoutingLanes() {
+        this(CoreConfigHelper.getIntProperty(LANES_PARAM, DEFAULT_LANES, 0), CoreConfigHelper.getIntProperty(
+                TIMEOUT_PARAM, DEFAULT_TIMEOUT_SECONDS, 0));
+    }
+
+    /**
+     * Creates the given number of lanes.
+     *
+     * @param lanes number of lanes, 0 to disable them
+     * @param timeoutSeconds seconds to wait for a lane before processing without it
+     */
+    public DocumentRoutingLanes(int lanes, int timeoutSeconds) {
+        if (lanes < 0) {
+            throw new IllegalArgumentException("lanes must not be negative");
+        }
+        if (timeoutSeconds < 0) {
+            throw new IllegalArgumentException("timeoutSeconds must not be negative");
+        }
+
+        this.locks = new LaneLock[lanes];
+        for (int i = 0; i < lanes; i++) {
+            locks[i] = new LaneLock();
+        }
+        this.timeoutNanos = TimeUnit.SECONDS.toNanos(timeoutSeconds);
+    }
+
+    /**
+     * Enters the lane of the given document, waiting for the threads ahead in it.
+     *
+     * <p>
+     * The thread may already be in the lane, for instance when a document is processed synchronously from the
+     * processing of another document sharing its lane.  Each call must be matched by a call to
+     * {@link Lane#leave()} on the returned lane.
+     * </p>
+     *
+     * @param documentId id of the document to process
+     * @return the lane entered, which is not held if the wait timed out or the lanes are disabled
+     * @throws WorkflowRuntimeException if the thread is interrupted while waiting
+     */
+    public Lane enter(String documentId) {
+        if (locks.length == 0 || documentId == null) {
+            return NO_LANE;
+        }
+
+        LaneLock lock = locks[(documentId.hashCode() & Integer.MAX_VALUE) % locks.length];
+        long start = System.nanoTime();
+        boolean entered;
+        try {
+            entered = lock.tryEnter(timeoutNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WorkflowRuntimeException("Interrupted waiting for the routing lane of document " + documentId,
+                    e);
+        }
+        if (entered) {
+            LockWaitStatistics.ROUTING_LANE.recordWait(System.nanoTime() - start);
+
+            return new Lane(lock);
+        }
+
+        LockWaitStatistics.ROUTING_LANE.recordTimeout(System.nanoTime() - start);
+        LOG.warn("Timed out waiting for the routing lane of document " + documentId
+                + ", processing it under the route header lock only");
+
+        return NO_LANE;
+    }
+
+    /**
+     * @return number of lanes, 0 if disabled
+     */
+    public int getLaneCount() {
+        return locks.length;
+    }
+
+    /**
+     * @return number of threads waiting to enter a lane
+     */
+    public int getQueueLength() {
+        int queued = 0;
+        for (LaneLock lock : locks) {
+            queued += lock.permit.getQueueLength();
+        }
+
+        return queued;
+    }
+
+    /**
+     * A lane entered by the current thread.
+     */
+    public static final class Lane {
+
+        private final LaneLock lock;
+
+        private Lane(LaneLock lock) {
+            this.lock = lock;
+        }
+
+        /**
+         * Leaves the lane once the current transaction, if any, has completed.
+         *
+         * <p>
+         * The route header lock taken by the engine is held until the transaction completes, so leaving the lane
+         * before then would only move the next thread for the document to the database lock.  The transaction may
+         * complete on another thread than the one which entered the lane.
+         * </p>
+         */
+        public void leave() {
+            if (lock == null) {
+                return;
+            }
+
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        lock.exit();
+                    }
+                });
+            } else {
+                lock.exit();
+            }
+        }
+
+        /**
+         * @return whether the lane is held, false if it was not entered in time or lanes are disabled
+         */
+        public boolean isHeld() {
+            return lock != null;
+        }
+    }
+
+    /**
+     * The lock of a lane.
+     *
+     * <p>
+     * Unlike a {@link java.util.concurrent.locks.ReentrantLock} it may be released by any thread, since a JTA
+     * transaction manager may complete a transaction on another thread than the one which began it.  The thread
+     * which entered the lane may enter it again until it has been left as many times as it was entered.
+     * </p>
+     */
+    private static final class LaneLock {
+
+        // fair, so that work for a document is processed in the order it arrived
+        private final Semaphore permit = new Semaphore(1, true);
+
+        private Thread owner;
+        private int holds;
+
+        boolean tryEnter(long timeoutNanos) throws InterruptedException {
+            Thread current = Thread.currentThread();
+            synchronized (this) {
+                if (owner == current) {
+                    holds++;
+
+                    return true;
+                }
+            }
+
+            if (!permit.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+            synchronized (this) {
+                owner = current;
+                holds = 1;
+            }
+
+            return true;
+        }
+
+        synchronized void exit() {
+            if (holds == 0) {
+                throw new IllegalStateException("The routing lane is not held");
+            }
+
+            holds--;
+            if (holds == 0) {
+                owner = null;
+                permit.release();
+            }
+        }
+    }
+
+}
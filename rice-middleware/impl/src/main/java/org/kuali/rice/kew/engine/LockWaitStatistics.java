@@ -0,0 +1,142 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.engine;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the waits for a document lock and the time spent waiting.
+ *
+ * <p>
+ * There is one instance for the database lock on the route header, taken through
+ * {@link org.kuali.rice.kew.routeheader.service.RouteHeaderService#lockRouteHeader(String)}, and one for the lanes
+ * of {@link DocumentRoutingLanes}.  Comparing the two shows how much of the waiting for a document has moved from
+ * the database to this JVM.  Both are logged periodically by
+ * {@link org.kuali.rice.kew.lifecycle.LockWaitStatisticsLifecycle}.
+ * </p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public final class LockWaitStatistics {
+
+    /**
+     * Waits for the database lock on the route header.
+     */
+    public static final LockWaitStatistics ROUTE_HEADER_LOCK = new LockWaitStatistics("route header lock");
+
+    /**
+     * Waits for the routing lane of a document.
+     */
+    public static final LockWaitStatistics ROUTING_LANE = new LockWaitStatistics("routing lane");
+
+    private final String name;
+
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+
+    LockWaitStatistics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Records a lock acquisition.
+     *
+     * @param waitNanos nanoseconds spent waiting for the lock
+     */
+    public void recordWait(long waitNanos) {
+        count.incrementAndGet();
+        totalWaitNanos.addAndGet(waitNanos);
+
+        long max = maxWaitNanos.get();
+        while (waitNanos > max && !maxWaitNanos.compareAndSet(max, waitNanos)) {
+            max = maxWaitNanos.get();
+        }
+    }
+
+    /**
+     * Records a lock which could not be acquired in time.
+     *
+     * @param waitNanos nanoseconds spent waiting before giving up
+     */
+    public void recordTimeout(long waitNanos) {
+        timeouts.incrementAndGet();
+        recordWait(waitNanos);
+    }
+
+    /**
+     * @return name of the lock
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return number of waits recorded, including timeouts
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @return number of waits which gave up before the lock was acquired
+     */
+    public long getTimeoutCount() {
+        return timeouts.get();
+    }
+
+    /**
+     * @return total time spent waiting, in milliseconds
+     */
+    public long getTotalWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get());
+    }
+
+    /**
+     * @return longest single wait, in milliseconds
+     */
+    public long getMaxWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get());
+    }
+
+    /**
+     * @return average wait, in milliseconds
+     */
+    public double getAverageWaitMillis() {
+        long waits = count.get();
+        return waits == 0 ? 0 : (double) totalWaitNanos.get() / waits / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Resets all counts to zero.
+     */
+    public void reset() {
+        count.set(0);
+        totalWaitNanos.set(0);
+        maxWaitNanos.set(0);
+        timeouts.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return name + " waits: " + getCount() + ", timeouts: " + getTimeoutCount() + ", total ms: "
+                + getTotalWaitMillis() + ", max ms: " + getMaxWaitMillis() + ", average ms: "
+                + String.format("%.3f", getAverageWaitMillis());
+    }
+
+}
@@ -70,6 +70,8 @@ import org.kuali.rice.kew.engine.simulation.SimulationCriteria;
 import org.kuali.rice.kew.engine.simulation.SimulationResults;
 import org.kuali.rice.kew.engine.simulation.SimulationWorkflowEngine;
 import org.kuali.rice.kew.routeheader.DocumentRouteHeaderValue;
+import org.kuali.rice.kew.routelog.FutureRouteLog;
+import org.kuali.rice.kew.routelog.FutureRouteLogCache;
 import org.kuali.rice.kew.rule.WorkflowAttributeXmlValidator;
 import org.kuali.rice.kew.rule.WorkflowRuleAttribute;
 import org.kuali.rice.kew.rule.xmlrouting.GenericXMLRuleAttribute;
@@ -79,9 +81,11 @@ import org.kuali.rice.kim.api.services.KimApiServiceLocator;
 import org.kuali.rice.krad.util.KRADConstants;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -98,6 +102,8 @@ public class WorkflowDocumentActionsServiceImpl implements WorkflowDocumentActio
 
     private DocumentTypeService documentTypeService;
 
+    private FutureRouteLogCache futureRouteLogCache;
+
     private static final DocumentActionCallback ACKNOWLEDGE_CALLBACK = new StandardDocumentActionCallback() {
         public DocumentRouteHeaderValue doInDocumentBo(DocumentRouteHeaderValue documentBo, String principalId,
                 String annotation) throws WorkflowException {
@@ -1258,23 +1264,93 @@ public class WorkflowDocumentActionsServiceImpl implements WorkflowDocumentActio
         	return authorized;
         }
 
-
-        SimulationWorkflowEngine simulationEngine = KEWServiceLocator.getSimulationEngine();
-        SimulationCriteria criteria = SimulationCriteria.createSimulationCritUsingDocumentId(documentId);
-        criteria.setDestinationNodeName(null); // process entire document to conclusion
-        criteria.getDestinationRecipients().add(new KimPrincipalRecipient(principal));
-        criteria.setFlattenNodes(flattenNodes);
-
         try {
-        	SimulationResults results = simulationEngine.runSimulation(criteria);
-        	if (actionRequestListHasPrincipal(principal, results.getSimulatedActionRequests())) {
-        		authorized = true;
-        	}
+        	return getFutureRouteLog(routeHeader, actionRequests, flattenNodes).isPrincipalRouted(
+                    principal.getPrincipalId());
         } catch (Exception e) {
         	throw new RiceRuntimeException(e);
         }
+    }
 
-        return authorized;
+    @Override
+    public Map<String, List<String>> getPrincipalIdsInRouteLogs(List<String> documentIds, List<String> principalIds,
+            boolean lookFuture) {
+        incomingParamCheck(documentIds, "documentIds");
+        incomingParamCheck(principalIds, "principalIds");
+        Map<String, List<String>> principalIdsByDocumentId = new HashMap<String, List<String>>();
+        if (documentIds.isEmpty()) {
+            return principalIdsByDocumentId;
+        }
+        Collection<DocumentRouteHeaderValue> routeHeaders =
+                KEWServiceLocator.getRouteHeaderService().getRouteHeaders(documentIds);
+        for (DocumentRouteHeaderValue routeHeader : routeHeaders) {
+            String documentId = routeHeader.getDocumentId();
+            Set<String> remaining = new HashSet<String>(principalIds);
+            List<String> inRouteLog = new ArrayList<String>();
+
+            if (remaining.remove(routeHeader.getInitiatorWorkflowId())) {
+                inRouteLog.add(routeHeader.getInitiatorWorkflowId());
+            }
+            if (!remaining.isEmpty()) {
+                for (ActionTakenValue actionTaken : KEWServiceLocator.getActionTakenService().findByDocumentId(
+                        documentId)) {
+                    if (remaining.remove(actionTaken.getPrincipalId())) {
+                        inRouteLog.add(actionTaken.getPrincipalId());
+                    }
+                }
+            }
+            if (!remaining.isEmpty()) {
+                List<ActionRequestValue> actionRequests =
+                        KEWServiceLocator.getActionRequestService().findAllActionRequestsByDocumentId(documentId);
+                for (Iterator<String> iterator = remaining.iterator(); iterator.hasNext();) {
+                    String principalId = iterator.next();
+                    for (ActionRequestValue actionRequest : actionRequests) {
+                        if (actionRequest.isRecipientRoutedRequest(principalId)) {
+                            inRouteLog.add(principalId);
+                            iterator.remove();
+                            break;
+                        }
+                    }
+                }
+                if (lookFuture && !remaining.isEmpty()) {
+                    FutureRouteLog futureRouteLog;
+                    try {
+                        futureRouteLog = getFutureRouteLog(routeHeader, actionRequests, false);
+                    } catch (Exception e) {
+                        throw new RiceRuntimeException(e);
+                    }
+                    for (String principalId : remaining) {
+                        if (futureRouteLog.isPrincipalRouted(principalId)) {
+                            inRouteLog.add(principalId);
+                        }
+                    }
+                }
+            }
+            principalIdsByDocumentId.put(documentId, inRouteLog);
+        }
+        return principalIdsByDocumentId;
+    }
+
+    /**
+     * Gets the recipients of the requests the document would generate if routed to completion, simulating its route
+     * unless it was already simulated from the current route state of the document.
+     */
+    private FutureRouteLog getFutureRouteLog(DocumentRouteHeaderValue routeHeader,
+            List<ActionRequestValue> actionRequests, boolean flattenNodes) throws Exception {
+        String documentId = routeHeader.getDocumentId();
+        String routeState = FutureRouteLogCache.describeRouteState(routeHeader, actionRequests,
+                KEWServiceLocator.getRouteNodeService().getActiveNodeInstances(documentId));
+        FutureRouteLog futureRouteLog = futureRouteLogCache.get(documentId, flattenNodes, routeState);
+        if (futureRouteLog == null) {
+            SimulationWorkflowEngine simulationEngine = KEWServiceLocator.getSimulationEngine();
+            SimulationCriteria criteria = SimulationCriteria.createSimulationCritUsingDocumentId(documentId);
+            criteria.setDestinationNodeName(null); // process entire document to conclusion
+            criteria.setFlattenNodes(flattenNodes);
+            SimulationResults results = simulationEngine.runSimulation(criteria);
+            futureRouteLog = FutureRouteLog.fromActionRequests(results.getSimulatedActionRequests());
+            futureRouteLogCache.put(documentId, flattenNodes, routeState, futureRouteLog);
+        }
+        return futureRouteLog;
     }
 
     private boolean actionRequestListHasPrincipal(Principal principal, List<ActionRequestValue> actionRequests) {
@@ -1311,13 +1387,13 @@ public class WorkflowDocumentActionsServiceImpl implements WorkflowDocumentActio
             if (!lookFuture) {
             	return new ArrayList<String>(principalIds);
             }
-            SimulationWorkflowEngine simulationEngine = KEWServiceLocator.getSimulationEngine();
-            SimulationCriteria criteria = SimulationCriteria.createSimulationCritUsingDocumentId(documentId);
-            criteria.setDestinationNodeName(null); // process entire document to conclusion
-            SimulationResults results = simulationEngine.runSimulation(criteria);
-            actionRequests = (List<ActionRequestValue>)results.getSimulatedActionRequests();
-            for(ActionRequestValue actionRequest: actionRequests){
-            	principalIds.addAll(getPrincipalIdsForActionRequest(actionRequest));
+            FutureRouteLog futureRouteLog = getFutureRouteLog(routeHeader, actionRequests, false);
+            principalIds.addAll(futureRouteLog.getRequestPrincipalIds());
+            for (String groupId : futureRouteLog.getRequestGroupIds()) {
+            	List<String> principalIdsForGroup = KimApiServiceLocator.getGroupService().getMemberPrincipalIds(groupId);
+            	if (principalIdsForGroup != null) {
+            		principalIds.addAll(principalIdsForGroup);
+            	}
             }
         } catch (Exception ex) {
             LOG.warn("Problems getting principalIds in Route Log for documentId: "+documentId+". Exception:"+ex.getMessage(),ex);
@@ -1362,6 +1438,10 @@ public class WorkflowDocumentActionsServiceImpl implements WorkflowDocumentActio
         this.documentTypeService = documentTypeService;
     }
 
+    public void setFutureRouteLogCache(FutureRouteLogCache futureRouteLogCache) {
+        this.futureRouteLogCache = futureRouteLogCache;
+    }
+
     /**
      * TODO - this code is temporary until we get rid of all the crazy throwing of
      * "WorkflowException"
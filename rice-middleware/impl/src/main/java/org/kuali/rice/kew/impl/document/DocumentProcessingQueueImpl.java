@@ -22,6 +22,7 @@ import org.kuali.rice.kew.api.WorkflowRuntimeException;
 import org.kuali.rice.kew.api.document.DocumentProcessingOptions;
 import org.kuali.rice.kew.api.document.DocumentProcessingQueue;
 import org.kuali.rice.kew.api.document.attribute.DocumentAttributeIndexingQueue;
+import org.kuali.rice.kew.engine.DocumentRoutingLanes;
 import org.kuali.rice.kew.engine.OrchestrationConfig;
 import org.kuali.rice.kew.engine.WorkflowEngine;
 import org.kuali.rice.kew.engine.WorkflowEngineFactory;
@@ -32,6 +33,9 @@ import java.util.Collections;
 /**
  * Reference implementation of the {@code DocumentProcessingQueue}.
  *
+ * <p>Documents are processed in the {@link DocumentRoutingLanes} of their id, so messages for the same document
+ * received by this node are processed one at a time rather than queueing on the route header lock.</p>
+ *
  * @author Kuali Rice Team (rice.collab@kuali.org)
  */
 public class DocumentProcessingQueueImpl implements DocumentProcessingQueue {
@@ -40,6 +44,7 @@ public class DocumentProcessingQueueImpl implements DocumentProcessingQueue {
 
     private WorkflowEngineFactory workflowEngineFactory;
     private DocumentAttributeIndexingQueue documentAttributeIndexingQueue;
+    private DocumentRoutingLanes documentRoutingLanes;
 
     @Override
     public void process(@WebParam(name = "documentId") String documentId) {
@@ -58,6 +63,7 @@ public class DocumentProcessingQueueImpl implements DocumentProcessingQueue {
         OrchestrationConfig config = new OrchestrationConfig(OrchestrationConfig.EngineCapability.STANDARD,
                 Collections.<String>emptySet(), null, options.isSendNotifications(), options.isRunPostProcessor());
         WorkflowEngine engine = getWorkflowEngineFactory().newEngine(config);
+        DocumentRoutingLanes.Lane lane = getDocumentRoutingLanes().enter(documentId);
         try {
 			engine.process(documentId, null);
 		} catch (Exception e) {
@@ -66,7 +72,9 @@ public class DocumentProcessingQueueImpl implements DocumentProcessingQueue {
                 throw (RuntimeException)e;
             }
 			throw new WorkflowRuntimeException(e);
-		}
+		} finally {
+            lane.leave();
+        }
         if (options.isIndexSearchAttributes()) {
             getDocumentAttributeIndexingQueue().indexDocument(documentId);
         }
@@ -88,4 +96,12 @@ public class DocumentProcessingQueueImpl implements DocumentProcessingQueue {
         this.documentAttributeIndexingQueue = documentAttributeIndexingQueue;
     }
 
+    public DocumentRoutingLanes getDocumentRoutingLanes() {
+        return documentRoutingLanes;
+    }
+
+    public void setDocumentRoutingLanes(DocumentRoutingLanes documentRoutingLanes) {
+        this.documentRoutingLanes = documentRoutingLanes;
+    }
+
 }
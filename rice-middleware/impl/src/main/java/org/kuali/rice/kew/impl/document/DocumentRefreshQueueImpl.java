@@ -27,6 +27,7 @@ import org.kuali.rice.kew.actionrequest.service.ActionRequestService;
 import org.kuali.rice.kew.actionrequest.service.impl.NotificationSuppression;
 import org.kuali.rice.kew.api.document.DocumentRefreshQueue;
 import org.kuali.rice.kew.api.WorkflowRuntimeException;
+import org.kuali.rice.kew.engine.DocumentRoutingLanes;
 import org.kuali.rice.kew.engine.OrchestrationConfig;
 import org.kuali.rice.kew.engine.OrchestrationConfig.EngineCapability;
 import org.kuali.rice.kew.engine.RouteHelper;
@@ -62,6 +63,16 @@ public class DocumentRefreshQueueImpl implements DocumentRefreshQueue {
         }
 
         PerformanceLogger performanceLogger = new PerformanceLogger();
+        DocumentRoutingLanes.Lane lane = KEWServiceLocator.getDocumentRoutingLanes().enter(documentId);
+        try {
+            refreshDocumentInLane(documentId);
+        } finally {
+            lane.leave();
+        }
+        performanceLogger.log("Time to run DocumentRequeuer for document " + documentId);	
+	}
+
+    private void refreshDocumentInLane(String documentId) {
         KEWServiceLocator.getRouteHeaderService().lockRouteHeader(documentId);
         Collection<RouteNodeInstance> activeNodes = getRouteNodeService().getActiveNodeInstances(documentId);
         List<ActionRequestValue> requestsToDelete = new ArrayList<ActionRequestValue>();
@@ -106,8 +117,7 @@ public class DocumentRefreshQueueImpl implements DocumentRefreshQueue {
         } catch (Exception e) {
         	throw new WorkflowRuntimeException(e);
         }
-        performanceLogger.log("Time to run DocumentRequeuer for document " + documentId);	
-	}
+    }
 
     private ActionRequestService getActionRequestService() {
         return KEWServiceLocator.getActionRequestService();
@@ -0,0 +1,88 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.impl.document.search;
+
+import org.apache.commons.lang.StringUtils;
+import org.kuali.rice.kew.api.document.DocumentContract;
+
+/**
+ * The position of the last row of a page of document search results, used to seek to the next page on the
+ * (CRTE_DT, DOC_HDR_ID) ordering of the search instead of skipping over all of the preceding rows.
+ *
+ * <p>The string form of a cursor is {@code <create date millis>:<document id>}.  It is treated as opaque by callers of
+ * the document search api.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public final class DocumentSearchCursor {
+
+    private static final char SEPARATOR = ':';
+
+    private final long dateCreatedMillis;
+    private final String documentId;
+
+    public DocumentSearchCursor(long dateCreatedMillis, String documentId) {
+        if (StringUtils.isBlank(documentId)) {
+            throw new IllegalArgumentException("documentId was null or blank");
+        }
+        this.dateCreatedMillis = dateCreatedMillis;
+        this.documentId = documentId;
+    }
+
+    /**
+     * Creates a cursor positioned at the given document.
+     *
+     * @param document the last document of a page of results
+     * @return a cursor positioned at the given document
+     */
+    public static DocumentSearchCursor forDocument(DocumentContract document) {
+        return new DocumentSearchCursor(document.getDateCreated().getMillis(), document.getDocumentId());
+    }
+
+    /**
+     * Parses the string form of a cursor.
+     *
+     * @param cursor the string form of the cursor, as returned by {@link #toString()}
+     * @return the parsed cursor
+     * @throws IllegalArgumentException if the given value is not a valid cursor
+     */
+    public static DocumentSearchCursor valueOf(String cursor) {
+        int separatorIndex = StringUtils.isBlank(cursor) ? -1 : cursor.indexOf(SEPARATOR);
+        if (separatorIndex <= 0) {
+            throw new IllegalArgumentException("Invalid document search cursor: " + cursor);
+        }
+        try {
+            return new DocumentSearchCursor(Long.parseLong(cursor.substring(0, separatorIndex)),
+                    cursor.substring(separatorIndex + 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid document search cursor: " + cursor, e);
+        }
+    }
+
+    public long getDateCreatedMillis() {
+        return dateCreatedMillis;
+    }
+
+    public String getDocumentId() {
+        return documentId;
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(dateCreatedMillis) + SEPARATOR + documentId;
+    }
+
+}
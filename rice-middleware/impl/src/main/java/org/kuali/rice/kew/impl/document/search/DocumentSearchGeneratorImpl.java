@@ -55,6 +55,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -80,6 +81,12 @@ public class DocumentSearchGeneratorImpl implements DocumentSearchGenerator {
     private static final String DATABASE_WILDCARD_CHARACTER_STRING = "%";
     private static final char DATABASE_WILDCARD_CHARACTER = DATABASE_WILDCARD_CHARACTER_STRING.toCharArray()[0];
 
+    /**
+     * Maximum number of document ids placed in a single "in" clause when loading searchable attribute values.  Kept
+     * below the 1000 element limit that Oracle imposes on expression lists.
+     */
+    private static final int ATTRIBUTE_QUERY_BATCH_SIZE = 500;
+
     private org.kuali.rice.kew.api.doctype.DocumentTypeService apiDocumentTypeService;
 
     private DatabasePlatform dbPlatform;
@@ -87,6 +94,12 @@ public class DocumentSearchGeneratorImpl implements DocumentSearchGenerator {
 
     private SqlBuilder sqlBuilder = null;
 
+    /**
+     * Whether a subclass overrides the deprecated {@link #processRow(DocumentSearchCriteria, Statement, ResultSet)},
+     * in which case every row goes through it and the searchable attribute values are not loaded per page.
+     */
+    private final boolean processRowOverridden = isProcessRowOverridden(getClass());
+
     @Override
     public DocumentSearchCriteria clearSearch(DocumentSearchCriteria criteria) {
         return DocumentSearchCriteria.Builder.create().build();
@@ -242,7 +255,8 @@ public class DocumentSearchGeneratorImpl implements DocumentSearchGenerator {
         results.setSearchResults(resultList);
         Map<String, DocumentSearchResult.Builder> resultMap = new HashMap<String, DocumentSearchResult.Builder>();
 
-        int startAt = (criteria.getStartAtIndex()==null) ? 0 : criteria.getStartAtIndex();
+        // when seeking from a cursor the query itself skips the preceding rows
+        int startAt = (criteria.getStartAtIndex()==null || StringUtils.isNotBlank(criteria.getSearchCursor())) ? 0 : criteria.getStartAtIndex();
         int iteration = 0;
         boolean resultSetHasNext = resultSet.next();
 
@@ -250,15 +264,13 @@ public class DocumentSearchGeneratorImpl implements DocumentSearchGenerator {
 
         while (resultSetHasNext && resultMap.size() < maxResultCap && iteration < fetchLimit && startAt >= 0) {
             if (iteration >= startAt) {
-                DocumentSearchResult.Builder resultBuilder = processRow(criteria, searchAttributeStatement, resultSet);
+                DocumentSearchResult.Builder resultBuilder = processRowOverridden ?
+                        processRow(criteria, searchAttributeStatement, resultSet) :
+                        processRowWithoutAttributes(resultSet);
                 String documentId = resultBuilder.getDocument().getDocumentId();
                 if (!resultMap.containsKey(documentId)) {
                     resultList.add(resultBuilder);
                     resultMap.put(documentId, resultBuilder);
-                } else {
-                    // handle duplicate rows with different search data
-                    DocumentSearchResult.Builder previousEntry = resultMap.get(documentId);
-                    handleMultipleDocumentRows(previousEntry, resultBuilder);
                 }
             }
 
@@ -267,35 +279,57 @@ public class DocumentSearchGeneratorImpl implements DocumentSearchGenerator {
         }
 
         perfLog.log("Time to read doc search results.", true);
+
+        // searchable attribute values are loaded for the whole page at once rather than once per row
+        if (!processRowOverridden && isUsingAtLeastOneSearchAttribute(criteria)) {
+            populateDocumentAttributesValues(resultMap, searchAttributeStatement);
+        }
         // if we have threshold+1 results, then we have more results than we are going to display
         results.setOverThreshold(resultSetHasNext);
+        if (resultSetHasNext && !resultList.isEmpty()) {
+            DocumentSearchResult.Builder lastResult = resultList.get(resultList.size() - 1);
+            results.setNextSearchCursor(DocumentSearchCursor.forDocument(lastResult.getDocument()).toString());
+        }
 
         LOG.debug("Processed " + resultMap.size() + " document search result rows.");
         return results;
     }
 
     /**
-     * Handles multiple document rows by collapsing them into the list of document attributes on the existing row.
-     * The two rows must represent the same document.
+     * Processes the search result row, returning a DocumentSearchResult
      *
-     * @param existingRow the existing row to combine the new row into
-     * @param newRow the new row from which to combine document attributes with the existing row
+     * <p>If a subclass overrides this method, {@link #processResultSet} calls it for every row and leaves loading the
+     * searchable attribute values to it, one row at a time.</p>
+     *
+     * @param criteria the original search criteria
+     * @param searchAttributeStatement statement being used to call the database for queries
+     * @param rs the search result set
+     * @return a DocumentSearchResult representing the current ResultSet row
+     * @throws SQLException
+     * @deprecated override {@link #processRowWithoutAttributes(ResultSet)} instead, so the searchable attribute
+     * values are loaded for the whole page of results at once
      */
-    private void handleMultipleDocumentRows(DocumentSearchResult.Builder existingRow, DocumentSearchResult.Builder newRow) {
-        for (DocumentAttribute.AbstractBuilder<?> newDocumentAttribute : newRow.getDocumentAttributes()) {
-            existingRow.getDocumentAttributes().add(newDocumentAttribute);
+    @Deprecated
+    protected DocumentSearchResult.Builder processRow(DocumentSearchCriteria criteria, Statement searchAttributeStatement, ResultSet rs) throws SQLException {
+        DocumentSearchResult.Builder resultBuilder = processRowWithoutAttributes(rs);
+
+        if (isUsingAtLeastOneSearchAttribute(criteria)) {
+            populateDocumentAttributesValues(resultBuilder, searchAttributeStatement);
         }
+
+        return resultBuilder;
     }
 
     /**
-     * Processes the search result row, returning a DocumentSearchResult
-     * @param criteria the original search criteria
-     * @param searchAttributeStatement statement being used to call the database for queries
+     * Processes the search result row, returning a DocumentSearchResult which does not yet have any searchable
+     * attribute values populated on it.  This is the hook {@link #processResultSet} calls for each row; the
+     * searchable attribute values are then loaded for the whole page.
+     *
      * @param rs the search result set
      * @return a DocumentSearchResult representing the current ResultSet row
      * @throws SQLException
      */
-    protected DocumentSearchResult.Builder processRow(DocumentSearchCriteria criteria, Statement searchAttributeStatement, ResultSet rs) throws SQLException {
+    protected DocumentSearchResult.Builder processRowWithoutAttributes(ResultSet rs) throws SQLException {
 
         String documentId = rs.getString("DOC_HDR_ID");
         String initiatorPrincipalId = rs.getString("INITR_PRNCPL_ID");
@@ -332,10 +366,6 @@ public class DocumentSearchGeneratorImpl implements DocumentSearchGenerator {
         // TODO - KULRICE-5755 - should probably set as many properties on the document as we can
         documentBuilder.setDocumentHandlerUrl(rs.getString("DOC_HDLR_URL"));
 
-        if (isUsingAtLeastOneSearchAttribute(criteria)) {
-            populateDocumentAttributesValues(resultBuilder, searchAttributeStatement);
-        }
-
         return resultBuilder;
     }
 
@@ -380,6 +410,90 @@ public class DocumentSearchGeneratorImpl implements DocumentSearchGenerator {
         perfLog.log("Time to execute doc search search attribute queries.", true);
     }
 
+    /**
+     * Loads the searchable attribute values for all of the given results using one query per attribute value table
+     * for each batch of document ids, instead of one query per table for every result row.
+     *
+     * <p>Values are added to each resultBuilder in the same order as
+     * {@link #populateDocumentAttributesValues(org.kuali.rice.kew.api.document.search.DocumentSearchResult.Builder, java.sql.Statement)}
+     * would add them.</p>
+     *
+     * @param resultBuilders - document search result objects keyed by document id
+     * @param searchAttributeStatement - statement being used to call the database for queries
+     * @throws SQLException
+     */
+    public void populateDocumentAttributesValues(Map<String, DocumentSearchResult.Builder> resultBuilders, Statement searchAttributeStatement) throws SQLException {
+        if (resultBuilders.isEmpty()) {
+            return;
+        }
+        searchAttributeStatement.setFetchSize(ATTRIBUTE_QUERY_BATCH_SIZE);
+        List<String> documentIds = new ArrayList<String>(resultBuilders.keySet());
+        PerformanceLogger perfLog = new PerformanceLogger();
+        for (int batchStart = 0; batchStart < documentIds.size(); batchStart += ATTRIBUTE_QUERY_BATCH_SIZE) {
+            List<String> batch = documentIds.subList(batchStart, Math.min(batchStart + ATTRIBUTE_QUERY_BATCH_SIZE, documentIds.size()));
+            String inClause = buildDocumentIdInClause(batch);
+            Map<String, List<DocumentAttribute.AbstractBuilder<?>>> attributesByDocumentId = new HashMap<String, List<DocumentAttribute.AbstractBuilder<?>>>();
+            for (SearchableAttributeValue searchAttValue : DocumentSearchInternalUtils.getSearchableAttributeValueObjectTypes()) {
+                String attributeSql = "select DOC_HDR_ID, KEY_CD, VAL from " + searchAttValue.getAttributeTableName() + " where DOC_HDR_ID in (" + inClause + ")";
+                ResultSet attributeResultSet = null;
+                try {
+                    attributeResultSet = searchAttributeStatement.executeQuery(attributeSql);
+                    while (attributeResultSet.next()) {
+                        String documentId = attributeResultSet.getString("DOC_HDR_ID");
+                        searchAttValue.setSearchableAttributeKey(attributeResultSet.getString("KEY_CD"));
+                        searchAttValue.setupAttributeValue(attributeResultSet, "VAL");
+                        if ( (!org.apache.commons.lang.StringUtils.isEmpty(searchAttValue.getSearchableAttributeKey())) && (searchAttValue.getSearchableAttributeValue() != null) ) {
+                            List<DocumentAttribute.AbstractBuilder<?>> documentAttributes = attributesByDocumentId.get(documentId);
+                            if (documentAttributes == null) {
+                                documentAttributes = new ArrayList<DocumentAttribute.AbstractBuilder<?>>();
+                                attributesByDocumentId.put(documentId, documentAttributes);
+                            }
+                            documentAttributes.add(DocumentAttributeFactory.loadContractIntoBuilder(searchAttValue.toDocumentAttribute()));
+                        }
+                    }
+                } finally {
+                    if (attributeResultSet != null) {
+                        try {
+                            attributeResultSet.close();
+                        } catch (Exception e) {
+                            LOG.warn("Could not close searchable attribute result set for class " + searchAttValue.getClass().getName(),e);
+                        }
+                    }
+                }
+            }
+            for (String documentId : batch) {
+                List<DocumentAttribute.AbstractBuilder<?>> documentAttributes = attributesByDocumentId.get(documentId);
+                if (documentAttributes != null) {
+                    resultBuilders.get(documentId).getDocumentAttributes().addAll(documentAttributes);
+                }
+            }
+        }
+        perfLog.log("Time to execute batched doc search search attribute queries for " + documentIds.size() + " documents.", true);
+    }
+
+    private static boolean isProcessRowOverridden(Class<?> type) {
+        for (Class<?> current = type; current != DocumentSearchGeneratorImpl.class; current = current.getSuperclass()) {
+            try {
+                current.getDeclaredMethod("processRow", DocumentSearchCriteria.class, Statement.class, ResultSet.class);
+                return true;
+            } catch (NoSuchMethodException e) {
+                // not overridden at this level
+            }
+        }
+        return false;
+    }
+
+    private String buildDocumentIdInClause(List<String> documentIds) {
+        StringBuilder inClause = new StringBuilder();
+        for (String documentId : documentIds) {
+            if (inClause.length() > 0) {
+                inClause.append(", ");
+            }
+            inClause.append("'").append(getDbPlatform().escapeString(documentId)).append("'");
+        }
+        return inClause.toString();
+    }
+
     @SuppressWarnings("deprecation")
     public String generateSearchSql(DocumentSearchCriteria criteria, List<RemotableAttributeField> searchFields) {
 
@@ -387,7 +501,8 @@ public class DocumentSearchGeneratorImpl implements DocumentSearchGenerator {
         String docHeaderTableAlias = "DOC_HDR";
 
         String sqlPrefix = "Select * from (";
-        String sqlSuffix = ") FINAL_SEARCH order by FINAL_SEARCH.CRTE_DT desc";
+        // DOC_HDR_ID breaks ties on CRTE_DT so that the ordering is stable enough to seek on with a search cursor
+        String sqlSuffix = ") FINAL_SEARCH order by FINAL_SEARCH.CRTE_DT desc, FINAL_SEARCH.DOC_HDR_ID desc";
 
         // the DISTINCT here is important as it filters out duplicate rows which could occur as the result of doc search extension values...
         StringBuilder selectSQL = new StringBuilder("select DISTINCT("+ docHeaderTableAlias +".DOC_HDR_ID), "
@@ -425,6 +540,7 @@ public class DocumentSearchGeneratorImpl implements DocumentSearchGenerator {
         whereSQL.append(getDateLastModifiedSql(criteria.getDateLastModifiedFrom(), criteria.getDateLastModifiedTo(), getGeneratedPredicatePrefix(whereSQL.length())));
         whereSQL.append(getDateApprovedSql(criteria.getDateApprovedFrom(), criteria.getDateApprovedTo(), getGeneratedPredicatePrefix(whereSQL.length())));
         whereSQL.append(getDateFinalizedSql(criteria.getDateFinalizedFrom(), criteria.getDateFinalizedTo(), getGeneratedPredicatePrefix(whereSQL.length())));
+        whereSQL.append(getSearchCursorSql(criteria.getSearchCursor(), getGeneratedPredicatePrefix(whereSQL.length())));
 
         // flags for the table being added to the FROM class of the sql
         String principalViewerSql = getViewerSql(criteria.getViewerPrincipalName(), getGeneratedPredicatePrefix(whereSQL.length()));
@@ -556,6 +672,31 @@ public class DocumentSearchGeneratorImpl implements DocumentSearchGenerator {
         return establishDateString(fromDateLastModified, toDateLastModified, "KREW_DOC_HDR_T", "DOC_HDR", "STAT_MDFN_DT", whereClausePredicatePrefix);
     }
 
+    /**
+     * Generates the keyset predicate which restricts the search to the rows that come after the given cursor in the
+     * (CRTE_DT desc, DOC_HDR_ID desc) ordering of the search.
+     *
+     * <p>The create date is compared at second precision, which is the precision of the CRTE_DT column.</p>
+     *
+     * @param searchCursor the cursor from the previous page of results, may be blank
+     * @param whereClausePredicatePrefix the prefix to use for the predicate
+     * @return the keyset predicate, or an empty string if no cursor was given
+     */
+    public String getSearchCursorSql(String searchCursor, String whereClausePredicatePrefix) {
+        if (StringUtils.isBlank(searchCursor)) {
+            return "";
+        }
+        DocumentSearchCursor cursor = DocumentSearchCursor.valueOf(searchCursor);
+        Timestamp dateCreated = new Timestamp(cursor.getDateCreatedMillis());
+        String dateCreatedSql = getDbPlatform().getDateSQL(
+                new SimpleDateFormat("yyyy/MM/dd").format(dateCreated),
+                new SimpleDateFormat("HH:mm:ss").format(dateCreated));
+        String documentIdSql = "'" + getDbPlatform().escapeString(cursor.getDocumentId()) + "'";
+        return new StringBuilder(whereClausePredicatePrefix).append(" (DOC_HDR.CRTE_DT < ").append(dateCreatedSql)
+                .append(" or (DOC_HDR.CRTE_DT = ").append(dateCreatedSql).append(" and DOC_HDR.DOC_HDR_ID < ")
+                .append(documentIdSql).append(")) ").toString();
+    }
+
 	public String getStatusTransitionDateSql(DateTime fromStatusTransitionDate, DateTime toStatusTransitionDate, String whereClausePredicatePrefix) {
         return establishDateString(fromStatusTransitionDate, toStatusTransitionDate, "KREW_DOC_HDR_T", "DOC_HDR", "APP_DOC_STAT_MDFN_DT", whereClausePredicatePrefix);
     }
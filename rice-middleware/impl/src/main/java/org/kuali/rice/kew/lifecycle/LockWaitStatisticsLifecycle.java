@@ -0,0 +1,90 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.lifecycle;
+
+import org.kuali.rice.core.api.config.CoreConfigHelper;
+import org.kuali.rice.core.api.lifecycle.BaseLifecycle;
+import org.kuali.rice.kew.engine.LockWaitStatistics;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically logs the {@link LockWaitStatistics} of the route header lock and the routing lanes, so that the
+ * waiting for documents can be followed on a running system.
+ *
+ * <p>The statistics are logged at the interval in seconds configured by {@value #LOG_INTERVAL_PARAM}, and only when
+ * locks were taken since they were last logged.  An interval of 0 turns the logging off.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class LockWaitStatisticsLifecycle extends BaseLifecycle {
+
+    private static final org.apache.log4j.Logger LOG = org.apache.log4j.Logger.getLogger(
+            LockWaitStatisticsLifecycle.class);
+
+    /**
+     * Configuration parameter for the number of seconds between logging the statistics.
+     */
+    public static final String LOG_INTERVAL_PARAM = "kew.lock.statistics.logInterval";
+
+    /**
+     * Default number of seconds between logging the statistics.
+     */
+    public static final int DEFAULT_LOG_INTERVAL_SECONDS = 300;
+
+    private ScheduledExecutorService scheduledExecutor;
+
+    @Override
+    public void start() throws Exception {
+        int interval = CoreConfigHelper.getIntProperty(LOG_INTERVAL_PARAM, DEFAULT_LOG_INTERVAL_SECONDS, 0);
+        if (interval > 0) {
+            scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
+            scheduledExecutor.scheduleWithFixedDelay(new StatisticsLogger(), interval, interval, TimeUnit.SECONDS);
+        }
+        super.start();
+    }
+
+    @Override
+    public void stop() throws Exception {
+        try {
+            if (scheduledExecutor != null) {
+                scheduledExecutor.shutdownNow();
+                scheduledExecutor = null;
+            }
+        } finally {
+            super.stop();
+        }
+    }
+
+    private static final class StatisticsLogger implements Runnable {
+
+        private long lastCount = -1;
+
+        @Override
+        public void run() {
+            long count = LockWaitStatistics.ROUTE_HEADER_LOCK.getCount() + LockWaitStatistics.ROUTING_LANE.getCount();
+            if (count != lastCount) {
+                LOG.info(LockWaitStatistics.ROUTE_HEADER_LOCK);
+                LOG.info(LockWaitStatistics.ROUTING_LANE);
+                lastCount = count;
+            }
+        }
+
+    }
+
+}
@@ -40,6 +40,7 @@ public class StandaloneLifeCycle extends BaseCompositeLifecycle {
     	if (ConfigContext.getCurrentContextConfig().getEmailReminderLifecycleEnabled()) {
             lifecycles.add(new EmailReminderLifecycle());
     	}
+    	lifecycles.add(new LockWaitStatisticsLifecycle());
     	return lifecycles;
 	}
 
@@ -28,13 +28,21 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.lang.StringUtils;
 import org.kuali.rice.core.api.config.property.ConfigContext;
+import org.kuali.rice.core.api.mail.BatchMailer;
 import org.kuali.rice.core.api.mail.EmailBody;
+import org.kuali.rice.core.api.mail.EmailContent;
 import org.kuali.rice.core.api.mail.EmailFrom;
 import org.kuali.rice.core.api.mail.EmailSubject;
 import org.kuali.rice.core.api.mail.EmailTo;
+import org.kuali.rice.core.api.mail.MailMessage;
 import org.kuali.rice.core.api.mail.Mailer;
 import org.kuali.rice.coreservice.framework.CoreFrameworkServiceLocator;
 import org.kuali.rice.kew.actionitem.ActionItem;
@@ -93,14 +101,55 @@ public class ActionListEmailServiceImpl implements ActionListEmailService {
     private static final String WEEKLY_TRIGGER_NAME = "Weekly Email Trigger";
     private static final String WEEKLY_JOB_NAME = "Weekly Email";
 
+    /**
+     * Number of principals whose daily or weekly reminders are built and sent together when not configured.
+     */
+    public static final int DEFAULT_REMINDER_CHUNK_SIZE = 500;
+
+    /**
+     * Number of threads building and sending daily or weekly reminders when not configured.
+     */
+    public static final int DEFAULT_REMINDER_THREADS = 4;
+
     private String deploymentEnvironment;
 
     private Mailer mailer;
 
+    private int reminderChunkSize = DEFAULT_REMINDER_CHUNK_SIZE;
+
+    private int reminderThreads = DEFAULT_REMINDER_THREADS;
+
     public void setMailer(Mailer mailer) {
         this.mailer = mailer;
     }
 
+    /**
+     * Sets the number of principals whose daily or weekly reminders are built and sent together.  The action lists
+     * of these principals are read with one query, so this should not exceed the number of values the database
+     * accepts in an IN list.
+     *
+     * @param reminderChunkSize number of principals per chunk
+     */
+    public void setReminderChunkSize(int reminderChunkSize) {
+        if (reminderChunkSize < 1) {
+            throw new IllegalArgumentException("reminderChunkSize must be positive");
+        }
+        this.reminderChunkSize = reminderChunkSize;
+    }
+
+    /**
+     * Sets the number of threads building and sending daily or weekly reminders, 1 to send them all on the thread
+     * running the reminder job.
+     *
+     * @param reminderThreads number of threads
+     */
+    public void setReminderThreads(int reminderThreads) {
+        if (reminderThreads < 1) {
+            throw new IllegalArgumentException("reminderThreads must be positive");
+        }
+        this.reminderThreads = reminderThreads;
+    }
+
     public String getDocumentTypeEmailAddress(DocumentType documentType) {
         String fromAddress = (documentType == null ? null : documentType
                 .getNotificationFromAddress());
@@ -392,19 +441,7 @@ public class ActionListEmailServiceImpl implements ActionListEmailService {
     public void sendDailyReminder() {
         LOG.info("Starting SendDailyReminder");
         if (sendActionListEmailNotification()) {
-            Collection<String> users = getUsersWithEmailSetting(KewApiConstants.EMAIL_RMNDR_DAY_VAL);
-            for (Iterator<String> userIter = users.iterator(); userIter.hasNext();) {
-            	String principalId = userIter.next();
-                try {
-                    Collection<ActionItem> actionItems = getActionListService().getActionList(principalId, null);
-                    if (actionItems != null && actionItems.size() > 0) {
-                        sendPeriodicReminder(principalId, actionItems,
-                                KewApiConstants.EMAIL_RMNDR_DAY_VAL);
-                    }
-                } catch (Exception e) {
-                    LOG.error("Error sending daily action list reminder to user: " + principalId, e);
-                }
-            }
+            sendPeriodicReminders(KewApiConstants.EMAIL_RMNDR_DAY_VAL);
         }
         LOG.info("Daily action list emails successfully sent");
     }
@@ -413,38 +450,184 @@ public class ActionListEmailServiceImpl implements ActionListEmailService {
     public void sendWeeklyReminder() {
         LOG.info("Starting sendWeeklyReminder");
         if (sendActionListEmailNotification()) {
-            Collection<String> users = getUsersWithEmailSetting(KewApiConstants.EMAIL_RMNDR_WEEK_VAL);
-            for (Iterator<String> userIter = users.iterator(); userIter.hasNext();) {
-            	String principalId = userIter.next();
-                try {
-                    Collection<ActionItem> actionItems = getActionListService().getActionList(principalId, null);
-                    if (actionItems != null && actionItems.size() > 0) {
-                        sendPeriodicReminder(principalId, actionItems,
-                                KewApiConstants.EMAIL_RMNDR_WEEK_VAL);
+            sendPeriodicReminders(KewApiConstants.EMAIL_RMNDR_WEEK_VAL);
+        }
+        LOG.info("Weekly action list emails successfully sent");
+    }
+
+    /**
+     * Sends the daily or weekly reminders to all principals with the given email setting.
+     *
+     * <p>
+     * The principals are split into chunks.  The action lists of all principals in a chunk are read with one query,
+     * then their reminders are built and sent as one batch if the mailer is a {@link BatchMailer}.  Chunks are
+     * processed in parallel on a pool of worker threads which only lives as long as the run.
+     * </p>
+     *
+     * @param emailSetting the email setting, daily or weekly
+     */
+    protected void sendPeriodicReminders(final String emailSetting) {
+        List<String> principalIds = new ArrayList<String>(getUsersWithEmailSetting(emailSetting));
+        List<List<String>> chunks = new ArrayList<List<String>>();
+        for (int i = 0; i < principalIds.size(); i += reminderChunkSize) {
+            chunks.add(principalIds.subList(i, Math.min(i + reminderChunkSize, principalIds.size())));
+        }
+
+        final ReminderProgress progress = new ReminderProgress(emailSetting, principalIds.size());
+        int threads = Math.min(reminderThreads, chunks.size());
+        if (threads <= 1) {
+            for (List<String> chunk : chunks) {
+                sendPeriodicReminders(chunk, emailSetting, progress);
+            }
+        } else {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<?>> futures = new ArrayList<Future<?>>(chunks.size());
+                for (final List<String> chunk : chunks) {
+                    futures.add(executor.submit(new Runnable() {
+                        @Override
+                        public void run() {
+                            sendPeriodicReminders(chunk, emailSetting, progress);
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    try {
+                        future.get();
+                    } catch (ExecutionException e) {
+                        LOG.error("Error sending action list reminders with email setting " + emailSetting,
+                                e.getCause());
                     }
-                } catch (Exception e) {
-                    LOG.error("Error sending weekly action list reminder to user: " + principalId, e);
                 }
+            } catch (InterruptedException e) {
+                LOG.warn("Interrupted while sending action list reminders with email setting " + emailSetting);
+                Thread.currentThread().interrupt();
+            } finally {
+                executor.shutdownNow();
             }
         }
-        LOG.info("Weekly action list emails successfully sent");
+        progress.logCompleted();
+    }
+
+    /**
+     * Builds and sends the daily or weekly reminders for one chunk of principals.
+     *
+     * @param principalIds the principals in the chunk
+     * @param emailSetting the email setting, daily or weekly
+     * @param progress the progress of the run the chunk belongs to
+     */
+    protected void sendPeriodicReminders(List<String> principalIds, String emailSetting, ReminderProgress progress) {
+        Map<String, Collection<ActionItem>> actionLists;
+        try {
+            actionLists = getActionListService().getActionLists(principalIds);
+        } catch (Exception e) {
+            LOG.error("Error reading the action lists of " + principalIds.size() + " users", e);
+            progress.chunkProcessed(principalIds.size(), 0, principalIds.size());
+            return;
+        }
+
+        List<MailMessage> messages = new ArrayList<MailMessage>();
+        int failures = 0;
+        for (String principalId : principalIds) {
+            Collection<ActionItem> actionItems = actionLists.get(principalId);
+            if (actionItems == null || actionItems.isEmpty()) {
+                continue;
+            }
+            try {
+                MailMessage message = buildPeriodicReminder(principalId, actionItems, emailSetting);
+                if (message != null) {
+                    messages.add(message);
+                }
+            } catch (Exception e) {
+                LOG.error("Error building action list reminder for user: " + principalId, e);
+                failures++;
+            }
+        }
+
+        int unsent = sendEmails(messages);
+        progress.chunkProcessed(principalIds.size(), messages.size() - unsent, failures + unsent);
     }
 
     protected void sendPeriodicReminder(String principalId, Collection<ActionItem> actionItems, String emailSetting) {
-        String emailBody = null;
+        MailMessage message = buildPeriodicReminder(principalId, actionItems, emailSetting);
+        if (message != null) {
+            sendEmails(Collections.singletonList(message));
+        }
+    }
+
+    /**
+     * Builds the daily or weekly reminder for a principal.
+     *
+     * @param principalId the principal to remind
+     * @param actionItems the principal's action list
+     * @param emailSetting the email setting, daily or weekly
+     * @return the reminder, or null if there is nothing to remind the principal of or no address to send it to
+     */
+    protected MailMessage buildPeriodicReminder(String principalId, Collection<ActionItem> actionItems,
+            String emailSetting) {
         actionItems = filterActionItemsToNotify(principalId, actionItems, emailSetting);
         // if there are no action items after being filtered, there's no
         // reason to send the email
         if (actionItems.isEmpty()) {
-            return;
+            return null;
         }
+        Person person = KimApiServiceLocator.getPersonService().getPerson(principalId);
+        if (person == null || StringUtils.isBlank(person.getEmailAddressUnmasked())) {
+            return null;
+        }
+
+        EmailContent content = generatePeriodicReminder(person, actionItems, emailSetting);
+        MailMessage message = new MailMessage();
+        message.setFromAddress(getEmailFrom(null).getFromAddress());
+        message.addToAddress(getEmailTo(person).getToAddress());
+        message.setSubject(content.getSubject());
+        message.setMessage(content.getBody());
+        return message;
+    }
+
+    /**
+     * Generates the subject and body of the daily or weekly reminder for a principal.
+     *
+     * @param person the principal to remind
+     * @param actionItems the action items to remind the principal of
+     * @param emailSetting the email setting, daily or weekly
+     * @return the content of the reminder
+     */
+    protected EmailContent generatePeriodicReminder(Person person, Collection<ActionItem> actionItems,
+            String emailSetting) {
+        String emailBody = null;
         if (KewApiConstants.EMAIL_RMNDR_DAY_VAL.equals(emailSetting)) {
             emailBody = buildDailyReminderBody(actionItems);
         } else if (KewApiConstants.EMAIL_RMNDR_WEEK_VAL.equals(emailSetting)) {
             emailBody = buildWeeklyReminderBody(actionItems);
         }
-        Person person = KimApiServiceLocator.getPersonService().getPerson(principalId);
-        sendEmail(person, getEmailSubject(), new EmailBody(emailBody));
+        return new EmailContent(getEmailSubject().getSubject(), emailBody);
+    }
+
+    /**
+     * Sends the given messages, as one batch if the mailer supports it.
+     *
+     * @param messages the messages to send
+     * @return the number of messages which could not be sent
+     */
+    protected int sendEmails(Collection<MailMessage> messages) {
+        if (messages.isEmpty()) {
+            return 0;
+        }
+        if (mailer instanceof BatchMailer) {
+            return ((BatchMailer) mailer).sendEmails(messages);
+        }
+
+        int unsent = 0;
+        for (MailMessage message : messages) {
+            try {
+                mailer.sendEmail(message);
+            } catch (Exception e) {
+                LOG.error("Error sending Action List email to " + message.getToAddresses(), e);
+                unsent++;
+            }
+        }
+        return unsent;
     }
 
     /**
@@ -815,4 +998,64 @@ public class ActionListEmailServiceImpl implements ActionListEmailService {
         return ConfigContext.getCurrentContextConfig().getProperty(KRADConstants.WORKFLOW_URL_KEY)
                 + "/" + "Preferences.do";
     }
+
+    /**
+     * Tracks a run of daily or weekly reminders, logging its progress and throughput as chunks of principals are
+     * processed.
+     */
+    protected static class ReminderProgress {
+
+        private final String emailSetting;
+        private final int principals;
+        private final long startTime = System.currentTimeMillis();
+
+        private final AtomicInteger principalsProcessed = new AtomicInteger();
+        private final AtomicInteger emailsSent = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+
+        protected ReminderProgress(String emailSetting, int principals) {
+            this.emailSetting = emailSetting;
+            this.principals = principals;
+        }
+
+        /**
+         * Records the processing of a chunk of principals.
+         *
+         * @param principals number of principals in the chunk
+         * @param sent number of reminders sent
+         * @param failed number of reminders which could not be built or sent
+         */
+        public void chunkProcessed(int principals, int sent, int failed) {
+            int processed = principalsProcessed.addAndGet(principals);
+            emailsSent.addAndGet(sent);
+            failures.addAndGet(failed);
+            LOG.info("Processed " + processed + " of " + this.principals + " users for " + emailSetting + " reminders: "
+                    + describe());
+        }
+
+        /**
+         * Logs the totals of the run.
+         */
+        public void logCompleted() {
+            LOG.info("Completed " + emailSetting + " reminders for " + principals + " users: " + describe());
+        }
+
+        private String describe() {
+            long elapsed = Math.max(System.currentTimeMillis() - startTime, 1);
+            return emailsSent.get() + " emails sent, " + failures.get() + " failures in " + elapsed + " ms ("
+                    + (emailsSent.get() * 1000L / elapsed) + " emails/s)";
+        }
+
+        public int getPrincipalsProcessed() {
+            return principalsProcessed.get();
+        }
+
+        public int getEmailsSent() {
+            return emailsSent.get();
+        }
+
+        public int getFailures() {
+            return failures.get();
+        }
+    }
 }
@@ -93,28 +93,20 @@ public class CustomizableActionListEmailServiceImpl extends ActionListEmailServi
     }
 
     @Override
-    protected void sendPeriodicReminder(String principalId, Collection<ActionItem> actionItems, String emailSetting) {
-        actionItems = filterActionItemsToNotify(principalId, actionItems, emailSetting);
+    protected EmailContent generatePeriodicReminder(Person person, Collection<ActionItem> actionItems,
+            String emailSetting) {
         Collection<org.kuali.rice.kew.api.action.ActionItem> apiActionItems = new ArrayList<org.kuali.rice.kew.api.action.ActionItem>();
         for(ActionItem actionItem : actionItems) {
             apiActionItems.add(ActionItem.to(actionItem));
         }
-        // if there are no action items after being filtered, there's no
-        // reason to send the email
-        if (actionItems.isEmpty()) {
-            return;
-        }
-        EmailContent content;
-        Person person = KimApiServiceLocator.getPersonService().getPerson(principalId);
         if (KewApiConstants.EMAIL_RMNDR_DAY_VAL.equals(emailSetting)) {
-            content = getEmailContentGenerator().generateDailyReminder(person, apiActionItems);
+            return getEmailContentGenerator().generateDailyReminder(person, apiActionItems);
         } else if (KewApiConstants.EMAIL_RMNDR_WEEK_VAL.equals(emailSetting)) {
-            content = getEmailContentGenerator().generateWeeklyReminder(person, apiActionItems);
+            return getEmailContentGenerator().generateWeeklyReminder(person, apiActionItems);
         } else {
             // else...refactor this...
             throw new RuntimeException("invalid email setting. this code needs refactoring");
         }
-        sendEmail(person, new EmailSubject(content.getSubject()), new EmailBody(content.getBody()));
     }
 
 }
@@ -22,6 +22,7 @@ import org.kuali.rice.kew.api.action.ActionItem;
 import org.kuali.rice.kew.docsearch.SearchableAttributeValue;
 import org.kuali.rice.kew.docsearch.dao.SearchableAttributeDAO;
 import org.kuali.rice.kew.doctype.bo.DocumentType;
+import org.kuali.rice.kew.engine.LockWaitStatistics;
 import org.kuali.rice.kew.exception.WorkflowServiceErrorException;
 import org.kuali.rice.kew.exception.WorkflowServiceErrorImpl;
 import org.kuali.rice.kew.routeheader.DocumentRouteHeaderValue;
@@ -34,8 +35,11 @@ import org.kuali.rice.kim.api.services.KimApiServiceLocator;
 import org.kuali.rice.krad.data.DataObjectService;
 import org.kuali.rice.krad.data.PersistenceOption;
 import org.springframework.beans.factory.annotation.Required;
+import org.springframework.dao.PessimisticLockingFailureException;
 
+import javax.persistence.LockTimeoutException;
 import javax.persistence.OptimisticLockException;
+import javax.persistence.PessimisticLockException;
 import java.math.BigDecimal;
 import java.sql.Timestamp;
 import java.util.ArrayList;
@@ -45,6 +49,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 public class RouteHeaderServiceImpl implements RouteHeaderService {
 
@@ -87,8 +92,35 @@ public class RouteHeaderServiceImpl implements RouteHeaderService {
     }
     
     public void lockRouteHeader(String documentId) {
-        getRouteHeaderDAO().lockRouteHeader(documentId);
-        LOG.debug("Successfully locked document [docId=" + documentId + "]");
+        long start = System.nanoTime();
+        try {
+            getRouteHeaderDAO().lockRouteHeader(documentId);
+        } catch (RuntimeException e) {
+            if (isLockFailure(e)) {
+                LockWaitStatistics.ROUTE_HEADER_LOCK.recordTimeout(System.nanoTime() - start);
+            }
+            throw e;
+        }
+        long waitNanos = System.nanoTime() - start;
+        LockWaitStatistics.ROUTE_HEADER_LOCK.recordWait(waitNanos);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Successfully locked document [docId=" + documentId + "] after "
+                    + TimeUnit.NANOSECONDS.toMillis(waitNanos) + " ms");
+        }
+    }
+
+    /**
+     * Determines whether the given exception, or one of its causes, reports that the lock could not be acquired, as
+     * opposed to any other failure of the query.
+     */
+    private boolean isLockFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof LockTimeoutException || cause instanceof PessimisticLockException
+                    || cause instanceof PessimisticLockingFailureException) {
+                return true;
+            }
+        }
+        return false;
     }
 
     public DocumentRouteHeaderValue saveRouteHeader(DocumentRouteHeaderValue routeHeader) {
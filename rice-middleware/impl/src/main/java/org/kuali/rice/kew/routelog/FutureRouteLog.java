@@ -0,0 +1,121 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.routelog;
+
+import org.kuali.rice.kew.actionrequest.ActionRequestValue;
+import org.kuali.rice.kim.api.services.KimApiServiceLocator;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The recipients of the action requests a document would generate if routed to completion, as found by simulating
+ * its route.
+ *
+ * <p>
+ * Only the ids of the recipients are held, so an instance can be shared between threads and outlives the simulated
+ * requests it was built from.  Group membership is checked when asked, against the current members of the group.
+ * </p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public final class FutureRouteLog {
+
+    private final Set<String> requestPrincipalIds;
+    private final Set<String> requestGroupIds;
+    private final Set<String> routedPrincipalIds;
+    private final Set<String> routedGroupIds;
+
+    private FutureRouteLog(Set<String> requestPrincipalIds, Set<String> requestGroupIds,
+            Set<String> routedPrincipalIds, Set<String> routedGroupIds) {
+        this.requestPrincipalIds = Collections.unmodifiableSet(requestPrincipalIds);
+        this.requestGroupIds = Collections.unmodifiableSet(requestGroupIds);
+        this.routedPrincipalIds = Collections.unmodifiableSet(routedPrincipalIds);
+        this.routedGroupIds = Collections.unmodifiableSet(routedGroupIds);
+    }
+
+    /**
+     * Collects the recipients of the given simulated action requests.
+     *
+     * @param actionRequests the action requests generated by the simulation
+     * @return the future route log
+     */
+    public static FutureRouteLog fromActionRequests(List<ActionRequestValue> actionRequests) {
+        Set<String> requestPrincipalIds = new HashSet<String>();
+        Set<String> requestGroupIds = new HashSet<String>();
+        Set<String> routedPrincipalIds = new HashSet<String>();
+        Set<String> routedGroupIds = new HashSet<String>();
+        for (ActionRequestValue actionRequest : actionRequests) {
+            if (actionRequest.getPrincipalId() != null) {
+                requestPrincipalIds.add(actionRequest.getPrincipalId());
+            } else if (actionRequest.getGroupId() != null) {
+                requestGroupIds.add(actionRequest.getGroupId());
+            }
+            collectRoutedRecipients(actionRequest, routedPrincipalIds, routedGroupIds);
+        }
+
+        return new FutureRouteLog(requestPrincipalIds, requestGroupIds, routedPrincipalIds, routedGroupIds);
+    }
+
+    private static void collectRoutedRecipients(ActionRequestValue actionRequest, Set<String> principalIds,
+            Set<String> groupIds) {
+        if (actionRequest.isReviewerUser()) {
+            principalIds.add(actionRequest.getPrincipalId());
+        } else if (actionRequest.isGroupRequest()) {
+            groupIds.add(actionRequest.getGroupId());
+        }
+        for (ActionRequestValue childRequest : actionRequest.getChildrenRequests()) {
+            collectRoutedRecipients(childRequest, principalIds, groupIds);
+        }
+    }
+
+    /**
+     * @return ids of the principals the simulated requests are addressed to
+     */
+    public Set<String> getRequestPrincipalIds() {
+        return requestPrincipalIds;
+    }
+
+    /**
+     * @return ids of the groups the simulated requests are addressed to
+     */
+    public Set<String> getRequestGroupIds() {
+        return requestGroupIds;
+    }
+
+    /**
+     * Determines whether the principal is a recipient of any of the simulated requests or of the requests they were
+     * resolved to, as {@link ActionRequestValue#isRecipientRoutedRequest(String)} does.
+     *
+     * @param principalId id of the principal
+     * @return whether the principal is in the future route log
+     */
+    public boolean isPrincipalRouted(String principalId) {
+        if (routedPrincipalIds.contains(principalId)) {
+            return true;
+        }
+        for (String groupId : routedGroupIds) {
+            if (KimApiServiceLocator.getGroupService().isMemberOfGroup(principalId, groupId)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+}
@@ -0,0 +1,203 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.routelog;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.kuali.rice.core.api.config.CoreConfigHelper;
+import org.kuali.rice.core.api.util.cache.BoundedCache;
+import org.kuali.rice.kew.actionrequest.ActionRequestValue;
+import org.kuali.rice.kew.engine.node.RouteNodeInstance;
+import org.kuali.rice.kew.routeheader.DocumentRouteHeaderValue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache of the {@link FutureRouteLog} of documents, so that the route of a document is simulated once
+ * for as long as it does not move rather than every time its future route log is checked.
+ *
+ * <p>
+ * Each entry records the route state of the document it was simulated from, as described by
+ * {@link #describeRouteState(DocumentRouteHeaderValue, List, List)}: the version and status of the route header, a
+ * digest of the document content, the status of every action request and the active node instances.  Taking an
+ * action, activating a request, moving to another node or saving new content changes that state, so a lookup with the
+ * current state of the document misses and the route is simulated again.  Because the state is read from the database, a document routed on another node is also seen to
+ * have moved.
+ * </p>
+ *
+ * <p>
+ * Rules, roles and group memberships may change the future route without the document moving, so entries also
+ * expire after &quot;kew.route.log.future.cache.ttl&quot; seconds; 0 keeps them until the document moves.  The
+ * number of cached documents is bounded by &quot;kew.route.log.future.cache.size&quot;; once the bound is reached
+ * the documents looked up least recently are dropped.  A bound of 0 disables caching.
+ * </p>
+ *
+ * <p>
+ * The KEW module shares one cache, registered as
+ * {@link org.kuali.rice.kew.service.KEWServiceLocator#FUTURE_ROUTE_LOG_CACHE}.
+ * </p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class FutureRouteLogCache {
+
+    /**
+     * Configuration parameter for the number of cached documents.
+     */
+    public static final String CACHE_SIZE_PARAM = "kew.route.log.future.cache.size";
+
+    /**
+     * Configuration parameter for the number of seconds an entry is used.
+     */
+    public static final String CACHE_TTL_PARAM = "kew.route.log.future.cache.ttl";
+
+    /**
+     * The number of documents cached when not configured.
+     */
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    /**
+     * The number of seconds an entry is used when not configured.
+     */
+    public static final int DEFAULT_TTL_SECONDS = 300;
+
+    private final long ttlNanos;
+    private final BoundedCache<String, Entry> entries;
+
+    /**
+     * Creates a cache of the configured size and time to live.
+     */
+    public FutureRouteLogCache() {
+        this(CoreConfigHelper.getIntProperty(CACHE_SIZE_PARAM, DEFAULT_MAX_SIZE, 0), CoreConfigHelper.getIntProperty(
+                CACHE_TTL_PARAM, DEFAULT_TTL_SECONDS, 0));
+    }
+
+    /**
+     * Creates a cache holding the future route logs of at most the given number of documents.
+     *
+     * @param maxSize maximum number of documents to cache, 0 to disable caching
+     * @param ttlSeconds seconds an entry is used, 0 to use it until the document moves
+     * @throws IllegalArgumentException if the size or time to live is negative
+     */
+    public FutureRouteLogCache(int maxSize, int ttlSeconds) {
+        if (ttlSeconds < 0) {
+            throw new IllegalArgumentException("ttlSeconds must not be negative");
+        }
+
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.entries = new BoundedCache<String, Entry>(maxSize);
+    }
+
+    /**
+     * Describes the route state of a document, which changes whenever the document moves or its content changes.  The
+     * content is saved apart from the route header, without changing its version, so it is described by its digest.
+     *
+     * @param routeHeader the route header of the document
+     * @param actionRequests all action requests of the document
+     * @param activeNodeInstances the active node instances of the document
+     * @return description of the route state
+     */
+    public static String describeRouteState(DocumentRouteHeaderValue routeHeader,
+            List<ActionRequestValue> actionRequests, List<RouteNodeInstance> activeNodeInstances) {
+        List<String> requestStates = new ArrayList<String>(actionRequests.size());
+        for (ActionRequestValue actionRequest : actionRequests) {
+            requestStates.add(actionRequest.getActionRequestId() + "=" + actionRequest.getStatus()
+                    + (Boolean.TRUE.equals(actionRequest.getCurrentIndicator()) ? "" : "*"));
+        }
+        Collections.sort(requestStates);
+
+        List<String> nodeInstanceIds = new ArrayList<String>(activeNodeInstances.size());
+        for (RouteNodeInstance nodeInstance : activeNodeInstances) {
+            nodeInstanceIds.add(nodeInstance.getRouteNodeInstanceId());
+        }
+        Collections.sort(nodeInstanceIds);
+
+        String content = routeHeader.getDocContent();
+        return routeHeader.getVersionNumber() + ":" + routeHeader.getDocRouteStatus() + ":"
+                + (content == null ? "" : DigestUtils.sha1Hex(content)) + ":" + nodeInstanceIds + ":" + requestStates;
+    }
+
+    /**
+     * Retrieves the future route log simulated from the given route state of a document.
+     *
+     * @param documentId id of the document
+     * @param flattenNodes whether the route was simulated with flattened nodes
+     * @param routeState the current route state of the document
+     * @return the future route log, or null if it has to be simulated
+     */
+    public FutureRouteLog get(String documentId, boolean flattenNodes, String routeState) {
+        Entry entry = entries.get(getKey(documentId, flattenNodes));
+        if (entry != null && entry.routeState.equals(routeState) && (ttlNanos == 0
+                || System.nanoTime() - entry.createdNanos < ttlNanos)) {
+            return entry.futureRouteLog;
+        }
+
+        return null;
+    }
+
+    /**
+     * Caches the future route log simulated from the given route state of a document, replacing any simulated from
+     * an earlier state.
+     *
+     * @param documentId id of the document
+     * @param flattenNodes whether the route was simulated with flattened nodes
+     * @param routeState the route state the route was simulated from
+     * @param futureRouteLog the future route log
+     */
+    public void put(String documentId, boolean flattenNodes, String routeState, FutureRouteLog futureRouteLog) {
+        entries.put(getKey(documentId, flattenNodes), new Entry(routeState, futureRouteLog));
+    }
+
+    private static String getKey(String documentId, boolean flattenNodes) {
+        return flattenNodes ? documentId + ":flattened" : documentId;
+    }
+
+    /**
+     * @return maximum number of documents cached
+     */
+    public int getMaxSize() {
+        return entries.getMaxSize();
+    }
+
+    /**
+     * @return number of entries currently cached
+     */
+    public int getSize() {
+        return entries.size();
+    }
+
+    /**
+     * Removes all cached future route logs.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    private static final class Entry {
+
+        private final String routeState;
+        private final FutureRouteLog futureRouteLog;
+        private final long createdNanos = System.nanoTime();
+
+        private Entry(String routeState, FutureRouteLog futureRouteLog) {
+            this.routeState = routeState;
+            this.futureRouteLog = futureRouteLog;
+        }
+    }
+
+}
@@ -34,6 +34,7 @@ import org.kuali.rice.kew.routeheader.DocumentContent;
 import org.kuali.rice.kew.rule.RuleExtensionBo;
 import org.kuali.rice.kew.rule.RuleExtensionValue;
 import org.kuali.rice.kew.rule.WorkflowAttributeXmlValidator;
+import org.kuali.rice.kew.service.KEWServiceLocator;
 import org.kuali.rice.kns.web.ui.Field;
 import org.kuali.rice.kns.web.ui.Row;
 import org.w3c.dom.Element;
@@ -229,6 +230,7 @@ public class StandardGenericXMLRuleAttribute implements GenericXMLRuleAttribute,
     private List ruleRows = new ArrayList();
     private List routingDataRows = new ArrayList();
     private boolean required;
+    private XPathExpressionCache expressionCache;
 
     public StandardGenericXMLRuleAttribute() {
     }
@@ -313,12 +315,14 @@ public class StandardGenericXMLRuleAttribute implements GenericXMLRuleAttribute,
         WorkflowFunctionResolver resolver = XPathHelper.extractFunctionResolver(xpath);
         resolver.setRuleExtensions(ruleExtensions);
         List<String> xPathExpressionsToEvaluate = extractExpressionsToEvaluate(xpath, docContent, ruleExtensions);
+        // the expressions come from the attribute's configuration, so they are compiled once and shared
         for (String xPathExpressionToEvaluate : xPathExpressionsToEvaluate) {
             if (LOG.isDebugEnabled()) {
                 LOG.debug("Evaluating xPath expression: " + xPathExpressionToEvaluate);
             }
             try {
-                Boolean match = (Boolean) xpath.evaluate(xPathExpressionToEvaluate, docContent.getDocument(), XPathConstants.BOOLEAN);
+                Boolean match = (Boolean) getExpressionCache().evaluate(getAttributeName(),
+                        xPathExpressionToEvaluate, docContent.getDocument(), XPathConstants.BOOLEAN, resolver);
                 if (LOG.isDebugEnabled()) {
                     LOG.debug("Expression match result: " + match);
                 }
@@ -342,7 +346,8 @@ public class StandardGenericXMLRuleAttribute implements GenericXMLRuleAttribute,
         Element configXml = getConfigXML();
         String findFieldExpressions = "//routingConfig/" + FIELD_DEF_E + "/fieldEvaluation/xpathexpression";
         try {
-            NodeList xPathExpressions = (NodeList) xpath.evaluate(findFieldExpressions, configXml, XPathConstants.NODESET);
+            NodeList xPathExpressions = (NodeList) getExpressionCache().evaluate(null, findFieldExpressions,
+                    configXml, XPathConstants.NODESET, XPathHelper.extractFunctionResolver(xpath));
             for (int index = 0; index < xPathExpressions.getLength(); index++) {
                 Element expressionElement = (Element) xPathExpressions.item(index);
                 String expression = expressionElement.getTextContent();
@@ -382,7 +387,8 @@ public class StandardGenericXMLRuleAttribute implements GenericXMLRuleAttribute,
         }
         String findGlobalExpressions = "//routingConfig/globalEvaluations/xpathexpression";
         try {
-            NodeList xPathExpressions = (NodeList) xpath.evaluate(findGlobalExpressions, configXml, XPathConstants.NODESET);
+            NodeList xPathExpressions = (NodeList) getExpressionCache().evaluate(null, findGlobalExpressions,
+                    configXml, XPathConstants.NODESET, XPathHelper.extractFunctionResolver(xpath));
             for (int index = 0; index < xPathExpressions.getLength(); index++) {
                 Element expressionElement = (Element) xPathExpressions.item(index);
                 //String expression = XmlJotter.jotNode(expressionElement);
@@ -400,6 +406,29 @@ public class StandardGenericXMLRuleAttribute implements GenericXMLRuleAttribute,
         return expressionsToEvaluate;
     }
 
+    /**
+     * The name of this attribute, under which its compiled expressions are cached.
+     */
+    private String getAttributeName() {
+        return extensionDefinition == null ? null : extensionDefinition.getName();
+    }
+
+    /**
+     * Gets the cache of compiled expressions, by default the one shared by the KEW module.  Where that is not
+     * available, the expressions are compiled for each evaluation.
+     */
+    public XPathExpressionCache getExpressionCache() {
+        if (expressionCache == null) {
+            XPathExpressionCache sharedCache = KEWServiceLocator.getXPathExpressionCache();
+            expressionCache = sharedCache == null ? new XPathExpressionCache(0) : sharedCache;
+        }
+        return expressionCache;
+    }
+
+    public void setExpressionCache(XPathExpressionCache expressionCache) {
+        this.expressionCache = expressionCache;
+    }
+
     public List getRuleRows() {
         if (ruleRows.isEmpty()) {
             ruleRows = getRows(getConfigXML(), new String[] { "ALL", "RULE" });
@@ -0,0 +1,177 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.rule.xmlrouting;
+
+import org.kuali.rice.core.api.config.CoreConfigHelper;
+import org.kuali.rice.core.api.util.cache.BoundedCache;
+import org.w3c.dom.Node;
+
+import javax.xml.namespace.QName;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import javax.xml.xpath.XPathFunction;
+import javax.xml.xpath.XPathFunctionResolver;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Cache of compiled XPath expressions used by the XML attributes, keyed by attribute name and expression.
+ *
+ * <p>
+ * Compiled expressions are not safe for concurrent use, so each key has a pool of them and an evaluation borrows one
+ * for its duration.  The expressions are compiled against a function resolver which delegates to the
+ * {@link WorkflowFunctionResolver} given for the evaluation, so the rule extensions and root node of one evaluation
+ * are never seen by another.
+ * </p>
+ *
+ * <p>
+ * The attributes share the cache registered with the KEW module as
+ * {@link org.kuali.rice.kew.service.KEWServiceLocator#XPATH_EXPRESSION_CACHE}.  The number of cached keys is bounded
+ * by the configuration parameter &quot;kew.xpath.expression.cache.size&quot;; once the bound is reached the keys
+ * used least recently are dropped.  A bound of 0 disables caching, so each expression is compiled every time it is
+ * evaluated.
+ * </p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class XPathExpressionCache {
+
+    /**
+     * Configuration parameter for the number of cached expressions.
+     */
+    public static final String CACHE_SIZE_PARAM = "kew.xpath.expression.cache.size";
+
+    /**
+     * The number of expressions cached when not configured.
+     */
+    public static final int DEFAULT_MAX_SIZE = 5000;
+
+    private static final ThreadLocal<WorkflowFunctionResolver> CURRENT_RESOLVER =
+            new ThreadLocal<WorkflowFunctionResolver>();
+
+    private static final XPathFunctionResolver DELEGATING_RESOLVER = new XPathFunctionResolver() {
+        public XPathFunction resolveFunction(QName functionName, int arity) {
+            WorkflowFunctionResolver resolver = CURRENT_RESOLVER.get();
+            if (resolver == null) {
+                return null;
+            }
+            return resolver.resolveFunction(functionName, arity);
+        }
+    };
+
+    private final BoundedCache<String, Queue<XPathExpression>> expressions;
+
+    /**
+     * Creates a cache holding the configured number of expressions.
+     */
+    public XPathExpressionCache() {
+        this(CoreConfigHelper.getIntProperty(CACHE_SIZE_PARAM, DEFAULT_MAX_SIZE, 0));
+    }
+
+    /**
+     * Creates a cache holding at most the given number of expressions.
+     *
+     * @param maxSize maximum number of distinct expressions to cache, 0 to disable caching
+     */
+    public XPathExpressionCache(int maxSize) {
+        this.expressions = new BoundedCache<String, Queue<XPathExpression>>(maxSize);
+    }
+
+    /**
+     * Evaluates the given expression of an attribute, compiling it if it is not cached.
+     *
+     * @param attributeName name of the attribute defining the expression
+     * @param expression the XPath expression
+     * @param node the node to evaluate the expression against
+     * @param returnType the XPathConstants type of the result
+     * @param resolver the resolver for the KEW functions used by the expression, holding the state of this evaluation
+     * @return the result of the evaluation
+     * @throws XPathExpressionException if the expression cannot be compiled or evaluated
+     */
+    public Object evaluate(String attributeName, String expression, Node node, QName returnType,
+            WorkflowFunctionResolver resolver) throws XPathExpressionException {
+        // the length keeps the key unambiguous whatever the characters of the name
+        String key = (attributeName == null ? "" : attributeName.length() + ":" + attributeName) + ":" + expression;
+        XPathExpression compiled = borrow(key, expression);
+
+        WorkflowFunctionResolver previousResolver = CURRENT_RESOLVER.get();
+        CURRENT_RESOLVER.set(resolver);
+        try {
+            return compiled.evaluate(node, returnType);
+        } finally {
+            if (previousResolver == null) {
+                CURRENT_RESOLVER.remove();
+            } else {
+                CURRENT_RESOLVER.set(previousResolver);
+            }
+            release(key, compiled);
+        }
+    }
+
+    private XPathExpression borrow(String key, String expression) throws XPathExpressionException {
+        Queue<XPathExpression> pool = expressions.get(key);
+        XPathExpression compiled = pool == null ? null : pool.poll();
+        if (compiled != null) {
+            return compiled;
+        }
+
+        XPath xpath = XPathFactory.newInstance().newXPath();
+        xpath.setNamespaceContext(new WorkflowNamespaceContext());
+        xpath.setXPathFunctionResolver(DELEGATING_RESOLVER);
+
+        return xpath.compile(expression);
+    }
+
+    private void release(String key, XPathExpression compiled) {
+        if (expressions.getMaxSize() == 0) {
+            return;
+        }
+
+        Queue<XPathExpression> pool = expressions.get(key);
+        if (pool == null) {
+            Queue<XPathExpression> newPool = new ConcurrentLinkedQueue<XPathExpression>();
+            pool = expressions.putIfAbsent(key, newPool);
+            if (pool == null) {
+                pool = newPool;
+            }
+        }
+        pool.offer(compiled);
+    }
+
+    /**
+     * @return maximum number of distinct expressions cached
+     */
+    public int getMaxSize() {
+        return expressions.getMaxSize();
+    }
+
+    /**
+     * @return number of distinct expressions currently cached
+     */
+    public int getSize() {
+        return expressions.size();
+    }
+
+    /**
+     * Removes all cached expressions.
+     */
+    public void clear() {
+        expressions.clear();
+    }
+
+}
@@ -33,6 +33,7 @@ import org.kuali.rice.kew.doctype.service.DocumentSecurityService;
 import org.kuali.rice.kew.doctype.service.DocumentTypePermissionService;
 import org.kuali.rice.kew.doctype.service.DocumentTypeService;
 import org.kuali.rice.kew.documentlink.service.DocumentLinkService;
+import org.kuali.rice.kew.engine.DocumentRoutingLanes;
 import org.kuali.rice.kew.engine.WorkflowEngineFactory;
 import org.kuali.rice.kew.engine.node.service.BranchService;
 import org.kuali.rice.kew.engine.node.service.RouteNodeService;
@@ -48,6 +49,7 @@ import org.kuali.rice.kew.responsibility.service.ResponsibilityIdService;
 import org.kuali.rice.kew.role.service.RoleService;
 import org.kuali.rice.kew.routeheader.service.RouteHeaderService;
 import org.kuali.rice.kew.routeheader.service.WorkflowDocumentService;
+import org.kuali.rice.kew.routelog.FutureRouteLogCache;
 import org.kuali.rice.kew.routemodule.service.RouteModuleService;
 import org.kuali.rice.kew.routemodule.service.RoutingReportService;
 import org.kuali.rice.kew.rule.WorkflowRuleAttributeMediator;
@@ -55,6 +57,7 @@ import org.kuali.rice.kew.rule.service.RuleAttributeService;
 import org.kuali.rice.kew.rule.service.RuleDelegationService;
 import org.kuali.rice.kew.rule.service.RuleServiceInternal;
 import org.kuali.rice.kew.rule.service.RuleTemplateService;
+import org.kuali.rice.kew.rule.xmlrouting.XPathExpressionCache;
 import org.kuali.rice.kew.useroptions.UserOptionsService;
 import org.kuali.rice.kew.validation.RuleValidationAttributeResolver;
 import org.springframework.cache.CacheManager;
@@ -175,6 +178,12 @@ public final class KEWServiceLocator {
 	
 	public static final String WORKFLOW_ENGINE_FACTORY = "workflowEngineFactory";
 
+	public static final String XPATH_EXPRESSION_CACHE = "kewXPathExpressionCache";
+
+	public static final String DOCUMENT_ROUTING_LANES = "kewDocumentRoutingLanes";
+
+	public static final String FUTURE_ROUTE_LOG_CACHE = "kewFutureRouteLogCache";
+
 	public static final String ACTION_LIST_EMAIL_SERVICE = "enActionListEmailService";
 
     public static final String EMAIL_CONTENT_SERVICE = "enEmailContentService";
@@ -325,6 +334,18 @@ public final class KEWServiceLocator {
 		return (WorkflowEngineFactory) getBean(WORKFLOW_ENGINE_FACTORY);
 	}
 
+	public static XPathExpressionCache getXPathExpressionCache() {
+		return (XPathExpressionCache) getBean(XPATH_EXPRESSION_CACHE);
+	}
+
+	public static DocumentRoutingLanes getDocumentRoutingLanes() {
+		return (DocumentRoutingLanes) getBean(DOCUMENT_ROUTING_LANES);
+	}
+
+	public static FutureRouteLogCache getFutureRouteLogCache() {
+		return (FutureRouteLogCache) getBean(FUTURE_ROUTE_LOG_CACHE);
+	}
+
 	public static WorkflowDocumentExceptionRoutingService getExceptionRoutingService() {
 		return (WorkflowDocumentExceptionRoutingService) getBean(EXCEPTION_ROUTING_SERVICE);
 	}
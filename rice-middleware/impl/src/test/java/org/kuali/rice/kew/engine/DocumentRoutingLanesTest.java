@@ -0,0 +1,177 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.engine;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.kuali.rice.core.api.config.property.ConfigContext;
+import org.kuali.rice.core.framework.config.property.SimpleConfig;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link DocumentRoutingLanes}.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class DocumentRoutingLanesTest {
+
+    private ExecutorService otherThread;
+
+    @Before
+    public void setUp() {
+        otherThread = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        otherThread.shutdownNow();
+        ConfigContext.destroy();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testSameDocumentWaits() throws Exception {
+        DocumentRoutingLanes lanes = new DocumentRoutingLanes(16, 60);
+
+        DocumentRoutingLanes.Lane lane = lanes.enter("1001");
+        assertTrue(lane.isHeld());
+
+        // reentrant, as when a document is processed synchronously from within the processing of another
+        DocumentRoutingLanes.Lane nested = lanes.enter("1001");
+        assertTrue(nested.isHeld());
+        nested.leave();
+
+        Future<Boolean> waiting = enterOnOtherThread(lanes, "1001");
+        Thread.sleep(200);
+        assertFalse(waiting.isDone());
+        assertEquals(1, lanes.getQueueLength());
+
+        lane.leave();
+        assertTrue(waiting.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testLeaveAfterTransactionCompletion() throws Exception {
+        DocumentRoutingLanes lanes = new DocumentRoutingLanes(16, 0);
+
+        TransactionSynchronizationManager.initSynchronization();
+        lanes.enter("1001").leave();
+        assertFalse(enterOnOtherThread(lanes, "1001").get(5, TimeUnit.SECONDS));
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertTrue(enterOnOtherThread(lanes, "1001").get(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * A JTA transaction may complete on another thread than the one which entered the lane.
+     */
+    @Test
+    public void testLeaveAfterTransactionCompletionOnOtherThread() throws Exception {
+        DocumentRoutingLanes lanes = new DocumentRoutingLanes(16, 0);
+
+        TransactionSynchronizationManager.initSynchronization();
+        lanes.enter("1001").leave();
+        final List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager
+                .getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        otherThread.submit(new Runnable() {
+            public void run() {
+                for (TransactionSynchronization synchronization : synchronizations) {
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+                }
+            }
+        }).get(5, TimeUnit.SECONDS);
+
+        assertTrue(enterOnOtherThread(lanes, "1001").get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        DocumentRoutingLanes lanes = new DocumentRoutingLanes(1, 0);
+        long timeouts = LockWaitStatistics.ROUTING_LANE.getTimeoutCount();
+
+        DocumentRoutingLanes.Lane lane = lanes.enter("1001");
+        try {
+            // every document shares the single lane
+            assertFalse(enterOnOtherThread(lanes, "2002").get(5, TimeUnit.SECONDS));
+        } finally {
+            lane.leave();
+        }
+
+        assertEquals(timeouts + 1, LockWaitStatistics.ROUTING_LANE.getTimeoutCount());
+        assertTrue(enterOnOtherThread(lanes, "2002").get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        DocumentRoutingLanes lanes = new DocumentRoutingLanes(0, 60);
+
+        DocumentRoutingLanes.Lane lane = lanes.enter("1001");
+        assertFalse(lane.isHeld());
+        assertFalse(enterOnOtherThread(lanes, "1001").get(5, TimeUnit.SECONDS));
+        lane.leave();
+    }
+
+    @Test
+    public void testConfiguredLanes() {
+        SimpleConfig config = new SimpleConfig();
+        config.putProperty(DocumentRoutingLanes.LANES_PARAM, "8");
+        ConfigContext.init(config);
+        assertEquals(8, new DocumentRoutingLanes().getLaneCount());
+
+        // an invalid number falls back to the default
+        config.putProperty(DocumentRoutingLanes.LANES_PARAM, "eight");
+        assertEquals(DocumentRoutingLanes.DEFAULT_LANES, new DocumentRoutingLanes().getLaneCount());
+        config.putProperty(DocumentRoutingLanes.LANES_PARAM, "-8");
+        assertEquals(DocumentRoutingLanes.DEFAULT_LANES, new DocumentRoutingLanes().getLaneCount());
+    }
+
+    /**
+     * Enters and leaves the lane of a document on another thread.
+     *
+     * @return whether the lane was held
+     */
+    private Future<Boolean> enterOnOtherThread(final DocumentRoutingLanes lanes, final String documentId) {
+        return otherThread.submit(new Callable<Boolean>() {
+            public Boolean call() {
+                DocumentRoutingLanes.Lane lane = lanes.enter(documentId);
+                lane.leave();
+                return lane.isHeld();
+            }
+        });
+    }
+
+}
@@ -0,0 +1,175 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.routelog;
+
+import org.junit.After;
+import org.junit.Test;
+import org.kuali.rice.core.api.config.property.ConfigContext;
+import org.kuali.rice.core.framework.config.property.SimpleConfig;
+import org.kuali.rice.kew.actionrequest.ActionRequestValue;
+import org.kuali.rice.kew.api.action.ActionRequestStatus;
+import org.kuali.rice.kew.api.action.RecipientType;
+import org.kuali.rice.kew.api.document.DocumentStatus;
+import org.kuali.rice.kew.engine.node.RouteNodeInstance;
+import org.kuali.rice.kew.routeheader.DocumentRouteHeaderValue;
+import org.kuali.rice.kew.routeheader.DocumentRouteHeaderValueContent;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link FutureRouteLogCache} and {@link FutureRouteLog}.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class FutureRouteLogCacheTest {
+
+    @After
+    public void tearDown() {
+        ConfigContext.destroy();
+    }
+
+    @Test
+    public void testRouteStateAndFlattening() {
+        FutureRouteLogCache cache = new FutureRouteLogCache(10, 0);
+        FutureRouteLog futureRouteLog = FutureRouteLog.fromActionRequests(Collections.<ActionRequestValue>emptyList());
+
+        assertNull(cache.get("1001", false, "state1"));
+        cache.put("1001", false, "state1", futureRouteLog);
+        assertSame(futureRouteLog, cache.get("1001", false, "state1"));
+
+        // simulated with flattened nodes or from another route state
+        assertNull(cache.get("1001", true, "state1"));
+        assertNull(cache.get("1001", false, "state2"));
+
+        // the route simulated from the new state replaces the old one
+        cache.put("1001", false, "state2", futureRouteLog);
+        assertNull(cache.get("1001", false, "state1"));
+        assertEquals(1, cache.getSize());
+    }
+
+    @Test
+    public void testExpiry() throws Exception {
+        FutureRouteLogCache cache = new FutureRouteLogCache(10, 1);
+        FutureRouteLog futureRouteLog = FutureRouteLog.fromActionRequests(Collections.<ActionRequestValue>emptyList());
+
+        cache.put("1001", false, "state", futureRouteLog);
+        assertSame(futureRouteLog, cache.get("1001", false, "state"));
+
+        Thread.sleep(1100);
+        assertNull(cache.get("1001", false, "state"));
+    }
+
+    @Test
+    public void testDisabled() {
+        FutureRouteLogCache cache = new FutureRouteLogCache(0, 0);
+        cache.put("1001", false, "state", FutureRouteLog.fromActionRequests(
+                Collections.<ActionRequestValue>emptyList()));
+
+        assertNull(cache.get("1001", false, "state"));
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void testConfiguredSize() {
+        SimpleConfig config = new SimpleConfig();
+        config.putProperty(FutureRouteLogCache.CACHE_SIZE_PARAM, "50");
+        ConfigContext.init(config);
+        assertEquals(50, new FutureRouteLogCache().getMaxSize());
+
+        // an invalid size falls back to the default
+        config.putProperty(FutureRouteLogCache.CACHE_SIZE_PARAM, "1,000");
+        assertEquals(FutureRouteLogCache.DEFAULT_MAX_SIZE, new FutureRouteLogCache().getMaxSize());
+        config.putProperty(FutureRouteLogCache.CACHE_SIZE_PARAM, "-1");
+        assertEquals(FutureRouteLogCache.DEFAULT_MAX_SIZE, new FutureRouteLogCache().getMaxSize());
+    }
+
+    @Test
+    public void testRouteStateChangesWhenDocumentMoves() {
+        DocumentRouteHeaderValue routeHeader = new DocumentRouteHeaderValue();
+        routeHeader.setVersionNumber(Long.valueOf(3));
+        routeHeader.setDocRouteStatus(DocumentStatus.ENROUTE.getCode());
+        routeHeader.setDocumentContent(new DocumentRouteHeaderValueContent());
+        routeHeader.setDocContent("<documentContent><applicationContent/></documentContent>");
+        ActionRequestValue actionRequest = newPrincipalRequest("2001", "user1");
+        List<ActionRequestValue> actionRequests = Arrays.asList(actionRequest);
+        List<RouteNodeInstance> nodeInstances = Arrays.asList(newNodeInstance("3001"));
+
+        String routeState = FutureRouteLogCache.describeRouteState(routeHeader, actionRequests, nodeInstances);
+        assertEquals(routeState, FutureRouteLogCache.describeRouteState(routeHeader, actionRequests, nodeInstances));
+
+        // request activated
+        actionRequest.setStatus(ActionRequestStatus.ACTIVATED.getCode());
+        String activatedState = FutureRouteLogCache.describeRouteState(routeHeader, actionRequests, nodeInstances);
+        assertNotEquals(routeState, activatedState);
+
+        // transitioned to the next node
+        assertNotEquals(activatedState, FutureRouteLogCache.describeRouteState(routeHeader, actionRequests,
+                Arrays.asList(newNodeInstance("3002"))));
+
+        // content saved, which leaves the route header as it was
+        routeHeader.setDocContent("<documentContent><applicationContent><amount>10</amount></applicationContent>"
+                + "</documentContent>");
+        String savedContentState = FutureRouteLogCache.describeRouteState(routeHeader, actionRequests, nodeInstances);
+        assertNotEquals(activatedState, savedContentState);
+
+        // route header saved
+        routeHeader.setVersionNumber(Long.valueOf(4));
+        assertNotEquals(savedContentState, FutureRouteLogCache.describeRouteState(routeHeader, actionRequests,
+                nodeInstances));
+    }
+
+    @Test
+    public void testFutureRouteLog() {
+        ActionRequestValue roleRequest = new ActionRequestValue();
+        roleRequest.setRecipientTypeCd(RecipientType.ROLE.getCode());
+        roleRequest.setChildrenRequests(Arrays.asList(newPrincipalRequest("2002", "user2")));
+
+        FutureRouteLog futureRouteLog = FutureRouteLog.fromActionRequests(Arrays.asList(
+                newPrincipalRequest("2001", "user1"), roleRequest));
+
+        assertEquals(Collections.singleton("user1"), futureRouteLog.getRequestPrincipalIds());
+        assertTrue(futureRouteLog.getRequestGroupIds().isEmpty());
+        assertTrue(futureRouteLog.isPrincipalRouted("user1"));
+        assertTrue(futureRouteLog.isPrincipalRouted("user2"));
+        assertFalse(futureRouteLog.isPrincipalRouted("user3"));
+    }
+
+    private ActionRequestValue newPrincipalRequest(String actionRequestId, String principalId) {
+        ActionRequestValue actionRequest = new ActionRequestValue();
+        actionRequest.setActionRequestId(actionRequestId);
+        actionRequest.setRecipientTypeCd(RecipientType.PRINCIPAL.getCode());
+        actionRequest.setPrincipalId(principalId);
+        actionRequest.setStatus(ActionRequestStatus.INITIALIZED.getCode());
+        actionRequest.setCurrentIndicator(Boolean.TRUE);
+        return actionRequest;
+    }
+
+    private RouteNodeInstance newNodeInstance(String routeNodeInstanceId) {
+        RouteNodeInstance nodeInstance = new RouteNodeInstance();
+        nodeInstance.setRouteNodeInstanceId(routeNodeInstanceId);
+        return nodeInstance;
+    }
+
+}
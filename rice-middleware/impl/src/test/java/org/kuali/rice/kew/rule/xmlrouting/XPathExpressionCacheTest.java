@@ -0,0 +1,137 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.rule.xmlrouting;
+
+import org.junit.After;
+import org.junit.Test;
+import org.kuali.rice.core.api.config.property.ConfigContext;
+import org.kuali.rice.core.framework.config.property.SimpleConfig;
+import org.kuali.rice.kew.api.extension.ExtensionDefinition;
+import org.kuali.rice.kew.api.rule.RuleExtension;
+import org.kuali.rice.kew.api.rule.RuleTemplateAttribute;
+import org.kuali.rice.kew.routeheader.StandardDocumentContent;
+import org.w3c.dom.Document;
+
+import javax.xml.xpath.XPathConstants;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for {@link XPathExpressionCache}.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class XPathExpressionCacheTest {
+
+    private static final String CONTENT = "<documentContent><attributeContent><field name=\"color\">"
+            + "<value>green</value></field></attributeContent></documentContent>";
+    private static final String EXPRESSION = "//field[@name='color']/value = wf:ruledata('color')";
+
+    @After
+    public void tearDown() {
+        ConfigContext.destroy();
+    }
+
+    /**
+     * A cached expression uses the function resolver of the evaluation, not the one it was first evaluated with.
+     */
+    @Test
+    public void testResolverPerEvaluation() throws Exception {
+        XPathExpressionCache cache = new XPathExpressionCache(10);
+        Document document = new StandardDocumentContent(CONTENT).getDocument();
+
+        assertEquals(Boolean.TRUE, cache.evaluate("attribute1", EXPRESSION, document, XPathConstants.BOOLEAN,
+                newResolver(document, "green")));
+        assertEquals(Boolean.FALSE, cache.evaluate("attribute1", EXPRESSION, document, XPathConstants.BOOLEAN,
+                newResolver(document, "red")));
+        assertEquals(Boolean.TRUE, cache.evaluate("attribute2", EXPRESSION, document, XPathConstants.BOOLEAN,
+                newResolver(document, "green")));
+        assertEquals(2, cache.getSize());
+    }
+
+    /**
+     * Concurrent evaluations of the same expression each borrow their own compiled expression, so none of them sees
+     * the resolver of another.
+     */
+    @Test
+    public void testConcurrentEvaluations() throws Exception {
+        final XPathExpressionCache cache = new XPathExpressionCache(10);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+            for (int i = 0; i < 400; i++) {
+                final String color = i % 2 == 0 ? "green" : "red";
+                results.add(executor.submit(new Callable<Boolean>() {
+                    public Boolean call() throws Exception {
+                        Document document = new StandardDocumentContent(CONTENT).getDocument();
+                        return (Boolean) cache.evaluate("attribute1", EXPRESSION, document, XPathConstants.BOOLEAN,
+                                newResolver(document, color));
+                    }
+                }));
+            }
+
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(Boolean.valueOf(i % 2 == 0), results.get(i).get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, cache.getSize());
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        XPathExpressionCache cache = new XPathExpressionCache(0);
+        Document document = new StandardDocumentContent(CONTENT).getDocument();
+
+        assertEquals(Boolean.TRUE, cache.evaluate("attribute1", EXPRESSION, document, XPathConstants.BOOLEAN,
+                newResolver(document, "green")));
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void testConfiguredSize() {
+        SimpleConfig config = new SimpleConfig();
+        config.putProperty(XPathExpressionCache.CACHE_SIZE_PARAM, "50");
+        ConfigContext.init(config);
+        assertEquals(50, new XPathExpressionCache().getMaxSize());
+
+        // an invalid size falls back to the default
+        config.putProperty(XPathExpressionCache.CACHE_SIZE_PARAM, "many");
+        assertEquals(XPathExpressionCache.DEFAULT_MAX_SIZE, new XPathExpressionCache().getMaxSize());
+        config.putProperty(XPathExpressionCache.CACHE_SIZE_PARAM, "-5");
+        assertEquals(XPathExpressionCache.DEFAULT_MAX_SIZE, new XPathExpressionCache().getMaxSize());
+    }
+
+    private WorkflowFunctionResolver newResolver(Document document, String color) {
+        RuleExtension.Builder extension = RuleExtension.Builder.create(RuleTemplateAttribute.Builder.create(
+                "ruleTemplateId1", ExtensionDefinition.Builder.create("attribute1", "RuleAttribute", "noClass"), false,
+                Integer.valueOf(1)));
+        extension.setExtensionValuesMap(Collections.singletonMap("color", color));
+
+        WorkflowFunctionResolver resolver = XPathHelper.extractFunctionResolver(XPathHelper.newXPath(document));
+        resolver.setRuleExtensions(Collections.singletonList(extension.build()));
+        return resolver;
+    }
+
+}
@@ -0,0 +1,132 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.rule.xmlrouting;
+
+import org.kuali.rice.kew.api.KewApiConstants;
+import org.kuali.rice.kew.api.extension.ExtensionDefinition;
+import org.kuali.rice.kew.api.rule.RuleExtension;
+import org.kuali.rice.kew.api.rule.RuleTemplateAttribute;
+import org.kuali.rice.kew.engine.RouteContext;
+import org.kuali.rice.kew.routeheader.StandardDocumentContent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of routing a document through a rule template with hundreds of rules on a
+ * {@link StandardGenericXMLRuleAttribute}, with and without an {@link XPathExpressionCache}.
+ *
+ * <p>This is not a unit test; run it with {@link #main(String[])} from the test classpath.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class XmlRuleRoutingBenchmark {
+
+    private static final int RULES = 300;
+
+    private static final String ATTRIBUTE_NAME = "BenchmarkRuleAttribute";
+
+    private static final String DOCUMENT_CONTENT = "<documentContent><attributeContent><xmlContent>"
+            + "<fieldDef name=\"color\"><value>green</value></fieldDef>"
+            + "<fieldDef name=\"totalDollar\"><value>500</value></fieldDef>"
+            + "</xmlContent></attributeContent></documentContent>";
+
+    private static final String ROUTING_CONFIG = "<routingConfig>"
+            + "<globalEvaluations><xpathexpression>//fieldDef/value != 'Nothing'</xpathexpression></globalEvaluations>"
+            + "<fieldDef name=\"color\" title=\"Color\" workflowType=\"ALL\"><display><type>text</type></display>"
+            + "<fieldEvaluation><xpathexpression>//xmlContent/fieldDef[@name='color']/value = wf:ruledata('color')"
+            + "</xpathexpression></fieldEvaluation></fieldDef>"
+            + "<fieldDef name=\"minDollar\" title=\"Min dollar\" workflowType=\"RULE\"><display><type>text</type>"
+            + "</display><fieldEvaluation><xpathexpression>//xmlContent/fieldDef[@name='totalDollar']/value &gt;= "
+            + "wf:ruledata('minDollar')</xpathexpression></fieldEvaluation></fieldDef>"
+            + "</routingConfig>";
+
+    @Param({"true", "false"})
+    public boolean cacheExpressions;
+
+    private StandardGenericXMLRuleAttribute attribute;
+    private List<List<RuleExtension>> rules;
+
+    @Setup
+    public void setUp() {
+        Map<String, String> configuration = new HashMap<String, String>();
+        configuration.put(KewApiConstants.ATTRIBUTE_XML_CONFIG_DATA, ROUTING_CONFIG);
+        ExtensionDefinition.Builder extensionDefinition = ExtensionDefinition.Builder.create(ATTRIBUTE_NAME,
+                "RuleAttribute", StandardGenericXMLRuleAttribute.class.getName());
+        extensionDefinition.setConfiguration(configuration);
+
+        attribute = new StandardGenericXMLRuleAttribute();
+        attribute.setExtensionDefinition(extensionDefinition.build());
+        attribute.setEvaluateForMissingExtensions(true);
+        attribute.setExpressionCache(new XPathExpressionCache(
+                cacheExpressions ? XPathExpressionCache.DEFAULT_MAX_SIZE : 0));
+
+        String[] colors = {"red", "green", "blue"};
+        rules = new ArrayList<List<RuleExtension>>();
+        for (int i = 0; i < RULES; i++) {
+            RuleExtension.Builder extension = RuleExtension.Builder.create(RuleTemplateAttribute.Builder.create(
+                    "ruleTemplateId1", ExtensionDefinition.Builder.create(extensionDefinition.build()), false,
+                    Integer.valueOf(1)));
+            Map<String, String> values = new HashMap<String, String>();
+            values.put("color", colors[i % colors.length]);
+            values.put("minDollar", String.valueOf(i * 5));
+            extension.setExtensionValuesMap(values);
+            rules.add(Collections.singletonList(extension.build()));
+        }
+    }
+
+    @Benchmark
+    public int routeDocument() {
+        StandardDocumentContent documentContent = new StandardDocumentContent(DOCUMENT_CONTENT, new RouteContext());
+
+        int matches = 0;
+        for (List<RuleExtension> ruleExtensions : rules) {
+            if (attribute.isMatch(documentContent, ruleExtensions)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(XmlRuleRoutingBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
@@ -0,0 +1,269 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ken.services.impl;
+
+import org.kuali.rice.ken.bo.NotificationMessageDelivery;
+import org.kuali.rice.ken.core.SpringNotificationServiceLocator;
+import org.kuali.rice.ken.deliverer.BulkNotificationMessageDeliverer;
+import org.kuali.rice.ken.service.NotificationRecipientService;
+import org.kuali.rice.ken.service.NotificationWorkflowDocumentService;
+import org.kuali.rice.ken.service.ProcessingResult;
+import org.kuali.rice.ken.service.impl.NotificationMessageDeliveryResolverServiceImpl;
+import org.kuali.rice.ken.test.KENTestCase;
+import org.kuali.rice.ken.test.TestConstants;
+import org.kuali.rice.ken.util.NotificationConstants;
+import org.kuali.rice.ken.util.Util;
+import org.kuali.rice.kim.api.services.KimApiServiceLocator;
+import org.kuali.rice.krad.service.KRADServiceLocator;
+import org.kuali.rice.test.BaselineTestCase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Collection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares the time taken to resolve a notification sent to a group of 10,000 members one recipient at a time and in
+ * bulk.
+ *
+ * <p>
+ * With the {@code stubbed} delivery no workflow documents are created, which measures the work done by KEN itself.
+ * With the {@code kew} delivery a workflow document is created and ad hoc routed for each recipient, as the
+ * {@link org.kuali.rice.ken.deliverer.impl.KEWActionListMessageDeliverer} does; since the group members are not KIM
+ * principals, the documents are routed to the test users in turn.  Each iteration starts the KEN test harness on a
+ * clean database and resolves its pending notifications once.
+ * </p>
+ *
+ * <p>This is not a unit test; run it with {@link #main(String[])} from the test classpath.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class NotificationBulkResolutionBenchmark {
+
+    private static final int GROUP_SIZE = 10000;
+
+    @Param({"oneAtATime", "bulk"})
+    public String resolution;
+
+    @Param({"stubbed", "kew"})
+    public String delivery;
+
+    private ExecutorService executor;
+    private Harness harness;
+    private BenchmarkResolverService resolver;
+
+    @Setup
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(5);
+    }
+
+    @Setup(Level.Iteration)
+    public void startHarness() throws Exception {
+        harness = new Harness();
+        harness.setName("resolve");
+        harness.setTestMethod(NotificationBulkResolutionBenchmark.class.getMethod("resolve"));
+        harness.setUp();
+
+        SpringNotificationServiceLocator services = harness.getServices();
+        BulkNotificationMessageDeliverer deliverer = "kew".equals(delivery) ?
+                new TestUserActionListDeliverer(services.getNotificationWorkflowDocumentService()) :
+                new StubbedDeliverer();
+        resolver = new BenchmarkResolverService(services,
+                new LargeGroupRecipientService(services.getNotificationRecipientService()),
+                harness.getTransactionManager(), executor, deliverer);
+        resolver.setBulkDeliveryThreshold("bulk".equals(resolution) ?
+                NotificationMessageDeliveryResolverServiceImpl.DEFAULT_BULK_DELIVERY_THRESHOLD : 0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void stopHarness() throws Exception {
+        harness.tearDown();
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public ProcessingResult resolve() {
+        ProcessingResult result = resolver.resolveNotificationMessageDeliveries();
+        if (result.getSuccesses().size() < GROUP_SIZE) {
+            throw new IllegalStateException("Resolved " + result.getSuccesses().size()
+                    + " message deliveries, expected " + GROUP_SIZE);
+        }
+
+        return result;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(NotificationBulkResolutionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    /**
+     * KEN test harness, started outside of JUnit for each iteration.
+     */
+    @BaselineTestCase.BaselineMode(BaselineTestCase.Mode.CLEAR_DB)
+    private static class Harness extends KENTestCase {
+
+        SpringNotificationServiceLocator getServices() {
+            return services;
+        }
+
+        PlatformTransactionManager getTransactionManager() {
+            return transactionManager;
+        }
+    }
+
+    private static class BenchmarkResolverService extends NotificationMessageDeliveryResolverServiceImpl {
+
+        private final BulkNotificationMessageDeliverer deliverer;
+
+        BenchmarkResolverService(SpringNotificationServiceLocator services,
+                NotificationRecipientService recipientService, PlatformTransactionManager transactionManager,
+                ExecutorService executor, BulkNotificationMessageDeliverer deliverer) {
+            super(services.getNotificationService(), recipientService, KRADServiceLocator.getDataObjectService(),
+                    transactionManager, executor);
+            this.deliverer = deliverer;
+        }
+
+        @Override
+        protected BulkNotificationMessageDeliverer createMessageDeliverer() {
+            return deliverer;
+        }
+    }
+
+    /**
+     * Deliverer which only assigns a delivery system id, so that no workflow documents are created.
+     */
+    private static class StubbedDeliverer implements BulkNotificationMessageDeliverer {
+
+        private final AtomicLong deliverySystemIds = new AtomicLong();
+
+        public void deliverMessage(Collection<NotificationMessageDelivery> messageDeliveries) {
+            for (NotificationMessageDelivery messageDelivery : messageDeliveries) {
+                deliverMessage(messageDelivery);
+            }
+        }
+
+        public void deliverMessage(NotificationMessageDelivery messageDelivery) {
+            messageDelivery.setDeliverySystemId(String.valueOf(deliverySystemIds.incrementAndGet()));
+        }
+
+        public void autoRemoveMessageDelivery(Collection<NotificationMessageDelivery> messageDeliveries) {
+        }
+
+        public void autoRemoveMessageDelivery(NotificationMessageDelivery messageDelivery) {
+        }
+
+        public void dismissMessageDelivery(NotificationMessageDelivery messageDelivery, String user, String cause) {
+        }
+    }
+
+    /**
+     * Deliverer which creates and ad hoc routes a workflow document for each message delivery, as the KEW action list
+     * deliverer does, with the test users in turn as the recipients.
+     */
+    private static class TestUserActionListDeliverer extends StubbedDeliverer {
+
+        private static final String[] TEST_USERS = {TestConstants.TEST_USER_ONE, TestConstants.TEST_USER_TWO,
+                TestConstants.TEST_USER_THREE, TestConstants.TEST_USER_FOUR, TestConstants.TEST_USER_FIVE,
+                TestConstants.TEST_USER_SIX};
+
+        private final NotificationWorkflowDocumentService workflowDocumentService;
+        private final String[] principalIds = new String[TEST_USERS.length];
+        private final AtomicInteger deliveries = new AtomicInteger();
+
+        TestUserActionListDeliverer(NotificationWorkflowDocumentService workflowDocumentService) {
+            this.workflowDocumentService = workflowDocumentService;
+            for (int i = 0; i < TEST_USERS.length; i++) {
+                principalIds[i] = KimApiServiceLocator.getIdentityService().getPrincipalByPrincipalName(
+                        TEST_USERS[i]).getPrincipalId();
+            }
+        }
+
+        @Override
+        public void deliverMessage(NotificationMessageDelivery messageDelivery) {
+            String principalId = principalIds[deliveries.getAndIncrement() % principalIds.length];
+            messageDelivery.setDeliverySystemId(workflowDocumentService.createAndAdHocRouteNotificationWorkflowDocument(
+                    messageDelivery, Util.getNotificationSystemUser(), principalId,
+                    NotificationConstants.KEW_CONSTANTS.GENERIC_DELIVERY_ANNOTATION));
+        }
+    }
+
+    /**
+     * Recipient service for which every group has {@link #GROUP_SIZE} members.
+     */
+    private static class LargeGroupRecipientService implements NotificationRecipientService {
+
+        private final NotificationRecipientService delegate;
+
+        LargeGroupRecipientService(NotificationRecipientService delegate) {
+            this.delegate = delegate;
+        }
+
+        public String[] getGroupMembers(String groupRecipientId) {
+            String[] members = new String[GROUP_SIZE];
+            for (int i = 0; i < GROUP_SIZE; i++) {
+                members[i] = "member" + i;
+            }
+            return members;
+        }
+
+        public boolean isRecipientValid(String recipientId, String recipientType) {
+            return delegate.isRecipientValid(recipientId, recipientType);
+        }
+
+        public boolean isUserRecipientValid(String userRecipientId) {
+            return delegate.isUserRecipientValid(userRecipientId);
+        }
+
+        public boolean isGroupRecipientValid(String groupRecipientId) {
+            return delegate.isGroupRecipientValid(groupRecipientId);
+        }
+
+        public String getUserDisplayName(String userId) {
+            return delegate.getUserDisplayName(userId);
+        }
+    }
+
+}
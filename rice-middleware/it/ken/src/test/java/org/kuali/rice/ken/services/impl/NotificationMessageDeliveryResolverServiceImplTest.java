@@ -130,6 +130,33 @@ public class NotificationMessageDeliveryResolverServiceImplTest extends KENTestC
         assertProcessResults();
     }
 
+    /**
+     * Test resolution of notifications in bulk
+     * This resolves the same notifications as testResolveNotificationMessageDeliveries, delivering to the recipients
+     * of notification #4 in chunks of two, and should give the same results.
+     */
+    @Test
+    public void testResolveNotificationMessageDeliveriesInBulk() throws Exception {
+        TestNotificationMessageDeliveryResolverService nSvc = getResolverService();
+        nSvc.setBulkDeliveryThreshold(1);
+        nSvc.setBulkDeliveryChunkSize(2);
+
+        ProcessingResult result = nSvc.resolveNotificationMessageDeliveries();
+
+        assertEquals(EXPECTED_SUCCESSES, result.getSuccesses().size());
+
+        assertProcessResults();
+
+        QueryByCriteria.Builder criteria = QueryByCriteria.Builder.create();
+        criteria.setPredicates(equal(NotificationConstants.BO_PROPERTY_NAMES.NOTIFICATION + ".id", Long.valueOf(4)));
+        Collection<NotificationMessageDelivery> deliveries = KRADServiceLocator.getDataObjectService().findMatching(
+                NotificationMessageDelivery.class, criteria.build()).getResults();
+        assertEquals(EXPECTED_SUCCESSES, deliveries.size());
+        for (NotificationMessageDelivery delivery : deliveries) {
+            assertEquals(NotificationConstants.MESSAGE_DELIVERY_STATUS.DELIVERED, delivery.getMessageDeliveryStatus());
+            assertNotNull(delivery.getDeliverySystemId());
+        }
+    }
 
     /**
      * Test concurrent resolution of notifications
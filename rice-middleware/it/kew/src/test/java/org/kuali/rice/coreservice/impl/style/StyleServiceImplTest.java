@@ -150,6 +150,28 @@ public class StyleServiceImplTest extends KEWTestCase {
         assertEquals("CCCCC", w.toString());
     }
 
+    /**
+     * Tests that a compiled style is reused until the style is saved again.
+     */
+    @Test public void testCompiledStyleCaching() throws Exception {
+        loadXmlFile("style.xml");
+
+        StyleService styleService = CoreServiceApiServiceLocator.getStyleService();
+        Templates templates = styleService.getStyleAsTranslet("test_importer");
+        assertNotNull(templates);
+        assertSame("The compiled style should have been cached.", templates, styleService.getStyleAsTranslet("test_importer"));
+
+        // saving a style flushes the compiled styles, including those which import it
+        Style style = styleService.getStyle("test_imported");
+        styleService.saveStyle(Style.Builder.create(style).build());
+        Templates recompiled = styleService.getStyleAsTranslet("test_importer");
+        assertNotSame("The style should have been compiled again after the save.", templates, recompiled);
+
+        Writer w = new StringWriter();
+        recompiled.newTransformer().transform(new StreamSource(new StringReader("<a/>")), new StreamResult(w));
+        assertEquals("aaaaa", w.toString());
+    }
+
     @Test public void testLoadBadDefinition() throws FileNotFoundException {
         XmlLoader xmlLoader = CoreServiceImplServiceLocator.getStyleXmlLoader();
         try {
@@ -17,6 +17,8 @@ package org.kuali.rice.edl.impl;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Map;
@@ -68,6 +70,23 @@ public class EDLControllerTest extends KEWTestCase {
 
 	}
 
+	@Test public void testEDLControllersHaveTheirOwnConfigElements() throws Exception {
+		ConfigContext.getCurrentContextConfig().putProperty(Config.EDL_CONFIG_LOCATION, "classpath:org/kuali/rice/kew/edl/TestEDLConfig.xml");
+
+		EDLController edlController1 = getEDLService().getEDLControllerUsingEdlName("FakeyEDL");
+		EDLController edlController2 = getEDLService().getEDLControllerUsingEdlName("FakeyEDL");
+		assertEquals("Controllers should have the same config processors", edlController1.getConfigProcessors().size(), edlController2.getConfigProcessors().size());
+
+		Element configElement1 = (Element) edlController1.getConfigProcessors().keySet().iterator().next();
+		Element configElement2 = (Element) edlController2.getConfigProcessors().keySet().iterator().next();
+		assertNotSame("Config elements should not be shared between controllers", configElement1, configElement2);
+		assertSame("Config element should belong to the controller's dom", edlController1.getDefaultDOM(), configElement1.getOwnerDocument());
+		assertSame("Config element should belong to the controller's dom", edlController2.getDefaultDOM(), configElement2.getOwnerDocument());
+
+		Element stateElement = (Element) edlController1.getStateComponents().keySet().iterator().next();
+		assertSame("State element should belong to the controller's dom", edlController1.getDefaultDOM(), stateElement.getOwnerDocument());
+	}
+
 	private EDLContext getEDLcontext() {
 		EDLContext edlContext = new EDLContext();
 		edlContext.setRequestParser(new RequestParser(new MockHttpServletRequest()));
@@ -0,0 +1,122 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.edl.impl;
+
+import org.kuali.rice.core.api.CoreConstants;
+import org.kuali.rice.core.api.config.property.Config;
+import org.kuali.rice.core.api.config.property.ConfigContext;
+import org.kuali.rice.core.api.resourceloader.GlobalResourceLoader;
+import org.kuali.rice.coreservice.api.style.Style;
+import org.kuali.rice.edl.impl.service.EdlServiceLocator;
+import org.kuali.rice.kew.test.KEWTestCase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.cache.CacheManager;
+
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the latency of rendering an EDL page with the compiled style cached and with the style compiled for every
+ * page.
+ *
+ * <p>The KEW test harness is started once for each trial, with the EDL test data loaded.</p>
+ *
+ * <p>This is not a unit test; run it with {@link #main(String[])} from the test classpath.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class EDLRenderBenchmark {
+
+    @Param({"cached", "compiled"})
+    public String style;
+
+    private Harness harness;
+    private CacheManager cacheManager;
+
+    @Setup
+    public void setUp() throws Exception {
+        harness = new Harness();
+        harness.setName("renderPage");
+        harness.setTestMethod(EDLRenderBenchmark.class.getMethod("renderPage"));
+        harness.setUp();
+
+        ConfigContext.getCurrentContextConfig().putProperty(Config.EDL_CONFIG_LOCATION,
+                "classpath:org/kuali/rice/kew/edl/TestEDLConfig.xml");
+        cacheManager = GlobalResourceLoader.getService(CoreConstants.CORE_SERVICE_DISTRIBUTED_CACHE);
+        if (renderPage() == 0) {
+            throw new IllegalStateException("EDL page rendered empty");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        harness.tearDown();
+    }
+
+    @Benchmark
+    public int renderPage() throws Exception {
+        if ("compiled".equals(style)) {
+            cacheManager.getCache(Style.Cache.NAME).clear();
+        }
+
+        EDLController edlController = EdlServiceLocator.getEDocLiteService().getEDLControllerUsingEdlName("FakeyEDL");
+        StringWriter page = new StringWriter();
+        edlController.getStyle().newTransformer().transform(new DOMSource(edlController.getDefaultDOM()),
+                new StreamResult(page));
+
+        return page.getBuffer().length();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EDLRenderBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /**
+     * KEW test harness with the EDL test data, started outside of JUnit.
+     */
+    private static class Harness extends KEWTestCase {
+
+        @Override
+        protected void loadTestData() throws Exception {
+            loadXmlFile("widgets.xml");
+            loadXmlFile("edlstyle.xml");
+            loadXmlFile("FakeyEDL.xml");
+        }
+    }
+
+}
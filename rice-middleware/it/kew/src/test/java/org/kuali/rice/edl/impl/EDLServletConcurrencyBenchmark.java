@@ -0,0 +1,126 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.edl.impl;
+
+import org.kuali.rice.core.api.config.property.Config;
+import org.kuali.rice.core.api.config.property.ConfigContext;
+import org.kuali.rice.kew.test.KEWTestCase;
+import org.kuali.rice.kew.test.web.WorkflowServletRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletConfig;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of {@link EDLServlet} serving new EDL pages from one thread and from several threads at
+ * once, to show how well controller creation scales with concurrent requests for the same EDL.
+ *
+ * <p>The KEW test harness is started once for each trial, with the EDL test data loaded.</p>
+ *
+ * <p>This is not a unit test; run it with {@link #main(String[])} from the test classpath.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class EDLServletConcurrencyBenchmark {
+
+    private Harness harness;
+    private EDLServlet servlet;
+
+    @Setup
+    public void setUp() throws Exception {
+        harness = new Harness();
+        harness.setName("servePage");
+        harness.setTestMethod(EDLServletConcurrencyBenchmark.class.getMethod("servePage"));
+        harness.setUp();
+
+        ConfigContext.getCurrentContextConfig().putProperty(Config.EDL_CONFIG_LOCATION,
+                "classpath:org/kuali/rice/kew/edl/TestEDLConfig.xml");
+        servlet = new EDLServlet();
+        servlet.init(new MockServletConfig());
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        harness.tearDown();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public MockHttpServletResponse serveFromOneThread() throws Exception {
+        return servePage();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public MockHttpServletResponse serveFromEightThreads() throws Exception {
+        return servePage();
+    }
+
+    public MockHttpServletResponse servePage() throws Exception {
+        WorkflowServletRequest request = new WorkflowServletRequest("user1");
+        request.setMethod("GET");
+        request.addParameter("edlName", "FakeyEDL");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        servlet.service(request, response);
+
+        // errors are forwarded to the incident report rather than thrown
+        if (response.getForwardedUrl() != null) {
+            throw new IllegalStateException("EDL page failed, forwarded to " + response.getForwardedUrl());
+        }
+
+        return response;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EDLServletConcurrencyBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /**
+     * KEW test harness with the EDL test data, started outside of JUnit.
+     */
+    private static class Harness extends KEWTestCase {
+
+        @Override
+        protected void loadTestData() throws Exception {
+            loadXmlFile("widgets.xml");
+            loadXmlFile("edlstyle.xml");
+            loadXmlFile("FakeyEDL.xml");
+        }
+    }
+
+}
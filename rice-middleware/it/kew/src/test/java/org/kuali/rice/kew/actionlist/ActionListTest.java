@@ -31,6 +31,7 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -225,6 +226,36 @@ public class ActionListTest extends KEWTestCase {
         });
     }
 
+    /**
+     * Tests that the action lists read for several users at once match their unfiltered action lists.
+     */
+    @Test public void testGetActionLists() throws Exception {
+        WorkflowDocument document = WorkflowDocumentFactory.createDocument(getPrincipalIdForName("jhopf"), "ActionListDocumentType");
+        document.route("");
+
+        List<String> principalIds = new ArrayList<String>();
+        for (String principalName : new String[] {"bmcgough", "rkirkend", "ewestfal", "jitrue", "user1", "jhopf"}) {
+            principalIds.add(getPrincipalIdForName(principalName));
+        }
+
+        Map<String, Collection<ActionItem>> actionLists = getActionListService().getActionLists(principalIds);
+        for (String principalId : principalIds) {
+            Collection<ActionItem> actionList = getActionListService().getActionList(principalId, null);
+            if (actionList.isEmpty()) {
+                assertFalse("Empty action lists should not be included.", actionLists.containsKey(principalId));
+            } else {
+                assertEquals("Wrong action list for " + principalId, actionList.size(), actionLists.get(principalId).size());
+                for (ActionItem actionItem : actionLists.get(principalId)) {
+                    assertEquals(principalId, actionItem.getPrincipalId());
+                }
+            }
+        }
+        // user1 has both an acknowledge and an approve on the document, only the approve is in the action list
+        assertEquals(1, actionLists.get(getPrincipalIdForName("user1")).size());
+        assertEquals(KewApiConstants.ACTION_REQUEST_APPROVE_REQ,
+                actionLists.get(getPrincipalIdForName("user1")).iterator().next().getActionRequestCd());
+    }
+
     /**
      * Tests that the user's secondary action list works appropriately.  Also checks that if a user
      * is their own secondary delegate, their request shows up in their main action list rather than
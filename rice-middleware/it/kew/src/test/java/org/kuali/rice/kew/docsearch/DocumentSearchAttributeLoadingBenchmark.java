@@ -0,0 +1,165 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.docsearch;
+
+import org.kuali.rice.kew.api.WorkflowDocument;
+import org.kuali.rice.kew.api.WorkflowDocumentFactory;
+import org.kuali.rice.kew.api.document.Document;
+import org.kuali.rice.kew.api.document.search.DocumentSearchResult;
+import org.kuali.rice.kew.impl.document.search.DocumentSearchGeneratorImpl;
+import org.kuali.rice.kew.test.KEWTestCase;
+import org.kuali.rice.kim.api.services.KimApiServiceLocator;
+import org.kuali.rice.test.TestHarnessServiceLocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the latency of loading the searchable attribute values of a page of document search results with one
+ * query for the page and with one query per result, as {@link DocumentSearchGeneratorImpl} does for subclasses
+ * overriding its per-row hook.
+ *
+ * <p>The KEW test harness is started once for each trial, and a page of documents with searchable attributes is
+ * routed before measuring.</p>
+ *
+ * <p>This is not a unit test; run it with {@link #main(String[])} from the test classpath.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class DocumentSearchAttributeLoadingBenchmark {
+
+    private static final String DOCUMENT_TYPE_NAME = "SearchDocType";
+
+    @Param({"perRow", "batched"})
+    public String loading;
+
+    @Param({"50"})
+    public int pageSize;
+
+    private Harness harness;
+    private String principalId;
+    private List<String> documentIds;
+    private DocumentSearchGeneratorImpl generator;
+    private Connection connection;
+    private Statement statement;
+
+    @Setup
+    public void setUp() throws Exception {
+        harness = new Harness();
+        harness.setName("loadAttributes");
+        harness.setTestMethod(DocumentSearchAttributeLoadingBenchmark.class.getMethod("loadAttributes"));
+        harness.setUp();
+
+        principalId = KimApiServiceLocator.getIdentityService().getPrincipalByPrincipalName("rkirkend")
+                .getPrincipalId();
+        documentIds = new ArrayList<String>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            WorkflowDocument document = WorkflowDocumentFactory.createDocument(principalId, DOCUMENT_TYPE_NAME);
+            document.setTitle("Attribute loading " + i);
+            document.route("");
+            documentIds.add(document.getDocumentId());
+        }
+
+        generator = new DocumentSearchGeneratorImpl();
+        connection = TestHarnessServiceLocator.getDataSource().getConnection();
+        statement = connection.createStatement();
+        if (loadAttributes() < pageSize) {
+            throw new IllegalStateException("Searchable attributes were not loaded for every document");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        try {
+            statement.close();
+            connection.close();
+        } finally {
+            harness.tearDown();
+        }
+    }
+
+    /**
+     * Loads the searchable attributes of the page.
+     *
+     * @return number of attribute values loaded
+     */
+    @Benchmark
+    public int loadAttributes() throws Exception {
+        Map<String, DocumentSearchResult.Builder> results =
+                new LinkedHashMap<String, DocumentSearchResult.Builder>(pageSize * 2);
+        for (String documentId : documentIds) {
+            Document.Builder document = Document.Builder.create(documentId, principalId, DOCUMENT_TYPE_NAME, "1");
+            results.put(documentId, DocumentSearchResult.Builder.create(document));
+        }
+
+        if ("batched".equals(loading)) {
+            generator.populateDocumentAttributesValues(results, statement);
+        } else {
+            for (DocumentSearchResult.Builder result : results.values()) {
+                generator.populateDocumentAttributesValues(result, statement);
+            }
+        }
+
+        int attributeCount = 0;
+        for (DocumentSearchResult.Builder result : results.values()) {
+            attributeCount += result.getDocumentAttributes().size();
+        }
+        return attributeCount;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DocumentSearchAttributeLoadingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    /**
+     * KEW test harness with the searchable attribute test data, started outside of JUnit.
+     */
+    private static class Harness extends KEWTestCase {
+
+        @Override
+        protected void loadTestData() throws Exception {
+            loadXmlFile("SearchAttributeConfig.xml");
+        }
+    }
+
+}
@@ -0,0 +1,210 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kew.docsearch;
+
+import org.junit.Test;
+import org.kuali.rice.core.api.uif.RemotableAttributeField;
+import org.kuali.rice.kew.api.WorkflowDocument;
+import org.kuali.rice.kew.api.WorkflowDocumentFactory;
+import org.kuali.rice.kew.api.document.Document;
+import org.kuali.rice.kew.api.document.attribute.DocumentAttribute;
+import org.kuali.rice.kew.api.document.search.DocumentSearchCriteria;
+import org.kuali.rice.kew.api.document.search.DocumentSearchResult;
+import org.kuali.rice.kew.api.document.search.DocumentSearchResults;
+import org.kuali.rice.kew.impl.document.search.DocumentSearchGeneratorImpl;
+import org.kuali.rice.test.TestHarnessServiceLocator;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests that {@link DocumentSearchGeneratorImpl} loads the same searchable attribute values for a page of results
+ * at once as it does one row at a time, and that subclasses overriding the per-row hooks are still called.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class DocumentSearchAttributeLoadingTest extends DocumentSearchTestBase {
+
+    private static final String DOCUMENT_TYPE_NAME = "SearchDocType";
+    private static final int DOCUMENT_COUNT = 20;
+    private static final String OVERRIDDEN_TITLE = "processed by subclass";
+
+    @Override
+    protected void loadTestData() throws Exception {
+        loadXmlFile("SearchAttributeConfig.xml");
+    }
+
+    @Test
+    public void testBatchedLoadingMatchesPerRowLoading() throws Exception {
+        String principalId = getPrincipalId("rkirkend");
+        List<String> documentIds = routeDocuments(principalId);
+
+        DocumentSearchGeneratorImpl generator = new DocumentSearchGeneratorImpl();
+        Map<String, DocumentSearchResult.Builder> perRowResults = createResults(documentIds, principalId);
+        Map<String, DocumentSearchResult.Builder> batchedResults = createResults(documentIds, principalId);
+
+        Connection connection = TestHarnessServiceLocator.getDataSource().getConnection();
+        try {
+            Statement statement = connection.createStatement();
+            try {
+                for (DocumentSearchResult.Builder result : perRowResults.values()) {
+                    generator.populateDocumentAttributesValues(result, statement);
+                }
+                generator.populateDocumentAttributesValues(batchedResults, statement);
+            } finally {
+                statement.close();
+            }
+        } finally {
+            connection.close();
+        }
+
+        for (String documentId : documentIds) {
+            assertSameAttributes(perRowResults.get(documentId), batchedResults.get(documentId));
+        }
+    }
+
+    @Test
+    public void testProcessRowOverrideIsCalledForEveryRow() throws Exception {
+        routeDocuments(getPrincipalId("rkirkend"));
+
+        DocumentSearchResults batched = search(new DocumentSearchGeneratorImpl());
+        ProcessRowOverridingGenerator overridingGenerator = new ProcessRowOverridingGenerator();
+        DocumentSearchResults overridden = search(overridingGenerator);
+
+        assertEquals(DOCUMENT_COUNT, batched.getSearchResults().size());
+        assertEquals(DOCUMENT_COUNT, overridden.getSearchResults().size());
+        assertEquals("processRow should be called once per row", DOCUMENT_COUNT, overridingGenerator.rows);
+        for (int i = 0; i < DOCUMENT_COUNT; i++) {
+            DocumentSearchResult expected = batched.getSearchResults().get(i);
+            DocumentSearchResult actual = overridden.getSearchResults().get(i);
+            assertEquals(OVERRIDDEN_TITLE, actual.getDocument().getTitle());
+            assertFalse("Searchable attributes should have been loaded", expected.getDocumentAttributes().isEmpty());
+            assertEquals("Attributes should be loaded once by processRow", expected.getDocumentAttributes(),
+                    actual.getDocumentAttributes());
+        }
+    }
+
+    @Test
+    public void testProcessRowWithoutAttributesOverrideIsCalledForEveryRow() throws Exception {
+        routeDocuments(getPrincipalId("rkirkend"));
+
+        DocumentSearchResults batched = search(new DocumentSearchGeneratorImpl());
+        RowHookOverridingGenerator overridingGenerator = new RowHookOverridingGenerator();
+        DocumentSearchResults overridden = search(overridingGenerator);
+
+        assertEquals(DOCUMENT_COUNT, overridingGenerator.rows);
+        for (int i = 0; i < DOCUMENT_COUNT; i++) {
+            DocumentSearchResult actual = overridden.getSearchResults().get(i);
+            assertEquals(OVERRIDDEN_TITLE, actual.getDocument().getTitle());
+            assertEquals(batched.getSearchResults().get(i).getDocumentAttributes(), actual.getDocumentAttributes());
+        }
+    }
+
+    private List<String> routeDocuments(String principalId) {
+        List<String> documentIds = new ArrayList<String>();
+        for (int i = 0; i < DOCUMENT_COUNT; i++) {
+            WorkflowDocument document = WorkflowDocumentFactory.createDocument(principalId, DOCUMENT_TYPE_NAME);
+            document.setTitle("Attribute loading " + i);
+            document.route("");
+            documentIds.add(document.getDocumentId());
+        }
+        return documentIds;
+    }
+
+    private DocumentSearchResults search(DocumentSearchGeneratorImpl generator) throws SQLException {
+        DocumentSearchCriteria.Builder criteria = DocumentSearchCriteria.Builder.create();
+        criteria.setDocumentTypeName(DOCUMENT_TYPE_NAME);
+        String sql = generator.generateSearchSql(criteria.build(), Collections.<RemotableAttributeField>emptyList());
+
+        Connection connection = TestHarnessServiceLocator.getDataSource().getConnection();
+        try {
+            Statement statement = connection.createStatement();
+            Statement searchAttributeStatement = connection.createStatement();
+            try {
+                ResultSet resultSet = statement.executeQuery(sql);
+                return generator.processResultSet(criteria.build(), false, searchAttributeStatement, resultSet,
+                        DOCUMENT_COUNT * 2, DOCUMENT_COUNT * 2).build();
+            } finally {
+                searchAttributeStatement.close();
+                statement.close();
+            }
+        } finally {
+            connection.close();
+        }
+    }
+
+    private void assertSameAttributes(DocumentSearchResult.Builder expected, DocumentSearchResult.Builder actual) {
+        List<DocumentAttribute.AbstractBuilder<?>> expectedAttributes = expected.getDocumentAttributes();
+        List<DocumentAttribute.AbstractBuilder<?>> actualAttributes = actual.getDocumentAttributes();
+        assertFalse("Searchable attributes should have been loaded", expectedAttributes.isEmpty());
+        assertEquals("Wrong number of searchable attributes", expectedAttributes.size(), actualAttributes.size());
+        for (int i = 0; i < expectedAttributes.size(); i++) {
+            assertEquals(expectedAttributes.get(i).build(), actualAttributes.get(i).build());
+        }
+    }
+
+    private Map<String, DocumentSearchResult.Builder> createResults(List<String> documentIds, String principalId) {
+        Map<String, DocumentSearchResult.Builder> results = new LinkedHashMap<String, DocumentSearchResult.Builder>();
+        for (String documentId : documentIds) {
+            Document.Builder document = Document.Builder.create(documentId, principalId, DOCUMENT_TYPE_NAME, "1");
+            results.put(documentId, DocumentSearchResult.Builder.create(document));
+        }
+        return results;
+    }
+
+    /**
+     * Overrides the deprecated per-row hook, which loads the searchable attributes of its row itself.
+     */
+    private static class ProcessRowOverridingGenerator extends DocumentSearchGeneratorImpl {
+
+        private int rows;
+
+        @Override
+        @SuppressWarnings("deprecation")
+        protected DocumentSearchResult.Builder processRow(DocumentSearchCriteria criteria,
+                Statement searchAttributeStatement, ResultSet rs) throws SQLException {
+            rows++;
+            DocumentSearchResult.Builder result = super.processRow(criteria, searchAttributeStatement, rs);
+            result.getDocument().setTitle(OVERRIDDEN_TITLE);
+            return result;
+        }
+
+    }
+
+    private static class RowHookOverridingGenerator extends DocumentSearchGeneratorImpl {
+
+        private int rows;
+
+        @Override
+        protected DocumentSearchResult.Builder processRowWithoutAttributes(ResultSet rs) throws SQLException {
+            rows++;
+            DocumentSearchResult.Builder result = super.processRowWithoutAttributes(rs);
+            result.getDocument().setTitle(OVERRIDDEN_TITLE);
+            return result;
+        }
+
+    }
+
+}
@@ -48,6 +48,7 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -225,6 +226,36 @@ public class DocumentSearchTest extends KEWTestCase {
         assertEquals("_blank", results.getSearchResults().get(0).getDocument().getDocumentHandlerUrl());
     }
 
+    @Test public void testDocSearch_searchCursor() throws Exception {
+        String[] docIds = routeTestDocs();
+
+        String principalId = getPrincipalId("bmcgough");
+
+        DocumentSearchCriteria.Builder criteria = DocumentSearchCriteria.Builder.create();
+        criteria.setDocumentTypeName("SearchDocType");
+        criteria.setMaxResults(1);
+
+        Set<String> foundDocIds = new HashSet<String>();
+        DocumentSearchResults results = docSearchService.lookupDocuments(principalId, criteria.build());
+        for (int page = 1; page < docIds.length; page++) {
+            assertEquals(1, results.getSearchResults().size());
+            assertTrue("Document should not be returned on more than one page",
+                    foundDocIds.add(results.getSearchResults().get(0).getDocument().getDocumentId()));
+            assertTrue(results.isOverThreshold());
+            assertNotNull("Cursor should be available when there are more results", results.getNextSearchCursor());
+
+            criteria.setSearchCursor(results.getNextSearchCursor());
+            results = docSearchService.lookupDocuments(principalId, criteria.build());
+        }
+
+        // the last page
+        assertEquals(1, results.getSearchResults().size());
+        assertTrue(foundDocIds.add(results.getSearchResults().get(0).getDocument().getDocumentId()));
+        assertFalse(results.isOverThreshold());
+        assertNull(results.getNextSearchCursor());
+        assertEquals(new HashSet<String>(Arrays.asList(docIds)), foundDocIds);
+    }
+
     @Test public void testDocSearch_maxResultsIsNull() throws Exception {
         String[] docIds = routeTestDocs();
 
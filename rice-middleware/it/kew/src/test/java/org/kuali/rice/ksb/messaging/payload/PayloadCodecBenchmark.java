@@ -0,0 +1,121 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.messaging.payload;
+
+import org.kuali.rice.kew.api.KewApiConstants;
+import org.kuali.rice.kew.api.document.DocumentProcessingOptions;
+import org.kuali.rice.kew.api.document.DocumentProcessingQueue;
+import org.kuali.rice.ksb.api.bus.support.SoapServiceConfiguration;
+import org.kuali.rice.ksb.api.messaging.AsynchronousCall;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.xml.namespace.QName;
+import java.io.Serializable;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the time taken to encode and decode the payload of a KEW routing message with each {@link PayloadCodec}.
+ *
+ * <p>The message is the asynchronous call of {@link DocumentProcessingQueue#processWithOptions} which KEW queues to
+ * route a document, carrying the configuration of the documentProcessingQueue service as KEW exports it.</p>
+ *
+ * <p>This is not a unit test; run it with {@link #main(String[])} from the test classpath.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class PayloadCodecBenchmark {
+
+    @Param({JavaSerializationPayloadCodec.FORMAT_ID, CompressedPayloadCodec.FORMAT_ID})
+    public String format;
+
+    private PayloadCodec codec;
+    private AsynchronousCall routingCall;
+    private String payload;
+
+    @Setup
+    public void setUp() throws Exception {
+        codec = JavaSerializationPayloadCodec.FORMAT_ID.equals(format) ? new JavaSerializationPayloadCodec()
+                : new CompressedPayloadCodec();
+        routingCall = createRoutingCall();
+        payload = encode();
+        if (!routingCall.getMethodName().equals(decode().getMethodName())) {
+            throw new IllegalStateException("The routing message did not survive a round trip with " + format);
+        }
+    }
+
+    @Benchmark
+    public String encode() {
+        return codec.encode(routingCall);
+    }
+
+    @Benchmark
+    public AsynchronousCall decode() {
+        return codec.decode(payload);
+    }
+
+    /**
+     * Creates the call KEW queues to route a document, with the service configuration of the documentProcessingQueue
+     * as it is exported by KEW.
+     */
+    private static AsynchronousCall createRoutingCall() throws Exception {
+        SoapServiceConfiguration.Builder configuration = SoapServiceConfiguration.Builder.create();
+        configuration.setServiceName(new QName(KewApiConstants.Namespaces.KEW_NAMESPACE_2_0,
+                "documentProcessingQueue"));
+        configuration.setEndpointUrl(new URL("http://localhost:8080/kr-dev/remoting/"
+                + KewApiConstants.SERVICE_PATH_SOAP + "/documentProcessingQueue"));
+        configuration.setInstanceId("KR-DEV-10.0.0.1");
+        configuration.setApplicationId("KR-DEV");
+        configuration.setServiceVersion("2.6.0");
+        configuration.setType("SOAP");
+        configuration.setQueue(true);
+        configuration.setPriority(5);
+        configuration.setRetryAttempts(0);
+        configuration.setMessageExceptionHandler(
+                "org.kuali.rice.kew.messaging.exceptionhandling.DocumentMessageExceptionHandler");
+        configuration.setBusSecurity(Boolean.TRUE);
+        configuration.setServiceInterface(DocumentProcessingQueue.class.getName());
+        configuration.setJaxWsService(true);
+
+        return new AsynchronousCall(new Class<?>[] {String.class, DocumentProcessingOptions.class},
+                new Object[] {"3007", DocumentProcessingOptions.create(true, true, true)}, configuration.build(),
+                "processWithOptions", null, (Serializable) null);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PayloadCodecBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
@@ -15,6 +15,7 @@
  */
 package org.kuali.rice.kim.test.service;
 
+import org.joda.time.DateTime;
 import org.junit.Test;
 import org.kuali.rice.kim.api.group.Group;
 import org.kuali.rice.kim.api.group.GroupMember;
@@ -26,6 +27,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -144,4 +146,49 @@ public class GroupServiceImplTest extends KIMTestCase {
 		assertTrue( "Group C should be a parent of Group A", gIds.contains("g103"));
 		assertTrue( "Since these groups have a circular membership, Group A should be a parent of itself", gIds.contains("g101"));
 	}
+
+	// test that transitive memberships follow changes to nested groups
+	@Test
+	public void testNestedMembershipChanges() {
+		assertTrue( "p3 must be in g1 (through g2 and g3)", groupService.isMemberOfGroup("p3", "g1") );
+		assertTrue( "g3 must be in g1", groupService.isGroupMemberOfGroup("g3", "g1") );
+		List<String> gIds = groupService.getGroupIdsByPrincipalId("p3");
+		assertTrue( "p3 should be a member of g1", gIds.contains("g1") );
+		assertTrue( "p3 should be a member of g2", gIds.contains("g2") );
+		assertTrue( "p3 should be a member of g3", gIds.contains("g3") );
+
+		DateTime beforeRemoval = new DateTime().minusMinutes(5);
+		assertTrue( groupService.removeGroupFromGroup("g3", "g2") );
+		assertFalse( "p3 should no longer be in g1", groupService.isMemberOfGroup("p3", "g1") );
+		assertFalse( "p3 should no longer be in g2", groupService.isMemberOfGroup("p3", "g2") );
+		assertTrue( "p3 must still be in g3", groupService.isMemberOfGroup("p3", "g3") );
+		assertEquals( "p3 should only be a member of g3 in this hierarchy", 1,
+				intersectionSize(groupService.getGroupIdsByPrincipalId("p3"), "g1", "g2", "g3") );
+		assertFalse( "g3 should no longer be in g1", groupService.isGroupMemberOfGroup("g3", "g1") );
+		assertFalse( "g3 should no longer be a member group of g1", groupService.getMemberGroupIds("g1").contains("g3") );
+		assertTrue( "p3 was in g1 before the removal",
+				groupService.isMemberOfGroupWithDate("p3", "g1", beforeRemoval) );
+
+		assertTrue( groupService.addGroupToGroup("g3", "g2") );
+		assertTrue( "p3 must be in g1 again", groupService.isMemberOfGroup("p3", "g1") );
+
+		assertTrue( groupService.addPrincipalToGroup("p5", "g3") );
+		assertTrue( "p5 must be in g1 (through g2 and g3)", groupService.isMemberOfGroup("p5", "g1") );
+		assertTrue( "p5 must be a member principal of g1", groupService.getMemberPrincipalIds("g1").contains("p5") );
+
+		assertTrue( groupService.removePrincipalFromGroup("p5", "g3") );
+		assertFalse( "p5 should no longer be in g1", groupService.isMemberOfGroup("p5", "g1") );
+		assertFalse( "p5 should no longer be a member principal of g1",
+				groupService.getMemberPrincipalIds("g1").contains("p5") );
+	}
+
+	private static int intersectionSize(Collection<String> ids, String... expectedIds) {
+		int size = 0;
+		for (String expectedId : expectedIds) {
+			if (ids.contains(expectedId)) {
+				size++;
+			}
+		}
+		return size;
+	}
 }
@@ -0,0 +1,124 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kim.test.service;
+
+import org.junit.Test;
+import org.kuali.rice.core.impl.services.CoreImplServiceLocator;
+import org.kuali.rice.kim.api.role.Role;
+import org.kuali.rice.kim.api.role.RoleService;
+import org.kuali.rice.kim.api.services.KimApiServiceLocator;
+import org.kuali.rice.kim.test.KIMTestCase;
+import org.springframework.cache.Cache;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Measures the hit ratio of the role cache during a role maintenance workload, and tests that a change to the
+ * membership of a role only evicts the entries of the affected principals for that role and the roles which contain
+ * it.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class RoleCacheInvalidationTest extends KIMTestCase {
+
+    private static final List<String> PRINCIPAL_IDS = Arrays.asList("p1", "p3", "p5", "p6", "p7", "p9", "p10");
+    private static final List<String> ROLE_IDS = Arrays.asList("r1", "r2", "r3", "r4", "r5", "r6");
+
+    private static final Map<String, String> NO_QUALIFICATION = Collections.emptyMap();
+
+    private RoleService roleService;
+    private Cache roleCache;
+
+    private int hits;
+    private int lookups;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        roleService = KimApiServiceLocator.getRoleService();
+        roleCache = CoreImplServiceLocator.getCacheManagerRegistry().getCacheManagerByCacheName(Role.Cache.NAME)
+                .getCache(Role.Cache.NAME);
+        roleCache.clear();
+    }
+
+    @Test
+    public void testCacheHitRatioDuringRoleMaintenance() {
+        runWorkload();
+        assertEquals("every check should have been cached", 0, hits);
+
+        // r3 is a member of r5, so adding a member to r3 changes the membership of both
+        roleService.assignPrincipalToRole("p7", "AUTH_SVC_TEST2", "RoleThree", NO_QUALIFICATION);
+        assertCachedExcept(Collections.singletonList("p7"), "r3", "r5");
+        runWorkload();
+        assertTrue(roleService.principalHasRole("p7", Collections.singletonList("r5"), NO_QUALIFICATION));
+
+        // the principals of a group member are not known, so every principal is affected
+        roleService.assignGroupToRole("g1", "AUTH_SVC_TEST2", "RoleSix", NO_QUALIFICATION);
+        assertCachedExcept(PRINCIPAL_IDS, "r6");
+        runWorkload();
+
+        roleService.removePrincipalFromRole("p7", "AUTH_SVC_TEST2", "RoleThree", NO_QUALIFICATION);
+        assertCachedExcept(Collections.singletonList("p7"), "r3", "r5");
+        runWorkload();
+        assertFalse(roleService.principalHasRole("p7", Collections.singletonList("r5"), NO_QUALIFICATION));
+
+        double hitRatio = (double) hits / lookups;
+        LOG.info("Role cache hit ratio during role maintenance: " + hits + "/" + lookups + " ("
+                + Math.round(hitRatio * 100) + "%)");
+        // a flush of the entire cache on each change would give a hit ratio of 0
+        assertEquals((40 + 35 + 40) / (double) (4 * PRINCIPAL_IDS.size() * ROLE_IDS.size()), hitRatio, 0.001);
+    }
+
+    /**
+     * checks each principal against each role, counting the checks which were answered from the cache
+     */
+    private void runWorkload() {
+        for (String principalId : PRINCIPAL_IDS) {
+            for (String roleId : ROLE_IDS) {
+                lookups++;
+                if (isCached(principalId, roleId)) {
+                    hits++;
+                }
+                roleService.principalHasRole(principalId, Collections.singletonList(roleId), NO_QUALIFICATION);
+                assertTrue(isCached(principalId, roleId));
+            }
+        }
+    }
+
+    private void assertCachedExcept(List<String> affectedPrincipalIds, String... affectedRoleIds) {
+        Set<String> affectedRoles = new HashSet<String>(Arrays.asList(affectedRoleIds));
+        for (String principalId : PRINCIPAL_IDS) {
+            for (String roleId : ROLE_IDS) {
+                boolean affected = affectedPrincipalIds.contains(principalId) && affectedRoles.contains(roleId);
+                assertEquals("principal " + principalId + ", role " + roleId, !affected,
+                        isCached(principalId, roleId));
+            }
+        }
+    }
+
+    private boolean isCached(String principalId, String roleId) {
+        return roleCache.get("{principalHasRole}principalId=" + principalId + "|roleId=" + roleId
+                + "|qualification=[]|checkDelegations=true") != null;
+    }
+
+}
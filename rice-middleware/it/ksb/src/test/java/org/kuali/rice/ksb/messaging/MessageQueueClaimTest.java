@@ -0,0 +1,177 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.messaging;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.kuali.rice.core.api.config.property.ConfigContext;
+import org.kuali.rice.ksb.api.KsbApiServiceLocator;
+import org.kuali.rice.ksb.messaging.service.KSBJavaService;
+import org.kuali.rice.ksb.service.KSBServiceLocator;
+import org.kuali.rice.ksb.test.KSBTestCase;
+import org.kuali.rice.ksb.util.KSBConstants;
+
+import javax.xml.namespace.QName;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests that {@link org.kuali.rice.ksb.messaging.service.MessageQueueService#claimNextDocuments(Integer)} can be called
+ * by several fetchers concurrently without any message being claimed more than once, and logs the claim throughput.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class MessageQueueClaimTest extends KSBTestCase {
+
+    private static final org.apache.log4j.Logger LOG = org.apache.log4j.Logger.getLogger(MessageQueueClaimTest.class);
+
+    private static final int MESSAGE_COUNT = 200;
+    private static final int FETCHER_COUNT = 4;
+    private static final int BATCH_SIZE = 10;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        // leave persistence on but turn messaging off so that the messages stay in the queue
+        ConfigContext.getCurrentContextConfig().putProperty(KSBConstants.Config.MESSAGING_OFF, "true");
+    }
+
+    @After
+    @Override
+    public void tearDown() throws Exception {
+        ConfigContext.getCurrentContextConfig().putProperty(KSBConstants.Config.MESSAGING_OFF, "false");
+        super.tearDown();
+    }
+
+    private void queueMessages(int count) throws Exception {
+        QName serviceName = QName.valueOf("{testAppsSharedTopic}sharedTopic");
+        KSBJavaService testJavaAsyncService = (KSBJavaService) KsbApiServiceLocator.getMessageHelper().getServiceAsynchronously(serviceName);
+        for (int i = 0; i < count; i++) {
+            testJavaAsyncService.invoke(new ClientAppServiceSharedPayloadObj("message content", false));
+        }
+        // make sure all async calls land in the db
+        Thread.sleep(5000);
+        assertEquals(count, KSBServiceLocator.getMessageQueueService().getNextDocuments(null).size());
+    }
+
+    @Test
+    public void testConcurrentClaim() throws Exception {
+        queueMessages(MESSAGE_COUNT);
+
+        final Set<Long> claimedIds = Collections.synchronizedSet(new HashSet<Long>());
+        ExecutorService executor = Executors.newFixedThreadPool(FETCHER_COUNT);
+        List<Future<Integer>> duplicateCounts = new ArrayList<Future<Integer>>();
+        long start = System.currentTimeMillis();
+        try {
+            for (int i = 0; i < FETCHER_COUNT; i++) {
+                duplicateCounts.add(executor.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() throws Exception {
+                        int duplicates = 0;
+                        List<PersistedMessageBO> claimed;
+                        do {
+                            claimed = KSBServiceLocator.getMessageQueueService().claimNextDocuments(BATCH_SIZE);
+                            for (PersistedMessageBO message : claimed) {
+                                assertEquals(KSBConstants.ROUTE_QUEUE_ROUTING, message.getQueueStatus());
+                                if (!claimedIds.add(message.getRouteQueueId())) {
+                                    duplicates++;
+                                }
+                            }
+                            // claimed messages stay in the queue with a routing status and must not be claimed again
+                        } while (!claimed.isEmpty());
+                        return duplicates;
+                    }
+                }));
+            }
+            for (Future<Integer> duplicateCount : duplicateCounts) {
+                assertEquals("No message should be claimed by more than one fetcher", 0, duplicateCount.get().intValue());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsed = Math.max(1, System.currentTimeMillis() - start);
+
+        LOG.info("Claimed " + claimedIds.size() + " messages with " + FETCHER_COUNT + " fetchers in " + elapsed + "ms ("
+                + (claimedIds.size() * 1000L / elapsed) + " messages/second)");
+        assertEquals(MESSAGE_COUNT, claimedIds.size());
+
+        // every message is still queued, is routing, and cannot be claimed a second time
+        List<PersistedMessageBO> queued = KSBServiceLocator.getMessageQueueService().getNextDocuments(null);
+        assertEquals(MESSAGE_COUNT, queued.size());
+        for (PersistedMessageBO message : queued) {
+            assertEquals(KSBConstants.ROUTE_QUEUE_ROUTING, message.getQueueStatus());
+        }
+        assertTrue(KSBServiceLocator.getMessageQueueService().claimNextDocuments(null).isEmpty());
+    }
+
+    /**
+     * Tests that a message whose claim is older than the routing lease is assumed to be abandoned and is claimed again,
+     * and that the stale copy of the message can no longer be saved.
+     */
+    @Test
+    public void testClaimAfterLeaseExpiry() throws Exception {
+        queueMessages(BATCH_SIZE);
+        List<PersistedMessageBO> claimed = KSBServiceLocator.getMessageQueueService().claimNextDocuments(null);
+        assertEquals(BATCH_SIZE, claimed.size());
+        assertTrue(KSBServiceLocator.getMessageQueueService().claimNextDocuments(null).isEmpty());
+
+        ConfigContext.getCurrentContextConfig().putProperty(KSBConstants.Config.MESSAGE_ROUTING_LEASE_SECONDS, "1");
+        try {
+            Thread.sleep(2500);
+            List<PersistedMessageBO> reclaimed = KSBServiceLocator.getMessageQueueService().claimNextDocuments(null);
+            assertEquals(BATCH_SIZE, reclaimed.size());
+            for (PersistedMessageBO message : reclaimed) {
+                assertEquals(KSBConstants.ROUTE_QUEUE_ROUTING, message.getQueueStatus());
+            }
+        } finally {
+            ConfigContext.getCurrentContextConfig().putProperty(KSBConstants.Config.MESSAGE_ROUTING_LEASE_SECONDS, "3600");
+        }
+
+        try {
+            KSBServiceLocator.getMessageQueueService().save(claimed.get(0));
+            fail("The copy of a message from an expired claim should not be saved over the new claim");
+        } catch (RuntimeException e) {
+            // expected, the version number was advanced by the new claim
+        }
+    }
+
+    /**
+     * Tests that messages left routing are put back in the queue and can be claimed again.
+     */
+    @Test
+    public void testRequeueRoutingMessages() throws Exception {
+        queueMessages(BATCH_SIZE);
+        assertEquals(BATCH_SIZE, KSBServiceLocator.getMessageQueueService().claimNextDocuments(null).size());
+
+        assertEquals(BATCH_SIZE, KSBServiceLocator.getMessageQueueService().requeueRoutingMessages());
+        for (PersistedMessageBO message : KSBServiceLocator.getMessageQueueService().getNextDocuments(null)) {
+            assertEquals(KSBConstants.ROUTE_QUEUE_QUEUED, message.getQueueStatus());
+        }
+        assertEquals(BATCH_SIZE, KSBServiceLocator.getMessageQueueService().claimNextDocuments(null).size());
+    }
+
+}
@@ -16,6 +16,7 @@
 package org.kuali.rice.kew.api.action;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.jws.WebMethod;
@@ -25,9 +26,11 @@ import javax.jws.WebService;
 import javax.jws.soap.SOAPBinding;
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlElementWrapper;
+import javax.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
 
 import org.kuali.rice.core.api.exception.RiceIllegalArgumentException;
 import org.kuali.rice.core.api.uif.RemotableAttributeError;
+import org.kuali.rice.core.api.util.jaxb.MultiValuedStringMapAdapter;
 import org.kuali.rice.kew.api.KewApiConstants;
 import org.kuali.rice.kew.api.WorkflowDocument;
 import org.kuali.rice.kew.api.doctype.IllegalDocumentTypeException;
@@ -1734,4 +1737,31 @@ public interface WorkflowDocumentActionsService {
             @WebParam(name = "lookFuture") boolean lookFuture)
             throws RiceIllegalArgumentException;
 
+    /**
+     * Determines which of the given principals exist in the route log, or future route log depending on the passed
+     * in {@code lookFuture} value, of each of the given documents.
+     *
+     * <p>This answers {@link #isUserInRouteLog(String, String, boolean)} for every pair of document and principal in
+     * one call.</p>
+     *
+     * @param documentIds unique ids of the documents to check the route logs of
+     * @param principalIds unique ids of the principals to look for in the route logs
+     * @param lookFuture boolean value determines whether or not to look at the future route logs
+     *
+     * @return map of document id to the ids of the given principals that exist in its route log, documents which do
+     *         not exist are left out
+     *
+     * @throws RiceIllegalArgumentException if {@code documentIds} is null
+     * @throws RiceIllegalArgumentException if {@code principalIds} is null
+     * @since 2.6.0
+     */
+    @WebMethod(operationName = "getPrincipalIdsInRouteLogs")
+    @WebResult(name = "principalIdsByDocumentId")
+    @XmlJavaTypeAdapter(value = MultiValuedStringMapAdapter.class)
+    Map<String, List<String>> getPrincipalIdsInRouteLogs(
+            @WebParam(name = "documentIds") List<String> documentIds,
+            @WebParam(name = "principalIds") List<String> principalIds,
+            @WebParam(name = "lookFuture") boolean lookFuture)
+            throws RiceIllegalArgumentException;
+
 }
@@ -89,6 +89,7 @@ import java.util.Map;
     DocumentSearchCriteria.Elements.INITIATOR_PRINCIPAL_ID,
     DocumentSearchCriteria.Elements.VIEWER_PRINCIPAL_ID,
     DocumentSearchCriteria.Elements.APPROVER_PRINCIPAL_ID,
+    DocumentSearchCriteria.Elements.SEARCH_CURSOR,
     CoreConstants.CommonElements.FUTURE_ELEMENTS
 })
 public final class DocumentSearchCriteria extends AbstractDataTransferObject implements DocumentSearchCriteriaContract {
@@ -222,6 +223,12 @@ public final class DocumentSearchCriteria extends AbstractDataTransferObject imp
     @XmlElement(name = Elements.DOC_SEARCH_USER_ID, required = false)
     private final String docSearchUserId;
 
+    /**
+     * @since 2.6.0
+     */
+    @XmlElement(name = Elements.SEARCH_CURSOR, required = false)
+    private final String searchCursor;
+
     @SuppressWarnings("unused")
     @XmlAnyElement
     private final Collection<Element> _futureElements = null;
@@ -266,6 +273,7 @@ public final class DocumentSearchCriteria extends AbstractDataTransferObject imp
         this.isAdvancedSearch = null;
         this.docSearchUserId = null;
         this.applicationDocumentStatuses = null;
+        this.searchCursor = null;
     }
 
     private DocumentSearchCriteria(Builder builder) {
@@ -306,6 +314,7 @@ public final class DocumentSearchCriteria extends AbstractDataTransferObject imp
         this.isAdvancedSearch = builder.getIsAdvancedSearch();
         this.docSearchUserId = builder.getDocSearchUserId();
         this.applicationDocumentStatuses = builder.getApplicationDocumentStatuses();
+        this.searchCursor = builder.getSearchCursor();
     }
 
     @Override
@@ -507,6 +516,14 @@ public final class DocumentSearchCriteria extends AbstractDataTransferObject imp
     public String getDocSearchUserId(){
         return docSearchUserId;
     }
+
+    /**
+     * @since 2.6.0
+     */
+    @Override
+    public String getSearchCursor() {
+        return searchCursor;
+    }
     /**
      * A builder which can be used to construct {@link DocumentSearchCriteria} instances.  Enforces the constraints of
      * the {@link DocumentSearchCriteriaContract}.
@@ -549,6 +566,7 @@ public final class DocumentSearchCriteria extends AbstractDataTransferObject imp
         private String isAdvancedSearch;
         private String docSearchUserId;
         private List<String> applicationDocumentStatuses;
+        private String searchCursor;
 
         private Builder() {
             setDocumentStatuses(new ArrayList<DocumentStatus>());
@@ -631,6 +649,7 @@ public final class DocumentSearchCriteria extends AbstractDataTransferObject imp
             // Set applicationDocumentStatus (singular!)
             builder.setApplicationDocumentStatus(contract.getApplicationDocumentStatus());
             builder.setDocSearchUserId(contract.getDocSearchUserId());
+            builder.setSearchCursor(contract.getSearchCursor());
 
             return builder;
         }
@@ -837,6 +856,11 @@ public final class DocumentSearchCriteria extends AbstractDataTransferObject imp
           return docSearchUserId;
         }
 
+        @Override
+        public String getSearchCursor() {
+            return searchCursor;
+        }
+
         public void setDocumentId(String documentId) {
             this.documentId = documentId;
         }
@@ -1018,6 +1042,13 @@ public final class DocumentSearchCriteria extends AbstractDataTransferObject imp
         public void setDocSearchUserId(String docSearchUserId){
             this.docSearchUserId = docSearchUserId;
         }
+
+        /**
+         * @since 2.6.0
+         */
+        public void setSearchCursor(String searchCursor) {
+            this.searchCursor = searchCursor;
+        }
         /**
          * Resets DateTimes to local TimeZone (preserving absolute time)
          *
@@ -1089,6 +1120,7 @@ public final class DocumentSearchCriteria extends AbstractDataTransferObject imp
         final static String SEARCH_OPTIONS = "searchOptions";
         final static String APPLICATION_DOCUMENT_STATUSES = "applicationDocumentStatuses";
         final static String DOC_SEARCH_USER_ID = "docSearchUserId";
+        final static String SEARCH_CURSOR = "searchCursor";
     }
 
 }
\ No newline at end of file
@@ -380,4 +380,15 @@ public interface DocumentSearchCriteriaContract {
      * @return
      */
     String getDocSearchUserId();
+
+    /**
+     * Returns an opaque cursor identifying the last document of a previously returned page of results.  If specified,
+     * the search seeks directly past that document instead of skipping over {@link #getStartAtIndex()} rows, so that
+     * later pages are as cheap to retrieve as the first one.  The cursor for the next page is available from
+     * {@link DocumentSearchResultsContract#getNextSearchCursor()}.
+     *
+     * @since 2.6.0
+     * @return the cursor at which to resume the search, or null to start from the beginning of the result set
+     */
+    String getSearchCursor();
 }
@@ -48,6 +48,7 @@ import java.util.List;
     DocumentSearchResults.Elements.CRITERIA_MODIFIED,
     DocumentSearchResults.Elements.OVER_THRESHOLD,
     DocumentSearchResults.Elements.NUMBER_OF_SECURITY_FILTERED_RESULTS,
+    DocumentSearchResults.Elements.NEXT_SEARCH_CURSOR,
     CoreConstants.CommonElements.FUTURE_ELEMENTS
 })
 public final class DocumentSearchResults extends AbstractDataTransferObject implements DocumentSearchResultsContract {
@@ -68,6 +69,12 @@ public final class DocumentSearchResults extends AbstractDataTransferObject impl
     @XmlElement(name = Elements.NUMBER_OF_SECURITY_FILTERED_RESULTS, required = true)
     private final int numberOfSecurityFilteredResults;
 
+    /**
+     * @since 2.6.0
+     */
+    @XmlElement(name = Elements.NEXT_SEARCH_CURSOR, required = false)
+    private final String nextSearchCursor;
+
     @SuppressWarnings("unused")
     @XmlAnyElement
     private final Collection<Element> _futureElements = null;
@@ -82,6 +89,7 @@ public final class DocumentSearchResults extends AbstractDataTransferObject impl
         this.criteriaModified = false;
         this.overThreshold = false;
         this.numberOfSecurityFilteredResults = 0;
+        this.nextSearchCursor = null;
     }
 
     private DocumentSearchResults(Builder builder) {
@@ -90,6 +98,7 @@ public final class DocumentSearchResults extends AbstractDataTransferObject impl
         this.criteriaModified = builder.isCriteriaModified();
         this.overThreshold = builder.isOverThreshold();
         this.numberOfSecurityFilteredResults = builder.getNumberOfSecurityFilteredResults();
+        this.nextSearchCursor = builder.getNextSearchCursor();
     }
 
     @Override
@@ -117,6 +126,11 @@ public final class DocumentSearchResults extends AbstractDataTransferObject impl
         return this.numberOfSecurityFilteredResults;
     }
 
+    @Override
+    public String getNextSearchCursor() {
+        return this.nextSearchCursor;
+    }
+
     /**
      * A builder which can be used to construct {@link DocumentSearchResults} instances.  Enforces the constraints of
      * the {@link DocumentSearchResultsContract}.
@@ -128,6 +142,7 @@ public final class DocumentSearchResults extends AbstractDataTransferObject impl
         private boolean criteriaModified;
         private boolean overThreshold;
         private int numberOfSecurityFilteredResults;
+        private String nextSearchCursor;
 
         private Builder(DocumentSearchCriteria.Builder criteria) {
             setSearchResults(new ArrayList<DocumentSearchResult.Builder>());
@@ -175,6 +190,7 @@ public final class DocumentSearchResults extends AbstractDataTransferObject impl
             builder.setCriteriaModified(contract.isCriteriaModified());
             builder.setOverThreshold(contract.isOverThreshold());
             builder.setNumberOfSecurityFilteredResults(contract.getNumberOfSecurityFilteredResults());
+            builder.setNextSearchCursor(contract.getNextSearchCursor());
             return builder;
         }
 
@@ -207,6 +223,11 @@ public final class DocumentSearchResults extends AbstractDataTransferObject impl
             return this.numberOfSecurityFilteredResults;
         }
 
+        @Override
+        public String getNextSearchCursor() {
+            return this.nextSearchCursor;
+        }
+
         public void setSearchResults(List<DocumentSearchResult.Builder> searchResults) {
             this.searchResults = searchResults;
         }
@@ -237,6 +258,10 @@ public final class DocumentSearchResults extends AbstractDataTransferObject impl
             this.numberOfSecurityFilteredResults = numberOfSecurityFilteredResults;
         }
 
+        public void setNextSearchCursor(String nextSearchCursor) {
+            this.nextSearchCursor = nextSearchCursor;
+        }
+
     }
 
     /**
@@ -257,6 +282,7 @@ public final class DocumentSearchResults extends AbstractDataTransferObject impl
         final static String CRITERIA_MODIFIED = "criteriaModified";
         final static String OVER_THRESHOLD = "overThreshold";
         final static String NUMBER_OF_SECURITY_FILTERED_RESULTS = "numberOfSecurityFilteredResults";
+        final static String NEXT_SEARCH_CURSOR = "nextSearchCursor";
     }
 
 }
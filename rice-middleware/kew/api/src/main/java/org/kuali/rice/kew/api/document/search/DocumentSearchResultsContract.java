@@ -77,4 +77,14 @@ public interface DocumentSearchResultsContract {
      */
     int getNumberOfSecurityFilteredResults();
 
+    /**
+     * Returns the cursor which can be set on the criteria (see {@link DocumentSearchCriteriaContract#getSearchCursor()})
+     * in order to retrieve the page of results which follows this one.  Will only be available if
+     * {@link #isOverThreshold()} is true.
+     *
+     * @since 2.6.0
+     * @return the cursor for the next page of results, or null if there are no more results
+     */
+    String getNextSearchCursor();
+
 }
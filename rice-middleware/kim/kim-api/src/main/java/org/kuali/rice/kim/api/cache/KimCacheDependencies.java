@@ -0,0 +1,470 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kim.api.cache;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.log4j.Logger;
+import org.kuali.rice.core.api.criteria.QueryByCriteria;
+import org.kuali.rice.core.api.membership.MemberType;
+import org.kuali.rice.kim.api.common.delegate.DelegateMember;
+import org.kuali.rice.kim.api.common.delegate.DelegateType;
+import org.kuali.rice.kim.api.role.Role;
+import org.kuali.rice.kim.api.role.RoleMember;
+import org.kuali.rice.kim.api.role.RoleService;
+import org.kuali.rice.kim.api.services.KimApiServiceLocator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.kuali.rice.core.api.criteria.PredicateFactory.*;
+
+/**
+ * Builds and interprets the dependency keys used to invalidate KIM cache entries after a change to role or delegation
+ * membership without flushing the entire cache.
+ *
+ * <p>A dependency key is a cache key starting with {@link #DEPENDENCY_KEY_PREFIX}.  It names the roles (by id and by
+ * namespace and name), principals and members affected by a change.  Evicting a dependency key from a cache which
+ * understands them evicts every entry of that cache whose own key refers to one of those roles, principals or
+ * members, rather than a single entry.  Because the dependency key is evicted like any other key, it is distributed
+ * to the other nodes of the cluster in the same way.</p>
+ *
+ * <p>The dependencies of an ordinary cache entry are read from its key, which by convention is made up of
+ * {@code name=value} pairs separated by {@code |}.  The {@code principalId(s)}, {@code roleId(s)},
+ * {@code memberId} and {@code roleMemberId} pairs, as well as a {@code roleName} paired with a
+ * {@code namespaceCode} or {@code roleNamespaceCode}, are recognized.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public final class KimCacheDependencies {
+
+    private static final Logger LOG = Logger.getLogger(KimCacheDependencies.class);
+
+    public static final String DEPENDENCY_KEY_PREFIX = "{dependsOn}";
+
+    private static final String ROLE = "role:";
+    private static final String ROLE_NAME = "roleName:";
+    private static final String PRINCIPAL = "principal:";
+    private static final String MEMBER = "member:";
+    private static final String ROLE_MEMBER = "roleMember:";
+    private static final String ANY = "*";
+    private static final String ANY_PRINCIPAL = PRINCIPAL + ANY;
+    private static final String ANY_KEY = DEPENDENCY_KEY_PREFIX + ANY;
+
+    private static final char TOKEN_SEPARATOR = '\n';
+
+    private KimCacheDependencies() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Builds the dependency key for a change to the membership of the role with the given namespace and name.
+     *
+     * @param memberId the id of the principal, group or role that was added to or removed from the role
+     * @param memberTypeCode the {@link MemberType} code of the member
+     * @param roleNamespaceCode the namespace code of the role
+     * @param roleName the name of the role
+     * @return the dependency key
+     */
+    public static String forRoleMember(String memberId, String memberTypeCode, String roleNamespaceCode,
+            String roleName) {
+        try {
+            String roleId = getRoleService().getRoleIdByNamespaceCodeAndName(roleNamespaceCode, roleName);
+            return buildKey(Collections.singleton(roleId), memberId, memberTypeCode, null, false);
+        } catch (RuntimeException e) {
+            return fallbackKey(e);
+        }
+    }
+
+    /**
+     * Builds the dependency key for the creation of the given role member.
+     *
+     * @param roleMember the role member
+     * @return the dependency key
+     */
+    public static String forRoleMember(RoleMember roleMember) {
+        return forRoleMember(roleMember, false);
+    }
+
+    /**
+     * Builds the dependency key for the update of the given role member.  Since an update may change the member, the
+     * entries of every principal depend on it.
+     *
+     * @param roleMember the role member
+     * @return the dependency key
+     */
+    public static String forUpdatedRoleMember(RoleMember roleMember) {
+        return forRoleMember(roleMember, true);
+    }
+
+    private static String forRoleMember(RoleMember roleMember, boolean anyPrincipal) {
+        if (roleMember == null) {
+            return ANY_KEY;
+        }
+        try {
+            String memberTypeCode = roleMember.getType() == null ? null : roleMember.getType().getCode();
+            return buildKey(Collections.singleton(roleMember.getRoleId()), roleMember.getMemberId(), memberTypeCode,
+                    roleMember.getId(), anyPrincipal);
+        } catch (RuntimeException e) {
+            return fallbackKey(e);
+        }
+    }
+
+    /**
+     * Builds the dependency key for the creation of the given delegate member.
+     *
+     * @param delegateMember the delegate member
+     * @return the dependency key
+     */
+    public static String forDelegateMember(DelegateMember delegateMember) {
+        return forDelegateMembers(delegateMember == null ? null : Collections.singletonList(delegateMember), false);
+    }
+
+    /**
+     * Builds the dependency key for the update of the given delegate member.  Since an update may change the member,
+     * the entries of every principal depend on it.
+     *
+     * @param delegateMember the delegate member
+     * @return the dependency key
+     */
+    public static String forUpdatedDelegateMember(DelegateMember delegateMember) {
+        return forDelegateMembers(delegateMember == null ? null : Collections.singletonList(delegateMember), true);
+    }
+
+    /**
+     * Builds the dependency key for the removal of the given delegate members.
+     *
+     * @param delegateMembers the delegate members
+     * @return the dependency key
+     */
+    public static String forDelegateMembers(Collection<DelegateMember> delegateMembers) {
+        return forDelegateMembers(delegateMembers, false);
+    }
+
+    private static String forDelegateMembers(Collection<DelegateMember> delegateMembers, boolean anyPrincipal) {
+        if (delegateMembers == null || delegateMembers.isEmpty()) {
+            return ANY_KEY;
+        }
+        try {
+            Set<String> roleIds = new HashSet<String>();
+            Set<String> tokens = new LinkedHashSet<String>();
+            if (anyPrincipal) {
+                tokens.add(ANY_PRINCIPAL);
+            }
+            for (DelegateMember delegateMember : delegateMembers) {
+                DelegateType delegateType = getRoleService().getDelegateTypeByDelegationId(
+                        delegateMember.getDelegationId());
+                if (delegateType == null) {
+                    return ANY_KEY;
+                }
+                roleIds.add(delegateType.getRoleId());
+                String memberTypeCode = delegateMember.getType() == null ? null : delegateMember.getType().getCode();
+                addMemberTokens(tokens, delegateMember.getMemberId(), memberTypeCode);
+            }
+            addRoleTokens(tokens, roleIds);
+            return toKey(tokens);
+        } catch (RuntimeException e) {
+            return fallbackKey(e);
+        }
+    }
+
+    /**
+     * Determines whether the given cache key is a dependency key.
+     *
+     * @param key the cache key
+     * @return true if the key is a dependency key
+     */
+    public static boolean isDependencyKey(Object key) {
+        return key instanceof String && ((String) key).startsWith(DEPENDENCY_KEY_PREFIX);
+    }
+
+    /**
+     * Determines whether the given dependency key requires the entire cache to be cleared, which is the case when the
+     * affected roles could not be determined.
+     *
+     * @param dependencyKey the dependency key
+     * @return true if the entire cache should be cleared
+     */
+    public static boolean isClearAll(String dependencyKey) {
+        return parseDependencyKey(dependencyKey).contains(ANY);
+    }
+
+    /**
+     * Creates a matcher for the cache entries affected by the given dependency key.
+     *
+     * @param dependencyKey the dependency key
+     * @return a matcher of the affected cache keys
+     */
+    public static Matcher matcher(String dependencyKey) {
+        return new Matcher(parseDependencyKey(dependencyKey));
+    }
+
+    /**
+     * Returns the tokens under which the entry with the given key should be indexed, so that the candidates for
+     * eviction by a dependency key can be found by looking up the tokens of its {@link Matcher}.  Every key for which
+     * {@link Matcher#matches(Object)} can return true is indexed under at least one of the matcher's tokens.
+     *
+     * @param key a cache key
+     * @return the index tokens of the key, empty if the entry does not depend on any role, principal or member
+     */
+    public static Set<String> getIndexTokens(Object key) {
+        if (!(key instanceof String) || isDependencyKey(key)) {
+            return Collections.emptySet();
+        }
+        Dependencies dependencies = getDependencies((String) key);
+        Set<String> indexTokens = new HashSet<String>(dependencies.roles);
+        indexTokens.addAll(dependencies.members);
+        if (dependencies.roles.isEmpty()) {
+            // entries which only name principals are found through the principal, or through any principal
+            indexTokens.addAll(dependencies.principals);
+            if (!dependencies.principals.isEmpty()) {
+                indexTokens.add(ANY_PRINCIPAL);
+            }
+        }
+        return indexTokens;
+    }
+
+    /**
+     * Matches the keys of the cache entries affected by a dependency key.
+     *
+     * <p>An entry which names roles is affected if it names one of the changed roles and, when it also names
+     * principals, one of the affected principals.  An entry which only names principals is affected if it names one of
+     * the affected principals.  An entry which names a changed member or role member is always affected.</p>
+     */
+    public static final class Matcher {
+
+        private final Set<String> tokens;
+        private final boolean anyPrincipal;
+
+        private Matcher(Set<String> tokens) {
+            this.tokens = tokens;
+            this.anyPrincipal = tokens.contains(ANY_PRINCIPAL);
+        }
+
+        /**
+         * @return the index tokens, as returned by {@link KimCacheDependencies#getIndexTokens(Object)}, of every key
+         * this matcher can match
+         */
+        public Set<String> getTokens() {
+            return Collections.unmodifiableSet(tokens);
+        }
+
+        /**
+         * @param key a cache key
+         * @return true if the entry with the given key depends on something named by the dependency key
+         */
+        public boolean matches(Object key) {
+            if (tokens.contains(ANY)) {
+                return true;
+            }
+            if (!(key instanceof String) || isDependencyKey(key)) {
+                return false;
+            }
+            Dependencies dependencies = getDependencies((String) key);
+            if (containsAny(dependencies.members)) {
+                return true;
+            }
+            if (!dependencies.roles.isEmpty() && !containsAny(dependencies.roles)) {
+                return false;
+            }
+            if (dependencies.principals.isEmpty()) {
+                return !dependencies.roles.isEmpty();
+            }
+            return anyPrincipal || containsAny(dependencies.principals);
+        }
+
+        private boolean containsAny(Set<String> dependencies) {
+            for (String dependency : dependencies) {
+                if (tokens.contains(dependency)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * The roles, principals and members (or role members) named by the key of a cache entry.
+     */
+    private static final class Dependencies {
+        final Set<String> roles = new HashSet<String>();
+        final Set<String> principals = new HashSet<String>();
+        final Set<String> members = new HashSet<String>();
+    }
+
+    /**
+     * Reads the dependencies of a cache entry from its key.
+     */
+    private static Dependencies getDependencies(String key) {
+        Dependencies dependencies = new Dependencies();
+        String namespaceCode = null;
+        String roleName = null;
+        for (String pair : splitKey(key)) {
+            int index = pair.indexOf('=');
+            if (index <= 0) {
+                continue;
+            }
+            String name = pair.substring(0, index);
+            String value = pair.substring(index + 1);
+            if ("principalId".equals(name) || "principalIds".equals(name)) {
+                addValues(dependencies.principals, PRINCIPAL, value);
+            } else if ("roleId".equals(name) || "roleIds".equals(name)) {
+                addValues(dependencies.roles, ROLE, value);
+            } else if ("memberId".equals(name)) {
+                addValues(dependencies.members, MEMBER, value);
+            } else if ("roleMemberId".equals(name)) {
+                addValues(dependencies.members, ROLE_MEMBER, value);
+            } else if ("namespaceCode".equals(name) || "roleNamespaceCode".equals(name)) {
+                namespaceCode = value;
+            } else if ("roleName".equals(name)) {
+                roleName = value;
+            }
+        }
+        if (namespaceCode != null && roleName != null) {
+            dependencies.roles.add(ROLE_NAME + namespaceCode + ":" + roleName);
+        }
+        return dependencies;
+    }
+
+    /**
+     * splits a key on the '|' characters which are not nested within the [] of a collection or map value
+     */
+    private static List<String> splitKey(String key) {
+        List<String> pairs = new ArrayList<String>();
+        int start = 0;
+        // skip the method name prefix used by some keys
+        if (key.startsWith("{")) {
+            int end = key.indexOf('}');
+            if (end > 0) {
+                start = end + 1;
+            }
+        }
+        int depth = 0;
+        for (int i = start; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c == '[') {
+                depth++;
+            } else if (c == ']' && depth > 0) {
+                depth--;
+            } else if (c == '|' && depth == 0) {
+                pairs.add(key.substring(start, i));
+                start = i + 1;
+            }
+        }
+        pairs.add(key.substring(start));
+        return pairs;
+    }
+
+    /**
+     * adds each of the values of a single value or a collection value as created by
+     * {@link org.kuali.rice.core.api.cache.CacheKeyUtils#key(java.util.Collection)}
+     */
+    private static void addValues(Set<String> dependencies, String type, String value) {
+        if (value.startsWith("[") && value.endsWith("]")) {
+            for (String element : StringUtils.split(value.substring(1, value.length() - 1), ',')) {
+                dependencies.add(type + element);
+            }
+        } else if (!StringUtils.isEmpty(value)) {
+            dependencies.add(type + value);
+        }
+    }
+
+    private static String buildKey(Collection<String> roleIds, String memberId, String memberTypeCode,
+            String roleMemberId, boolean anyPrincipal) {
+        Set<String> tokens = new LinkedHashSet<String>();
+        if (anyPrincipal) {
+            tokens.add(ANY_PRINCIPAL);
+        }
+        addMemberTokens(tokens, memberId, memberTypeCode);
+        if (StringUtils.isNotBlank(roleMemberId)) {
+            tokens.add(ROLE_MEMBER + roleMemberId);
+        }
+        addRoleTokens(tokens, roleIds);
+        return toKey(tokens);
+    }
+
+    private static void addMemberTokens(Set<String> tokens, String memberId, String memberTypeCode) {
+        if (StringUtils.isNotBlank(memberId)) {
+            tokens.add(MEMBER + memberId);
+        }
+        if (MemberType.PRINCIPAL.getCode().equals(memberTypeCode) && StringUtils.isNotBlank(memberId)) {
+            tokens.add(PRINCIPAL + memberId);
+        } else {
+            // the principals of a group or role member are not known here
+            tokens.add(ANY_PRINCIPAL);
+        }
+    }
+
+    /**
+     * adds the given roles and every role which contains one of them, directly or through other roles, since the
+     * membership of those roles changes as well
+     */
+    private static void addRoleTokens(Set<String> tokens, Collection<String> roleIds) {
+        if (roleIds.contains(null)) {
+            tokens.add(ANY);
+            return;
+        }
+        Set<String> affectedRoleIds = new LinkedHashSet<String>(roleIds);
+        Set<String> memberRoleIds = new HashSet<String>(roleIds);
+        while (!memberRoleIds.isEmpty()) {
+            List<RoleMember> containingMembers = getRoleService().findRoleMembers(QueryByCriteria.Builder.fromPredicates(
+                    in("memberId", memberRoleIds.toArray(new String[memberRoleIds.size()])),
+                    equal("typeCode", MemberType.ROLE.getCode()))).getResults();
+            memberRoleIds = new HashSet<String>();
+            for (RoleMember containingMember : containingMembers) {
+                if (affectedRoleIds.add(containingMember.getRoleId())) {
+                    memberRoleIds.add(containingMember.getRoleId());
+                }
+            }
+        }
+
+        for (Role role : getRoleService().getRoles(new ArrayList<String>(affectedRoleIds))) {
+            tokens.add(ROLE_NAME + role.getNamespaceCode() + ":" + role.getName());
+        }
+        for (String roleId : affectedRoleIds) {
+            tokens.add(ROLE + roleId);
+        }
+    }
+
+    private static String toKey(Set<String> tokens) {
+        return DEPENDENCY_KEY_PREFIX + StringUtils.join(tokens, TOKEN_SEPARATOR);
+    }
+
+    private static Set<String> parseDependencyKey(String dependencyKey) {
+        Set<String> tokens = new HashSet<String>();
+        if (!isDependencyKey(dependencyKey)) {
+            tokens.add(ANY);
+            return tokens;
+        }
+        Collections.addAll(tokens, StringUtils.split(dependencyKey.substring(DEPENDENCY_KEY_PREFIX.length()),
+                TOKEN_SEPARATOR));
+        return tokens;
+    }
+
+    private static String fallbackKey(RuntimeException e) {
+        LOG.warn("Unable to determine the cache entries affected by a role membership change, clearing caches", e);
+        return ANY_KEY;
+    }
+
+    private static RoleService getRoleService() {
+        return KimApiServiceLocator.getRoleService();
+    }
+
+}
@@ -27,6 +27,7 @@ import org.kuali.rice.kim.api.permission.Permission;
 import org.kuali.rice.kim.api.responsibility.Responsibility;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 
 import javax.jws.WebMethod;
 import javax.jws.WebParam;
@@ -576,7 +577,8 @@ public interface RoleService {
 	 */
     @WebMethod(operationName = "assignPrincipalToRole")
     @WebResult(name = "roleMember")
-    @CacheEvict(value={Role.Cache.NAME, Permission.Cache.NAME, Responsibility.Cache.NAME, RoleMembership.Cache.NAME, RoleMember.Cache.NAME, DelegateMember.Cache.NAME, RoleResponsibility.Cache.NAME, DelegateType.Cache.NAME }, allEntries = true)
+    @CacheEvict(value={Role.Cache.NAME, Responsibility.Cache.NAME, RoleMembership.Cache.NAME, RoleMember.Cache.NAME, RoleResponsibility.Cache.NAME},
+                key="T(org.kuali.rice.kim.api.cache.KimCacheDependencies).forRoleMember(#p0, T(org.kuali.rice.core.api.membership.MemberType).PRINCIPAL.code, #p1, #p2)")
     RoleMember assignPrincipalToRole(@WebParam(name="principalId") String principalId,
                 @WebParam(name="namespaceCode")
                 String namespaceCode,
@@ -600,7 +602,8 @@ public interface RoleService {
 	 */
     @WebMethod(operationName = "assignGroupToRole")
     @WebResult(name = "roleMember")
-    @CacheEvict(value={Role.Cache.NAME, Permission.Cache.NAME, Responsibility.Cache.NAME, RoleMembership.Cache.NAME, RoleMember.Cache.NAME, DelegateMember.Cache.NAME, RoleResponsibility.Cache.NAME, DelegateType.Cache.NAME }, allEntries = true)
+    @CacheEvict(value={Role.Cache.NAME, Responsibility.Cache.NAME, RoleMembership.Cache.NAME, RoleMember.Cache.NAME, RoleResponsibility.Cache.NAME},
+                key="T(org.kuali.rice.kim.api.cache.KimCacheDependencies).forRoleMember(#p0, T(org.kuali.rice.core.api.membership.MemberType).GROUP.code, #p1, #p2)")
     RoleMember assignGroupToRole(@WebParam(name="groupId") String groupId,
     		@WebParam(name="namespaceCode") String namespaceCode,
     		@WebParam(name="roleName") String roleName,
@@ -620,7 +623,8 @@ public interface RoleService {
 	 */
     @WebMethod(operationName = "assignRoleToRole")
     @WebResult(name = "roleMember")
-    @CacheEvict(value={Role.Cache.NAME, Permission.Cache.NAME, Responsibility.Cache.NAME, RoleMembership.Cache.NAME, RoleMember.Cache.NAME, DelegateMember.Cache.NAME, RoleResponsibility.Cache.NAME, DelegateType.Cache.NAME }, allEntries = true)
+    @CacheEvict(value={Role.Cache.NAME, Responsibility.Cache.NAME, RoleMembership.Cache.NAME, RoleMember.Cache.NAME, RoleResponsibility.Cache.NAME},
+                key="T(org.kuali.rice.kim.api.cache.KimCacheDependencies).forRoleMember(#p0, T(org.kuali.rice.core.api.membership.MemberType).ROLE.code, #p1, #p2)")
     RoleMember assignRoleToRole(@WebParam(name="roleId") String roleId,
     		@WebParam(name="namespaceCode") String namespaceCode,
     		@WebParam(name="roleName") String roleName,
@@ -637,7 +641,8 @@ public interface RoleService {
 	 */
     @WebMethod(operationName = "createRoleMember")
     @WebResult(name = "roleMember")
-    @CacheEvict(value={Role.Cache.NAME, Permission.Cache.NAME, Responsibility.Cache.NAME, RoleMembership.Cache.NAME, RoleMember.Cache.NAME, DelegateMember.Cache.NAME, RoleResponsibility.Cache.NAME, DelegateType.Cache.NAME }, allEntries = true)
+    @CacheEvict(value={Role.Cache.NAME, Responsibility.Cache.NAME, RoleMembership.Cache.NAME, RoleMember.Cache.NAME, RoleResponsibility.Cache.NAME},
+                key="T(org.kuali.rice.kim.api.cache.KimCacheDependencies).forRoleMember(#p0)")
     RoleMember createRoleMember(
                 @WebParam(name = "roleMember")
                 RoleMember roleMember) throws RiceIllegalArgumentException, RiceIllegalStateException;
@@ -652,7 +657,8 @@ public interface RoleService {
 	 */
     @WebMethod(operationName = "updateRoleMember")
     @WebResult(name = "roleMember")
-    @CacheEvict(value={Role.Cache.NAME, Permission.Cache.NAME, Responsibility.Cache.NAME, RoleMembership.Cache.NAME, RoleMember.Cache.NAME, DelegateMember.Cache.NAME, RoleResponsibility.Cache.NAME, DelegateType.Cache.NAME }, allEntries = true)
+    @CacheEvict(value={Role.Cache.NAME, Responsibility.Cache.NAME, RoleMembership.Cache.NAME, RoleMember.Cache.NAME, RoleResponsibility.Cache.NAME},
+                key="T(org.kuali.rice.kim.api.cache.KimCacheDependencies).forUpdatedRoleMember(#p0)")
     RoleMember updateRoleMember(@WebParam(name = "roleMember") RoleMember roleMember) throws RiceIllegalArgumentException, RiceIllegalStateException;
 
     /**
@@ -665,7 +671,10 @@ public interface RoleService {
      */
     @WebMethod(operationName = "updateDelegateMember")
     @WebResult(name = "delegateMember")
-    @CacheEvict(value={Role.Cache.NAME, RoleMembership.Cache.NAME, RoleMember.Cache.NAME, DelegateMember.Cache.NAME, RoleResponsibility.Cache.NAME, DelegateType.Cache.NAME }, allEntries = true)
+    @Caching(evict={
+            @CacheEvict(value={Role.Cache.NAME, Responsibility.Cache.NAME, RoleMembership.Cache.NAME, RoleMember.Cache.NAME, RoleResponsibility.Cache.NAME},
+                    key="T(org.kuali.rice.kim.api.cache.KimCacheDependencies).forUpdatedDelegateMember(#p0)"),
+            @CacheEvict(value={DelegateMember.Cache.NAME, DelegateType.Cache.NAME}, allEntries = true)})
     DelegateMember updateDelegateMember(@WebParam(name = "delegateMember") DelegateMember delegateMember) throws RiceIllegalArgumentException, RiceIllegalStateException;
 
     /**
@@ -678,7 +687,10 @@ public interface RoleService {
      */
     @WebMethod(operationName = "createDelegateMember")
     @WebResult(name = "delegateMember")
-    @CacheEvict(value={Role.Cache.NAME, RoleMembership.Cache.NAME, RoleMember.Cache.NAME, DelegateMember.Cache.NAME, RoleResponsibility.Cache.NAME, DelegateType.Cache.NAME }, allEntries = true)
+    @Caching(evict={
+            @CacheEvict(value={Role.Cache.NAME, Responsibility.Cache.NAME, RoleMembership.Cache.NAME, RoleMember.Cache.NAME, RoleResponsibility.Cache.NAME},
+                    key="T(org.kuali.rice.kim.api.cache.KimCacheDependencies).forDelegateMember(#p0)"),
+            @CacheEvict(value={DelegateMember.Cache.NAME, DelegateType.Cache.NAME}, allEntries = true)})
     DelegateMember createDelegateMember(
             @WebParam(name = "delegateMember")
             DelegateMember delegateMember) throws RiceIllegalArgumentException, RiceIllegalStateException;
@@ -690,7 +702,10 @@ public interface RoleService {
      * @throws RiceIllegalArgumentException if delegateMember is null.
      */
     @WebMethod(operationName = "removeDelegateMembers")
-    @CacheEvict(value={Role.Cache.NAME, RoleMembership.Cache.NAME, RoleMember.Cache.NAME, DelegateMember.Cache.NAME, RoleResponsibility.Cache.NAME, DelegateType.Cache.NAME }, allEntries = true)
+    @Caching(evict={
+            @CacheEvict(value={Role.Cache.NAME, Responsibility.Cache.NAME, RoleMembership.Cache.NAME, RoleMember.Cache.NAME, RoleResponsibility.Cache.NAME},
+                    key="T(org.kuali.rice.kim.api.cache.KimCacheDependencies).forDelegateMembers(#p0)"),
+            @CacheEvict(value={DelegateMember.Cache.NAME, DelegateType.Cache.NAME}, allEntries = true)})
     void removeDelegateMembers(
             @WebParam(name = "delegateMembers")
             List<DelegateMember> delegateMembers) throws RiceIllegalArgumentException, RiceIllegalStateException;
@@ -770,7 +785,8 @@ public interface RoleService {
      * @throws RiceIllegalArgumentException if principalId, namespaceCode or roleName is null or blank.
      */
     @WebMethod(operationName = "removePrincipalFromRole")
-    @CacheEvict(value={Role.Cache.NAME, Permission.Cache.NAME, Responsibility.Cache.NAME, RoleMembership.Cache.NAME, RoleMember.Cache.NAME, DelegateMember.Cache.NAME, RoleResponsibility.Cache.NAME, DelegateType.Cache.NAME }, allEntries = true)
+    @CacheEvict(value={Role.Cache.NAME, Responsibility.Cache.NAME, RoleMembership.Cache.NAME, RoleMember.Cache.NAME, RoleResponsibility.Cache.NAME},
+                key="T(org.kuali.rice.kim.api.cache.KimCacheDependencies).forRoleMember(#p0, T(org.kuali.rice.core.api.membership.MemberType).PRINCIPAL.code, #p1, #p2)")
     void removePrincipalFromRole(@WebParam(name="principalId") String principalId,
     		@WebParam(name="namespaceCode") String namespaceCode,
     		@WebParam(name="roleName") String roleName,
@@ -788,7 +804,8 @@ public interface RoleService {
      * @throws RiceIllegalArgumentException if groupId, namespaceCode or roleName is null or blank.
      */
     @WebMethod(operationName = "removeGroupFromRole")
-    @CacheEvict(value={Role.Cache.NAME, Permission.Cache.NAME, Responsibility.Cache.NAME, RoleMembership.Cache.NAME, RoleMember.Cache.NAME, DelegateMember.Cache.NAME, RoleResponsibility.Cache.NAME, DelegateType.Cache.NAME }, allEntries = true)
+    @CacheEvict(value={Role.Cache.NAME, Responsibility.Cache.NAME, RoleMembership.Cache.NAME, RoleMember.Cache.NAME, RoleResponsibility.Cache.NAME},
+                key="T(org.kuali.rice.kim.api.cache.KimCacheDependencies).forRoleMember(#p0, T(org.kuali.rice.core.api.membership.MemberType).GROUP.code, #p1, #p2)")
     void removeGroupFromRole(@WebParam(name="groupId") String groupId,
     		@WebParam(name="namespaceCode") String namespaceCode,
     		@WebParam(name="roleName") String roleName,
@@ -806,7 +823,8 @@ public interface RoleService {
      * @throws RiceIllegalArgumentException if roleId, namespaceCode or roleName is null or blank.
      */
     @WebMethod(operationName = "removeRoleFromRole")
-    @CacheEvict(value={Role.Cache.NAME, Permission.Cache.NAME, Responsibility.Cache.NAME, RoleMembership.Cache.NAME, RoleMember.Cache.NAME, DelegateMember.Cache.NAME, RoleResponsibility.Cache.NAME, DelegateType.Cache.NAME }, allEntries = true)
+    @CacheEvict(value={Role.Cache.NAME, Responsibility.Cache.NAME, RoleMembership.Cache.NAME, RoleMember.Cache.NAME, RoleResponsibility.Cache.NAME},
+                key="T(org.kuali.rice.kim.api.cache.KimCacheDependencies).forRoleMember(#p0, T(org.kuali.rice.core.api.membership.MemberType).ROLE.code, #p1, #p2)")
     void removeRoleFromRole(@WebParam(name="roleId") String roleId,
     		@WebParam(name="namespaceCode") String namespaceCode,
     		@WebParam(name="roleName") String roleName,
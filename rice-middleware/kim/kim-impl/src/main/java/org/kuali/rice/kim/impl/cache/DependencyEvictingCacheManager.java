@@ -0,0 +1,261 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kim.impl.cache;
+
+import org.apache.log4j.Logger;
+import org.kuali.rice.kim.api.cache.KimCacheDependencies;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A cache manager that wraps the local KIM cache manager and understands the dependency keys built by
+ * {@link KimCacheDependencies}.
+ *
+ * <p>Evicting a dependency key from one of its caches evicts every entry of that cache which depends on the roles,
+ * principals or members named by the key.  All other operations are passed through to the wrapped cache.  To avoid
+ * scanning every key of the cache on each eviction, the keys put into the cache are indexed by the
+ * {@link KimCacheDependencies#getIndexTokens(Object) tokens} they depend on.  Keys which the wrapped cache has expired
+ * on its own are pruned from the index against the keys of the native ehcache once the index has grown to twice the
+ * size it had after the last pruning; if the native cache is not an ehcache, nothing is indexed and evicting a
+ * dependency key clears the entire cache.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class DependencyEvictingCacheManager implements CacheManager, InitializingBean {
+
+    private static final Logger LOG = Logger.getLogger(DependencyEvictingCacheManager.class);
+
+    private static final int MIN_PRUNE_THRESHOLD = 1024;
+
+    private final ConcurrentMap<String, DependencyEvictingCache> caches =
+            new ConcurrentHashMap<String, DependencyEvictingCache>();
+
+    private CacheManager cacheManager;
+
+    @Override
+    public Cache getCache(String name) {
+        DependencyEvictingCache cache = caches.get(name);
+        if (cache == null) {
+            Cache wrapped = cacheManager.getCache(name);
+            if (wrapped == null) {
+                return null;
+            }
+            cache = new DependencyEvictingCache(wrapped);
+            DependencyEvictingCache existing = caches.putIfAbsent(name, cache);
+            if (existing != null) {
+                cache = existing;
+            }
+        }
+        return cache;
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return cacheManager.getCacheNames();
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (cacheManager == null) {
+            throw new IllegalStateException("cacheManager was null");
+        }
+    }
+
+    public void setCacheManager(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Returns the keys of the given native cache if it is an ehcache, or null otherwise.  This is done reflectively
+     * so that ehcache is not required at compile time.
+     */
+    private static List<?> getNativeKeys(Object nativeCache) {
+        try {
+            Class<?> ehcache = Class.forName("net.sf.ehcache.Ehcache");
+            if (ehcache.isInstance(nativeCache)) {
+                return (List<?>) ehcache.getMethod("getKeys").invoke(nativeCache);
+            }
+        } catch (ClassNotFoundException e) {
+            // ignore
+        } catch (NoSuchMethodException e) {
+            // ignore
+        } catch (InvocationTargetException e) {
+            LOG.warn("Failed to read the keys of cache " + nativeCache, e.getTargetException());
+        } catch (IllegalAccessException e) {
+            // ignore
+        }
+        return null;
+    }
+
+    private static final class DependencyEvictingCache implements Cache {
+
+        private final Cache cache;
+        private final boolean indexed;
+
+        // index token -> keys depending on it, and key -> its index tokens so that keys can be removed again
+        private final ConcurrentMap<String, Set<Object>> keysByToken = new ConcurrentHashMap<String, Set<Object>>();
+        private final ConcurrentMap<Object, Set<String>> tokensByKey = new ConcurrentHashMap<Object, Set<String>>();
+
+        private final AtomicInteger pruneThreshold = new AtomicInteger(MIN_PRUNE_THRESHOLD);
+
+        private DependencyEvictingCache(Cache cache) {
+            this.cache = cache;
+            this.indexed = getNativeKeys(cache.getNativeCache()) != null;
+        }
+
+        @Override
+        public String getName() {
+            return cache.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return cache.getNativeCache();
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            return cache.get(key);
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            cache.put(key, value);
+            // indexed after the put, so that an indexed key is always in the native cache when it is pruned
+            if (indexed) {
+                index(key);
+            }
+        }
+
+        @Override
+        public void evict(Object key) {
+            if (!KimCacheDependencies.isDependencyKey(key)) {
+                cache.evict(key);
+                unindex(key);
+                return;
+            }
+
+            String dependencyKey = (String) key;
+            if (!indexed || KimCacheDependencies.isClearAll(dependencyKey)) {
+                clear();
+                return;
+            }
+
+            KimCacheDependencies.Matcher matcher = KimCacheDependencies.matcher(dependencyKey);
+            Set<Object> candidates = new HashSet<Object>();
+            for (String token : matcher.getTokens()) {
+                Set<Object> keys = keysByToken.get(token);
+                if (keys != null) {
+                    candidates.addAll(keys);
+                }
+            }
+            int evicted = 0;
+            for (Object candidate : candidates) {
+                if (matcher.matches(candidate)) {
+                    cache.evict(candidate);
+                    unindex(candidate);
+                    evicted++;
+                }
+            }
+
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Evicted " + evicted + " of " + candidates.size() + " candidate entries from cache "
+                        + getName() + " for dependency key " + dependencyKey);
+            }
+        }
+
+        @Override
+        public void clear() {
+            cache.clear();
+            keysByToken.clear();
+            tokensByKey.clear();
+        }
+
+        private void index(Object key) {
+            Set<String> tokens = KimCacheDependencies.getIndexTokens(key);
+            if (tokens.isEmpty() || tokensByKey.putIfAbsent(key, tokens) != null) {
+                return;
+            }
+            for (String token : tokens) {
+                Set<Object> keys = keysByToken.get(token);
+                if (keys == null) {
+                    Set<Object> newKeys = Collections.newSetFromMap(new ConcurrentHashMap<Object, Boolean>());
+                    keys = keysByToken.putIfAbsent(token, newKeys);
+                    if (keys == null) {
+                        keys = newKeys;
+                    }
+                }
+                keys.add(key);
+            }
+            int threshold = pruneThreshold.get();
+            if (tokensByKey.size() > threshold && pruneThreshold.compareAndSet(threshold, Integer.MAX_VALUE)) {
+                prune();
+            }
+        }
+
+        private void unindex(Object key) {
+            Set<String> tokens = tokensByKey.remove(key);
+            if (tokens == null) {
+                return;
+            }
+            for (String token : tokens) {
+                Set<Object> keys = keysByToken.get(token);
+                if (keys != null) {
+                    keys.remove(key);
+                }
+            }
+        }
+
+        /**
+         * removes the keys which are no longer in the native cache, which happens when entries expire or are evicted
+         * by the native cache itself
+         */
+        private void prune() {
+            int size = tokensByKey.size();
+            try {
+                // keys indexed after this copy was taken may not be in the native keys read below
+                Set<Object> indexedKeys = new HashSet<Object>(tokensByKey.keySet());
+                List<?> nativeKeys = getNativeKeys(getNativeCache());
+                if (nativeKeys != null) {
+                    Set<Object> present = new HashSet<Object>(nativeKeys);
+                    for (Object key : indexedKeys) {
+                        if (!present.contains(key)) {
+                            unindex(key);
+                        }
+                    }
+                }
+            } finally {
+                pruneThreshold.set(Math.max(MIN_PRUNE_THRESHOLD, 2 * tokensByKey.size()));
+            }
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Pruned the dependency index of cache " + getName() + " from " + size + " to "
+                        + tokensByKey.size() + " keys");
+            }
+        }
+    }
+
+}
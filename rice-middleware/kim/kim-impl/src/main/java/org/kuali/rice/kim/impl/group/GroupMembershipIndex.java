@@ -0,0 +1,417 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.kim.impl.group;
+
+import static org.kuali.rice.core.api.criteria.PredicateFactory.and;
+import static org.kuali.rice.core.api.criteria.PredicateFactory.equal;
+import static org.kuali.rice.core.api.criteria.PredicateFactory.greaterThan;
+import static org.kuali.rice.core.api.criteria.PredicateFactory.isNull;
+import static org.kuali.rice.core.api.criteria.PredicateFactory.or;
+
+import java.io.Serializable;
+import java.sql.Timestamp;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.log4j.Logger;
+import org.joda.time.DateTime;
+import org.kuali.rice.core.api.criteria.Predicate;
+import org.kuali.rice.core.api.criteria.QueryByCriteria;
+import org.kuali.rice.kim.api.KimConstants;
+import org.kuali.rice.kim.api.group.GroupMember;
+import org.kuali.rice.kim.impl.KIMPropertyConstants;
+import org.kuali.rice.krad.data.DataObjectService;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * An in-memory index of the transitive closure of group membership.
+ *
+ * <p>The index is made of two parts, both of which are held in the {@link GroupMember.Cache#NAME} cache:</p>
+ * <ul>
+ *     <li>the group graph, which holds the group to group memberships and the inactive groups, and from which the
+ *     ancestor and descendant groups of a group are computed (and remembered) in memory</li>
+ *     <li>an entry per principal holding every group the principal is a direct or indirect member of</li>
+ * </ul>
+ *
+ * <p>Every change to group membership evicts all entries from the group member cache, on this node as well as on the
+ * other nodes, so the index is rebuilt lazily after each change rather than being patched.  The group service also
+ * invalidates the affected parts of the index as soon as it changes a membership, so that later calls within the same
+ * transaction see the change.  A membership check against a built entry is a single set lookup.</p>
+ *
+ * <p>Active dates are honored: each part of the index records the interval over which none of the memberships it was
+ * built from becomes active or inactive, and it is only used to answer queries for a date within that interval.
+ * Queries for other dates (typically historical ones) return null, and the caller is expected to fall back to walking
+ * the memberships.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class GroupMembershipIndex {
+
+    private static final Logger LOG = Logger.getLogger(GroupMembershipIndex.class);
+
+    private static final String GRAPH_KEY = "{groupMembershipIndex}graph";
+    private static final String PRINCIPAL_KEY_PREFIX = "{groupMembershipIndex}principalId=";
+
+    /**
+     * how far back memberships which have already ended are loaded, which allows queries for dates shortly before the
+     * index was built to be answered by it
+     */
+    private static final long LOOKBACK_MILLIS = 60L * 60L * 1000L;
+
+    private final DataObjectService dataObjectService;
+    private final CacheManager cacheManager;
+
+    public GroupMembershipIndex(DataObjectService dataObjectService, CacheManager cacheManager) {
+        if (dataObjectService == null) {
+            throw new IllegalArgumentException("dataObjectService was null");
+        }
+        if (cacheManager == null) {
+            throw new IllegalArgumentException("cacheManager was null");
+        }
+        this.dataObjectService = dataObjectService;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Returns the ids of the active groups the given principal is a direct or indirect member of as of the given date.
+     *
+     * @param principalId the id of the principal
+     * @param asOfDate the date for which to check membership
+     * @return the ids of the groups, or null if the index cannot answer for the given date
+     */
+    public Set<String> getGroupIdsForPrincipal(String principalId, DateTime asOfDate) {
+        long asOf = roundAsOfDate(asOfDate);
+        GroupGraph graph = getGraph(asOf);
+        if (graph == null) {
+            return null;
+        }
+
+        Cache cache = getCache();
+        String key = PRINCIPAL_KEY_PREFIX + principalId;
+        Cache.ValueWrapper value = cache.get(key);
+        if (value != null && value.get() instanceof PrincipalGroups) {
+            PrincipalGroups principalGroups = (PrincipalGroups) value.get();
+            if (principalGroups.graphId.equals(graph.id) && principalGroups.isValidAt(asOf)) {
+                return principalGroups.groupIds;
+            }
+        }
+        if (!isCurrent(asOf)) {
+            return null;
+        }
+
+        PrincipalGroups principalGroups = buildPrincipalGroups(principalId, graph);
+        cache.put(key, principalGroups);
+        return principalGroups.isValidAt(asOf) ? principalGroups.groupIds : null;
+    }
+
+    /**
+     * Returns the ids of the active groups the given group is a direct or indirect member of as of the given date.
+     *
+     * @param groupId the id of the group
+     * @param asOfDate the date for which to check membership
+     * @return the ids of the groups, or null if the index cannot answer for the given date
+     */
+    public Set<String> getAncestorGroupIds(String groupId, DateTime asOfDate) {
+        GroupGraph graph = getGraph(roundAsOfDate(asOfDate));
+        return graph == null ? null : graph.getAncestorGroupIds(groupId);
+    }
+
+    /**
+     * Returns the ids of the active groups which are direct or indirect members of the given group as of the given
+     * date.  Only groups reachable through active groups are returned.
+     *
+     * @param groupId the id of the group
+     * @param asOfDate the date for which to check membership
+     * @return the ids of the groups, or null if the index cannot answer for the given date
+     */
+    public Set<String> getDescendantGroupIds(String groupId, DateTime asOfDate) {
+        GroupGraph graph = getGraph(roundAsOfDate(asOfDate));
+        return graph == null ? null : graph.getDescendantGroupIds(groupId);
+    }
+
+    /**
+     * Invalidates the entire index, which is required when group to group memberships or groups change.
+     */
+    public void invalidate() {
+        getCache().evict(GRAPH_KEY);
+    }
+
+    /**
+     * Invalidates the groups of the given principal, which is required when the principal is added to or removed from
+     * a group.
+     *
+     * @param principalId the id of the principal
+     */
+    public void invalidatePrincipal(String principalId) {
+        getCache().evict(PRINCIPAL_KEY_PREFIX + principalId);
+    }
+
+    /**
+     * Returns the group graph valid at the given time, building it if necessary, or null if the given time is not
+     * covered by the graph.
+     */
+    protected GroupGraph getGraph(long asOf) {
+        Cache cache = getCache();
+        Cache.ValueWrapper value = cache.get(GRAPH_KEY);
+        if (value != null && value.get() instanceof GroupGraph && ((GroupGraph) value.get()).isValidAt(asOf)) {
+            return (GroupGraph) value.get();
+        }
+        if (!isCurrent(asOf)) {
+            return null;
+        }
+
+        GroupGraph graph = buildGraph();
+        cache.put(GRAPH_KEY, graph);
+        return graph.isValidAt(asOf) ? graph : null;
+    }
+
+    protected GroupGraph buildGraph() {
+        long now = roundAsOfDate(DateTime.now());
+        Validity validity = new Validity(now);
+
+        Map<String, Set<String>> parentGroupIds = new HashMap<String, Set<String>>();
+        Map<String, Set<String>> memberGroupIds = new HashMap<String, Set<String>>();
+        List<GroupMemberBo> groupMembers = findMembers(and(
+                equal(KIMPropertyConstants.GroupMember.MEMBER_TYPE_CODE,
+                        KimConstants.KimGroupMemberTypes.GROUP_MEMBER_TYPE.getCode()),
+                notEnded(now)));
+        for (GroupMemberBo groupMember : groupMembers) {
+            if (validity.include(groupMember)) {
+                addToSetMap(parentGroupIds, groupMember.getMemberId(), groupMember.getGroupId());
+                addToSetMap(memberGroupIds, groupMember.getGroupId(), groupMember.getMemberId());
+            }
+        }
+
+        Set<String> inactiveGroupIds = new HashSet<String>();
+        QueryByCriteria.Builder builder = QueryByCriteria.Builder.create();
+        builder.setPredicates(equal("active", Boolean.FALSE));
+        for (GroupBo group : dataObjectService.findMatching(GroupBo.class, builder.build()).getResults()) {
+            inactiveGroupIds.add(group.getId());
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Built group membership graph from " + groupMembers.size() + " group members and "
+                    + inactiveGroupIds.size() + " inactive groups");
+        }
+        return new GroupGraph(parentGroupIds, memberGroupIds, inactiveGroupIds, validity.from, validity.until);
+    }
+
+    protected PrincipalGroups buildPrincipalGroups(String principalId, GroupGraph graph) {
+        long now = roundAsOfDate(DateTime.now());
+        Validity validity = new Validity(now);
+
+        Set<String> groupIds = new HashSet<String>();
+        List<GroupMemberBo> principalMembers = findMembers(and(
+                equal(KIMPropertyConstants.GroupMember.MEMBER_ID, principalId),
+                equal(KIMPropertyConstants.GroupMember.MEMBER_TYPE_CODE,
+                        KimConstants.KimGroupMemberTypes.PRINCIPAL_MEMBER_TYPE.getCode()),
+                notEnded(now)));
+        for (GroupMemberBo principalMember : principalMembers) {
+            if (validity.include(principalMember) && graph.isActive(principalMember.getGroupId())) {
+                groupIds.add(principalMember.getGroupId());
+                groupIds.addAll(graph.getAncestorGroupIds(principalMember.getGroupId()));
+            }
+        }
+
+        // the entry is computed from the graph, so it cannot outlive it
+        return new PrincipalGroups(graph.id, Collections.unmodifiableSet(groupIds),
+                Math.max(validity.from, graph.validFrom), Math.min(validity.until, graph.validUntil));
+    }
+
+    private List<GroupMemberBo> findMembers(Predicate predicate) {
+        QueryByCriteria.Builder builder = QueryByCriteria.Builder.create();
+        builder.setPredicates(predicate);
+        return dataObjectService.findMatching(GroupMemberBo.class, builder.build()).getResults();
+    }
+
+    private static Predicate notEnded(long now) {
+        return or(isNull(KIMPropertyConstants.KimMember.ACTIVE_TO_DATE_VALUE),
+                greaterThan(KIMPropertyConstants.KimMember.ACTIVE_TO_DATE_VALUE,
+                        new Timestamp(now - LOOKBACK_MILLIS)));
+    }
+
+    private Cache getCache() {
+        return cacheManager.getCache(GroupMember.Cache.NAME);
+    }
+
+    private static boolean isCurrent(long asOf) {
+        return Math.abs(asOf - roundAsOfDate(DateTime.now())) <= 1000L;
+    }
+
+    /**
+     * rounds the given date the same way as membership checks against the database do, see
+     * {@link org.kuali.rice.kim.api.common.history.HistoryQueryUtils#between(String, String, org.joda.time.DateTime)}
+     */
+    private static long roundAsOfDate(DateTime asOfDate) {
+        return asOfDate.secondOfDay().roundCeilingCopy().getMillis();
+    }
+
+    private static void addToSetMap(Map<String, Set<String>> map, String key, String value) {
+        Set<String> values = map.get(key);
+        if (values == null) {
+            values = new HashSet<String>();
+            map.put(key, values);
+        }
+        values.add(value);
+    }
+
+    /**
+     * Tracks the interval around a point in time over which none of the included memberships changes state.
+     */
+    private static final class Validity {
+
+        private final long now;
+        private long from;
+        private long until = Long.MAX_VALUE;
+
+        private Validity(long now) {
+            this.now = now;
+            this.from = now - LOOKBACK_MILLIS;
+        }
+
+        /**
+         * records the dates of the given member and returns whether it is active at the current time
+         */
+        private boolean include(GroupMemberBo member) {
+            record(member.getActiveFromDateValue());
+            record(member.getActiveToDateValue());
+            return member.isActive(new DateTime(now));
+        }
+
+        private void record(Timestamp date) {
+            if (date == null) {
+                return;
+            }
+            long millis = date.getTime();
+            if (millis <= now) {
+                from = Math.max(from, millis);
+            } else {
+                until = Math.min(until, millis);
+            }
+        }
+    }
+
+    /**
+     * The group to group memberships, which are valid from (inclusive) and until (exclusive) the given times.
+     */
+    protected static final class GroupGraph implements Serializable {
+
+        private static final long serialVersionUID = 3467238734716207386L;
+
+        private final String id = UUID.randomUUID().toString();
+        private final Map<String, Set<String>> parentGroupIds;
+        private final Map<String, Set<String>> memberGroupIds;
+        private final Set<String> inactiveGroupIds;
+        private final long validFrom;
+        private final long validUntil;
+
+        private final ConcurrentMap<String, Set<String>> ancestorGroupIds = new ConcurrentHashMap<String, Set<String>>();
+        private final ConcurrentMap<String, Set<String>> descendantGroupIds = new ConcurrentHashMap<String, Set<String>>();
+
+        private GroupGraph(Map<String, Set<String>> parentGroupIds, Map<String, Set<String>> memberGroupIds,
+                Set<String> inactiveGroupIds, long validFrom, long validUntil) {
+            this.parentGroupIds = parentGroupIds;
+            this.memberGroupIds = memberGroupIds;
+            this.inactiveGroupIds = inactiveGroupIds;
+            this.validFrom = validFrom;
+            this.validUntil = validUntil;
+        }
+
+        private boolean isValidAt(long asOf) {
+            return asOf >= validFrom && asOf < validUntil;
+        }
+
+        private boolean isActive(String groupId) {
+            return !inactiveGroupIds.contains(groupId);
+        }
+
+        private Set<String> getAncestorGroupIds(String groupId) {
+            Set<String> groupIds = ancestorGroupIds.get(groupId);
+            if (groupIds == null) {
+                groupIds = Collections.unmodifiableSet(walk(groupId, parentGroupIds));
+                ancestorGroupIds.putIfAbsent(groupId, groupIds);
+            }
+            return groupIds;
+        }
+
+        private Set<String> getDescendantGroupIds(String groupId) {
+            Set<String> groupIds = descendantGroupIds.get(groupId);
+            if (groupIds == null) {
+                groupIds = Collections.unmodifiableSet(walk(groupId, memberGroupIds));
+                descendantGroupIds.putIfAbsent(groupId, groupIds);
+            }
+            return groupIds;
+        }
+
+        /**
+         * walks the given edges from the given group, only following active groups
+         */
+        private Set<String> walk(String groupId, Map<String, Set<String>> edges) {
+            Set<String> visited = new HashSet<String>();
+            Deque<String> toVisit = new ArrayDeque<String>();
+            toVisit.add(groupId);
+            while (!toVisit.isEmpty()) {
+                Set<String> next = edges.get(toVisit.poll());
+                if (next != null) {
+                    for (String nextGroupId : next) {
+                        if (isActive(nextGroupId) && visited.add(nextGroupId)) {
+                            toVisit.add(nextGroupId);
+                        }
+                    }
+                }
+            }
+            return visited;
+        }
+    }
+
+    /**
+     * The groups a principal is a member of, which are valid from (inclusive) and until (exclusive) the given times.
+     */
+    protected static final class PrincipalGroups implements Serializable {
+
+        private static final long serialVersionUID = -2309457816389024517L;
+
+        /**
+         * the id of the graph the entry was computed from, the entry is discarded once that graph is replaced
+         */
+        private final String graphId;
+        private final Set<String> groupIds;
+        private final long validFrom;
+        private final long validUntil;
+
+        private PrincipalGroups(String graphId, Set<String> groupIds, long validFrom, long validUntil) {
+            this.graphId = graphId;
+            this.groupIds = groupIds;
+            this.validFrom = validFrom;
+            this.validUntil = validUntil;
+        }
+
+        private boolean isValidAt(long asOf) {
+            return asOf >= validFrom && asOf < validUntil;
+        }
+    }
+
+}
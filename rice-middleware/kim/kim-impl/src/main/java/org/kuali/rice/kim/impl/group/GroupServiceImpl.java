@@ -53,11 +53,14 @@ import org.kuali.rice.kim.impl.common.attribute.AttributeTransform;
 import org.kuali.rice.kim.impl.common.attribute.KimAttributeDataBo;
 import org.kuali.rice.kim.impl.services.KimImplServiceLocator;
 import org.kuali.rice.krad.data.DataObjectService;
+import org.springframework.cache.CacheManager;
 
 public class GroupServiceImpl extends GroupServiceBase implements GroupService {
     private static final Logger LOG = Logger.getLogger(GroupServiceImpl.class);
 
     private DataObjectService dataObjectService;
+    private CacheManager cacheManager;
+    private GroupMembershipIndex membershipIndex;
 
     @Override
     public Group getGroup(String groupId) throws RiceIllegalArgumentException {
@@ -148,6 +151,14 @@ public class GroupServiceImpl extends GroupServiceBase implements GroupService {
 
     protected List<String> getGroupIdsByPrincipalIdAndNamespaceCodeInternal(String principalId, String namespaceCode) throws RiceIllegalArgumentException {
 
+        GroupMembershipIndex index = getMembershipIndex();
+        if (principalId != null && namespaceCode == null && index != null) {
+            Set<String> groupIds = index.getGroupIdsForPrincipal(principalId, DateTime.now());
+            if (groupIds != null) {
+                return Collections.unmodifiableList(new ArrayList<String>(groupIds));
+            }
+        }
+
         List<String> result = new ArrayList<String>();
 
         if (principalId != null) {
@@ -182,6 +193,14 @@ public class GroupServiceImpl extends GroupServiceBase implements GroupService {
     public List<String> getMemberPrincipalIds(String groupId) throws RiceIllegalArgumentException {
         incomingParamCheck(groupId, "groupId");
 
+        GroupMembershipIndex index = getMembershipIndex();
+        if (index != null) {
+            Set<String> groupIds = index.getDescendantGroupIds(groupId, DateTime.now());
+            if (groupIds != null) {
+                return getMemberPrincipalIdsFromIndex(groupId, groupIds);
+            }
+        }
+
 		return getMemberPrincipalIdsInternal(groupId, new HashSet<String>());
     }
 
@@ -196,6 +215,14 @@ public class GroupServiceImpl extends GroupServiceBase implements GroupService {
     public List<String> getMemberGroupIds(String groupId) throws RiceIllegalArgumentException {
         incomingParamCheck(groupId, "groupId");
 
+        GroupMembershipIndex index = getMembershipIndex();
+        if (index != null) {
+            Set<String> groupIds = index.getDescendantGroupIds(groupId, DateTime.now());
+            if (groupIds != null) {
+                return Collections.unmodifiableList(new ArrayList<String>(groupIds));
+            }
+        }
+
 		List<GroupBo> groups = getMemberGroupBos( groupId );
 		ArrayList<String> groupIds = new ArrayList<String>( groups.size() );
 		for ( GroupBo group : groups ) {
@@ -247,6 +274,14 @@ public class GroupServiceImpl extends GroupServiceBase implements GroupService {
         incomingParamCheck(groupId, "groupId");
         incomingParamCheck(asOfDate, "asOfDate");
 
+        GroupMembershipIndex index = getMembershipIndex();
+        if (index != null) {
+            Set<String> groupIds = index.getAncestorGroupIds(groupMemberId, asOfDate);
+            if (groupIds != null) {
+                return groupIds.contains(groupId);
+            }
+        }
+
         return isMemberOfGroupInternal(groupMemberId, groupId, new HashSet<String>(), KimConstants.KimGroupMemberTypes.GROUP_MEMBER_TYPE, asOfDate);
     }
 
@@ -261,6 +296,14 @@ public class GroupServiceImpl extends GroupServiceBase implements GroupService {
         incomingParamCheck(groupId, "groupId");
         incomingParamCheck(asOfDate, "asOfDate");
 
+        GroupMembershipIndex index = getMembershipIndex();
+        if (index != null) {
+            Set<String> groupIds = index.getGroupIdsForPrincipal(principalId, asOfDate);
+            if (groupIds != null) {
+                return groupIds.contains(groupId);
+            }
+        }
+
         Set<String> visitedGroupIds = new HashSet<String>();
         return isMemberOfGroupInternal(principalId, groupId, visitedGroupIds, KimConstants.KimGroupMemberTypes.PRINCIPAL_MEMBER_TYPE, asOfDate);
     }
@@ -283,6 +326,14 @@ public class GroupServiceImpl extends GroupServiceBase implements GroupService {
     public List<String> getParentGroupIds(String groupId) throws RiceIllegalArgumentException {
         incomingParamCheck(groupId, "groupId");
 
+        GroupMembershipIndex index = getMembershipIndex();
+        if (index != null) {
+            Set<String> groupIds = index.getAncestorGroupIds(groupId, DateTime.now());
+            if (groupIds != null) {
+                return Collections.unmodifiableList(new ArrayList<String>(groupIds));
+            }
+        }
+
         List<String> result = new ArrayList<String>();
         if (groupId != null) {
             List<Group> groupList = getParentGroups(groupId);
@@ -561,6 +612,34 @@ public class GroupServiceImpl extends GroupServiceBase implements GroupService {
 		return Collections.unmodifiableList(new ArrayList<String>(ids));
 	}
 
+    /**
+     * Returns the principals which are active members of the given group or of one of the given member groups.
+     */
+    protected List<String> getMemberPrincipalIdsFromIndex(String groupId, Set<String> memberGroupIds) {
+        if (!isGroupActive(groupId)) {
+            return Collections.emptyList();
+        }
+        List<String> groupIds = new ArrayList<String>(memberGroupIds);
+        groupIds.add(groupId);
+
+        final QueryByCriteria.Builder builder = QueryByCriteria.Builder.create();
+        builder.setPredicates(
+                and(
+                    in(KIMPropertyConstants.GroupMember.GROUP_ID, groupIds.toArray(new String[groupIds.size()])),
+                    equal(KIMPropertyConstants.GroupMember.MEMBER_TYPE_CODE, KimConstants.KimGroupMemberTypes.PRINCIPAL_MEMBER_TYPE.getCode()),
+                    HistoryQueryUtils.between(KIMPropertyConstants.KimMember.ACTIVE_FROM_DATE_VALUE, KIMPropertyConstants.KimMember.ACTIVE_TO_DATE_VALUE, DateTime.now())));
+        Set<String> ids = new HashSet<String>();
+        for (GroupMemberBo member : dataObjectService.findMatching(GroupMemberBo.class, builder.build()).getResults()) {
+            ids.add(member.getMemberId());
+        }
+        return Collections.unmodifiableList(new ArrayList<String>(ids));
+    }
+
+    private boolean isGroupActive(String groupId) {
+        GroupBo group = getGroupBo(groupId);
+        return group != null && group.isActive();
+    }
+
     protected Collection<Group> getDirectGroupsForPrincipal( String principalId ) {
 		return getDirectGroupsForPrincipal( principalId, null, new DateTime(System.currentTimeMillis()) );
 	}
@@ -615,6 +694,7 @@ public class GroupServiceImpl extends GroupServiceBase implements GroupService {
         groupMember.setMemberId(childId);
 
         this.dataObjectService.save(groupMember);
+        invalidateMembershipIndex();
         return true;
     }
 
@@ -629,6 +709,7 @@ public class GroupServiceImpl extends GroupServiceBase implements GroupService {
         groupMember.setMemberId(principalId);
 
         groupMember = this.dataObjectService.save(groupMember);
+        invalidateMembershipIndex(principalId);
         KimImplServiceLocator.getGroupInternalService().updateForUserAddedToGroup(groupMember.getMemberId(),
                 groupMember.getGroupId());
         return true;
@@ -783,6 +864,7 @@ public class GroupServiceImpl extends GroupServiceBase implements GroupService {
         for (GroupMemberBo bo : toDeactivate) {
             this.dataObjectService.save(bo);
         }
+        invalidateMembershipIndex();
         List<String> memberPrincipalsAfter = groupService.getMemberPrincipalIds(groupId);
 
         if (!CollectionUtils.isEmpty(memberPrincipalsAfter)) {
@@ -809,6 +891,7 @@ public class GroupServiceImpl extends GroupServiceBase implements GroupService {
         	GroupMemberBo groupMember = groupMembers.get(0);
         	groupMember.setActiveToDateValue(today);
             this.dataObjectService.save(groupMember);
+            invalidateMembershipIndex();
             return true;
         }
 
@@ -827,6 +910,7 @@ public class GroupServiceImpl extends GroupServiceBase implements GroupService {
         	GroupMemberBo member = groupMembers.iterator().next();
         	member.setActiveToDateValue(new java.sql.Timestamp(DateTime.now().getMillis()));
         	this.dataObjectService.save(member);
+            invalidateMembershipIndex(principalId);
             KimImplServiceLocator.getGroupInternalService().updateForUserRemovedFromGroup(member.getMemberId(),
                     member.getGroupId());
             return true;
@@ -873,7 +957,9 @@ public class GroupServiceImpl extends GroupServiceBase implements GroupService {
             }
 		}
 
-		return KimImplServiceLocator.getGroupInternalService().saveWorkgroup(group);
+		GroupBo savedGroup = KimImplServiceLocator.getGroupInternalService().saveWorkgroup(group);
+		invalidateMembershipIndex();
+		return savedGroup;
 	}
 
 
@@ -931,6 +1017,42 @@ public class GroupServiceImpl extends GroupServiceBase implements GroupService {
 
     public void setDataObjectService(final DataObjectService dataObjectService) {
         this.dataObjectService = dataObjectService;
+        this.membershipIndex = null;
+    }
+
+    /**
+     * Sets the cache manager which holds the index of transitive group membership.  Calling this setter is optional;
+     * if no cache manager is set then group memberships are walked in the database on every call.
+     *
+     * @param cacheManager the cache manager to hold the index in
+     */
+    public void setCacheManager(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+        this.membershipIndex = null;
+    }
+
+    /**
+     * Returns the index of transitive group membership, or null if no cache manager has been set.
+     */
+    protected GroupMembershipIndex getMembershipIndex() {
+        if (membershipIndex == null && cacheManager != null && dataObjectService != null) {
+            membershipIndex = new GroupMembershipIndex(dataObjectService, cacheManager);
+        }
+        return membershipIndex;
+    }
+
+    private void invalidateMembershipIndex() {
+        GroupMembershipIndex index = getMembershipIndex();
+        if (index != null) {
+            index.invalidate();
+        }
+    }
+
+    private void invalidateMembershipIndex(String principalId) {
+        GroupMembershipIndex index = getMembershipIndex();
+        if (index != null) {
+            index.invalidatePrincipal(principalId);
+        }
     }
 
     private void incomingParamCheck(Object object, String name) {
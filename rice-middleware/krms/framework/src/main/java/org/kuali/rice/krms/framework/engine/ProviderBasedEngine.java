@@ -40,6 +40,7 @@ public class ProviderBasedEngine implements Engine {
 	private static final ResultLogger KLog = ResultLogger.getInstance();
 
 	private ContextProvider contextProvider;
+	private TermResolutionPlanCache termResolutionPlanCache = new TermResolutionPlanCache();
 
     @Override
     public EngineResults execute(SelectionCriteria selectionCriteria, Map<String, Object> facts,
@@ -81,7 +82,8 @@ public class ProviderBasedEngine implements Engine {
      * @return {@link ExecutionEnvironment} created with the given parameters
      */
 	protected ExecutionEnvironment establishExecutionEnvironment(SelectionCriteria selectionCriteria, Map<Term, Object> facts, ExecutionOptions executionOptions) {
-		return new BasicExecutionEnvironment(selectionCriteria, facts, executionOptions, new TermResolutionEngineImpl());
+		return new BasicExecutionEnvironment(selectionCriteria, facts, executionOptions,
+                new TermResolutionEngineImpl(termResolutionPlanCache));
 	}
 
     /**
@@ -107,5 +109,22 @@ public class ProviderBasedEngine implements Engine {
 	public void setContextProvider(ContextProvider contextProvider) {
 		this.contextProvider = contextProvider;
 	}
+
+    /**
+     * Set the {@link TermResolutionPlanCache} shared by the executions of this engine.  Setting it to null disables
+     * the caching of term resolution plans.
+     * @param termResolutionPlanCache the cache of term resolution plans
+     */
+	public void setTermResolutionPlanCache(TermResolutionPlanCache termResolutionPlanCache) {
+		this.termResolutionPlanCache = termResolutionPlanCache;
+	}
+
+    /**
+     * Return the {@link TermResolutionPlanCache} shared by the executions of this engine
+     * @return the cache of term resolution plans, or null if plans are not cached
+     */
+	public TermResolutionPlanCache getTermResolutionPlanCache() {
+		return termResolutionPlanCache;
+	}
 	
 }
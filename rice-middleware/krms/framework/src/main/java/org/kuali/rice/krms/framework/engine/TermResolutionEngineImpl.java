@@ -28,6 +28,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang.ArrayUtils;
@@ -50,6 +51,23 @@ public class TermResolutionEngineImpl implements TermResolutionEngine {
 	// should this use soft refs?  Will require some refactoring to check if the referenced object is around;
 	private final Map<Term, Object> termCache = new HashMap<Term, Object>();
 
+	// shared plans, may be null
+	private final TermResolutionPlanCache planCache;
+	// describes the resolvers added so far, for looking up plans in the planCache
+	private final List<String> resolverDescriptions = new ArrayList<String>();
+	private TermResolutionPlanCache.ResolverSetFingerprint resolverSetFingerprint;
+
+	public TermResolutionEngineImpl() {
+		this(null);
+	}
+
+	/**
+	 * @param planCache the cache to share term resolution plans through, or null to build a plan for every term
+	 */
+	public TermResolutionEngineImpl(TermResolutionPlanCache planCache) {
+		this.planCache = planCache;
+	}
+
 	@Override
 	public void addTermValue(Term term, Object value) {
 		termCache.put(term, value);
@@ -67,6 +85,9 @@ public class TermResolutionEngineImpl implements TermResolutionEngine {
 		}
 		termResolversByKey.put(new TermResolverKey(termResolver), termResolver);
 		termResolvers.add(termResolver);
+
+		resolverDescriptions.add(describe(termResolver));
+		resolverSetFingerprint = null;
 	}
 
 	@SuppressWarnings("unchecked")
@@ -78,8 +99,7 @@ public class TermResolutionEngineImpl implements TermResolutionEngine {
 		String termName = term.getName();
 		
 		// build plan w/ termName spec for correct TermResolver selection
-		List<TermResolverKey> resolutionPlan = buildTermResolutionPlan(termName);
-		// TODO: could cache these plans somewhere, since future agendas will likely require the same plans
+		List<TermResolverKey> resolutionPlan = getTermResolutionPlan(termName);
 		
 		LOG.debug("resolutionPlan: " + (resolutionPlan == null ? "null" : StringUtils.join(resolutionPlan.iterator(), ", ")));
 		
@@ -156,12 +176,88 @@ public class TermResolutionEngineImpl implements TermResolutionEngine {
 		}
 	}
 
+	/**
+	 * Returns a plan for resolving the given term, from the plan cache if there is a plan in it which was built with
+	 * the same resolvers and the same available terms.
+	 *
+	 * @param termName
+	 * @return List<{@link TermResolverKey}>, or null if the term cannot be resolved
+	 */
+	private List<TermResolverKey> getTermResolutionPlan(String termName) {
+		if (planCache == null) {
+			return buildTermResolutionPlan(termName);
+		}
+
+		if (resolverSetFingerprint == null) {
+			resolverSetFingerprint = new TermResolutionPlanCache.ResolverSetFingerprint(resolverDescriptions);
+		}
+		ConcurrentMap<String, List<TermResolutionPlanCache.CachedPlan>> plans = planCache.getPlans(resolverSetFingerprint);
+
+		List<TermResolutionPlanCache.CachedPlan> cachedPlans = plans.get(termName);
+		if (cachedPlans != null) for (TermResolutionPlanCache.CachedPlan cachedPlan : cachedPlans) {
+			if (isPlannedWithAvailableTerms(cachedPlan)) {
+				planCache.recordHit();
+				return cachedPlan.getPlan();
+			}
+		}
+
+		planCache.recordMiss();
+		Map<String, Boolean> availableTerms = new HashMap<String, Boolean>();
+		List<TermResolverKey> resolutionPlan = buildTermResolutionPlan(termName, availableTerms);
+		if (resolutionPlan != null) {
+			planCache.addPlan(plans, termName, new TermResolutionPlanCache.CachedPlan(resolutionPlan, availableTerms));
+		}
+		return resolutionPlan;
+	}
+
+	/**
+	 * @return true if the availability of each of the terms consulted while building the given plan is unchanged
+	 */
+	private boolean isPlannedWithAvailableTerms(TermResolutionPlanCache.CachedPlan cachedPlan) {
+		for (Entry<String, Boolean> availableTerm : cachedPlan.getAvailableTerms().entrySet()) {
+			if (termCache.containsKey(new Term(availableTerm.getKey(), null)) != availableTerm.getValue().booleanValue()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * describes everything about the given resolver which planning depends on
+	 */
+	private static String describe(TermResolver<?> termResolver) {
+		StringBuilder sb = new StringBuilder(termResolver.getOutput());
+		sb.append('|');
+		if (termResolver.getParameterNames() != null) {
+			String[] params = termResolver.getParameterNames().toArray(new String[0]);
+			Arrays.sort(params);
+			sb.append(StringUtils.join(params, ','));
+		}
+		sb.append('|');
+		if (termResolver.getPrerequisites() != null) {
+			String[] prereqs = termResolver.getPrerequisites().toArray(new String[0]);
+			Arrays.sort(prereqs);
+			sb.append(StringUtils.join(prereqs, ','));
+		}
+		sb.append('|').append(termResolver.getCost());
+		return sb.toString();
+	}
+
     /**
      *
      * @param termName
      * @return List<{@link TermResolverKey}>
      */
 	protected List<TermResolverKey> buildTermResolutionPlan(String termName) {
+		return buildTermResolutionPlan(termName, null);
+	}
+
+	/**
+	 * @param termName
+	 * @param availableTerms if not null, receives whether each term consulted while planning was available
+	 * @return List<{@link TermResolverKey}>
+	 */
+	private List<TermResolverKey> buildTermResolutionPlan(String termName, Map<String, Boolean> availableTerms) {
 		// our result
 		List<TermResolverKey> resolutionPlan = null;
 
@@ -211,7 +307,11 @@ public class TermResolutionEngineImpl implements TermResolutionEngine {
 
 			// see what prereqs we have already, and which we'll need to visit
 			if (prereqs != null) for (String prereq : prereqs) {
-				if (!termCache.containsKey(new Term(prereq, null))) {
+				boolean available = termCache.containsKey(new Term(prereq, null));
+				if (availableTerms != null) {
+					availableTerms.put(prereq, Boolean.valueOf(available));
+				}
+				if (!available) {
 					// enqueue all resolvers in toVisits
 					List<TermResolver<?>> prereqResolvers = termResolversByOutput.get(prereq);
 					if (prereqResolvers != null) for (TermResolver prereqResolver : prereqResolvers) {
@@ -0,0 +1,195 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.krms.framework.engine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.kuali.rice.krms.framework.engine.TermResolutionEngineImpl.TermResolverKey;
+
+/**
+ * A cache of the term resolution plans built by {@link TermResolutionEngineImpl}, which can be shared by the engines
+ * of many executions (and threads).
+ *
+ * <p>A plan depends on the set of term resolvers it was planned with and on which of the terms considered during
+ * planning were already available, so plans are kept per resolver set, and each plan records the availability of the
+ * terms it was planned against.  A plan is only reused when the availability of those terms is the same.  Parameters
+ * of the requested term are not part of the key because they do not influence planning.</p>
+ *
+ * <p>The number of resolver sets held is bounded, the least recently used one being dropped once the bound is
+ * exceeded.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class TermResolutionPlanCache {
+
+    /**
+     * The default maximum number of resolver sets for which plans are held.
+     */
+    public static final int DEFAULT_MAX_RESOLVER_SETS = 100;
+
+    /**
+     * the maximum number of plans, for different term availabilities, held per term and resolver set
+     */
+    private static final int MAX_PLANS_PER_TERM = 8;
+
+    private final Map<ResolverSetFingerprint, ConcurrentMap<String, List<CachedPlan>>> plansByResolverSet;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public TermResolutionPlanCache() {
+        this(DEFAULT_MAX_RESOLVER_SETS);
+    }
+
+    /**
+     * @param maxResolverSets the maximum number of resolver sets for which plans are held
+     */
+    public TermResolutionPlanCache(final int maxResolverSets) {
+        if (maxResolverSets <= 0) {
+            throw new IllegalArgumentException("maxResolverSets must be positive");
+        }
+        this.plansByResolverSet = Collections.synchronizedMap(
+                new LinkedHashMap<ResolverSetFingerprint, ConcurrentMap<String, List<CachedPlan>>>(16, 0.75f, true) {
+                    private static final long serialVersionUID = 1L;
+
+                    @Override
+                    protected boolean removeEldestEntry(
+                            Map.Entry<ResolverSetFingerprint, ConcurrentMap<String, List<CachedPlan>>> eldest) {
+                        return size() > maxResolverSets;
+                    }
+                });
+    }
+
+    /**
+     * Returns the plans cached for the given resolver set, by term name.
+     */
+    ConcurrentMap<String, List<CachedPlan>> getPlans(ResolverSetFingerprint fingerprint) {
+        synchronized (plansByResolverSet) {
+            ConcurrentMap<String, List<CachedPlan>> plans = plansByResolverSet.get(fingerprint);
+            if (plans == null) {
+                plans = new ConcurrentHashMap<String, List<CachedPlan>>();
+                plansByResolverSet.put(fingerprint, plans);
+            }
+            return plans;
+        }
+    }
+
+    /**
+     * Adds the given plan to the given plans of a resolver set, replacing the oldest plan for the term if there are
+     * too many.
+     */
+    void addPlan(ConcurrentMap<String, List<CachedPlan>> plans, String termName, CachedPlan plan) {
+        List<CachedPlan> existing = plans.get(termName);
+        List<CachedPlan> updated = new ArrayList<CachedPlan>(MAX_PLANS_PER_TERM);
+        updated.add(plan);
+        if (existing != null) {
+            updated.addAll(existing.subList(0, Math.min(existing.size(), MAX_PLANS_PER_TERM - 1)));
+        }
+        // concurrent additions may overwrite each other, which only means that a plan is built again
+        plans.put(termName, Collections.unmodifiableList(updated));
+    }
+
+    void recordHit() {
+        hits.incrementAndGet();
+    }
+
+    void recordMiss() {
+        misses.incrementAndGet();
+    }
+
+    /**
+     * @return the number of plans which were served from this cache
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of plans which had to be built because no matching plan was cached
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Removes all cached plans.
+     */
+    public void clear() {
+        plansByResolverSet.clear();
+    }
+
+    /**
+     * Identifies a set of term resolvers by the output, parameter names, prerequisites and cost of each resolver, in
+     * the order in which they were added.
+     */
+    static final class ResolverSetFingerprint {
+
+        private final List<String> resolvers;
+        private final int hashCode;
+
+        ResolverSetFingerprint(List<String> resolvers) {
+            this.resolvers = new ArrayList<String>(resolvers);
+            this.hashCode = this.resolvers.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ResolverSetFingerprint)) {
+                return false;
+            }
+            ResolverSetFingerprint other = (ResolverSetFingerprint) obj;
+            return hashCode == other.hashCode && resolvers.equals(other.resolvers);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * A resolution plan, along with whether each of the terms consulted while planning was available.
+     */
+    static final class CachedPlan {
+
+        private final List<TermResolverKey> plan;
+        private final Map<String, Boolean> availableTerms;
+
+        CachedPlan(List<TermResolverKey> plan, Map<String, Boolean> availableTerms) {
+            this.plan = Collections.unmodifiableList(new ArrayList<TermResolverKey>(plan));
+            this.availableTerms = Collections.unmodifiableMap(new LinkedHashMap<String, Boolean>(availableTerms));
+        }
+
+        List<TermResolverKey> getPlan() {
+            return plan;
+        }
+
+        Map<String, Boolean> getAvailableTerms() {
+            return availableTerms;
+        }
+    }
+
+}
@@ -0,0 +1,171 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.krms.framework;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.kuali.rice.krms.api.engine.EngineResults;
+import org.kuali.rice.krms.api.engine.ExecutionOptions;
+import org.kuali.rice.krms.api.engine.Facts;
+import org.kuali.rice.krms.api.engine.SelectionCriteria;
+import org.kuali.rice.krms.api.engine.Term;
+import org.kuali.rice.krms.api.engine.TermResolver;
+import org.kuali.rice.krms.api.repository.agenda.AgendaDefinition;
+import org.kuali.rice.krms.framework.engine.Agenda;
+import org.kuali.rice.krms.framework.engine.AgendaTreeEntry;
+import org.kuali.rice.krms.framework.engine.BasicAgenda;
+import org.kuali.rice.krms.framework.engine.BasicAgendaTree;
+import org.kuali.rice.krms.framework.engine.BasicAgendaTreeEntry;
+import org.kuali.rice.krms.framework.engine.BasicContext;
+import org.kuali.rice.krms.framework.engine.BasicRule;
+import org.kuali.rice.krms.framework.engine.ComparableTermBasedProposition;
+import org.kuali.rice.krms.framework.engine.ProviderBasedEngine;
+import org.kuali.rice.krms.framework.engine.expression.ComparisonOperator;
+import org.kuali.rice.krms.framework.engine.expression.ComparisonOperatorServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the throughput of executing an agenda whose terms are resolved through several levels of term resolvers,
+ * with and without caching of the term resolution plans.
+ *
+ * <p>This is not a unit test; run it with {@link #main(String[])} from the test classpath.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class AgendaExecutionBenchmark {
+
+    private static final int TERMS_PER_LEVEL = 5;
+    private static final Map<String, String> EVENT = Collections.singletonMap(AgendaDefinition.Constants.EVENT, "test");
+
+    @Param({"true", "false"})
+    public boolean cachePlans;
+
+    private ProviderBasedEngine engine;
+    private SelectionCriteria selectionCriteria;
+
+    @Setup
+    public void setUp() {
+        ComparisonOperator operatorGreaterThan = ComparisonOperator.GREATER_THAN;
+        operatorGreaterThan.setComparisonOperatorService(ComparisonOperatorServiceImpl.getInstance());
+
+        // three levels of derived terms on top of the two facts, with a more costly shortcut to each term of the top
+        // level so that planning has alternatives to weigh
+        List<TermResolver<?>> termResolvers = new ArrayList<TermResolver<?>>();
+        List<AgendaTreeEntry> entries = new ArrayList<AgendaTreeEntry>();
+        for (int i = 0; i < TERMS_PER_LEVEL; i++) {
+            termResolvers.add(new SumResolver(1, "level1_" + i, "base1"));
+            termResolvers.add(new SumResolver(1, "level2_" + i, "level1_" + i, "base2"));
+            termResolvers.add(new SumResolver(1, "level3_" + i, "level2_" + i,
+                    "level2_" + ((i + 1) % TERMS_PER_LEVEL)));
+            termResolvers.add(new SumResolver(10, "level3_" + i, "base1"));
+
+            entries.add(new BasicAgendaTreeEntry(new BasicRule("rule" + i,
+                    new ComparableTermBasedProposition<Integer>(operatorGreaterThan, new Term("level3_" + i),
+                            Integer.valueOf(0)), null)));
+        }
+        Agenda agenda = new BasicAgenda(EVENT, new BasicAgendaTree(entries));
+
+        engine = new ProviderBasedEngine();
+        engine.setContextProvider(new ManualContextProvider(new BasicContext(Arrays.asList(agenda), termResolvers)));
+        if (!cachePlans) {
+            engine.setTermResolutionPlanCache(null);
+        }
+        selectionCriteria = SelectionCriteria.createCriteria(null, Collections.<String, String>emptyMap(), EVENT);
+    }
+
+    @Benchmark
+    public EngineResults executeAgenda() {
+        Facts facts = Facts.Builder.create().addFact("base1", Integer.valueOf(1)).addFact("base2",
+                Integer.valueOf(2)).build();
+        return engine.execute(selectionCriteria, facts, new ExecutionOptions());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AgendaExecutionBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /**
+     * Resolves a term to one more than the sum of its prerequisites.
+     */
+    private static final class SumResolver implements TermResolver<Integer> {
+
+        private final int cost;
+        private final String output;
+        private final Set<String> prerequisites;
+
+        private SumResolver(int cost, String output, String... prerequisites) {
+            this.cost = cost;
+            this.output = output;
+            this.prerequisites = Collections.unmodifiableSet(new HashSet<String>(Arrays.asList(prerequisites)));
+        }
+
+        @Override
+        public int getCost() {
+            return cost;
+        }
+
+        @Override
+        public String getOutput() {
+            return output;
+        }
+
+        @Override
+        public Set<String> getPrerequisites() {
+            return prerequisites;
+        }
+
+        @Override
+        public Set<String> getParameterNames() {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public Integer resolve(Map<String, Object> resolvedPrereqs, Map<String, String> parameters) {
+            int sum = 1;
+            for (Object prereq : resolvedPrereqs.values()) {
+                sum += ((Integer) prereq).intValue();
+            }
+            return Integer.valueOf(sum);
+        }
+    }
+
+}
@@ -36,6 +36,7 @@ import org.kuali.rice.krms.api.engine.TermResolutionEngine;
 import org.kuali.rice.krms.api.engine.TermResolutionException;
 import org.kuali.rice.krms.api.engine.TermResolver;
 import org.kuali.rice.krms.framework.engine.TermResolutionEngineImpl;
+import org.kuali.rice.krms.framework.engine.TermResolutionPlanCache;
 import org.springframework.util.CollectionUtils;
 
 
@@ -303,6 +304,44 @@ public class TermResolutionEngineTest {
 		assertTrue("didn't choose the shortest resolution path (of length 1)", plan.size() == 1);
 	}
 	
+	@Test
+	public void testPlanCaching() {
+		TermResolutionPlanCache planCache = new TermResolutionPlanCache();
+
+		for (int i = 0; i < 3; i++) {
+			TestScenarioHelper testHelper = new TestScenarioHelper(new TermResolutionEngineImpl(planCache));
+
+			// GIVENS:
+			testHelper.addGivens("A");
+
+			// RESOLVERS:
+			testHelper.addResolver("B", /* <-- */ "A");
+			testHelper.addResolver("C", /* <-- */ "B");
+
+			testHelper.assertSuccess("C");
+		}
+
+		assertEquals("only the first execution should have built a plan", 1, planCache.getMissCount());
+		assertEquals(2, planCache.getHitCount());
+
+		// with B given, the cached plan (which resolves B) doesn't apply
+		TestScenarioHelper testHelper = new TestScenarioHelper(new TermResolutionEngineImpl(planCache));
+		testHelper.addGivens("B");
+		testHelper.addResolver("B", /* <-- */ "A");
+		testHelper.addResolver("C", /* <-- */ "B");
+		testHelper.assertSuccess("C");
+		assertEquals(2, planCache.getMissCount());
+
+		// a different set of resolvers doesn't share plans either
+		testHelper = new TestScenarioHelper(new TermResolutionEngineImpl(planCache));
+		testHelper.addGivens("A");
+		testHelper.addResolver("B", /* <-- */ "A");
+		testHelper.addResolver("C", /* <-- */ "B");
+		testHelper.addResolver("C", /* <-- */ "A");
+		testHelper.assertSuccess("C");
+		assertEquals(3, planCache.getMissCount());
+	}
+
 	/*
 	 *  TODO: test exception variants:
 	 *  - TermResolver throws TermResolutionException
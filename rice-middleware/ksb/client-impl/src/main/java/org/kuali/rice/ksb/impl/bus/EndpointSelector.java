@@ -0,0 +1,42 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.impl.bus;
+
+import javax.xml.namespace.QName;
+import java.util.List;
+
+/**
+ * Chooses which of the remote services publishing a service the bus returns for it.
+ *
+ * <p>
+ * Implementations are called by {@link ServiceBusImpl} on every lookup of a service which is not published locally,
+ * from any number of threads at once, so they should not block.
+ * </p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public interface EndpointSelector {
+
+    /**
+     * Selects the remote service to use.
+     *
+     * @param serviceName name of the service looked up
+     * @param candidates the remote services publishing it, never empty and not to be modified
+     * @return one of the candidates
+     */
+    RemoteService select(QName serviceName, List<RemoteService> candidates);
+
+}
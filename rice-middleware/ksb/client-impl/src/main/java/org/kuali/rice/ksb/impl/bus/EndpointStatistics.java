@@ -0,0 +1,227 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.impl.bus;
+
+import org.apache.log4j.Logger;
+import org.kuali.rice.core.api.config.CoreConfigHelper;
+import org.kuali.rice.ksb.util.KSBConstants;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Record of how the remote endpoints of the bus have been responding, keyed by endpoint URL.
+ *
+ * <p>
+ * Each endpoint has an exponentially weighted moving average of its response times, which
+ * {@link PowerOfTwoChoicesEndpointSelector} uses to prefer faster endpoints.  An endpoint which fails with a service
+ * removal exception a number of times in a row, as detected by
+ * {@link org.kuali.rice.ksb.messaging.BusClientFailureProxy}, is ejected: it is avoided for a time which grows with
+ * each ejection in a row, up to ten times the base ejection time.  A response from the endpoint clears its failures.
+ * </p>
+ *
+ * <p>
+ * The failures leading to an ejection are set by the configuration parameter
+ * &quot;rice.ksb.endpoint.ejection.consecutiveFailures&quot; and the base ejection time in seconds by
+ * &quot;rice.ksb.endpoint.ejection.seconds&quot;.  A failure count of 0 disables ejection.
+ * </p>
+ *
+ * <p>
+ * The bus, its endpoint selector and its client proxies share the record registered as the
+ * &quot;rice.ksb.endpointStatistics&quot; bean.
+ * </p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class EndpointStatistics {
+
+    private static final Logger LOG = Logger.getLogger(EndpointStatistics.class);
+
+    /**
+     * The number of failures in a row ejecting an endpoint when not configured.
+     */
+    public static final int DEFAULT_EJECTION_FAILURES = 2;
+
+    /**
+     * The base ejection time in seconds when not configured.
+     */
+    public static final int DEFAULT_EJECTION_SECONDS = 30;
+
+    private static final int MAX_EJECTION_MULTIPLIER = 10;
+
+    private final int ejectionFailures;
+    private final long ejectionNanos;
+    private final ConcurrentMap<String, EndpointHealth> endpoints = new ConcurrentHashMap<String, EndpointHealth>();
+
+    /**
+     * Creates an empty record with the configured ejection settings.
+     */
+    public EndpointStatistics() {
+        this(CoreConfigHelper.getIntProperty(KSBConstants.Config.ENDPOINT_EJECTION_FAILURES,
+                DEFAULT_EJECTION_FAILURES, 0), CoreConfigHelper.getIntProperty(
+                KSBConstants.Config.ENDPOINT_EJECTION_SECONDS, DEFAULT_EJECTION_SECONDS, 0));
+    }
+
+    /**
+     * Creates an empty record.
+     *
+     * @param ejectionFailures number of failures in a row which eject an endpoint, 0 to never eject
+     * @param ejectionSeconds base time an endpoint is ejected for
+     */
+    public EndpointStatistics(int ejectionFailures, int ejectionSeconds) {
+        if (ejectionFailures < 0) {
+            throw new IllegalArgumentException("ejectionFailures must not be negative");
+        }
+        if (ejectionSeconds < 0) {
+            throw new IllegalArgumentException("ejectionSeconds must not be negative");
+        }
+
+        this.ejectionFailures = ejectionFailures;
+        this.ejectionNanos = TimeUnit.SECONDS.toNanos(ejectionSeconds);
+    }
+
+    /**
+     * Records a response from an endpoint, whether the call succeeded or the service threw an exception of its own.
+     *
+     * @param endpointUrl URL of the endpoint
+     * @param latencyNanos nanoseconds taken by the call
+     */
+    public void recordResponse(String endpointUrl, long latencyNanos) {
+        getHealth(endpointUrl).recordResponse(latencyNanos);
+    }
+
+    /**
+     * Records a call to an endpoint which failed in a way indicating the endpoint is unavailable, ejecting it once
+     * enough such failures happened in a row.
+     *
+     * @param endpointUrl URL of the endpoint
+     */
+    public void recordFailure(String endpointUrl) {
+        EndpointHealth health = getHealth(endpointUrl);
+        if (health.recordFailure(ejectionFailures, ejectionNanos)) {
+            LOG.warn("Ejected endpoint " + endpointUrl + " from load balancing after " + ejectionFailures
+                    + " failures in a row");
+        }
+    }
+
+    /**
+     * Gets the average response time of an endpoint.
+     *
+     * @param endpointUrl URL of the endpoint
+     * @return average response time in nanoseconds, 0 if the endpoint has not responded yet
+     */
+    public long getLatencyNanos(String endpointUrl) {
+        EndpointHealth health = endpoints.get(endpointUrl);
+        return health == null ? 0 : health.latencyNanos.get();
+    }
+
+    /**
+     * Determines whether an endpoint is currently ejected.
+     *
+     * @param endpointUrl URL of the endpoint
+     * @return whether the endpoint should be avoided
+     */
+    public boolean isEjected(String endpointUrl) {
+        EndpointHealth health = endpoints.get(endpointUrl);
+        return health != null && health.isEjected();
+    }
+
+    /**
+     * Forgets an endpoint, for instance when it is removed from the registry.
+     *
+     * @param endpointUrl URL of the endpoint
+     */
+    public void remove(String endpointUrl) {
+        endpoints.remove(endpointUrl);
+    }
+
+    /**
+     * Forgets all endpoints.
+     */
+    public void clear() {
+        endpoints.clear();
+    }
+
+    private EndpointHealth getHealth(String endpointUrl) {
+        EndpointHealth health = endpoints.get(endpointUrl);
+        if (health == null) {
+            EndpointHealth newHealth = new EndpointHealth();
+            health = endpoints.putIfAbsent(endpointUrl, newHealth);
+            if (health == null) {
+                health = newHealth;
+            }
+        }
+
+        return health;
+    }
+
+    private static final class EndpointHealth {
+
+        private final AtomicLong latencyNanos = new AtomicLong();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+        private int ejections;
+        private volatile boolean ejected;
+        private volatile long ejectedUntilNanos;
+
+        void recordResponse(long sampleNanos) {
+            long average;
+            long updated;
+            do {
+                average = latencyNanos.get();
+                // weighs the latest response at 30%, so a slowing endpoint is noticed within a few calls
+                updated = average == 0 ? Math.max(sampleNanos, 1) : average + (sampleNanos - average) * 3 / 10;
+            } while (!latencyNanos.compareAndSet(average, updated));
+
+            consecutiveFailures.set(0);
+            if (!ejected) {
+                synchronized (this) {
+                    ejections = 0;
+                }
+            }
+        }
+
+        boolean recordFailure(int ejectionFailures, long ejectionNanos) {
+            if (ejectionFailures == 0 || consecutiveFailures.incrementAndGet() < ejectionFailures) {
+                return false;
+            }
+
+            synchronized (this) {
+                if (isEjected()) {
+                    return false;
+                }
+                ejections = Math.min(ejections + 1, MAX_EJECTION_MULTIPLIER);
+                ejectedUntilNanos = System.nanoTime() + ejectionNanos * ejections;
+                ejected = true;
+                consecutiveFailures.set(0);
+            }
+
+            return true;
+        }
+
+        boolean isEjected() {
+            if (ejected && System.nanoTime() - ejectedUntilNanos >= 0) {
+                ejected = false;
+            }
+
+            return ejected;
+        }
+    }
+
+}
@@ -0,0 +1,93 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.impl.bus;
+
+import javax.xml.namespace.QName;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Selects the faster of two remote services picked at random, skipping those whose endpoint is ejected.
+ *
+ * <p>
+ * Comparing two random candidates rather than always taking the fastest keeps load spread over all endpoints, so
+ * one which was fast a moment ago is not flooded, while slow endpoints receive less and less of it.  Response times
+ * and ejections come from {@link EndpointStatistics}.  An endpoint which has not responded yet is preferred, so that
+ * it is measured.  If every endpoint is ejected, one is chosen at random as there is nothing better to do.
+ * </p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class PowerOfTwoChoicesEndpointSelector implements EndpointSelector {
+
+    private EndpointStatistics endpointStatistics;
+
+    public PowerOfTwoChoicesEndpointSelector() {
+    }
+
+    public PowerOfTwoChoicesEndpointSelector(EndpointStatistics endpointStatistics) {
+        this.endpointStatistics = endpointStatistics;
+    }
+
+    @Override
+    public RemoteService select(QName serviceName, List<RemoteService> candidates) {
+        int size = candidates.size();
+        if (size == 1) {
+            return candidates.get(0);
+        }
+
+        EndpointStatistics statistics = endpointStatistics;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int firstIndex = random.nextInt(size);
+        int secondIndex = random.nextInt(size - 1);
+        if (secondIndex >= firstIndex) {
+            secondIndex++;
+        }
+        RemoteService first = candidates.get(firstIndex);
+        RemoteService second = candidates.get(secondIndex);
+        String firstUrl = first.getServiceInfo().getEndpointUrl();
+        String secondUrl = second.getServiceInfo().getEndpointUrl();
+
+        boolean firstEjected = statistics.isEjected(firstUrl);
+        boolean secondEjected = statistics.isEjected(secondUrl);
+        if (firstEjected && secondEjected) {
+            // look for any endpoint which is not ejected, starting from a random one so they share the load
+            for (int i = 1; i < size; i++) {
+                RemoteService candidate = candidates.get((firstIndex + i) % size);
+                if (!statistics.isEjected(candidate.getServiceInfo().getEndpointUrl())) {
+                    return candidate;
+                }
+            }
+
+            return first;
+        } else if (firstEjected) {
+            return second;
+        } else if (secondEjected) {
+            return first;
+        }
+
+        return statistics.getLatencyNanos(firstUrl) <= statistics.getLatencyNanos(secondUrl) ? first : second;
+    }
+
+    public EndpointStatistics getEndpointStatistics() {
+        return endpointStatistics;
+    }
+
+    public void setEndpointStatistics(EndpointStatistics endpointStatistics) {
+        this.endpointStatistics = endpointStatistics;
+    }
+
+}
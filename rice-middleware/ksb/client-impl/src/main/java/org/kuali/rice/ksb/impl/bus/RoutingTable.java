@@ -0,0 +1,139 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.impl.bus;
+
+import org.apache.commons.lang.StringUtils;
+import org.kuali.rice.ksb.api.bus.Endpoint;
+
+import javax.xml.namespace.QName;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of the local and remote services known to the {@link ServiceBusImpl}, read by service lookups
+ * without locking.
+ *
+ * <p>
+ * The bus builds a new snapshot whenever a service is published or removed locally and whenever synchronization
+ * with the registry changes the remote services.  The remote services of each service are also grouped by
+ * application id, so a lookup for an application does not filter them.
+ * </p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+final class RoutingTable {
+
+    static final RoutingTable EMPTY = new RoutingTable(Collections.<QName, LocalService>emptyMap(),
+            Collections.<QName, Set<RemoteService>>emptyMap());
+
+    private final Map<QName, LocalService> localServices;
+    private final Map<QName, RemoteServices> remoteServices;
+
+    RoutingTable(Map<QName, LocalService> localServices, Map<QName, Set<RemoteService>> clientRegistryCache) {
+        this.localServices = Collections.unmodifiableMap(new HashMap<QName, LocalService>(localServices));
+
+        Map<QName, RemoteServices> remoteServices = new HashMap<QName, RemoteServices>();
+        for (Map.Entry<QName, Set<RemoteService>> entry : clientRegistryCache.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                remoteServices.put(entry.getKey(), new RemoteServices(entry.getValue()));
+            }
+        }
+        this.remoteServices = Collections.unmodifiableMap(remoteServices);
+    }
+
+    LocalService getLocalService(QName serviceName) {
+        return localServices.get(serviceName);
+    }
+
+    Map<QName, LocalService> getLocalServices() {
+        return localServices;
+    }
+
+    /**
+     * Gets the remote services publishing a service.
+     *
+     * @param serviceName name of the service
+     * @param applicationId id of the application publishing the service, blank for any
+     * @return the remote services, empty if there are none
+     */
+    List<RemoteService> getRemoteServices(QName serviceName, String applicationId) {
+        RemoteServices services = remoteServices.get(serviceName);
+        if (services == null) {
+            return Collections.emptyList();
+        }
+        if (StringUtils.isBlank(applicationId)) {
+            return services.all;
+        }
+        List<RemoteService> forApplication = services.byApplicationId.get(applicationId);
+
+        return forApplication == null ? Collections.<RemoteService>emptyList() : forApplication;
+    }
+
+    Map<QName, List<RemoteService>> getRemoteServices() {
+        Map<QName, List<RemoteService>> all = new HashMap<QName, List<RemoteService>>();
+        for (Map.Entry<QName, RemoteServices> entry : remoteServices.entrySet()) {
+            all.put(entry.getKey(), entry.getValue().all);
+        }
+
+        return all;
+    }
+
+    /**
+     * Gets the endpoints of the remote services publishing a service.
+     *
+     * @param serviceName name of the service
+     * @return the endpoints, empty if there are none
+     */
+    List<Endpoint> getRemoteEndpoints(QName serviceName) {
+        List<RemoteService> services = getRemoteServices(serviceName, null);
+        List<Endpoint> endpoints = new ArrayList<Endpoint>(services.size());
+        for (RemoteService remoteService : services) {
+            endpoints.add(remoteService.getEndpoint());
+        }
+
+        return endpoints;
+    }
+
+    private static final class RemoteServices {
+
+        private final List<RemoteService> all;
+        private final Map<String, List<RemoteService>> byApplicationId;
+
+        RemoteServices(Set<RemoteService> remoteServices) {
+            this.all = Collections.unmodifiableList(new ArrayList<RemoteService>(remoteServices));
+
+            Map<String, List<RemoteService>> byApplicationId = new HashMap<String, List<RemoteService>>();
+            for (RemoteService remoteService : all) {
+                String applicationId = remoteService.getServiceInfo().getApplicationId();
+                List<RemoteService> forApplication = byApplicationId.get(applicationId);
+                if (forApplication == null) {
+                    forApplication = new ArrayList<RemoteService>();
+                    byApplicationId.put(applicationId, forApplication);
+                }
+                forApplication.add(remoteService);
+            }
+            for (Map.Entry<String, List<RemoteService>> entry : byApplicationId.entrySet()) {
+                entry.setValue(Collections.unmodifiableList(entry.getValue()));
+            }
+            this.byApplicationId = byApplicationId;
+        }
+    }
+
+}
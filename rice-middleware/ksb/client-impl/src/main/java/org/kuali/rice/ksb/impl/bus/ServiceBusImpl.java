@@ -22,7 +22,6 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -51,13 +50,22 @@ import org.kuali.rice.ksb.messaging.threadpool.KSBScheduledPool;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 
+/**
+ * The {@link ServiceBus} of this application.
+ *
+ * <p>Publishing, removal and registry synchronization update the services under a lock and then publish an
+ * immutable {@link RoutingTable}, which service lookups read without locking.  When a service is not published
+ * locally, the remote service used is chosen by the {@link EndpointSelector}, normally a
+ * {@link PowerOfTwoChoicesEndpointSelector}.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
 public class ServiceBusImpl extends BaseLifecycle implements ServiceBus, InitializingBean, DisposableBean {
 	
 	private static final Logger LOG = Logger.getLogger(ServiceBusImpl.class);
 	
 	private final Object serviceLock = new Object();
 	private final Object synchronizeLock = new Object();
-	private final Random randomNumber = new Random();
 	
 	// injected values
 	private String instanceId;
@@ -65,6 +73,8 @@ public class ServiceBusImpl extends BaseLifecycle implements ServiceBus, Initial
 	private ServiceRegistryDiffCalculator diffCalculator;
 	private ServiceExportManager serviceExportManager;
 	private KSBScheduledPool scheduledPool;
+	private EndpointSelector endpointSelector;
+	private EndpointStatistics endpointStatistics;
 	
 	private ScheduledFuture<?> registrySyncFuture;
 	
@@ -78,6 +88,11 @@ public class ServiceBusImpl extends BaseLifecycle implements ServiceBus, Initial
 	 * entirely complete as entries get lazily loaded into it as services are requested.
 	 */
 	private final Map<QName, Set<RemoteService>> clientRegistryCache;
+	
+	/**
+	 * Snapshot of the local and remote services, replaced whenever either changes.
+	 */
+	private volatile RoutingTable routingTable = RoutingTable.EMPTY;
 		
 	public ServiceBusImpl() {
 		this.localServices = new HashMap<QName, LocalService>();
@@ -98,6 +113,12 @@ public class ServiceBusImpl extends BaseLifecycle implements ServiceBus, Initial
 		if (scheduledPool == null) {
 			throw new IllegalStateException("scheduledPool was not injected");
 		}
+		if (endpointSelector == null) {
+			throw new IllegalStateException("endpointSelector was not injected");
+		}
+		if (endpointStatistics == null) {
+			throw new IllegalStateException("endpointStatistics was not injected");
+		}
 	}
 	
 	@Override
@@ -169,29 +190,28 @@ public class ServiceBusImpl extends BaseLifecycle implements ServiceBus, Initial
 		if (serviceName == null) {
 			throw new IllegalArgumentException("serviceName cannot be null");
 		}
-		List<Endpoint> endpoints = new ArrayList<Endpoint>();
-		synchronized (serviceLock) {
-			endpoints.addAll(getRemoteEndpoints(serviceName));
-			Endpoint localEndpoint = getLocalEndpoint(serviceName);
-			if (localEndpoint != null) {
-				for (Iterator<Endpoint> iterator = endpoints.iterator(); iterator.hasNext();) {
-					Endpoint endpoint = iterator.next();
-					if (localEndpoint.getServiceConfiguration().equals(endpoint.getServiceConfiguration())) {
-						iterator.remove();
-						break;
-					}
-				}
-				if(StringUtils.isBlank(applicationId) || StringUtils.equals(localEndpoint.getServiceConfiguration().getApplicationId(), applicationId)) {
-					// add at first position, just because we like the local endpoint the best, it's our friend ;)
-					endpoints.add(0, localEndpoint);
+		RoutingTable table = this.routingTable;
+		List<Endpoint> endpoints = table.getRemoteEndpoints(serviceName);
+		LocalService localService = table.getLocalService(serviceName);
+		if (localService != null) {
+			Endpoint localEndpoint = localService.getEndpoint();
+			for (Iterator<Endpoint> iterator = endpoints.iterator(); iterator.hasNext();) {
+				Endpoint endpoint = iterator.next();
+				if (localEndpoint.getServiceConfiguration().equals(endpoint.getServiceConfiguration())) {
+					iterator.remove();
+					break;
 				}
 			}
-			if(StringUtils.isNotBlank(applicationId)) {
-				for (Iterator<Endpoint> iterator = endpoints.iterator(); iterator.hasNext();) {
-					Endpoint endpoint = (Endpoint) iterator.next();
-					if(!StringUtils.equals(endpoint.getServiceConfiguration().getApplicationId(), applicationId)) {
-						iterator.remove();
-					}
+			if(StringUtils.isBlank(applicationId) || StringUtils.equals(localEndpoint.getServiceConfiguration().getApplicationId(), applicationId)) {
+				// add at first position, just because we like the local endpoint the best, it's our friend ;)
+				endpoints.add(0, localEndpoint);
+			}
+		}
+		if(StringUtils.isNotBlank(applicationId)) {
+			for (Iterator<Endpoint> iterator = endpoints.iterator(); iterator.hasNext();) {
+				Endpoint endpoint = (Endpoint) iterator.next();
+				if(!StringUtils.equals(endpoint.getServiceConfiguration().getApplicationId(), applicationId)) {
+					iterator.remove();
 				}
 			}
 		}
@@ -203,16 +223,7 @@ public class ServiceBusImpl extends BaseLifecycle implements ServiceBus, Initial
 		if (serviceName == null) {
 			throw new IllegalArgumentException("serviceName cannot be null");
 		}
-		List<Endpoint> endpoints = new ArrayList<Endpoint>();
-		synchronized (serviceLock) {
-			Set<RemoteService> remoteServices = clientRegistryCache.get(serviceName);
-			if (remoteServices != null) {
-				for (RemoteService remoteService : remoteServices) {
-					endpoints.add(remoteService.getEndpoint());
-				}
-			}
-		}
-		return Collections.unmodifiableList(endpoints);
+		return Collections.unmodifiableList(this.routingTable.getRemoteEndpoints(serviceName));
 	}
 
 	@Override
@@ -220,39 +231,32 @@ public class ServiceBusImpl extends BaseLifecycle implements ServiceBus, Initial
 		if (serviceName == null) {
 			throw new IllegalArgumentException("serviceName cannot be null");
 		}
-		synchronized (serviceLock) {
-			LocalService localService = localServices.get(serviceName);
-			if (localService != null) {
-				return localService.getEndpoint();
-			}
-			return null;
+		LocalService localService = this.routingTable.getLocalService(serviceName);
+		if (localService != null) {
+			return localService.getEndpoint();
 		}
+		return null;
 	}
 
 	@Override
 	public Map<QName, Endpoint> getLocalEndpoints() {
 		Map<QName, Endpoint> localEndpoints = new HashMap<QName, Endpoint>();
-		synchronized (serviceLock) {
-			for (QName localServiceName : localServices.keySet()) {
-				LocalService localService = localServices.get(localServiceName);
-				localEndpoints.put(localServiceName, localService.getEndpoint());
-			}
+		for (Map.Entry<QName, LocalService> entry : this.routingTable.getLocalServices().entrySet()) {
+			localEndpoints.put(entry.getKey(), entry.getValue().getEndpoint());
 		}
 		return Collections.unmodifiableMap(localEndpoints);
 	}
 
 	@Override
 	public List<Endpoint> getAllEndpoints() {
+		RoutingTable table = this.routingTable;
 		List<Endpoint> allEndpoints = new ArrayList<Endpoint>();
-		synchronized (serviceLock) {
-			for (QName serviceName : this.localServices.keySet()) {
-				allEndpoints.add(this.localServices.get(serviceName).getEndpoint());
-			}
-			for (QName serviceName : this.clientRegistryCache.keySet()) {
-				Set<RemoteService> remoteServices = clientRegistryCache.get(serviceName);
-				for (RemoteService remoteService : remoteServices) {
-					allEndpoints.add(remoteService.getEndpoint());
-				}
+		for (LocalService localService : table.getLocalServices().values()) {
+			allEndpoints.add(localService.getEndpoint());
+		}
+		for (List<RemoteService> remoteServices : table.getRemoteServices().values()) {
+			for (RemoteService remoteService : remoteServices) {
+				allEndpoints.add(remoteService.getEndpoint());
 			}
 		}
 		return Collections.unmodifiableList(allEndpoints);
@@ -268,53 +272,33 @@ public class ServiceBusImpl extends BaseLifecycle implements ServiceBus, Initial
         if (serviceName == null) {
             throw new IllegalArgumentException("serviceName cannot be null");
         }
-        Endpoint availableEndpoint = null;
-        synchronized (serviceLock) {
-            // look at local services first
-            availableEndpoint = getLocalEndpoint(serviceName);
-            if (availableEndpoint == null || (!StringUtils.isBlank(applicationId) && !availableEndpoint.getServiceConfiguration().getApplicationId().equals(applicationId))) {
-                 // TODO - would be better to return an Endpoint that contained an internal proxy to all the services so fail-over would be easier to implement!
-                Set<RemoteService> remoteServices = clientRegistryCache.get(serviceName);
-                remoteServices = filterByApplicationId(applicationId, remoteServices);
-                if (remoteServices != null && !remoteServices.isEmpty()) {
-                    // TODO - this should also probably check the current status of the service?
-                    RemoteService[] remoteServiceArray = remoteServices.toArray(new RemoteService[0]);
-                    RemoteService availableRemoteService = remoteServiceArray[this.randomNumber.nextInt(remoteServiceArray.length)];
-                    availableEndpoint = availableRemoteService.getEndpoint();
-                }
+        RoutingTable table = this.routingTable;
+        // look at local services first
+        LocalService localService = table.getLocalService(serviceName);
+        Endpoint availableEndpoint = localService == null ? null : localService.getEndpoint();
+        if (availableEndpoint == null || (!StringUtils.isBlank(applicationId) && !availableEndpoint.getServiceConfiguration().getApplicationId().equals(applicationId))) {
+            List<RemoteService> remoteServices = table.getRemoteServices(serviceName, applicationId);
+            if (!remoteServices.isEmpty()) {
+                availableEndpoint = endpointSelector.select(serviceName, remoteServices).getEndpoint();
             }
         }
         return availableEndpoint;
     }
 	
-	protected Set<RemoteService> filterByApplicationId(String applicationId, Set<RemoteService> remoteServices) {
-	    if (StringUtils.isBlank(applicationId) || remoteServices == null || remoteServices.isEmpty()) {
-	        return remoteServices;
-	    }
-	    Set<RemoteService> filtered = new HashSet<RemoteService>();
-	    for (RemoteService remoteService : remoteServices) {
-	        if (remoteService.getServiceInfo().getApplicationId().equals(applicationId)) {
-	            filtered.add(remoteService);
-	        }
-	    }
-	    return filtered;
-	}
-	
 	@Override
 	public Endpoint getConfiguredEndpoint(ServiceConfiguration serviceConfiguration) {
 		if (serviceConfiguration == null) {
 			throw new IllegalArgumentException("serviceConfiguration cannot be null");
 		}
-		synchronized (serviceLock) {
-			Endpoint localEndpoint = getLocalEndpoint(serviceConfiguration.getServiceName());
-			if (localEndpoint != null && localEndpoint.getServiceConfiguration().equals(serviceConfiguration)) {
-				return localEndpoint;
-			}
-			List<Endpoint> remoteEndpoints = getRemoteEndpoints(serviceConfiguration.getServiceName());
-			for (Endpoint remoteEndpoint : remoteEndpoints) {
-				if (remoteEndpoint.getServiceConfiguration().equals(serviceConfiguration)) {
-					return remoteEndpoint;
-				}
+		RoutingTable table = this.routingTable;
+		LocalService localService = table.getLocalService(serviceConfiguration.getServiceName());
+		if (localService != null && localService.getEndpoint().getServiceConfiguration().equals(serviceConfiguration)) {
+			return localService.getEndpoint();
+		}
+		List<Endpoint> remoteEndpoints = table.getRemoteEndpoints(serviceConfiguration.getServiceName());
+		for (Endpoint remoteEndpoint : remoteEndpoints) {
+			if (remoteEndpoint.getServiceConfiguration().equals(serviceConfiguration)) {
+				return remoteEndpoint;
 			}
 		}
 		return null;
@@ -339,10 +323,10 @@ public class ServiceBusImpl extends BaseLifecycle implements ServiceBus, Initial
 		if (serviceDefinition == null) {
 			throw new IllegalArgumentException("serviceDefinition cannot be null");
 		}
-		LocalService localService = new LocalService(getInstanceId(), serviceDefinition);
+		LocalService localService;
 		synchronized (serviceLock) {
-			serviceExportManager.exportService(serviceDefinition);
-			localServices.put(serviceDefinition.getServiceName(), localService);
+			localService = exportService(serviceDefinition);
+			rebuildRoutingTable();
 		}
 		if (synchronize) {
 			synchronize();
@@ -358,9 +342,14 @@ public class ServiceBusImpl extends BaseLifecycle implements ServiceBus, Initial
 		List<ServiceConfiguration> serviceConfigurations = new ArrayList<ServiceConfiguration>();
 		synchronized (serviceLock) {
 			for (ServiceDefinition serviceDefinition : serviceDefinitions) {
-				ServiceConfiguration serviceConfiguration = publishService(serviceDefinition, false);
-				serviceConfigurations.add(serviceConfiguration);
+				if (serviceDefinition == null) {
+					throw new IllegalArgumentException("serviceDefinition cannot be null");
+				}
+				LocalService localService = exportService(serviceDefinition);
+				serviceConfigurations.add(localService.getEndpoint().getServiceConfiguration());
 			}
+			// once for the whole list rather than once for each service
+			rebuildRoutingTable();
 		}
 		if (synchronize) {
 			synchronize();
@@ -368,6 +357,17 @@ public class ServiceBusImpl extends BaseLifecycle implements ServiceBus, Initial
 		return Collections.unmodifiableList(serviceConfigurations);
 	}
 
+	/**
+	 * Exports a service and adds it to the local services, must be called holding the service lock and followed by
+	 * {@link #rebuildRoutingTable()}.
+	 */
+	private LocalService exportService(ServiceDefinition serviceDefinition) {
+		LocalService localService = new LocalService(getInstanceId(), serviceDefinition);
+		serviceExportManager.exportService(serviceDefinition);
+		localServices.put(serviceDefinition.getServiceName(), localService);
+		return localService;
+	}
+
 	@Override
 	public boolean removeService(QName serviceName, boolean synchronize) {
 		if (serviceName == null) {
@@ -378,6 +378,7 @@ public class ServiceBusImpl extends BaseLifecycle implements ServiceBus, Initial
 			LocalService localService = localServices.remove(serviceName);
 			serviceRemoved = localService != null;
 			serviceExportManager.removeService(serviceName);
+			rebuildRoutingTable();
 		}
 		if (serviceRemoved && synchronize) {
 			synchronize();
@@ -403,6 +404,7 @@ public class ServiceBusImpl extends BaseLifecycle implements ServiceBus, Initial
 					servicesRemoved.add(Boolean.FALSE);
 				}
 			}
+			rebuildRoutingTable();
 		}
 		if (serviceRemoved && synchronize) {
 			synchronize();
@@ -498,6 +500,7 @@ public class ServiceBusImpl extends BaseLifecycle implements ServiceBus, Initial
 						LOG.warn("Failed to remove remoteService during synchronization: " + removedRemoteService);
 					}
 				}
+				endpointStatistics.remove(removedRemoteService.getServiceInfo().getEndpointUrl());
 			}
 			List<ServiceInfo> newServices = remoteServicesDiff.getNewServices();
 			for (ServiceInfo newService : newServices) {
@@ -508,6 +511,7 @@ public class ServiceBusImpl extends BaseLifecycle implements ServiceBus, Initial
 				}
 				remoteServiceSet.add(new RemoteService(newService, this.serviceRegistry));
 			}
+			rebuildRoutingTable();
 		}
 	}
 	
@@ -533,6 +537,7 @@ public class ServiceBusImpl extends BaseLifecycle implements ServiceBus, Initial
 					for (ServiceEndpoint publishedService : result.getServicesPublished()) {
 						rebuildLocalServiceEndpointAfterPublishing(publishedService);
 					}
+					rebuildRoutingTable();
 				}
 			}
 		}
@@ -555,6 +560,14 @@ public class ServiceBusImpl extends BaseLifecycle implements ServiceBus, Initial
 		}
 	}
 
+	/**
+	 * Publishes a new snapshot of the local and remote services, must be called holding the service lock after
+	 * changing either.
+	 */
+	protected void rebuildRoutingTable() {
+		this.routingTable = new RoutingTable(this.localServices, this.clientRegistryCache);
+	}
+
 	public void setServiceRegistry(ServiceRegistry serviceRegistry) {
 		this.serviceRegistry = serviceRegistry;
 	}
@@ -571,6 +584,14 @@ public class ServiceBusImpl extends BaseLifecycle implements ServiceBus, Initial
 		this.scheduledPool = scheduledPool;
 	}
 
+	public void setEndpointSelector(EndpointSelector endpointSelector) {
+		this.endpointSelector = endpointSelector;
+	}
+
+	public void setEndpointStatistics(EndpointStatistics endpointStatistics) {
+		this.endpointStatistics = endpointStatistics;
+	}
+
     private static interface SyncProcessor {
         void sync(CompleteServiceDiff diff);
     }
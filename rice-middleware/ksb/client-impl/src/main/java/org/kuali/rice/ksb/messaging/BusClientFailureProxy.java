@@ -23,6 +23,7 @@ import org.kuali.rice.core.api.util.reflect.BaseTargetedInvocationHandler;
 import org.kuali.rice.ksb.api.KsbApiServiceLocator;
 import org.kuali.rice.ksb.api.bus.Endpoint;
 import org.kuali.rice.ksb.api.bus.ServiceConfiguration;
+import org.kuali.rice.ksb.impl.bus.EndpointStatistics;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
@@ -38,14 +39,21 @@ public class BusClientFailureProxy extends BaseTargetedInvocationHandler<Object>
 
     static final String SERVICE_REMOVAL_EXCEPTIONS_BEAN = "rice.ksb.serviceRemovalExceptions";
     static final String SERVICE_REMOVAL_RESPONSE_CODES_BEAN = "rice.ksb.serviceRemovalResponseCodes";
+    static final String ENDPOINT_STATISTICS_BEAN = "rice.ksb.endpointStatistics";
 
 	private final Object failoverLock = new Object();
 	
 	private ServiceConfiguration serviceConfiguration;
 
+	/**
+	 * Configuration of the endpoint currently targeted, which changes when failing over.
+	 */
+	private volatile ServiceConfiguration targetServiceConfiguration;
+
 	private BusClientFailureProxy(Object target, ServiceConfiguration serviceConfiguration) {
 		super(target);
 		this.serviceConfiguration = serviceConfiguration;
+		this.targetServiceConfiguration = serviceConfiguration;
 	}
 
 	public static Object wrap(Object target, ServiceConfiguration serviceConfiguration) {
@@ -56,10 +64,15 @@ public class BusClientFailureProxy extends BaseTargetedInvocationHandler<Object>
 		Set<ServiceConfiguration> servicesTried = null;
 		
 		do {
+			ServiceConfiguration invokedServiceConfiguration = this.targetServiceConfiguration;
+			long start = System.nanoTime();
 			try {
-				return method.invoke(getTarget(), params);
+				Object result = method.invoke(getTarget(), params);
+				recordResponse(invokedServiceConfiguration, System.nanoTime() - start);
+				return result;
 			} catch (Throwable throwable) {			
 				if (isServiceRemovalException(throwable)) {
+					recordFailure(invokedServiceConfiguration);
 					synchronized (failoverLock) {
                         LOG.error("Exception caught accessing remote service " + this.serviceConfiguration.getServiceName() + " at " + this.serviceConfiguration.getEndpointUrl(), throwable);
                         if (servicesTried == null) {
@@ -67,6 +80,7 @@ public class BusClientFailureProxy extends BaseTargetedInvocationHandler<Object>
 							servicesTried.add(serviceConfiguration);
 						}
 						Object failoverService = null;
+						ServiceConfiguration failoverServiceConfiguration = null;
 						List<Endpoint> endpoints = KsbApiServiceLocator.getServiceBus().getEndpoints(serviceConfiguration.getServiceName(), serviceConfiguration.getApplicationId());
 						for (Endpoint endpoint : endpoints) {
 							if (!servicesTried.contains(endpoint.getServiceConfiguration())) {
@@ -74,7 +88,8 @@ public class BusClientFailureProxy extends BaseTargetedInvocationHandler<Object>
                                 if(Proxy.isProxyClass(failoverService.getClass()) && Proxy.getInvocationHandler(failoverService) instanceof BusClientFailureProxy) {
                                     failoverService = ((BusClientFailureProxy)Proxy.getInvocationHandler(failoverService)).getTarget();
                                 }
-								servicesTried.add(endpoint.getServiceConfiguration());
+								failoverServiceConfiguration = endpoint.getServiceConfiguration();
+								servicesTried.add(failoverServiceConfiguration);
                                 break; // KULRICE-8728: BusClientFailureProxy doesn't try all endpoint options
 							}
 						}									
@@ -82,18 +97,37 @@ public class BusClientFailureProxy extends BaseTargetedInvocationHandler<Object>
                             LOG.info("Refetched replacement service for service " + this.serviceConfiguration.getServiceName() + " at " + this.serviceConfiguration.getEndpointUrl());
                             // as per KULRICE-4287, reassign target to the new service we just fetched, hopefully this one works better!
 							setTarget(failoverService);
+							this.targetServiceConfiguration = failoverServiceConfiguration;
 						} else {
 							LOG.error("Didn't find replacement service throwing exception");
 							throw throwable;					
 						}
 					}
 				} else {
+					// the endpoint answered, even if with an error
+					recordResponse(invokedServiceConfiguration, System.nanoTime() - start);
 					throw throwable;
 				}
 			}
 		} while (true);
 	}
 
+	private static void recordResponse(ServiceConfiguration serviceConfiguration, long latencyNanos) {
+		EndpointStatistics endpointStatistics = getEndpointStatistics();
+		if (endpointStatistics != null && serviceConfiguration != null
+				&& serviceConfiguration.getEndpointUrl() != null) {
+			endpointStatistics.recordResponse(serviceConfiguration.getEndpointUrl().toExternalForm(), latencyNanos);
+		}
+	}
+
+	private static void recordFailure(ServiceConfiguration serviceConfiguration) {
+		EndpointStatistics endpointStatistics = getEndpointStatistics();
+		if (endpointStatistics != null && serviceConfiguration != null
+				&& serviceConfiguration.getEndpointUrl() != null) {
+			endpointStatistics.recordFailure(serviceConfiguration.getEndpointUrl().toExternalForm());
+		}
+	}
+
 	private static boolean isServiceRemovalException(Throwable throwable) {
 		LOG.info("Checking for Service Removal Exception: " + throwable.getClass().getName());
 		if (getServiceRemovalExceptions().contains(throwable.getClass())) {
@@ -162,4 +196,20 @@ public class BusClientFailureProxy extends BaseTargetedInvocationHandler<Object>
         return ServiceRemovalResponseCodesHolder.serviceRemovalResponseCodes;
     }
 
+    /**
+     * Lazy initialization holder class idiom for static fields, see Effective Java item 71
+     */
+    private static class EndpointStatisticsHolder {
+        static final EndpointStatistics endpointStatistics = GlobalResourceLoader.getService(ENDPOINT_STATISTICS_BEAN);
+    }
+
+    /**
+     * Get the record of endpoint response times and failures shared with the service bus.
+     *
+     * <p>On first call, the bean specified by {@link #ENDPOINT_STATISTICS_BEAN} will be lazily assigned and used.</p>
+     */
+    private static EndpointStatistics getEndpointStatistics() {
+        return EndpointStatisticsHolder.endpointStatistics;
+    }
+
 }
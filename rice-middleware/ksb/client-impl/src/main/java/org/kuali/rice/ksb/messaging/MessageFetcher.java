@@ -20,8 +20,8 @@ import org.kuali.rice.core.api.config.property.ConfigContext;
 import org.kuali.rice.ksb.messaging.service.MessageQueueService;
 import org.kuali.rice.ksb.service.KSBServiceLocator;
 import org.kuali.rice.ksb.util.KSBConstants;
-import org.springframework.transaction.TransactionStatus;
-import org.springframework.transaction.support.TransactionCallback;
+
+import java.sql.Timestamp;
 
 /**
  * Fetches messages from the db. Marks as 'R'. Gives messages to ThreadPool for execution
@@ -58,8 +58,8 @@ public class MessageFetcher implements Runnable {
     private void requeueMessages() {
         if (this.routeQueueId == null) {
             try {
-                for (PersistedMessageBO message : getRouteQueueService().getNextDocuments(maxMessages)) {
-                    message = markEnrouteAndSaveMessage(message);
+                // messages are claimed and marked as routing as a batch in a single transaction
+                for (PersistedMessageBO message : getRouteQueueService().claimNextDocuments(maxMessages)) {
                     executeMessage(message);
                 }
             } catch (Throwable t) {
@@ -73,6 +73,8 @@ public class MessageFetcher implements Runnable {
             if (this.routeQueueId != null) {
                 PersistedMessageBO message = getRouteQueueService().findByRouteQueueId(this.routeQueueId);
                 message.setQueueStatus(KSBConstants.ROUTE_QUEUE_ROUTING);
+                // the queue date of a routing message is the start of its routing lease
+                message.setQueueDate(new Timestamp(System.currentTimeMillis()));
                 message = getRouteQueueService().save(message);
                 executeMessage(message);
             }
@@ -89,20 +91,6 @@ public class MessageFetcher implements Runnable {
         }
     }
 
-    private PersistedMessageBO markEnrouteAndSaveMessage(final PersistedMessageBO message) {
-        try {
-            return KSBServiceLocator.getTransactionTemplate().execute(new TransactionCallback<PersistedMessageBO>() {
-                public PersistedMessageBO doInTransaction(TransactionStatus status) {
-                    message.setQueueStatus(KSBConstants.ROUTE_QUEUE_ROUTING);
-                    return getRouteQueueService().save(message);
-                }
-            });
-        } catch (Throwable t) {
-            LOG.error("Caught error attempting to mark message " + message + " as R", t);
-        }
-        return message;
-    }
-
     private MessageQueueService getRouteQueueService() {
         return KSBServiceLocator.getMessageQueueService();
     }
@@ -44,7 +44,11 @@ import java.sql.Timestamp;
 @NamedQueries({
   @NamedQuery(name="PersistedMessageBO.FindAll", query="select pm from PersistedMessageBO pm"),
   @NamedQuery(name="PersistedMessageBO.FindByServiceName", query="select pm from PersistedMessageBO pm where pm.serviceName = :serviceName and pm.methodName = :methodName"),
-  @NamedQuery(name="PersistedMessageBO.GetNextDocuments", query="select pm from PersistedMessageBO pm where pm.applicationId = :applicationId and pm.queueStatus <> :queueStatus and pm.ipNumber = :ipNumber order by pm.queuePriority asc, pm.routeQueueId asc, pm.queueDate asc")
+  @NamedQuery(name="PersistedMessageBO.GetNextDocuments", query="select pm from PersistedMessageBO pm where pm.applicationId = :applicationId and pm.queueStatus <> :queueStatus and pm.ipNumber = :ipNumber order by pm.queuePriority asc, pm.routeQueueId asc, pm.queueDate asc"),
+  @NamedQuery(name="PersistedMessageBO.GetClaimCandidates", query="select pm from PersistedMessageBO pm where pm.applicationId = :applicationId and pm.ipNumber = :ipNumber and pm.queueStatus <> :exceptionStatus and (pm.queueStatus <> :routingStatus or pm.queueDate < :leaseExpiry) order by pm.queuePriority asc, pm.routeQueueId asc, pm.queueDate asc"),
+  @NamedQuery(name="PersistedMessageBO.Claim", query="update PersistedMessageBO pm set pm.queueStatus = :routingStatus, pm.queueDate = :claimDate, pm.lockVerNbr = pm.lockVerNbr + :versionIncrement where pm.routeQueueId in :routeQueueIds and pm.queueStatus <> :exceptionStatus and (pm.queueStatus <> :routingStatus or pm.queueDate < :leaseExpiry)"),
+  @NamedQuery(name="PersistedMessageBO.GetRoutingVersions", query="select pm.routeQueueId, pm.lockVerNbr from PersistedMessageBO pm where pm.routeQueueId in :routeQueueIds and pm.queueStatus = :routingStatus"),
+  @NamedQuery(name="PersistedMessageBO.RequeueRouting", query="update PersistedMessageBO pm set pm.queueStatus = :queuedStatus, pm.lockVerNbr = pm.lockVerNbr + 1 where pm.applicationId = :applicationId and pm.ipNumber = :ipNumber and pm.queueStatus = :routingStatus")
 })
 public class PersistedMessageBO implements PersistedMessage {
 
@@ -15,8 +15,8 @@
  */
 package org.kuali.rice.ksb.messaging;
 
-import org.kuali.rice.core.api.util.io.SerializationUtils;
 import org.kuali.rice.ksb.api.messaging.AsynchronousCall;
+import org.kuali.rice.ksb.messaging.payload.PayloadCodecs;
 
 import javax.persistence.*;
 import java.io.Serializable;
@@ -49,7 +49,7 @@ public class PersistedMessagePayload implements Serializable {
     public PersistedMessagePayload() {}
     
     public PersistedMessagePayload (AsynchronousCall methodCall, PersistedMessageBO message) {
-	this.setPayload(SerializationUtils.serializeToBase64(methodCall));
+	this.setPayload(PayloadCodecs.encode(methodCall));
 	this.methodCall = methodCall;
 	this.message = message;
     }
@@ -70,7 +70,7 @@ public class PersistedMessagePayload implements Serializable {
 	if (this.methodCall != null) {
 	    return this.methodCall;
 	} 
-	this.methodCall = (AsynchronousCall) SerializationUtils.deserializeFromBase64(getPayload());
+	this.methodCall = PayloadCodecs.decode(getPayload());
 	return this.methodCall;
     }
 
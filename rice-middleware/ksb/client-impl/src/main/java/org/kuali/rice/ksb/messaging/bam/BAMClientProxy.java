@@ -58,15 +58,22 @@ public class BAMClientProxy extends BaseTargetedInvocationHandler {
 	}
 	
 	protected Object invokeInternal(Object proxyObject, Method method, Object[] arguments) throws Throwable {
-		BAMTargetEntry bamTargetEntry = KSBServiceLocator.getBAMService().recordClientInvocation(this.serviceConfiguration, getTarget(), method, arguments);
+		BAMService bamService = KSBServiceLocator.getBAMService();
+		long start = System.nanoTime();
+		BAMTargetEntry bamTargetEntry = bamService.recordClientInvocation(this.serviceConfiguration, getTarget(), method, arguments);
+		boolean failed = false;
 		try {
 			return method.invoke(getTarget(), arguments);	
 		} catch (Throwable throwable) {
+			failed = true;
 			if (throwable instanceof InvocationTargetException) {
 				throwable = throwable.getCause();
 			}
-			KSBServiceLocator.getBAMService().recordClientInvocationError(throwable, bamTargetEntry);
+			bamService.recordClientInvocationError(throwable, bamTargetEntry);
 			throw throwable;
+		} finally {
+			bamService.recordInvocationCompleted(bamTargetEntry, this.serviceConfiguration.getServiceName(), method.getName(), false,
+					System.nanoTime() - start, failed);
 		}
 	}
 }
@@ -0,0 +1,163 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.messaging.bam;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latency histogram of the invocations of one method of a service, on either the client or the server side.
+ *
+ * <p>
+ * Bucket {@code i} counts the invocations which took at least 2<sup>i-1</sup> and less than 2<sup>i</sup>
+ * microseconds, so percentiles are reported as the upper bound of the bucket they fall in.  Recording is lock free;
+ * the values read while invocations are being recorded may be off by the invocations in flight.
+ * </p>
+ *
+ * @see BAMStatistics
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class BAMInvocationStatistics {
+
+    private static final int BUCKETS = 40;
+
+    private final String serviceName;
+    private final String methodName;
+    private final boolean serverInvocation;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public BAMInvocationStatistics(String serviceName, String methodName, boolean serverInvocation) {
+        this.serviceName = serviceName;
+        this.methodName = methodName;
+        this.serverInvocation = serverInvocation;
+    }
+
+    /**
+     * Records one invocation.
+     *
+     * @param elapsedNanos nanoseconds taken by the invocation
+     * @param failed whether the invocation threw an exception
+     */
+    public void record(long elapsedNanos, boolean failed) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(Math.max(elapsedNanos, 0));
+        int bucket = Math.min(64 - Long.numberOfLeadingZeros(micros), BUCKETS - 1);
+        buckets.incrementAndGet(bucket);
+        count.incrementAndGet();
+        if (failed) {
+            failures.incrementAndGet();
+        }
+        totalNanos.addAndGet(elapsedNanos);
+        long max = maxNanos.get();
+        while (elapsedNanos > max && !maxNanos.compareAndSet(max, elapsedNanos)) {
+            max = maxNanos.get();
+        }
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public String getMethodName() {
+        return methodName;
+    }
+
+    public boolean isServerInvocation() {
+        return serverInvocation;
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    public double getAverageMillis() {
+        long invocations = count.get();
+
+        return invocations == 0 ? 0 : toMillis(totalNanos.get()) / invocations;
+    }
+
+    public double getMaxMillis() {
+        return toMillis(maxNanos.get());
+    }
+
+    public double getMedianMillis() {
+        return getPercentileMillis(50);
+    }
+
+    public double getNinetiethPercentileMillis() {
+        return getPercentileMillis(90);
+    }
+
+    public double getNinetyNinthPercentileMillis() {
+        return getPercentileMillis(99);
+    }
+
+    /**
+     * Estimates a percentile of the latencies recorded.
+     *
+     * @param percentile the percentile, from 0 to 100
+     * @return the upper bound in milliseconds of the bucket holding the percentile, capped at the maximum latency
+     */
+    public double getPercentileMillis(double percentile) {
+        long[] counts = getBucketCounts();
+        long total = 0;
+        for (long bucketCount : counts) {
+            total += bucketCount;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percentile / 100d);
+        long seen = 0;
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            seen += counts[bucket];
+            if (seen >= Math.max(rank, 1)) {
+                return Math.min((1L << bucket) / 1000d, getMaxMillis());
+            }
+        }
+
+        return getMaxMillis();
+    }
+
+    /**
+     * Gets the number of invocations in each bucket of the histogram.
+     *
+     * @return the counts, bucket {@code i} holding the invocations shorter than 2<sup>i</sup> microseconds
+     */
+    public long[] getBucketCounts() {
+        long[] counts = new long[BUCKETS];
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            counts[bucket] = buckets.get(bucket);
+        }
+
+        return counts;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1000000d;
+    }
+
+}
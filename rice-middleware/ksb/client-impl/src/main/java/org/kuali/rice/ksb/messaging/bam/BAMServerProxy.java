@@ -59,15 +59,22 @@ public class BAMServerProxy extends BaseTargetedInvocationHandler<Object> {
 	}
 	
 	protected Object invokeInternal(Object proxiedObject, Method method, Object[] arguments) throws Throwable {
-		BAMTargetEntry bamTargetEntry = KSBServiceLocator.getBAMService().recordServerInvocation(getTarget(), this.serviceDefinition, method, arguments);
+		BAMService bamService = KSBServiceLocator.getBAMService();
+		long start = System.nanoTime();
+		BAMTargetEntry bamTargetEntry = bamService.recordServerInvocation(getTarget(), this.serviceDefinition, method, arguments);
+		boolean failed = false;
 		try {
 			return method.invoke(getTarget(), arguments);	
 		} catch (Throwable throwable) {
+			failed = true;
 			if (throwable instanceof InvocationTargetException) {
 				throwable = throwable.getCause();
 			}
-			KSBServiceLocator.getBAMService().recordServerInvocationError(throwable, bamTargetEntry);
+			bamService.recordServerInvocationError(throwable, bamTargetEntry);
 			throw throwable;
+		} finally {
+			bamService.recordInvocationCompleted(bamTargetEntry, this.serviceDefinition.getServiceName(), method.getName(), true,
+					System.nanoTime() - start, failed);
 		}
 	}
 }
@@ -0,0 +1,163 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.messaging.bam;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory aggregates of the service invocations seen by the BAM of this application.
+ *
+ * <p>
+ * Every invocation is counted here, whether or not it was sampled for the BAM tables, so the statistics stay cheap
+ * to keep with the BAM enabled in production.  They are lost on restart and are not shared between the nodes of a
+ * cluster.
+ * </p>
+ *
+ * @see org.kuali.rice.ksb.messaging.bam.service.BAMService#getStatistics()
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class BAMStatistics {
+
+    private static final Comparator<BAMInvocationStatistics> BY_SERVICE_AND_METHOD =
+            new Comparator<BAMInvocationStatistics>() {
+                @Override
+                public int compare(BAMInvocationStatistics first, BAMInvocationStatistics second) {
+                    int result = first.getServiceName().compareTo(second.getServiceName());
+                    if (result == 0) {
+                        result = first.getMethodName().compareTo(second.getMethodName());
+                    }
+                    if (result == 0) {
+                        result = Boolean.valueOf(first.isServerInvocation()).compareTo(second.isServerInvocation());
+                    }
+
+                    return result;
+                }
+            };
+
+    private final ConcurrentMap<String, BAMInvocationStatistics> invocations =
+            new ConcurrentHashMap<String, BAMInvocationStatistics>();
+
+    private final AtomicLong sampledEntries = new AtomicLong();
+    private final AtomicLong writtenEntries = new AtomicLong();
+    private final AtomicLong droppedEntries = new AtomicLong();
+    private final AtomicLong lostEntries = new AtomicLong();
+
+    /**
+     * Records one invocation of a service method.
+     *
+     * @param serviceName name of the service
+     * @param methodName name of the method invoked
+     * @param serverInvocation whether the service was invoked on this server rather than called by this client
+     * @param elapsedNanos nanoseconds taken by the invocation
+     * @param failed whether the invocation threw an exception
+     */
+    public void recordInvocation(String serviceName, String methodName, boolean serverInvocation, long elapsedNanos,
+            boolean failed) {
+        String key = (serverInvocation ? "S:" : "C:") + serviceName + "#" + methodName;
+        BAMInvocationStatistics statistics = invocations.get(key);
+        if (statistics == null) {
+            BAMInvocationStatistics newStatistics = new BAMInvocationStatistics(serviceName, methodName,
+                    serverInvocation);
+            statistics = invocations.putIfAbsent(key, newStatistics);
+            if (statistics == null) {
+                statistics = newStatistics;
+            }
+        }
+        statistics.record(elapsedNanos, failed);
+    }
+
+    public void recordSampledEntry() {
+        sampledEntries.incrementAndGet();
+    }
+
+    public void recordWrittenEntries(int entries) {
+        writtenEntries.addAndGet(entries);
+    }
+
+    /**
+     * Records a sampled invocation discarded because the buffer of entries waiting to be written was full.
+     *
+     * @return the number of entries dropped so far
+     */
+    public long recordDroppedEntry() {
+        return droppedEntries.incrementAndGet();
+    }
+
+    /**
+     * Records sampled invocations which were taken from the buffer but could not be written to the BAM tables.
+     *
+     * @param entries the number of entries lost
+     */
+    public void recordLostEntries(int entries) {
+        lostEntries.addAndGet(entries);
+    }
+
+    /**
+     * Gets the statistics of every service method invoked since startup or the last {@link #clear()}.
+     *
+     * @return the statistics, ordered by service name, method name and client invocations first
+     */
+    public List<BAMInvocationStatistics> getInvocationStatistics() {
+        List<BAMInvocationStatistics> statistics = new ArrayList<BAMInvocationStatistics>(invocations.values());
+        Collections.sort(statistics, BY_SERVICE_AND_METHOD);
+
+        return statistics;
+    }
+
+    /**
+     * Gets the number of invocations sampled to be written to the BAM tables.
+     */
+    public long getSampledEntries() {
+        return sampledEntries.get();
+    }
+
+    /**
+     * Gets the number of sampled invocations written to the BAM tables.
+     */
+    public long getWrittenEntries() {
+        return writtenEntries.get();
+    }
+
+    /**
+     * Gets the number of sampled invocations discarded because the buffer of entries waiting to be written was full.
+     */
+    public long getDroppedEntries() {
+        return droppedEntries.get();
+    }
+
+    /**
+     * Gets the number of sampled invocations which failed to be serialized or saved when writing them.
+     */
+    public long getLostEntries() {
+        return lostEntries.get();
+    }
+
+    public void clear() {
+        invocations.clear();
+        sampledEntries.set(0);
+        writtenEntries.set(0);
+        droppedEntries.set(0);
+        lostEntries.set(0);
+    }
+
+}
@@ -89,6 +89,12 @@ public class BAMTargetEntry implements Serializable {
 	//for async calls not bam
 	@Transient
 	private AsynchronousCallback callback;
+
+	// the target and arguments of a sampled invocation, turned into strings only when the entry is written
+	@Transient
+	private transient Object target;
+	@Transient
+	private transient Object[] arguments;
 		
 	public void addBamParam(BAMParam bamParam) {
 		this.bamParams.add(bamParam);
@@ -165,5 +171,17 @@ public class BAMTargetEntry implements Serializable {
 	public void setCallback(AsynchronousCallback callback) {
 		this.callback = callback;
 	}
+	public Object getTarget() {
+		return this.target;
+	}
+	public void setTarget(Object target) {
+		this.target = target;
+	}
+	public Object[] getArguments() {
+		return this.arguments;
+	}
+	public void setArguments(Object[] arguments) {
+		this.arguments = arguments;
+	}
 }
 
@@ -23,6 +23,7 @@ import javax.xml.namespace.QName;
 import org.kuali.rice.core.api.reflect.ObjectDefinition;
 import org.kuali.rice.ksb.api.bus.ServiceConfiguration;
 import org.kuali.rice.ksb.api.bus.ServiceDefinition;
+import org.kuali.rice.ksb.messaging.bam.BAMStatistics;
 import org.kuali.rice.ksb.messaging.bam.BAMTargetEntry;
 
 
@@ -42,4 +43,34 @@ public interface BAMService {
 	public void clearBAMTables();
 	public List<BAMTargetEntry> getCallsForService(QName serviceName, String methodName);
 	public List<BAMTargetEntry> getCallsForRemotedClasses(ObjectDefinition objDef, String methodName);
+
+	/**
+	 * Records the end of an invocation whose start was recorded with {@link #recordClientInvocation} or
+	 * {@link #recordServerInvocation}, adding its latency to the {@link #getStatistics() statistics} and, when the
+	 * BAM is written asynchronously, queueing the entry to be written.
+	 *
+	 * @param bamTargetEntry the entry returned when the invocation started, null if it was not sampled
+	 * @param serviceName name of the service invoked
+	 * @param methodName name of the method invoked
+	 * @param serverInvocation whether the service was invoked on this server rather than called by this client
+	 * @param elapsedNanos nanoseconds taken by the invocation
+	 * @param failed whether the invocation threw an exception
+	 */
+	public void recordInvocationCompleted(BAMTargetEntry bamTargetEntry, QName serviceName, String methodName,
+			boolean serverInvocation, long elapsedNanos, boolean failed);
+
+	/**
+	 * Writes a batch of the entries queued by {@link #recordInvocationCompleted} to the BAM tables.
+	 *
+	 * <p>An entry whose target or arguments cannot be turned into a string is dropped and counted as lost in the
+	 * {@link #getStatistics() statistics}, without affecting the rest of the batch.</p>
+	 *
+	 * @return the number of entries taken from the queue, including those lost
+	 */
+	public int writeQueuedEntries();
+
+	/**
+	 * Gets the in-memory aggregates of the invocations recorded by this application.
+	 */
+	public BAMStatistics getStatistics();
 }
@@ -17,6 +17,7 @@ package org.kuali.rice.ksb.messaging.bam.service.impl;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.log4j.Logger;
+import org.kuali.rice.core.api.config.CoreConfigHelper;
 import org.kuali.rice.core.api.config.property.Config;
 import org.kuali.rice.core.api.config.property.ConfigContext;
 import org.kuali.rice.core.api.criteria.Predicate;
@@ -27,30 +28,87 @@ import org.kuali.rice.krad.data.PersistenceOption;
 import org.kuali.rice.ksb.api.bus.ServiceConfiguration;
 import org.kuali.rice.ksb.api.bus.ServiceDefinition;
 import org.kuali.rice.ksb.messaging.bam.BAMParam;
+import org.kuali.rice.ksb.messaging.bam.BAMStatistics;
 import org.kuali.rice.ksb.messaging.bam.BAMTargetEntry;
 import org.kuali.rice.ksb.messaging.bam.service.BAMService;
+import org.kuali.rice.ksb.service.KSBServiceLocator;
+import org.kuali.rice.ksb.util.KSBConstants;
+import org.springframework.beans.factory.DisposableBean;
 
 import javax.xml.namespace.QName;
 import java.lang.reflect.Method;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 import static org.kuali.rice.core.api.criteria.PredicateFactory.equal;
 import static org.kuali.rice.core.api.criteria.PredicateFactory.like;
 
-public class BAMServiceImpl implements BAMService {
+/**
+ * Default implementation of the {@link BAMService}.
+ *
+ * <p>
+ * Only a sample of the invocations is written to the BAM tables, as set by {@link KSBConstants.Config#BAM_SAMPLE_RATE}
+ * (1.0 by default, every invocation), but the latency of every invocation is kept in the in-memory
+ * {@link BAMStatistics}.
+ * </p>
+ *
+ * <p>
+ * By default the sampled entries are not written on the calling thread.  They are queued when the invocation
+ * completes in a buffer of {@link KSBConstants.Config#BAM_BUFFER_SIZE} entries, dropping the entries which do not
+ * fit, and a background thread writes them every {@link KSBConstants.Config#BAM_WRITE_INTERVAL} milliseconds in
+ * transactions of up to {@link KSBConstants.Config#BAM_BATCH_SIZE} entries.  The target and the arguments of the
+ * invocation are only turned into strings when the entry is written, so they show their state at that time.  Setting
+ * {@link KSBConstants.Config#BAM_ASYNCHRONOUS} to false writes every sampled entry on the calling thread instead.
+ * </p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class BAMServiceImpl implements BAMService, DisposableBean {
 
 	private static final Logger LOG = Logger.getLogger(BAMServiceImpl.class);
 
+	private static final int DEFAULT_BUFFER_SIZE = 10000;
+	private static final int DEFAULT_BATCH_SIZE = 500;
+	private static final int DEFAULT_WRITE_INTERVAL = 1000;
+
     private DataObjectService dataObjectService;
 
+	private final boolean asynchronous;
+	private final double sampleRate;
+	private final int batchSize;
+	private final long writeInterval;
+	private final BlockingQueue<BAMTargetEntry> queuedEntries;
+	private final BAMStatistics statistics = new BAMStatistics();
+
+	private final Object writerLock = new Object();
+	private volatile ScheduledExecutorService writer;
+
+	public BAMServiceImpl() {
+		String asynchronousValue = ConfigContext.getCurrentContextConfig() == null ? null :
+				ConfigContext.getCurrentContextConfig().getProperty(KSBConstants.Config.BAM_ASYNCHRONOUS);
+		this.asynchronous = StringUtils.isBlank(asynchronousValue) || Boolean.valueOf(asynchronousValue.trim());
+		this.sampleRate = CoreConfigHelper.getDoubleProperty(KSBConstants.Config.BAM_SAMPLE_RATE, 1, 0, 1);
+		this.batchSize = CoreConfigHelper.getIntProperty(KSBConstants.Config.BAM_BATCH_SIZE, DEFAULT_BATCH_SIZE, 1);
+		this.writeInterval = CoreConfigHelper.getIntProperty(KSBConstants.Config.BAM_WRITE_INTERVAL,
+				DEFAULT_WRITE_INTERVAL, 1);
+		this.queuedEntries = new ArrayBlockingQueue<BAMTargetEntry>(CoreConfigHelper.getIntProperty(
+				KSBConstants.Config.BAM_BUFFER_SIZE, DEFAULT_BUFFER_SIZE, 1));
+	}
+
 	public BAMTargetEntry recordClientInvocation(ServiceConfiguration serviceConfiguration, Object target, Method method, Object[] params) {
-		if (isEnabled()) {
+		if (isEnabled() && isSampled()) {
 			try {
 				LOG.debug("A call was received... for service: " + serviceConfiguration.getServiceName().toString() + " method: " + method.getName());
 				BAMTargetEntry bamTargetEntry = getBAMTargetEntry(Boolean.FALSE, serviceConfiguration, target, method, params);
-                return dataObjectService.save(bamTargetEntry, PersistenceOption.FLUSH);
+				return recordInvocation(bamTargetEntry);
 			} catch (Throwable t) {
 				LOG.error("BAM Failed to record client invocation", t);
 			}
@@ -59,11 +117,11 @@ public class BAMServiceImpl implements BAMService {
 	}
 
 	public BAMTargetEntry recordServerInvocation(Object target, ServiceDefinition serviceDefinition, Method method, Object[] params) {
-		if (isEnabled()) {
+		if (isEnabled() && isSampled()) {
 			try {
 				LOG.debug("A call was received... for service: " + target.getClass().getName() + " method: " + method.getName());
 				BAMTargetEntry bamTargetEntry = getBAMTargetEntry(Boolean.TRUE, serviceDefinition, target, method, params);
-                return dataObjectService.save(bamTargetEntry, PersistenceOption.FLUSH);
+				return recordInvocation(bamTargetEntry);
 			} catch (Throwable t) {
 				LOG.error("BAM Failed to record server invocation", t);
 			}
@@ -71,10 +129,25 @@ public class BAMServiceImpl implements BAMService {
 		return null;
 	}
 
+	private BAMTargetEntry recordInvocation(BAMTargetEntry bamTargetEntry) {
+		statistics.recordSampledEntry();
+		if (asynchronous) {
+			// queued when the invocation completes
+			return bamTargetEntry;
+		}
+		serializeInvocation(bamTargetEntry);
+		BAMTargetEntry savedEntry = dataObjectService.save(bamTargetEntry, PersistenceOption.FLUSH);
+		statistics.recordWrittenEntries(1);
+		return savedEntry;
+	}
+
 	public BAMTargetEntry recordClientInvocationError(Throwable throwable, BAMTargetEntry bamTargetEntry) {
 		if (bamTargetEntry != null) {
 			try {
 				setThrowableOnBAMTargetEntry(throwable, bamTargetEntry);
+				if (asynchronous) {
+					return bamTargetEntry;
+				}
                 return dataObjectService.save(bamTargetEntry, PersistenceOption.FLUSH);
 			} catch (Exception e) {
 				LOG.error("BAM Failed to record client invocation error", e);
@@ -87,6 +160,9 @@ public class BAMServiceImpl implements BAMService {
 		if (bamTargetEntry != null) {
 			try {
 				setThrowableOnBAMTargetEntry(throwable, bamTargetEntry);
+				if (asynchronous) {
+					return bamTargetEntry;
+				}
                 return dataObjectService.save(bamTargetEntry, PersistenceOption.FLUSH);
 			} catch (Exception e) {
 				LOG.error("BAM Failed to record service invocation error", e);
@@ -95,6 +171,98 @@ public class BAMServiceImpl implements BAMService {
 		return null;
 	}
 
+	public void recordInvocationCompleted(BAMTargetEntry bamTargetEntry, QName serviceName, String methodName,
+			boolean serverInvocation, long elapsedNanos, boolean failed) {
+		try {
+			statistics.recordInvocation(serviceName.toString(), methodName, serverInvocation, elapsedNanos, failed);
+			if (bamTargetEntry != null && asynchronous) {
+				if (queuedEntries.offer(bamTargetEntry)) {
+					startWriter();
+				} else if (statistics.recordDroppedEntry() == 1) {
+					LOG.warn("BAM buffer of " + (queuedEntries.size() + queuedEntries.remainingCapacity())
+							+ " entries is full, dropping entries until the writer catches up");
+				}
+			}
+		} catch (Throwable t) {
+			LOG.error("BAM Failed to record invocation completion", t);
+		}
+	}
+
+	public int writeQueuedEntries() {
+		List<BAMTargetEntry> batch = new ArrayList<BAMTargetEntry>(batchSize);
+		queuedEntries.drainTo(batch, batchSize);
+		List<BAMTargetEntry> serializedEntries = new ArrayList<BAMTargetEntry>(batch.size());
+		for (BAMTargetEntry bamTargetEntry : batch) {
+			try {
+				serializeInvocation(bamTargetEntry);
+				serializedEntries.add(bamTargetEntry);
+			} catch (Throwable t) {
+				// a target or argument which cannot be turned into a string only loses its own entry
+				statistics.recordLostEntries(1);
+				LOG.error("BAM Failed to serialize the invocation of " + bamTargetEntry.getServiceName() + " "
+						+ bamTargetEntry.getMethodName() + ", dropping the entry", t);
+			}
+		}
+		try {
+			for (BAMTargetEntry bamTargetEntry : serializedEntries) {
+				dataObjectService.save(bamTargetEntry);
+			}
+		} catch (RuntimeException e) {
+			// the transaction of the batch is rolled back
+			statistics.recordLostEntries(serializedEntries.size());
+			throw e;
+		}
+		statistics.recordWrittenEntries(serializedEntries.size());
+		return batch.size();
+	}
+
+	public BAMStatistics getStatistics() {
+		return statistics;
+	}
+
+	private boolean isSampled() {
+		return sampleRate >= 1 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+	}
+
+	private void startWriter() {
+		if (writer == null) {
+			synchronized (writerLock) {
+				if (writer == null) {
+					ScheduledExecutorService newWriter = Executors.newSingleThreadScheduledExecutor(
+							new ThreadFactory() {
+								@Override
+								public Thread newThread(Runnable runnable) {
+									Thread thread = new Thread(runnable, "BAM-Writer");
+									thread.setDaemon(true);
+									return thread;
+								}
+							});
+					newWriter.scheduleWithFixedDelay(new WriteQueuedEntries(), writeInterval, writeInterval,
+							TimeUnit.MILLISECONDS);
+					writer = newWriter;
+				}
+			}
+		}
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		synchronized (writerLock) {
+			if (writer != null) {
+				writer.shutdown();
+				writer.awaitTermination(writeInterval, TimeUnit.MILLISECONDS);
+				writer = null;
+			}
+		}
+		try {
+			while (writeQueuedEntries() > 0) {
+				// keep writing until the buffer is empty
+			}
+		} catch (Exception e) {
+			LOG.error("BAM Failed to write " + queuedEntries.size() + " entries on shutdown", e);
+		}
+	}
+
 	private void setThrowableOnBAMTargetEntry(Throwable throwable, BAMTargetEntry bamTargetEntry) {
 		if (throwable != null) {
 			bamTargetEntry.setExceptionMessage(throwable.getMessage());
@@ -107,11 +275,11 @@ public class BAMServiceImpl implements BAMService {
 		bamEntry.setServerInvocation(serverInd);
 		bamEntry.setServiceName(serviceConfiguration.getServiceName().toString());
 		bamEntry.setServiceURL(serviceConfiguration.getEndpointUrl().toExternalForm());
-		bamEntry.setTargetToString(makeStringfit(target.toString()));
+		bamEntry.setTarget(target);
 		bamEntry.setMethodName(method.getName());
 		bamEntry.setThreadName(Thread.currentThread().getName());
 		bamEntry.setCallDate(new Timestamp(System.currentTimeMillis()));
-		setBamParams(params, bamEntry);
+		bamEntry.setArguments(params);
 		return bamEntry;
 	}
 	
@@ -120,14 +288,26 @@ public class BAMServiceImpl implements BAMService {
 		bamEntry.setServerInvocation(serverInd);
 		bamEntry.setServiceName(serviceDefinition.getServiceName().toString());
 		bamEntry.setServiceURL(serviceDefinition.getEndpointUrl().toExternalForm());
-		bamEntry.setTargetToString(makeStringfit(target.toString()));
+		bamEntry.setTarget(target);
 		bamEntry.setMethodName(method.getName());
 		bamEntry.setThreadName(Thread.currentThread().getName());
 		bamEntry.setCallDate(new Timestamp(System.currentTimeMillis()));
-		setBamParams(params, bamEntry);
+		bamEntry.setArguments(params);
 		return bamEntry;
 	}
 
+	/**
+	 * Turns the target and the arguments of the invocation into the strings written to the BAM tables.
+	 */
+	private void serializeInvocation(BAMTargetEntry bamEntry) {
+		if (bamEntry.getTarget() != null) {
+			bamEntry.setTargetToString(makeStringfit(bamEntry.getTarget().toString()));
+			bamEntry.setTarget(null);
+		}
+		setBamParams(bamEntry.getArguments(), bamEntry);
+		bamEntry.setArguments(null);
+	}
+
 	private void setBamParams(Object[] params, BAMTargetEntry bamEntry) {
 		if (params == null) {
 			return;
@@ -135,7 +315,7 @@ public class BAMServiceImpl implements BAMService {
 		for (int i = 0; i < params.length; i++) {
 			BAMParam bamParam = new BAMParam();
 			bamParam.setBamTargetEntry(bamEntry);
-			bamParam.setParam(params[i].toString());
+			bamParam.setParam(String.valueOf(params[i]));
 			bamEntry.addBamParam(bamParam);
 		}
 	}
@@ -195,4 +375,27 @@ public class BAMServiceImpl implements BAMService {
         this.dataObjectService = dataObjectService;
     }
 
+	/**
+	 * Writes the queued entries through the {@link BAMService} bean, so each batch is written in one transaction.
+	 */
+	private class WriteQueuedEntries implements Runnable {
+
+		@Override
+		public void run() {
+			try {
+				BAMService bamService = KSBServiceLocator.getBAMService();
+				if (bamService == null) {
+					return;
+				}
+				int written;
+				do {
+					written = bamService.writeQueuedEntries();
+				} while (written >= batchSize);
+			} catch (Throwable t) {
+				LOG.error("BAM Failed to write queued entries", t);
+			}
+		}
+
+	}
+
 }
@@ -285,6 +285,16 @@ public class KSBConfigurer extends ModuleConfigurer implements SmartApplicationL
         }
 
         //automatically requeue documents sitting with status of 'R'
+        if (isMessagePersistenceEnabled()) {
+            try {
+                int requeued = KSBServiceLocator.getMessageQueueService().requeueRoutingMessages();
+                if (requeued > 0) {
+                    LOG.info("Requeued " + requeued + " messages left routing by a previous run.");
+                }
+            } catch (RuntimeException e) {
+                LOG.error("Failed to requeue messages left routing by a previous run.", e);
+            }
+        }
         MessageFetcher messageFetcher = new MessageFetcher((Integer) null);
         KSBServiceLocator.getThreadPool().execute(messageFetcher);
     }
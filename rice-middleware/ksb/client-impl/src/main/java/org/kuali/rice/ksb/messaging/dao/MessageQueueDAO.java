@@ -37,6 +37,26 @@ public interface MessageQueueDAO {
 
     public List<PersistedMessageBO> getNextDocuments(Integer maxDocuments);
 
+    /**
+     * Claims the next messages which are queued for routing by marking them as
+     * {@link org.kuali.rice.ksb.util.KSBConstants#ROUTE_QUEUE_ROUTING} in the current transaction.  Messages which
+     * are claimed concurrently by another fetcher are skipped rather than returned twice.  A message which has been
+     * routing for longer than the lease given by {@link org.kuali.rice.ksb.util.KSBConstants.Config#MESSAGE_ROUTING_LEASE_SECONDS}
+     * is assumed to have been abandoned and is claimed again.
+     *
+     * @param maxDocuments the maximum number of messages to claim, or null for no limit
+     * @return the claimed messages, already marked as routing
+     */
+    public List<PersistedMessageBO> claimNextDocuments(Integer maxDocuments);
+
+    /**
+     * Puts the messages of this application on this node which are marked as routing back in the queue, for use on
+     * startup when no message can still be routing.
+     *
+     * @return the number of messages requeued
+     */
+    public int requeueRoutingMessages();
+
     public List<PersistedMessageBO> findByServiceName(QName serviceName, String methodName);
 
     /**
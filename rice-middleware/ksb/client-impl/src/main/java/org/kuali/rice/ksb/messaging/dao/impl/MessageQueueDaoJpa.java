@@ -31,13 +31,28 @@ import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 import javax.xml.namespace.QName;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class MessageQueueDaoJpa implements MessageQueueDAO {
 
     private static final org.apache.log4j.Logger LOG = org.apache.log4j.Logger.getLogger(MessageQueueDaoJpa.class);
 
+    /**
+     * The default number of seconds after which a routing message is assumed to have been abandoned.
+     */
+    private static final int DEFAULT_ROUTING_LEASE_SECONDS = 3600;
+
+    private static final int MAX_IN_CLAUSE_SIZE = 1000;
+
+    private static final int MAX_CLAIM_VERSION_INCREMENT = 1000;
+
+    private static final AtomicInteger claimCount = new AtomicInteger();
+
     private EntityManager entityManager;
 
     public List<PersistedMessageBO> findAll() {
@@ -112,6 +127,127 @@ public class MessageQueueDaoJpa implements MessageQueueDAO {
         return query.getResultList();
     }
 
+    /**
+     * Claims messages with a single conditional update of the candidate messages which only matches those which are
+     * still claimable, so that a message which was claimed by another fetcher since it was read is skipped.  A routing
+     * message's queue date is the time at which it was claimed, so one whose claim is older than the routing lease is
+     * claimed again.
+     *
+     * <p>The update advances the version number of each message it claims by an increment which differs from that of
+     * any other claim running concurrently in this JVM, which is how the messages claimed by this fetcher are told
+     * apart from those claimed by another when the update does not match every candidate.</p>
+     */
+    public List<PersistedMessageBO> claimNextDocuments(Integer maxDocuments) {
+        // the queue date column may not store fractions of a second
+        Timestamp claimDate = new Timestamp(System.currentTimeMillis() / 1000 * 1000);
+        Timestamp leaseExpiry = new Timestamp(claimDate.getTime() - getRoutingLeaseSeconds() * 1000L);
+
+        TypedQuery<PersistedMessageBO> candidateQuery = entityManager.createNamedQuery(
+                "PersistedMessageBO.GetClaimCandidates", PersistedMessageBO.class);
+        candidateQuery.setParameter("applicationId", CoreConfigHelper.getApplicationId());
+        candidateQuery.setParameter("ipNumber", RiceUtilities.getIpNumber());
+        candidateQuery.setParameter("exceptionStatus", KSBConstants.ROUTE_QUEUE_EXCEPTION);
+        candidateQuery.setParameter("routingStatus", KSBConstants.ROUTE_QUEUE_ROUTING);
+        candidateQuery.setParameter("leaseExpiry", leaseExpiry);
+        if (maxDocuments != null) {
+            candidateQuery.setMaxResults(maxDocuments);
+        }
+
+        List<PersistedMessageBO> candidates = candidateQuery.getResultList();
+        List<PersistedMessageBO> claimed = new ArrayList<PersistedMessageBO>(candidates.size());
+        if (candidates.isEmpty()) {
+            return claimed;
+        }
+
+        // the claim update bypasses the persistence context, so make sure the candidates are not managed
+        List<Long> routeQueueIds = new ArrayList<Long>(candidates.size());
+        for (PersistedMessageBO candidate : candidates) {
+            entityManager.detach(candidate);
+            routeQueueIds.add(candidate.getRouteQueueId());
+        }
+
+        int versionIncrement = (claimCount.getAndIncrement() & Integer.MAX_VALUE) % MAX_CLAIM_VERSION_INCREMENT + 1;
+        int claimedCount = 0;
+        for (List<Long> chunk : chunk(routeQueueIds)) {
+            Query claimQuery = entityManager.createNamedQuery("PersistedMessageBO.Claim");
+            claimQuery.setParameter("routingStatus", KSBConstants.ROUTE_QUEUE_ROUTING);
+            claimQuery.setParameter("claimDate", claimDate);
+            claimQuery.setParameter("versionIncrement", versionIncrement);
+            claimQuery.setParameter("routeQueueIds", chunk);
+            claimQuery.setParameter("exceptionStatus", KSBConstants.ROUTE_QUEUE_EXCEPTION);
+            claimQuery.setParameter("leaseExpiry", leaseExpiry);
+            claimedCount += claimQuery.executeUpdate();
+        }
+
+        Map<Long, Integer> claimedVersions = null;
+        if (claimedCount < candidates.size()) {
+            claimedVersions = getRoutingVersions(routeQueueIds);
+        }
+        for (PersistedMessageBO candidate : candidates) {
+            Integer claimedVersion = candidate.getLockVerNbr() + versionIncrement;
+            if (claimedVersions == null || claimedVersion.equals(claimedVersions.get(candidate.getRouteQueueId()))) {
+                candidate.setQueueStatus(KSBConstants.ROUTE_QUEUE_ROUTING);
+                candidate.setQueueDate(claimDate);
+                candidate.setLockVerNbr(claimedVersion);
+                claimed.add(candidate);
+            } else if (LOG.isDebugEnabled()) {
+                LOG.debug("Message " + candidate.getRouteQueueId() + " was claimed by another fetcher, skipping");
+            }
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Claimed " + claimed.size() + " of " + candidates.size() + " candidate messages");
+        }
+        return claimed;
+    }
+
+    /**
+     * Returns the version numbers of those of the given messages which are marked as routing, keyed by id.
+     */
+    private Map<Long, Integer> getRoutingVersions(List<Long> routeQueueIds) {
+        Map<Long, Integer> versions = new HashMap<Long, Integer>();
+        for (List<Long> chunk : chunk(routeQueueIds)) {
+            TypedQuery<Object[]> query = entityManager.createNamedQuery("PersistedMessageBO.GetRoutingVersions",
+                    Object[].class);
+            query.setParameter("routeQueueIds", chunk);
+            query.setParameter("routingStatus", KSBConstants.ROUTE_QUEUE_ROUTING);
+            for (Object[] row : query.getResultList()) {
+                versions.put((Long) row[0], (Integer) row[1]);
+            }
+        }
+        return versions;
+    }
+
+    /**
+     * Splits the given ids into lists which are small enough to be used in an "in" clause.
+     */
+    private static List<List<Long>> chunk(List<Long> routeQueueIds) {
+        List<List<Long>> chunks = new ArrayList<List<Long>>();
+        for (int i = 0; i < routeQueueIds.size(); i += MAX_IN_CLAUSE_SIZE) {
+            chunks.add(routeQueueIds.subList(i, Math.min(i + MAX_IN_CLAUSE_SIZE, routeQueueIds.size())));
+        }
+        return chunks;
+    }
+
+    private static int getRoutingLeaseSeconds() {
+        return CoreConfigHelper.getIntProperty(KSBConstants.Config.MESSAGE_ROUTING_LEASE_SECONDS,
+                DEFAULT_ROUTING_LEASE_SECONDS, 1);
+    }
+
+    public int requeueRoutingMessages() {
+        Query query = entityManager.createNamedQuery("PersistedMessageBO.RequeueRouting");
+        query.setParameter("queuedStatus", KSBConstants.ROUTE_QUEUE_QUEUED);
+        query.setParameter("applicationId", CoreConfigHelper.getApplicationId());
+        query.setParameter("ipNumber", RiceUtilities.getIpNumber());
+        query.setParameter("routingStatus", KSBConstants.ROUTE_QUEUE_ROUTING);
+        int requeued = query.executeUpdate();
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Requeued " + requeued + " routing messages");
+        }
+        return requeued;
+    }
+
     public void remove(PersistedMessageBO routeQueue) {
         if (LOG.isDebugEnabled()) {
             LOG.debug("Removing message " + routeQueue);
@@ -0,0 +1,136 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.messaging.payload;
+
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.lang.SerializationException;
+import org.apache.commons.lang.SerializationUtils;
+import org.kuali.rice.ksb.api.messaging.AsynchronousCall;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Java serialization which is deflated when the serialized call is larger than a threshold.
+ *
+ * <p>The encoded value is the base 64 encoding of a single flag byte (whether the remaining bytes are compressed)
+ * followed by the serialized call.  The payload column is character based, so the base 64 encoding is kept, but for
+ * typical routing messages compression more than makes up for it.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class CompressedPayloadCodec implements PayloadCodec {
+
+    public static final String FORMAT_ID = "JZ1";
+
+    /**
+     * Serialized calls smaller than this are stored uncompressed, since deflating them saves little or nothing.
+     */
+    public static final int DEFAULT_COMPRESSION_THRESHOLD = 512;
+
+    private static final byte UNCOMPRESSED = 0;
+    private static final byte COMPRESSED = 1;
+    private static final int BUFFER_SIZE = 4096;
+
+    private int compressionThreshold = DEFAULT_COMPRESSION_THRESHOLD;
+
+    @Override
+    public String getFormatId() {
+        return FORMAT_ID;
+    }
+
+    @Override
+    public String encode(AsynchronousCall methodCall) {
+        if (methodCall == null) {
+            throw new IllegalArgumentException("Cannot encode a null method call");
+        }
+        byte[] serialized = SerializationUtils.serialize(methodCall);
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream(serialized.length + 1);
+        if (serialized.length < compressionThreshold) {
+            encoded.write(UNCOMPRESSED);
+            encoded.write(serialized, 0, serialized.length);
+        } else {
+            encoded.write(COMPRESSED);
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try {
+                deflater.setInput(serialized);
+                deflater.finish();
+                byte[] buffer = new byte[BUFFER_SIZE];
+                while (!deflater.finished()) {
+                    int length = deflater.deflate(buffer);
+                    encoded.write(buffer, 0, length);
+                }
+            } finally {
+                deflater.end();
+            }
+        }
+        return new Base64().encodeAsString(encoded.toByteArray());
+    }
+
+    @Override
+    public AsynchronousCall decode(String encodedMethodCall) {
+        byte[] decoded = new Base64().decode(encodedMethodCall);
+        if (decoded.length == 0) {
+            throw new SerializationException("Encoded method call was empty");
+        }
+        byte[] serialized;
+        if (decoded[0] == UNCOMPRESSED) {
+            serialized = new byte[decoded.length - 1];
+            System.arraycopy(decoded, 1, serialized, 0, serialized.length);
+        } else if (decoded[0] == COMPRESSED) {
+            serialized = inflate(decoded);
+        } else {
+            throw new SerializationException("Unknown compression flag on encoded method call: " + decoded[0]);
+        }
+        return (AsynchronousCall) SerializationUtils.deserialize(serialized);
+    }
+
+    private byte[] inflate(byte[] decoded) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(decoded, 1, decoded.length - 1);
+            ByteArrayOutputStream inflated = new ByteArrayOutputStream(decoded.length * 4);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new SerializationException("Compressed method call was truncated");
+                }
+                inflated.write(buffer, 0, length);
+            }
+            inflated.close();
+            return inflated.toByteArray();
+        } catch (DataFormatException e) {
+            throw new SerializationException("Failed to inflate compressed method call", e);
+        } catch (IOException e) {
+            throw new SerializationException("Failed to inflate compressed method call", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    public int getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    public void setCompressionThreshold(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+    }
+
+}
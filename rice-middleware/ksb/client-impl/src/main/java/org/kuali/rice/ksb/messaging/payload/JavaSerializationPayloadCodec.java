@@ -0,0 +1,48 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.messaging.payload;
+
+import org.kuali.rice.core.api.util.io.SerializationUtils;
+import org.kuali.rice.ksb.api.messaging.AsynchronousCall;
+
+/**
+ * The original payload format: base 64 encoded java serialization, stored without a format id prefix.
+ *
+ * <p>Payloads in this format can be read by all versions of the KSB, so it can be configured for encoding while
+ * older nodes are still reading from the same message queue.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class JavaSerializationPayloadCodec implements PayloadCodec {
+
+    public static final String FORMAT_ID = "legacy";
+
+    @Override
+    public String getFormatId() {
+        return FORMAT_ID;
+    }
+
+    @Override
+    public String encode(AsynchronousCall methodCall) {
+        return SerializationUtils.serializeToBase64(methodCall);
+    }
+
+    @Override
+    public AsynchronousCall decode(String encodedMethodCall) {
+        return (AsynchronousCall) SerializationUtils.deserializeFromBase64(encodedMethodCall);
+    }
+
+}
@@ -0,0 +1,56 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.messaging.payload;
+
+import org.kuali.rice.ksb.api.messaging.AsynchronousCall;
+
+/**
+ * Encodes and decodes the {@link AsynchronousCall} stored as the payload of a persisted message.
+ *
+ * <p>Each codec is identified by a format id which is recorded at the start of every payload it encodes, so that a
+ * stored payload can always be decoded by the codec which produced it, regardless of which codec is currently
+ * configured for encoding.  See {@link PayloadCodecs}.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public interface PayloadCodec {
+
+    /**
+     * Returns the id of the format produced by this codec.  Must not contain the
+     * {@link PayloadCodecs#FORMAT_SEPARATOR} or any characters from the base 64 alphabet other than letters and
+     * digits.
+     *
+     * @return the format id of this codec
+     */
+    String getFormatId();
+
+    /**
+     * Encodes the given call, without the format id prefix.
+     *
+     * @param methodCall the call to encode, must not be null
+     * @return the encoded call
+     */
+    String encode(AsynchronousCall methodCall);
+
+    /**
+     * Decodes a value produced by {@link #encode(AsynchronousCall)}.
+     *
+     * @param encodedMethodCall the encoded call, without the format id prefix
+     * @return the decoded call
+     */
+    AsynchronousCall decode(String encodedMethodCall);
+
+}
@@ -0,0 +1,145 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.messaging.payload;
+
+import org.apache.commons.lang.StringUtils;
+import org.kuali.rice.core.api.config.property.Config;
+import org.kuali.rice.core.api.config.property.ConfigContext;
+import org.kuali.rice.ksb.api.messaging.AsynchronousCall;
+import org.kuali.rice.ksb.util.KSBConstants;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry of the available {@link PayloadCodec}s, used to encode and decode persisted message payloads.
+ *
+ * <p>Payloads are stored as {@code <format id>:<encoded call>}.  Payloads without a format id are in the original
+ * {@link JavaSerializationPayloadCodec} format, so messages persisted by earlier versions can still be read.  The codec
+ * used for encoding is selected by the {@link KSBConstants.Config#MESSAGE_PAYLOAD_CODEC} config property, defaulting to
+ * the {@link CompressedPayloadCodec}.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public final class PayloadCodecs {
+
+    private static final org.apache.log4j.Logger LOG = org.apache.log4j.Logger.getLogger(PayloadCodecs.class);
+
+    public static final char FORMAT_SEPARATOR = ':';
+
+    /**
+     * Format ids are short, so only the start of the payload needs to be searched for the separator.
+     */
+    private static final int MAX_FORMAT_ID_LENGTH = 32;
+
+    private static final PayloadCodec LEGACY_CODEC = new JavaSerializationPayloadCodec();
+
+    private static final ConcurrentMap<String, PayloadCodec> CODECS = new ConcurrentHashMap<String, PayloadCodec>();
+
+    static {
+        register(LEGACY_CODEC);
+        register(new CompressedPayloadCodec());
+    }
+
+    private PayloadCodecs() {
+        throw new UnsupportedOperationException("do not call");
+    }
+
+    /**
+     * Registers a codec, replacing any codec previously registered with the same format id.
+     *
+     * @param codec the codec to register
+     */
+    public static void register(PayloadCodec codec) {
+        if (codec == null || StringUtils.isBlank(codec.getFormatId())) {
+            throw new IllegalArgumentException("codec and its format id must not be null");
+        }
+        if (codec.getFormatId().length() > MAX_FORMAT_ID_LENGTH
+                || codec.getFormatId().indexOf(FORMAT_SEPARATOR) >= 0) {
+            throw new IllegalArgumentException("Invalid payload codec format id: " + codec.getFormatId());
+        }
+        CODECS.put(codec.getFormatId(), codec);
+    }
+
+    /**
+     * Encodes the given call with the configured codec, prefixing it with the id of the codec's format.
+     *
+     * @param methodCall the call to encode
+     * @return the encoded payload
+     */
+    public static String encode(AsynchronousCall methodCall) {
+        PayloadCodec codec = getEncodingCodec();
+        if (codec == LEGACY_CODEC) {
+            return codec.encode(methodCall);
+        }
+        return codec.getFormatId() + FORMAT_SEPARATOR + codec.encode(methodCall);
+    }
+
+    /**
+     * Decodes a payload produced by {@link #encode(AsynchronousCall)} with any registered codec, or by an earlier
+     * version of the KSB.
+     *
+     * @param payload the payload to decode
+     * @return the decoded call
+     * @throws IllegalArgumentException if the payload is blank or was encoded by an unknown codec
+     */
+    public static AsynchronousCall decode(String payload) {
+        if (StringUtils.isBlank(payload)) {
+            throw new IllegalArgumentException("Cannot decode a null or blank payload.");
+        }
+        String formatId = getFormatId(payload);
+        if (formatId == null) {
+            return LEGACY_CODEC.decode(payload);
+        }
+        PayloadCodec codec = CODECS.get(formatId);
+        if (codec == null) {
+            throw new IllegalArgumentException("No payload codec is registered for format: " + formatId);
+        }
+        return codec.decode(payload.substring(formatId.length() + 1));
+    }
+
+    /**
+     * Returns the id of the format of the given payload, or null if the payload is in the original format.
+     *
+     * @param payload the payload
+     * @return the format id of the payload
+     */
+    public static String getFormatId(String payload) {
+        int separatorIndex = payload.indexOf(FORMAT_SEPARATOR);
+        if (separatorIndex <= 0 || separatorIndex > MAX_FORMAT_ID_LENGTH) {
+            return null;
+        }
+        return payload.substring(0, separatorIndex);
+    }
+
+    static PayloadCodec getEncodingCodec() {
+        String formatId = null;
+        Config config = ConfigContext.getCurrentContextConfig();
+        if (config != null) {
+            formatId = config.getProperty(KSBConstants.Config.MESSAGE_PAYLOAD_CODEC);
+        }
+        if (StringUtils.isBlank(formatId)) {
+            formatId = CompressedPayloadCodec.FORMAT_ID;
+        }
+        PayloadCodec codec = CODECS.get(formatId);
+        if (codec == null) {
+            LOG.warn("No payload codec is registered for format " + formatId + ", using " + CompressedPayloadCodec.FORMAT_ID);
+            codec = CODECS.get(CompressedPayloadCodec.FORMAT_ID);
+        }
+        return codec;
+    }
+
+}
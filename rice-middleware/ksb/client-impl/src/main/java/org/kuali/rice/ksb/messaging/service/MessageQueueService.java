@@ -62,6 +62,21 @@ public interface MessageQueueService {
      */
     List<PersistedMessageBO> getNextDocuments(Integer maxDocuments);
 
+    /**
+     * Claims the next batch of messages which are queued for routing, marking them as routing in a single
+     * transaction.  Several fetchers may claim concurrently without the same message being returned to more than one
+     * of them.  Will not return more messages than the value of maxDocuments.
+     */
+    List<PersistedMessageBO> claimNextDocuments(Integer maxDocuments);
+
+    /**
+     * Puts the messages of this application on this node which are marked as routing back in the queue.  Used on
+     * startup, when a message left routing can only have been abandoned by a previous run.
+     *
+     * @return the number of messages requeued
+     */
+    int requeueRoutingMessages();
+
     PersistedMessagePayload findByPersistedMessageByRouteQueueId(Long routeQueueId);
     
     /**
@@ -72,6 +72,14 @@ public class MessageQueueServiceImpl implements MessageQueueService {
         return this.getMessageQueueDao().getNextDocuments(maxDocuments);
     }
 
+    public List<PersistedMessageBO> claimNextDocuments(Integer maxDocuments) {
+        return this.getMessageQueueDao().claimNextDocuments(maxDocuments);
+    }
+
+    public int requeueRoutingMessages() {
+        return this.getMessageQueueDao().requeueRoutingMessages();
+    }
+
     public MessageQueueDAO getMessageQueueDao() {
         return this.messageQueueDao;
     }
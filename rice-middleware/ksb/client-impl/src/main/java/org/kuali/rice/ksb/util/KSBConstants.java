@@ -30,6 +30,8 @@ public final class KSBConstants {
         public static final String MESSAGE_PERSISTENCE = "message.persistence";
         public static final String MESSAGING_OFF = "message.off";
         public static final String MESSAGE_DELIVERY = "message.delivery";
+        public static final String MESSAGE_PAYLOAD_CODEC = "rice.ksb.message.payloadCodec";
+        public static final String MESSAGE_ROUTING_LEASE_SECONDS = "rice.ksb.message.routingLeaseSeconds";
         public static final String INJECTED_EXCEPTION_MESSAGE_SCHEDULER_KEY = "message.injected.scheduler";
         public static final String FIXED_POOL_SIZE = "ksb.fixedPoolSize";
         public static final String ROUTE_QUEUE_MAX_RETRY_ATTEMPTS_KEY = "RouteQueue.maxRetryAttempts";
@@ -53,6 +55,13 @@ public final class KSBConstants {
         public static final String INSTANCE_ID = "rice.ksb.bus.instanceId";
         public static final String REGISTRY_SERVICE_URL = "rice.ksb.registry.serviceUrl";
         public static final String WEB_FORCE_ENABLE = "rice.ksb.web.forceEnable";
+        public static final String ENDPOINT_EJECTION_FAILURES = "rice.ksb.endpoint.ejection.consecutiveFailures";
+        public static final String ENDPOINT_EJECTION_SECONDS = "rice.ksb.endpoint.ejection.seconds";
+        public static final String BAM_ASYNCHRONOUS = "rice.ksb.bam.asynchronous";
+        public static final String BAM_SAMPLE_RATE = "rice.ksb.bam.sampleRate";
+        public static final String BAM_BUFFER_SIZE = "rice.ksb.bam.bufferSize";
+        public static final String BAM_BATCH_SIZE = "rice.ksb.bam.batchSize";
+        public static final String BAM_WRITE_INTERVAL = "rice.ksb.bam.writeInterval";
 
 
     	private Config() {
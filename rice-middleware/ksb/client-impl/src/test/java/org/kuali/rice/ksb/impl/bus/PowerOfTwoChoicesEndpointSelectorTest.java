@@ -0,0 +1,191 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.impl.bus;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.kuali.rice.ksb.api.registry.ServiceEndpointStatus;
+import org.kuali.rice.ksb.api.registry.ServiceInfo;
+import org.kuali.rice.ksb.api.registry.ServiceRegistry;
+
+import javax.xml.namespace.QName;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the {@link PowerOfTwoChoicesEndpointSelector} and the {@link EndpointStatistics} it selects from.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class PowerOfTwoChoicesEndpointSelectorTest {
+
+    private static final QName SERVICE_NAME = new QName("http://rice.kuali.org/test", "service");
+
+    private static final int SELECTIONS = 100;
+
+    private ServiceRegistry serviceRegistry;
+    private RemoteService fast;
+    private RemoteService slow;
+    private List<RemoteService> candidates;
+
+    @Before
+    public void setUp() {
+        serviceRegistry = (ServiceRegistry) Proxy.newProxyInstance(ServiceRegistry.class.getClassLoader(),
+                new Class<?>[] {ServiceRegistry.class}, new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        fast = createRemoteService("fast");
+        slow = createRemoteService("slow");
+        candidates = Arrays.asList(fast, slow);
+    }
+
+    @Test
+    public void testSingleCandidate() {
+        EndpointStatistics statistics = new EndpointStatistics(1, 30);
+        statistics.recordFailure(getUrl(slow));
+        PowerOfTwoChoicesEndpointSelector selector = new PowerOfTwoChoicesEndpointSelector(statistics);
+
+        assertSame(slow, selector.select(SERVICE_NAME, Collections.singletonList(slow)));
+    }
+
+    @Test
+    public void testSelectsLowerLatency() {
+        EndpointStatistics statistics = new EndpointStatistics(2, 30);
+        statistics.recordResponse(getUrl(fast), TimeUnit.MILLISECONDS.toNanos(10));
+        statistics.recordResponse(getUrl(slow), TimeUnit.MILLISECONDS.toNanos(100));
+        PowerOfTwoChoicesEndpointSelector selector = new PowerOfTwoChoicesEndpointSelector(statistics);
+
+        for (int i = 0; i < SELECTIONS; i++) {
+            assertSame(fast, selector.select(SERVICE_NAME, candidates));
+        }
+    }
+
+    @Test
+    public void testPrefersUnmeasuredEndpoint() {
+        EndpointStatistics statistics = new EndpointStatistics(2, 30);
+        statistics.recordResponse(getUrl(fast), TimeUnit.MILLISECONDS.toNanos(10));
+        PowerOfTwoChoicesEndpointSelector selector = new PowerOfTwoChoicesEndpointSelector(statistics);
+
+        assertSame(slow, selector.select(SERVICE_NAME, candidates));
+    }
+
+    @Test
+    public void testEjection() {
+        EndpointStatistics statistics = new EndpointStatistics(2, 30);
+        statistics.recordResponse(getUrl(fast), TimeUnit.MILLISECONDS.toNanos(10));
+        statistics.recordResponse(getUrl(slow), TimeUnit.MILLISECONDS.toNanos(100));
+        PowerOfTwoChoicesEndpointSelector selector = new PowerOfTwoChoicesEndpointSelector(statistics);
+
+        statistics.recordFailure(getUrl(fast));
+        assertFalse("One failure should not eject the endpoint", statistics.isEjected(getUrl(fast)));
+        assertSame(fast, selector.select(SERVICE_NAME, candidates));
+
+        statistics.recordFailure(getUrl(fast));
+        assertTrue(statistics.isEjected(getUrl(fast)));
+        for (int i = 0; i < SELECTIONS; i++) {
+            assertSame(slow, selector.select(SERVICE_NAME, candidates));
+        }
+
+        // a third candidate which is not ejected is found when both picks are
+        RemoteService other = createRemoteService("other");
+        statistics.recordFailure(getUrl(slow));
+        statistics.recordFailure(getUrl(slow));
+        List<RemoteService> threeCandidates = Arrays.asList(fast, slow, other);
+        for (int i = 0; i < SELECTIONS; i++) {
+            assertSame(other, selector.select(SERVICE_NAME, threeCandidates));
+        }
+
+        // with every endpoint ejected, one is still returned
+        statistics.recordFailure(getUrl(other));
+        statistics.recordFailure(getUrl(other));
+        assertNotNull(selector.select(SERVICE_NAME, threeCandidates));
+    }
+
+    @Test
+    public void testResponseClearsFailures() {
+        EndpointStatistics statistics = new EndpointStatistics(2, 30);
+        statistics.recordFailure(getUrl(fast));
+        statistics.recordResponse(getUrl(fast), TimeUnit.MILLISECONDS.toNanos(10));
+        statistics.recordFailure(getUrl(fast));
+        assertFalse("A response should reset the failures in a row", statistics.isEjected(getUrl(fast)));
+    }
+
+    @Test
+    public void testEjectionDisabled() {
+        EndpointStatistics statistics = new EndpointStatistics(0, 30);
+        for (int i = 0; i < 10; i++) {
+            statistics.recordFailure(getUrl(fast));
+        }
+        assertFalse(statistics.isEjected(getUrl(fast)));
+    }
+
+    @Test
+    public void testEjectionExpires() throws Exception {
+        EndpointStatistics statistics = new EndpointStatistics(1, 1);
+        statistics.recordResponse(getUrl(fast), TimeUnit.MILLISECONDS.toNanos(10));
+        statistics.recordResponse(getUrl(slow), TimeUnit.MILLISECONDS.toNanos(100));
+        PowerOfTwoChoicesEndpointSelector selector = new PowerOfTwoChoicesEndpointSelector(statistics);
+
+        statistics.recordFailure(getUrl(fast));
+        assertTrue(statistics.isEjected(getUrl(fast)));
+        assertSame(slow, selector.select(SERVICE_NAME, candidates));
+
+        Thread.sleep(1100);
+        assertFalse("The ejection should have expired", statistics.isEjected(getUrl(fast)));
+        assertSame(fast, selector.select(SERVICE_NAME, candidates));
+    }
+
+    @Test
+    public void testRemove() {
+        EndpointStatistics statistics = new EndpointStatistics(1, 30);
+        statistics.recordResponse(getUrl(fast), TimeUnit.MILLISECONDS.toNanos(10));
+        statistics.recordFailure(getUrl(fast));
+        statistics.remove(getUrl(fast));
+        assertFalse(statistics.isEjected(getUrl(fast)));
+        assertEquals(0, statistics.getLatencyNanos(getUrl(fast)));
+    }
+
+    private RemoteService createRemoteService(String name) {
+        ServiceInfo.Builder serviceInfo = ServiceInfo.Builder.create();
+        serviceInfo.setServiceId(name);
+        serviceInfo.setServiceDescriptorId(name);
+        serviceInfo.setServiceName(SERVICE_NAME);
+        serviceInfo.setEndpointUrl("http://" + name + ".example.org/kr/remoting/service");
+        serviceInfo.setInstanceId(name);
+        serviceInfo.setApplicationId("TEST");
+        serviceInfo.setServerIpAddress("10.0.0.1");
+        serviceInfo.setType("javaSerialization");
+        serviceInfo.setServiceVersion("1");
+        serviceInfo.setStatus(ServiceEndpointStatus.ONLINE);
+        serviceInfo.setChecksum(name);
+        return new RemoteService(serviceInfo.build(), serviceRegistry);
+    }
+
+    private static String getUrl(RemoteService remoteService) {
+        return remoteService.getServiceInfo().getEndpointUrl();
+    }
+
+}
@@ -0,0 +1,175 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.impl.bus;
+
+import org.kuali.rice.ksb.api.bus.Endpoint;
+import org.kuali.rice.ksb.api.bus.support.JavaServiceConfiguration;
+import org.kuali.rice.ksb.api.registry.ServiceDescriptor;
+import org.kuali.rice.ksb.api.registry.ServiceEndpointStatus;
+import org.kuali.rice.ksb.api.registry.ServiceInfo;
+import org.kuali.rice.ksb.api.registry.ServiceRegistry;
+import org.kuali.rice.ksb.impl.bus.diff.RemoteServicesDiff;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.xml.namespace.QName;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of concurrent endpoint lookups on a {@link ServiceBusImpl} with many remote services,
+ * with random and power of two choices endpoint selection.
+ *
+ * <p>This is not a unit test; run it with {@link #main(String[])} from the test classpath.</p>
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@Threads(8)
+public class ServiceLookupBenchmark {
+
+    private static final int SERVICES = 200;
+
+    private static final int ENDPOINTS_PER_SERVICE = 4;
+
+    private static final String NAMESPACE = "http://rice.kuali.org/benchmark";
+
+    @Param({"random", "powerOfTwoChoices"})
+    public String selector;
+
+    private ServiceBusImpl serviceBus;
+    private QName[] serviceNames;
+
+    @Setup
+    public void setUp() throws MalformedURLException {
+        EndpointStatistics statistics = new EndpointStatistics(EndpointStatistics.DEFAULT_EJECTION_FAILURES,
+                EndpointStatistics.DEFAULT_EJECTION_SECONDS);
+
+        final Map<String, ServiceDescriptor> descriptors = new HashMap<String, ServiceDescriptor>();
+        List<ServiceInfo> serviceInfos = new ArrayList<ServiceInfo>();
+        serviceNames = new QName[SERVICES];
+        for (int service = 0; service < SERVICES; service++) {
+            serviceNames[service] = new QName(NAMESPACE, "service" + service);
+            for (int endpoint = 0; endpoint < ENDPOINTS_PER_SERVICE; endpoint++) {
+                String id = service + "-" + endpoint;
+                URL endpointUrl = new URL("http://node" + endpoint + ".example.org/kr/remoting/service" + service);
+
+                JavaServiceConfiguration.Builder configuration = JavaServiceConfiguration.Builder.create();
+                configuration.setServiceName(serviceNames[service]);
+                configuration.setEndpointUrl(endpointUrl);
+                configuration.setApplicationId("BENCH");
+                configuration.setInstanceId("node" + endpoint);
+                configuration.setServiceVersion("1");
+                configuration.setType("javaSerialization");
+                ServiceDescriptor.Builder descriptor = ServiceDescriptor.Builder.create();
+                descriptor.setId(id);
+                descriptor.setDescriptor(ServiceConfigurationSerializationHandler.marshallToXml(configuration.build()));
+                descriptors.put(id, descriptor.build());
+
+                ServiceInfo.Builder serviceInfo = ServiceInfo.Builder.create();
+                serviceInfo.setServiceId(id);
+                serviceInfo.setServiceDescriptorId(id);
+                serviceInfo.setServiceName(serviceNames[service]);
+                serviceInfo.setEndpointUrl(endpointUrl.toExternalForm());
+                serviceInfo.setInstanceId("node" + endpoint);
+                serviceInfo.setApplicationId("BENCH");
+                serviceInfo.setServerIpAddress("10.0.0." + endpoint);
+                serviceInfo.setType("javaSerialization");
+                serviceInfo.setServiceVersion("1");
+                serviceInfo.setStatus(ServiceEndpointStatus.ONLINE);
+                serviceInfo.setChecksum(id);
+                serviceInfos.add(serviceInfo.build());
+
+                // each node answers a little slower than the previous one
+                statistics.recordResponse(endpointUrl.toExternalForm(),
+                        TimeUnit.MILLISECONDS.toNanos(10 + endpoint * 10));
+            }
+        }
+
+        ServiceRegistry serviceRegistry = (ServiceRegistry) Proxy.newProxyInstance(
+                ServiceRegistry.class.getClassLoader(), new Class<?>[] {ServiceRegistry.class},
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        if ("getServiceDescriptor".equals(method.getName())) {
+                            return descriptors.get(args[0]);
+                        }
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+
+        serviceBus = new ServiceBusImpl();
+        serviceBus.setServiceRegistry(serviceRegistry);
+        serviceBus.setEndpointStatistics(statistics);
+        serviceBus.setEndpointSelector("random".equals(selector) ? new RandomEndpointSelector() :
+                new PowerOfTwoChoicesEndpointSelector(statistics));
+        serviceBus.processRemoteServiceDiff(new RemoteServicesDiff(serviceInfos,
+                Collections.<RemoteService>emptyList()));
+
+        // resolve the endpoints up front so the benchmark does not measure their unmarshalling
+        for (QName serviceName : serviceNames) {
+            serviceBus.getRemoteEndpoints(serviceName);
+        }
+    }
+
+    @Benchmark
+    public Endpoint getEndpoint() {
+        return serviceBus.getEndpoint(serviceNames[ThreadLocalRandom.current().nextInt(SERVICES)]);
+    }
+
+    @Benchmark
+    public Endpoint getEndpointForApplication() {
+        return serviceBus.getEndpoint(serviceNames[ThreadLocalRandom.current().nextInt(SERVICES)], "BENCH");
+    }
+
+    @Benchmark
+    public List<Endpoint> getEndpoints() {
+        return serviceBus.getEndpoints(serviceNames[ThreadLocalRandom.current().nextInt(SERVICES)]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ServiceLookupBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
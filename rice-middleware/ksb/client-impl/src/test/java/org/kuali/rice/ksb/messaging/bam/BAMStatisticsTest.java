@@ -0,0 +1,135 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.messaging.bam;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the {@link BAMStatistics} and the latency histograms of {@link BAMInvocationStatistics}.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class BAMStatisticsTest {
+
+    private static final double DELTA = 0.000001;
+
+    @Test
+    public void testBucketBounds() {
+        assertBucket(0, 0);
+        assertBucket(0, 999);
+        assertBucket(1, TimeUnit.MICROSECONDS.toNanos(1));
+        assertBucket(1, TimeUnit.MICROSECONDS.toNanos(2) - 1);
+        assertBucket(2, TimeUnit.MICROSECONDS.toNanos(2));
+        assertBucket(10, TimeUnit.MICROSECONDS.toNanos(1023));
+        assertBucket(11, TimeUnit.MICROSECONDS.toNanos(1024));
+        assertBucket(0, -1);
+        // anything longer than the last bucket is counted in it
+        assertBucket(39, TimeUnit.DAYS.toNanos(30));
+    }
+
+    @Test
+    public void testPercentiles() {
+        BAMInvocationStatistics statistics = new BAMInvocationStatistics("service", "method", false);
+        assertEquals(0, statistics.getMedianMillis(), DELTA);
+        assertEquals(0, statistics.getAverageMillis(), DELTA);
+
+        for (int i = 0; i < 90; i++) {
+            statistics.record(TimeUnit.MICROSECONDS.toNanos(100), false);
+        }
+        for (int i = 0; i < 10; i++) {
+            statistics.record(TimeUnit.MILLISECONDS.toNanos(10), true);
+        }
+
+        assertEquals(100, statistics.getCount());
+        assertEquals(10, statistics.getFailures());
+        assertEquals(1.09, statistics.getAverageMillis(), DELTA);
+        assertEquals(10, statistics.getMaxMillis(), DELTA);
+        // 100 microseconds fall in the bucket ending at 128 microseconds
+        assertEquals(0.128, statistics.getMedianMillis(), DELTA);
+        assertEquals(0.128, statistics.getNinetiethPercentileMillis(), DELTA);
+        // the bucket holding 10 milliseconds ends at 16.384 milliseconds, capped at the maximum latency
+        assertEquals(10, statistics.getNinetyNinthPercentileMillis(), DELTA);
+        assertEquals(0.128, statistics.getPercentileMillis(0), DELTA);
+        assertEquals(10, statistics.getPercentileMillis(100), DELTA);
+    }
+
+    @Test
+    public void testInvocationsGroupedByMethod() {
+        BAMStatistics statistics = new BAMStatistics();
+        statistics.recordInvocation("{urn:test}b", "run", false, 1000, false);
+        statistics.recordInvocation("{urn:test}a", "run", true, 1000, false);
+        statistics.recordInvocation("{urn:test}a", "run", false, 1000, false);
+        statistics.recordInvocation("{urn:test}a", "run", false, 2000, true);
+        statistics.recordInvocation("{urn:test}a", "cancel", false, 1000, false);
+
+        List<BAMInvocationStatistics> invocations = statistics.getInvocationStatistics();
+        assertEquals(4, invocations.size());
+        assertInvocation(invocations.get(0), "{urn:test}a", "cancel", false, 1);
+        assertInvocation(invocations.get(1), "{urn:test}a", "run", false, 2);
+        assertInvocation(invocations.get(2), "{urn:test}a", "run", true, 1);
+        assertInvocation(invocations.get(3), "{urn:test}b", "run", false, 1);
+        assertEquals(1, invocations.get(1).getFailures());
+    }
+
+    @Test
+    public void testEntryCounts() {
+        BAMStatistics statistics = new BAMStatistics();
+        statistics.recordSampledEntry();
+        statistics.recordSampledEntry();
+        statistics.recordWrittenEntries(3);
+        statistics.recordLostEntries(2);
+        assertEquals(1, statistics.recordDroppedEntry());
+        assertEquals(2, statistics.recordDroppedEntry());
+
+        assertEquals(2, statistics.getSampledEntries());
+        assertEquals(3, statistics.getWrittenEntries());
+        assertEquals(2, statistics.getLostEntries());
+        assertEquals(2, statistics.getDroppedEntries());
+
+        statistics.recordInvocation("{urn:test}a", "run", false, 1000, false);
+        statistics.clear();
+        assertEquals(0, statistics.getSampledEntries());
+        assertEquals(0, statistics.getWrittenEntries());
+        assertEquals(0, statistics.getLostEntries());
+        assertEquals(0, statistics.getDroppedEntries());
+        assertTrue(statistics.getInvocationStatistics().isEmpty());
+        assertEquals(1, statistics.recordDroppedEntry());
+    }
+
+    private static void assertBucket(int expectedBucket, long elapsedNanos) {
+        BAMInvocationStatistics statistics = new BAMInvocationStatistics("service", "method", false);
+        statistics.record(elapsedNanos, false);
+        long[] counts = statistics.getBucketCounts();
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            assertEquals("Bucket " + bucket + " for " + elapsedNanos + "ns", bucket == expectedBucket ? 1 : 0,
+                    counts[bucket]);
+        }
+    }
+
+    private static void assertInvocation(BAMInvocationStatistics invocation, String serviceName, String methodName,
+            boolean serverInvocation, long count) {
+        assertEquals(serviceName, invocation.getServiceName());
+        assertEquals(methodName, invocation.getMethodName());
+        assertEquals(serverInvocation, invocation.isServerInvocation());
+        assertEquals(count, invocation.getCount());
+    }
+
+}
@@ -0,0 +1,241 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.messaging.bam.service.impl;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.kuali.rice.core.api.config.property.Config;
+import org.kuali.rice.core.api.config.property.ConfigContext;
+import org.kuali.rice.core.framework.config.property.SimpleConfig;
+import org.kuali.rice.krad.data.DataObjectService;
+import org.kuali.rice.ksb.api.bus.ServiceConfiguration;
+import org.kuali.rice.ksb.api.bus.support.JavaServiceConfiguration;
+import org.kuali.rice.ksb.messaging.bam.BAMTargetEntry;
+import org.kuali.rice.ksb.util.KSBConstants;
+
+import javax.xml.namespace.QName;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the sampling and the queueing of the BAM entries by the {@link BAMServiceImpl}.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class BAMServiceImplTest {
+
+    private static final QName SERVICE_NAME = new QName("urn:test", "service");
+
+    private SimpleConfig config;
+    private BAMServiceImpl bamService;
+    private final List<Object> savedEntries = new ArrayList<Object>();
+    private boolean failSaves;
+    private ServiceConfiguration serviceConfiguration;
+    private Method method;
+
+    @Before
+    public void setUp() throws Exception {
+        config = new SimpleConfig();
+        config.putProperty(Config.BAM_ENABLED, "true");
+        // keeps the background writer from running during the tests
+        config.putProperty(KSBConstants.Config.BAM_WRITE_INTERVAL, "3600000");
+        ConfigContext.init(config);
+
+        JavaServiceConfiguration.Builder builder = JavaServiceConfiguration.Builder.create();
+        builder.setServiceName(SERVICE_NAME);
+        builder.setEndpointUrl(new URL("http://localhost/kr/remoting/service"));
+        builder.setApplicationId("TEST");
+        builder.setInstanceId("node1");
+        builder.setServiceVersion("1");
+        builder.setType("javaSerialization");
+        serviceConfiguration = builder.build();
+        method = Object.class.getMethod("equals", Object.class);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (bamService != null) {
+            bamService.destroy();
+        }
+        ConfigContext.destroy();
+    }
+
+    @Test
+    public void testAsynchronousWrite() {
+        createBAMService();
+        BAMTargetEntry entry = bamService.recordClientInvocation(serviceConfiguration, "target", method,
+                new Object[] {"argument", 1});
+        assertNotNull(entry);
+        assertTrue("The entry should not be written on the calling thread", savedEntries.isEmpty());
+        assertEquals("target", entry.getTarget());
+        assertEquals(1, bamService.getStatistics().getSampledEntries());
+
+        completeInvocation(entry, false);
+        assertEquals(1, bamService.writeQueuedEntries());
+        assertEquals(1, savedEntries.size());
+        assertSame(entry, savedEntries.get(0));
+        assertEquals("target", entry.getTargetToString());
+        assertNull(entry.getTarget());
+        assertEquals(2, entry.getBamParams().size());
+        assertEquals("1", entry.getBamParams().get(1).getParam());
+        assertEquals(1, bamService.getStatistics().getWrittenEntries());
+        assertEquals(0, bamService.writeQueuedEntries());
+    }
+
+    @Test
+    public void testSynchronousWrite() {
+        config.putProperty(KSBConstants.Config.BAM_ASYNCHRONOUS, "false");
+        createBAMService();
+        BAMTargetEntry entry = bamService.recordClientInvocation(serviceConfiguration, "target", method, null);
+        assertEquals(1, savedEntries.size());
+        assertEquals("target", entry.getTargetToString());
+        assertEquals(1, bamService.getStatistics().getWrittenEntries());
+
+        completeInvocation(entry, false);
+        assertEquals(0, bamService.writeQueuedEntries());
+        assertEquals(1, bamService.getStatistics().getInvocationStatistics().get(0).getCount());
+    }
+
+    @Test
+    public void testNotSampled() {
+        config.putProperty(KSBConstants.Config.BAM_SAMPLE_RATE, "0");
+        createBAMService();
+        for (int i = 0; i < 10; i++) {
+            BAMTargetEntry entry = bamService.recordClientInvocation(serviceConfiguration, "target", method, null);
+            assertNull(entry);
+            completeInvocation(entry, i % 2 == 0);
+        }
+
+        assertEquals(0, bamService.writeQueuedEntries());
+        assertEquals(0, bamService.getStatistics().getSampledEntries());
+        // the latency of every invocation is kept even though none is written
+        assertEquals(10, bamService.getStatistics().getInvocationStatistics().get(0).getCount());
+        assertEquals(5, bamService.getStatistics().getInvocationStatistics().get(0).getFailures());
+    }
+
+    @Test
+    public void testBufferFull() {
+        config.putProperty(KSBConstants.Config.BAM_BUFFER_SIZE, "2");
+        createBAMService();
+        for (int i = 0; i < 3; i++) {
+            completeInvocation(recordInvocation("target" + i), false);
+        }
+
+        assertEquals(1, bamService.getStatistics().getDroppedEntries());
+        assertEquals(2, bamService.writeQueuedEntries());
+        assertEquals(2, bamService.getStatistics().getWrittenEntries());
+    }
+
+    @Test
+    public void testBatchSize() {
+        config.putProperty(KSBConstants.Config.BAM_BATCH_SIZE, "2");
+        createBAMService();
+        for (int i = 0; i < 5; i++) {
+            completeInvocation(recordInvocation("target" + i), false);
+        }
+
+        assertEquals(2, bamService.writeQueuedEntries());
+        assertEquals(2, bamService.writeQueuedEntries());
+        assertEquals(1, bamService.writeQueuedEntries());
+        assertEquals(5, savedEntries.size());
+    }
+
+    @Test
+    public void testSerializationFailureLosesOnlyItsEntry() {
+        createBAMService();
+        completeInvocation(recordInvocation("first"), false);
+        completeInvocation(recordInvocation(new Object() {
+            @Override
+            public String toString() {
+                throw new IllegalStateException("cannot be printed");
+            }
+        }), false);
+        completeInvocation(recordInvocation("third"), false);
+
+        assertEquals(3, bamService.writeQueuedEntries());
+        assertEquals(2, savedEntries.size());
+        assertEquals(2, bamService.getStatistics().getWrittenEntries());
+        assertEquals(1, bamService.getStatistics().getLostEntries());
+    }
+
+    @Test
+    public void testSaveFailureCountsLostEntries() {
+        createBAMService();
+        completeInvocation(recordInvocation("first"), false);
+        completeInvocation(recordInvocation("second"), false);
+        failSaves = true;
+
+        try {
+            bamService.writeQueuedEntries();
+            fail("The save failure should be thrown to roll back the batch");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assertEquals(0, bamService.getStatistics().getWrittenEntries());
+        assertEquals(2, bamService.getStatistics().getLostEntries());
+    }
+
+    @Test
+    public void testInvalidConfiguration() {
+        config.putProperty(KSBConstants.Config.BAM_SAMPLE_RATE, "often");
+        config.putProperty(KSBConstants.Config.BAM_BUFFER_SIZE, "-1");
+        config.putProperty(KSBConstants.Config.BAM_BATCH_SIZE, "many");
+        config.putProperty(KSBConstants.Config.BAM_WRITE_INTERVAL, "0");
+        createBAMService();
+
+        // falls back to sampling every invocation
+        completeInvocation(recordInvocation("target"), false);
+        assertEquals(1, bamService.getStatistics().getSampledEntries());
+        assertEquals(1, bamService.writeQueuedEntries());
+    }
+
+    private void createBAMService() {
+        bamService = new BAMServiceImpl();
+        bamService.setDataObjectService((DataObjectService) Proxy.newProxyInstance(
+                DataObjectService.class.getClassLoader(), new Class<?>[] {DataObjectService.class},
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        if ("save".equals(method.getName())) {
+                            if (failSaves) {
+                                throw new IllegalStateException("save failed");
+                            }
+                            savedEntries.add(args[0]);
+                            return args[0];
+                        }
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                }));
+    }
+
+    private BAMTargetEntry recordInvocation(Object target) {
+        BAMTargetEntry entry = bamService.recordClientInvocation(serviceConfiguration, target, method, null);
+        assertNotNull(entry);
+        return entry;
+    }
+
+    private void completeInvocation(BAMTargetEntry entry, boolean failed) {
+        bamService.recordInvocationCompleted(entry, SERVICE_NAME, method.getName(), false, 1000, failed);
+    }
+
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.messaging.payload;
+
+import org.junit.Test;
+import org.kuali.rice.core.api.util.io.SerializationUtils;
+import org.kuali.rice.ksb.api.messaging.AsynchronousCall;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the {@link PayloadCodecs} and the codecs registered with it.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class PayloadCodecsTest {
+
+    @Test
+    public void testRoundTrip() {
+        AsynchronousCall call = createCall(1);
+        String payload = PayloadCodecs.encode(call);
+        assertEquals(CompressedPayloadCodec.FORMAT_ID, PayloadCodecs.getFormatId(payload));
+        assertCallsEqual(call, PayloadCodecs.decode(payload));
+
+        AsynchronousCall largeCall = createCall(500);
+        payload = PayloadCodecs.encode(largeCall);
+        assertCallsEqual(largeCall, PayloadCodecs.decode(payload));
+    }
+
+    @Test
+    public void testLegacyPayloadsAreReadable() {
+        AsynchronousCall call = createCall(10);
+        String legacyPayload = SerializationUtils.serializeToBase64(call);
+        assertNull(PayloadCodecs.getFormatId(legacyPayload));
+        assertCallsEqual(call, PayloadCodecs.decode(legacyPayload));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownFormat() {
+        PayloadCodecs.decode("UNKNOWN:AAAA");
+    }
+
+    @Test
+    public void testCompressedPayloadIsSmaller() {
+        AsynchronousCall call = createCall(500);
+        String legacyPayload = new JavaSerializationPayloadCodec().encode(call);
+        String compressedPayload = new CompressedPayloadCodec().encode(call);
+        assertEquals(CompressedPayloadCodec.FORMAT_ID, PayloadCodecs.getFormatId(compressedPayload));
+        assertCallsEqual(call, new CompressedPayloadCodec().decode(compressedPayload));
+        assertTrue("Compressed payload should be smaller than the legacy payload",
+                compressedPayload.length() < legacyPayload.length());
+    }
+
+    /**
+     * Creates a call resembling a KEW routing message, with an argument list of the given number of entries.
+     */
+    private AsynchronousCall createCall(int size) {
+        ArrayList<String> actionRequestIds = new ArrayList<String>();
+        for (int i = 0; i < size; i++) {
+            actionRequestIds.add("ACTION-REQUEST-" + (100000 + i));
+        }
+        return new AsynchronousCall(new Class<?>[] {String.class, ArrayList.class},
+                new Object[] {"DOCUMENT-1234567", actionRequestIds}, null, "processDocument", null, (Serializable) null);
+    }
+
+    private void assertCallsEqual(AsynchronousCall expected, AsynchronousCall actual) {
+        assertEquals(expected.getMethodName(), actual.getMethodName());
+        assertTrue(Arrays.equals(expected.getParamTypes(), actual.getParamTypes()));
+        assertTrue(Arrays.equals(expected.getArguments(), actual.getArguments()));
+    }
+
+}
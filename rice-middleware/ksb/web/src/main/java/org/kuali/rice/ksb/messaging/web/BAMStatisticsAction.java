@@ -0,0 +1,65 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.messaging.web;
+
+import org.apache.struts.action.ActionForm;
+import org.apache.struts.action.ActionForward;
+import org.apache.struts.action.ActionMapping;
+import org.apache.struts.action.ActionMessages;
+import org.kuali.rice.core.api.config.property.Config;
+import org.kuali.rice.core.api.config.property.ConfigContext;
+import org.kuali.rice.ksb.messaging.bam.service.BAMService;
+import org.kuali.rice.ksb.service.KSBServiceLocator;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+
+/**
+ * Struts action for viewing the in-memory latency statistics of the service calls recorded by the BAM.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ */
+public class BAMStatisticsAction extends KSBAction {
+
+    public ActionForward start(ActionMapping mapping, ActionForm form, HttpServletRequest request,
+	    HttpServletResponse response) throws IOException, ServletException {
+	return mapping.findForward("basic");
+    }
+
+    public ActionForward clear(ActionMapping mapping, ActionForm form, HttpServletRequest request,
+	    HttpServletResponse response) throws IOException, ServletException {
+	BAMService bamService = KSBServiceLocator.getBAMService();
+	if (bamService != null) {
+	    bamService.getStatistics().clear();
+	}
+	return mapping.findForward("restart");
+    }
+
+    public ActionMessages establishRequiredState(HttpServletRequest request, ActionForm actionForm) throws Exception {
+	BAMStatisticsForm form = (BAMStatisticsForm)actionForm;
+	form.setBamEnabled(Boolean.valueOf(ConfigContext.getCurrentContextConfig().getProperty(Config.BAM_ENABLED)));
+	BAMService bamService = KSBServiceLocator.getBAMService();
+	if (bamService != null) {
+	    form.setStatistics(bamService.getStatistics());
+	    form.setInvocationStatistics(bamService.getStatistics().getInvocationStatistics());
+	}
+	return null;
+    }
+
+}
@@ -0,0 +1,65 @@
+/**
+ * Copyright 2005-2015 The Kuali Foundation
+ *
+ * Licensed under the Educational Community License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.opensource.org/licenses/ecl2.php
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kuali.rice.ksb.messaging.web;
+
+import org.apache.struts.action.ActionForm;
+import org.kuali.rice.ksb.messaging.bam.BAMInvocationStatistics;
+import org.kuali.rice.ksb.messaging.bam.BAMStatistics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Struts ActionForm for the {@link BAMStatisticsAction}.
+ *
+ * @author Kuali Rice Team (rice.collab@kuali.org)
+ *
+ */
+public class BAMStatisticsForm extends ActionForm {
+
+    private static final long serialVersionUID = 2416315086129452279L;
+
+    private String methodToCall;
+    private boolean bamEnabled;
+    private BAMStatistics statistics;
+    private List<BAMInvocationStatistics> invocationStatistics = new ArrayList<BAMInvocationStatistics>();
+
+    public String getMethodToCall() {
+        return this.methodToCall;
+    }
+    public void setMethodToCall(String methodToCall) {
+        this.methodToCall = methodToCall;
+    }
+    public boolean isBamEnabled() {
+        return this.bamEnabled;
+    }
+    public void setBamEnabled(boolean bamEnabled) {
+        this.bamEnabled = bamEnabled;
+    }
+    public BAMStatistics getStatistics() {
+        return this.statistics;
+    }
+    public void setStatistics(BAMStatistics statistics) {
+        this.statistics = statistics;
+    }
+    public List<BAMInvocationStatistics> getInvocationStatistics() {
+        return this.invocationStatistics;
+    }
+    public void setInvocationStatistics(List<BAMInvocationStatistics> invocationStatistics) {
+        this.invocationStatistics = invocationStatistics;
+    }
+}
@@ -28,13 +28,13 @@ import org.kuali.rice.core.api.config.property.ConfigContext;
 import org.kuali.rice.core.api.util.ConcreteKeyValue;
 import org.kuali.rice.core.api.util.RiceConstants;
 import org.kuali.rice.core.api.util.RiceUtilities;
-import org.kuali.rice.core.api.util.io.SerializationUtils;
 import org.kuali.rice.ksb.api.KsbApiServiceLocator;
 import org.kuali.rice.ksb.api.messaging.AsynchronousCall;
 import org.kuali.rice.ksb.api.registry.ServiceInfo;
 import org.kuali.rice.ksb.messaging.MessageFetcher;
 import org.kuali.rice.ksb.messaging.MessageServiceInvoker;
 import org.kuali.rice.ksb.messaging.PersistedMessageBO;
+import org.kuali.rice.ksb.messaging.payload.PayloadCodecs;
 import org.kuali.rice.ksb.messaging.service.MessageQueueService;
 import org.kuali.rice.ksb.service.KSBServiceLocator;
 import org.kuali.rice.ksb.util.KSBConstants;
@@ -416,7 +416,7 @@ public class MessageQueueAction extends KSBAction {
 	}
 	Object decodedPayload = null;
 	if (encodedPayload != null) {
-	    decodedPayload = SerializationUtils.deserializeFromBase64(encodedPayload);
+	    decodedPayload = PayloadCodecs.decode(encodedPayload);
 	}
 	// fail fast if its not the expected type of AsynchronousCall
 	if ((decodedPayload != null) && !(decodedPayload instanceof AsynchronousCall)) {
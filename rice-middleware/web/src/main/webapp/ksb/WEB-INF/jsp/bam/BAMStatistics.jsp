@@ -0,0 +1,109 @@
+<%--
+
+    Copyright 2005-2015 The Kuali Foundation
+
+    Licensed under the Educational Community License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+    http://www.opensource.org/licenses/ecl2.php
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+
+<%@ taglib uri="http://struts.apache.org/tags-bean-el" prefix="bean-el"%>
+<%@ taglib uri="http://www.kuali.org/struts.apache.org/tags-html-el" prefix="html-el"%>
+<%@ taglib uri="http://struts.apache.org/tags-logic-el" prefix="logic-el"%>
+<%@ taglib uri="http://java.sun.com/jsp/jstl/core" prefix="c"%>
+<%@ taglib uri="http://java.sun.com/jsp/jstl/fmt" prefix="fmt"%>
+<%@ taglib uri="http://displaytag.sf.net" prefix="display"%>
+<%@ taglib tagdir="/WEB-INF/tags/kr" prefix="kul"%>
+
+<html-el:html>
+<head>
+<title>BAM Statistics</title>
+<style type="text/css">
+   .highlightrow {}
+   tr.highlightrow:hover, tr.over td { background-color: #66FFFF; }
+</style>
+<link href="css/kuali.css" rel="stylesheet" type="text/css">
+<link href="css/screen.css" rel="stylesheet" type="text/css">
+<script language="JavaScript" src="scripts/en-common.js"></script>
+<script language="JavaScript" src="scripts/messagequeue-common.js"></script>
+</head>
+
+<body>
+<kul:testBanner />
+<table width="100%" border=0 cellpadding=0 cellspacing=0 class="headercell1">
+  <tr>
+    <td width="15%"><img src="images/wf-logo.gif" alt="Workflow" width=150 height=21 hspace=5 vspace=5></td>
+    <td width="85%"><a href="BAMStatistics.do?methodToCall=start">Refresh Page</a>&nbsp;&nbsp;<a href="BAMStatistics.do?methodToCall=clear">Reset Statistics</a></td>
+    <td>&nbsp;&nbsp;</td>
+  </tr>
+</table>
+
+  <table width="100%" border=0 cellspacing=0 cellpadding=0>
+  <tr>
+        <td width="20" height="20">&nbsp;</td>
+  	<td>
+
+      <br>
+  	  <jsp:include page="../Messages.jsp"/>
+      <br>
+
+bam.enabled: <c:out value="${BAMStatisticsForm.bamEnabled}"/><br>
+Sampled Calls: <c:out value="${BAMStatisticsForm.statistics.sampledEntries}"/><br>
+Written Calls: <c:out value="${BAMStatisticsForm.statistics.writtenEntries}"/><br>
+Dropped Calls: <c:out value="${BAMStatisticsForm.statistics.droppedEntries}"/><br>
+Lost Calls: <c:out value="${BAMStatisticsForm.statistics.lostEntries}"/><br>
+<br>
+		  <display:table excludedParams="*" class="bord-r-t" style="width:100%" cellspacing="0" cellpadding="0" name="${BAMStatisticsForm.invocationStatistics}" id="result" requestURI="BAMStatistics.do?methodToCall=start" defaultsort="1" defaultorder="ascending"
+				decorator="org.kuali.rice.ksb.messaging.web.KSBTableDecorator">
+		    <display:setProperty name="paging.banner.placement" value="both" />
+		    <display:setProperty name="paging.banner.all_items_found" value=""/>
+		    <display:setProperty name="export.banner" value="" />
+		    <display:setProperty name="basic.msg.empty_list">No Service Calls</display:setProperty>
+		    <display:column class="datacell" sortable="true" title="<div>Service Name</div>" >
+		    	<c:out value="${result.serviceName}"/>&nbsp;
+		    </display:column>
+		    <display:column class="datacell" sortable="true" title="<div>Method</div>" >
+		    	<c:out value="${result.methodName}"/>&nbsp;
+		    </display:column>
+		    <display:column style="text-align:center;vertical-align:middle;" class="datacell" sortable="true" title="<div style='text-align:center;vertical-align:top;'>Side</div>" >
+		    	<c:out value="${result.serverInvocation ? 'Server' : 'Client'}"/>&nbsp;
+		    </display:column>
+		    <display:column style="text-align:right;vertical-align:middle;" class="datacell" sortable="true" property="count" title="<div style='text-align:center;vertical-align:top;'>Calls</div>" />
+		    <display:column style="text-align:right;vertical-align:middle;" class="datacell" sortable="true" property="failures" title="<div style='text-align:center;vertical-align:top;'>Failures</div>" />
+		    <display:column style="text-align:right;vertical-align:middle;" class="datacell" sortable="true" title="<div style='text-align:center;vertical-align:top;'>Average (ms)</div>" >
+		    	<fmt:formatNumber value="${result.averageMillis}" maxFractionDigits="3"/>
+		    </display:column>
+		    <display:column style="text-align:right;vertical-align:middle;" class="datacell" sortable="true" title="<div style='text-align:center;vertical-align:top;'>Median (ms)</div>" >
+		    	<fmt:formatNumber value="${result.medianMillis}" maxFractionDigits="3"/>
+		    </display:column>
+		    <display:column style="text-align:right;vertical-align:middle;" class="datacell" sortable="true" title="<div style='text-align:center;vertical-align:top;'>90% (ms)</div>" >
+		    	<fmt:formatNumber value="${result.ninetiethPercentileMillis}" maxFractionDigits="3"/>
+		    </display:column>
+		    <display:column style="text-align:right;vertical-align:middle;" class="datacell" sortable="true" title="<div style='text-align:center;vertical-align:top;'>99% (ms)</div>" >
+		    	<fmt:formatNumber value="${result.ninetyNinthPercentileMillis}" maxFractionDigits="3"/>
+		    </display:column>
+		    <display:column style="text-align:right;vertical-align:middle;" class="datacell" sortable="true" title="<div style='text-align:center;vertical-align:top;'>Max (ms)</div>" >
+		    	<fmt:formatNumber value="${result.maxMillis}" maxFractionDigits="3"/>
+		    </display:column>
+		  </display:table>
+<br>
+Percentiles are the upper bound of the histogram bucket they fall in.
+</td>
+</tr>
+  <tr>
+        <td width="20" height="20">&nbsp;</td>
+  </tr>
+
+</table>
+<br>
+<jsp:include page="../Footer.jsp"/>
+
+</body>
+</html-el:html>